@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.benchmarks;
+
+/**
+ * A micro-benchmark, run by Benchmarks.
+ */
+public interface Benchmark
+{
+	/**
+	 * Runs the benchmark and prints its results as a table.
+	 * 
+	 * @throws Exception If the benchmark cannot run.
+	 */
+	void run() throws Exception;
+	
+	/**
+	 * @return True if the benchmark must run on the JavaFX application thread.
+	 */
+	default boolean runsOnFxThread()
+	{
+		return false;
+	}
+}
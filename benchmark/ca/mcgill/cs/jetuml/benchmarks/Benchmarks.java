@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.benchmarks;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.FutureTask;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.gui.BenchmarkFrameTime;
+import ca.mcgill.cs.jetuml.persistence.BenchmarkBinary;
+import ca.mcgill.cs.jetuml.persistence.BenchmarkCompression;
+import ca.mcgill.cs.jetuml.persistence.BenchmarkDecode;
+import ca.mcgill.cs.jetuml.persistence.BenchmarkOpen;
+import ca.mcgill.cs.jetuml.persistence.BenchmarkSave;
+import ca.mcgill.cs.jetuml.views.BenchmarkEdgeAdjacency;
+import ca.mcgill.cs.jetuml.views.BenchmarkOverview;
+import ca.mcgill.cs.jetuml.views.BenchmarkSequenceLayout;
+import ca.mcgill.cs.jetuml.views.BenchmarkShadows;
+import ca.mcgill.cs.jetuml.views.BenchmarkStringMeasurement;
+import javafx.application.Platform;
+
+/**
+ * Runs the micro-benchmarks, and provides the measurements they use. 
+ * Benchmarks are kept in their own source folder, apart from the unit tests,
+ * and are run with this class only: "Benchmarks" runs all of them, and 
+ * "Benchmarks BenchmarkShadows BenchmarkOverview" runs the benchmarks with 
+ * these class names. Results are indicative only: they are meant to compare 
+ * two strategies on the same machine and JVM.
+ */
+public final class Benchmarks
+{
+	private static final int DEFAULT_WARMUP = 5;
+	private static final int DEFAULT_RUNS = 15;
+	private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+	
+	private static final List<Benchmark> BENCHMARKS = List.of(
+			new BenchmarkEdgeAdjacency(), 
+			new BenchmarkSequenceLayout(), 
+			new BenchmarkStringMeasurement(), 
+			new BenchmarkOverview(), 
+			new BenchmarkShadows(), 
+			new BenchmarkFrameTime(), 
+			new BenchmarkSave(), 
+			new BenchmarkOpen(), 
+			new BenchmarkDecode(), 
+			new BenchmarkBinary(), 
+			new BenchmarkCompression());
+	
+	private Benchmarks() {}
+	
+	/**
+	 * Runs the benchmarks named in pArgs, or all the benchmarks if there 
+	 * are no arguments, then stops the JavaFX toolkit.
+	 * 
+	 * @param pArgs The simple names of the classes of the benchmarks to run.
+	 * @throws Exception If a benchmark fails.
+	 */
+	public static void main(String[] pArgs) throws Exception
+	{
+		JavaFXLoader.load();
+		List<String> names = Arrays.asList(pArgs);
+		for( Benchmark benchmark : BENCHMARKS )
+		{
+			String name = benchmark.getClass().getSimpleName();
+			if( names.isEmpty() || names.contains(name) )
+			{
+				System.out.println(name);
+				run(benchmark);
+				System.out.println();
+			}
+		}
+		Platform.exit();
+		System.exit(0);
+	}
+	
+	/*
+	 * Runs pBenchmark on the JavaFX application thread if it requires it, 
+	 * and on the current thread otherwise, and waits for it to complete.
+	 */
+	private static void run(Benchmark pBenchmark) throws Exception
+	{
+		FutureTask<Void> task = new FutureTask<>(() -> 
+		{
+			pBenchmark.run();
+			return null;
+		});
+		if( pBenchmark.runsOnFxThread() )
+		{
+			Platform.runLater(task);
+		}
+		else
+		{
+			task.run();
+		}
+		task.get();
+	}
+	
+	/**
+	 * Runs pTask a number of times to warm up the JVM, then times it.
+	 * 
+	 * @param pTask The task to time.
+	 * @return The median execution time of pTask, in milliseconds.
+	 * @pre pTask != null
+	 */
+	public static double medianMillis(Runnable pTask)
+	{
+		return medianMillis(pTask, DEFAULT_WARMUP, DEFAULT_RUNS);
+	}
+	
+	/**
+	 * Runs pTask pWarmup times to warm up the JVM, then times pRuns executions.
+	 * 
+	 * @param pTask The task to time.
+	 * @param pWarmup The number of untimed executions.
+	 * @param pRuns The number of timed executions.
+	 * @return The median execution time of pTask, in milliseconds.
+	 * @pre pTask != null && pWarmup >= 0 && pRuns > 0
+	 */
+	public static double medianMillis(Runnable pTask, int pWarmup, int pRuns)
+	{
+		assert pTask != null && pWarmup >= 0 && pRuns > 0;
+		for( int i = 0; i < pWarmup; i++ )
+		{
+			pTask.run();
+		}
+		long[] times = new long[pRuns];
+		for( int i = 0; i < pRuns; i++ )
+		{
+			long start = System.nanoTime();
+			pTask.run();
+			times[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(times);
+		return times[pRuns / 2] / 1_000_000.0;
+	}
+	
+	/**
+	 * Runs pTask once and measures the memory it allocates. The memory allocated
+	 * is the total size of the objects created by the current thread while
+	 * running pTask, whether or not they are still reachable at the end.
+	 * 
+	 * The counter is specific to the HotSpot JVM and lives outside of the 
+	 * modules JetUML requires, so it is looked up reflectively.
+	 * 
+	 * @param pTask The task to measure.
+	 * @return The number of megabytes allocated by pTask, or NaN if the JVM 
+	 *     does not count the memory allocated by threads.
+	 * @pre pTask != null
+	 */
+	public static double allocatedMegabytes(Runnable pTask)
+	{
+		assert pTask != null;
+		long before = allocatedBytes();
+		pTask.run();
+		long after = allocatedBytes();
+		if( before < 0 || after < 0 )
+		{
+			return Double.NaN;
+		}
+		return (after - before) / BYTES_PER_MEGABYTE;
+	}
+	
+	/*
+	 * Returns the number of bytes allocated so far by the current thread, 
+	 * or -1 if this number is not available.
+	 */
+	private static long allocatedBytes()
+	{
+		try
+		{
+			Object threads = Class.forName("java.lang.management.ManagementFactory")
+					.getMethod("getThreadMXBean").invoke(null);
+			Method allocatedBytes = Class.forName("com.sun.management.ThreadMXBean")
+					.getMethod("getThreadAllocatedBytes", long.class);
+			return (long) allocatedBytes.invoke(threads, Thread.currentThread().getId());
+		}
+		catch( ReflectiveOperationException | ClassCastException | IllegalArgumentException exception )
+		{
+			return -1;
+		}
+	}
+	
+	/**
+	 * Prints a row of a result table, with one column per value.
+	 * 
+	 * @param pValues The values to print.
+	 */
+	public static void printRow(Object... pValues)
+	{
+		StringBuilder row = new StringBuilder();
+		for( Object value : pValues )
+		{
+			String text = value instanceof Double ? String.format("%.3f", value) : String.valueOf(value);
+			row.append(String.format("%14s", text));
+		}
+		System.out.println(row);
+	}
+}
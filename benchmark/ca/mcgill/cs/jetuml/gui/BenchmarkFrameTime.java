@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.gui;
+
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.medianMillis;
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.printRow;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import ca.mcgill.cs.jetuml.benchmarks.Benchmark;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+import ca.mcgill.cs.jetuml.viewers.edges.EdgeViewerRegistry;
+
+/**
+ * Measures the time taken to paint a frame of a diagram that does not change,
+ * as when the diagram is scrolled. Each frame moves the visible area of a 
+ * virtual canvas by a few pixels, which repaints the entire canvas. The time 
+ * covers issuing the drawing commands of a frame, not rasterizing them. The 
+ * number of edges whose bounds were computed again during these frames is 
+ * reported to show how much of the viewer logic is run again for elements that 
+ * did not change, followed by the same number after a frame in which one node moved.
+ */
+public final class BenchmarkFrameTime implements Benchmark
+{
+	private static final int[] NODES = {100, 200, 400, 800};
+	private static final int VIEW_WIDTH = 1600;
+	private static final int VIEW_HEIGHT = 1200;
+	private static final int SCROLL_STEP = 7;
+	private static final int FRAMES = 10;
+	
+	private int aOffset;
+	
+	@Override
+	public boolean runsOnFxThread()
+	{
+		return true;
+	}
+	
+	@Override
+	public void run()
+	{
+		printRow("nodes", "frame (ms)", "edge bounds", "after move");
+		for( int nodes : NODES )
+		{
+			Diagram diagram = SyntheticDiagrams.classDiagram(nodes, 2 * nodes);
+			DiagramCanvas canvas = new DiagramCanvas(diagram, true);
+			canvas.setController(new DiagramCanvasController(canvas, new DiagramTabToolBar(diagram), pPoint -> {}));
+			Runnable frame = () -> 
+			{
+				aOffset = (aOffset + SCROLL_STEP) % (2 * SCROLL_STEP * FRAMES);
+				canvas.setVisibleBounds(new Rectangle(aOffset, aOffset, VIEW_WIDTH, VIEW_HEIGHT), 1);
+			};
+			double time = medianMillis(frame);
+			Map<Edge, Rectangle> bounds = boundsOf(diagram);
+			for( int i = 0; i < FRAMES; i++ )
+			{
+				frame.run();
+			}
+			int recomputed = countRecomputed(diagram, bounds);
+			diagram.rootNodes().get(0).translate(1, 1);
+			frame.run();
+			printRow(nodes, time, recomputed, countRecomputed(diagram, bounds));
+		}
+	}
+	
+	/*
+	 * The bounds returned by the registry, which are the same 
+	 * objects for as long as they are cached.
+	 */
+	private static Map<Edge, Rectangle> boundsOf(Diagram pDiagram)
+	{
+		Map<Edge, Rectangle> bounds = new IdentityHashMap<>();
+		pDiagram.edges().forEach(edge -> bounds.put(edge, EdgeViewerRegistry.getBounds(edge)));
+		return bounds;
+	}
+	
+	private static int countRecomputed(Diagram pDiagram, Map<Edge, Rectangle> pBounds)
+	{
+		int count = 0;
+		for( Edge edge : pDiagram.edges() )
+		{
+			if( EdgeViewerRegistry.getBounds(edge) != pBounds.get(edge) )
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+}
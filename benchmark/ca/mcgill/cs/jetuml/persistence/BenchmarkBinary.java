@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.medianMillis;
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.printRow;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import ca.mcgill.cs.jetuml.benchmarks.Benchmark;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+
+/**
+ * Compares the size of a class diagram and the time to save and open it 
+ * in the JSON format and in the binary format.
+ */
+public final class BenchmarkBinary implements Benchmark
+{
+	private static final int[] NODES = {1000, 5000, 10000};
+	private static final int WARMUP = 2;
+	private static final int RUNS = 5;
+
+	@Override
+	public void run() throws IOException
+	{
+		File json = File.createTempFile("benchmark", ".jet");
+		File binary = File.createTempFile("benchmark", PersistenceService.BINARY_EXTENSION);
+		json.deleteOnExit();
+		binary.deleteOnExit();
+		printRow("nodes", "json (KB)", "binary (KB)", "save json", "save binary", "open json", "open binary");
+		for( int nodes : NODES )
+		{
+			Diagram diagram = SyntheticDiagrams.classDiagram(nodes, 2 * nodes);
+			double saveJson = medianMillis(() -> save(diagram, json), WARMUP, RUNS);
+			double saveBinary = medianMillis(() -> save(diagram, binary), WARMUP, RUNS);
+			double readJson = medianMillis(() -> read(json), WARMUP, RUNS);
+			double readBinary = medianMillis(() -> read(binary), WARMUP, RUNS);
+			printRow(nodes, json.length() / 1024, binary.length() / 1024, saveJson, saveBinary, readJson, readBinary);
+		}
+	}
+	
+	private static void save(Diagram pDiagram, File pFile)
+	{
+		try
+		{
+			PersistenceService.save(pDiagram, pFile);
+		}
+		catch( IOException exception )
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+	
+	private static void read(File pFile)
+	{
+		try
+		{
+			PersistenceService.read(pFile);
+		}
+		catch( IOException exception )
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.medianMillis;
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.printRow;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import ca.mcgill.cs.jetuml.benchmarks.Benchmark;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+
+/**
+ * Compares the size of the diagrams of the persistence tests in testdata, 
+ * each scaled up to COPIES times its size, and the time to save and open 
+ * them, in each notation, compressed or not.
+ */
+public final class BenchmarkCompression implements Benchmark
+{
+	private static final String[] FILES = {"testPersistenceService.class.jet", "testPersistenceService2.class.jet", 
+			"testPersistenceService.object.jet", "testPersistenceService.sequence.jet", 
+			"testPersistenceService.state.jet", "testPersistenceService.usecase.jet"};
+	private static final String[] EXTENSIONS = {".jet", ".jet" + PersistenceService.COMPRESSED_EXTENSION,
+			PersistenceService.BINARY_EXTENSION, PersistenceService.BINARY_EXTENSION + PersistenceService.COMPRESSED_EXTENSION};
+	private static final int COPIES = 500;
+	private static final int WARMUP = 2;
+	private static final int RUNS = 5;
+
+	@Override
+	public void run() throws IOException
+	{
+		printRow("diagram", "root nodes", "format", "size (KB)", "save (ms)", "open (ms)");
+		for( String name : FILES )
+		{
+			Diagram diagram = SyntheticDiagrams.scaled(PersistenceService.read(new File("testdata", name)).diagram(), COPIES);
+			for( String extension : EXTENSIONS )
+			{
+				File file = File.createTempFile("benchmark", extension);
+				file.deleteOnExit();
+				double save = medianMillis(() -> save(diagram, file), WARMUP, RUNS);
+				double read = medianMillis(() -> read(file), WARMUP, RUNS);
+				printRow(diagram.getType().name().toLowerCase(), diagram.rootNodes().size(), extension, file.length() / 1024, save, read);
+			}
+		}
+	}
+	
+	private static void save(Diagram pDiagram, File pFile)
+	{
+		try
+		{
+			PersistenceService.save(pDiagram, pFile);
+		}
+		catch( IOException exception )
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+	
+	private static void read(File pFile)
+	{
+		try
+		{
+			PersistenceService.read(pFile);
+		}
+		catch( IOException exception )
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+}
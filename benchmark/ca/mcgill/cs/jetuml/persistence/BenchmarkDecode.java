@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.medianMillis;
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.printRow;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.json.JSONObject;
+
+import ca.mcgill.cs.jetuml.benchmarks.Benchmark;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+
+/**
+ * Measures the throughput of the decoders, in elements (nodes and edges)
+ * decoded per millisecond, on class diagrams of increasing size. The tree 
+ * decoder is given a JSONObject that is already parsed, while the stream 
+ * decoder reads the text of the diagram.
+ */
+public final class BenchmarkDecode implements Benchmark
+{
+	private static final int[] ELEMENTS = {1000, 10000, 20000};
+	private static final int WARMUP = 3;
+	private static final int RUNS = 9;
+
+	@Override
+	public void run() throws IOException
+	{
+		printRow("elements", "tree (ms)", "tree el/ms", "stream (ms)", "stream el/ms");
+		for( int elements : ELEMENTS )
+		{
+			StringWriter text = new StringWriter();
+			JsonEncoder.write(SyntheticDiagrams.classDiagram(elements * 2 / 5, elements * 3 / 5), text);
+			JSONObject object = new JSONObject(text.toString());
+			double tree = medianMillis(() -> JsonDecoder.decode(object), WARMUP, RUNS);
+			double stream = medianMillis(() -> JsonStreamDecoder.decode(new StringReader(text.toString())), WARMUP, RUNS);
+			printRow(elements, tree, elements / tree, stream, elements / stream);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.allocatedMegabytes;
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.medianMillis;
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.printRow;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+
+import org.json.JSONObject;
+
+import ca.mcgill.cs.jetuml.benchmarks.Benchmark;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+
+/**
+ * Compares the cost of opening a class diagram by reading its entire text,
+ * parsing it into a JSONObject tree and decoding the tree, as was done before, 
+ * with the cost of decoding the diagram as its file is read. The memory 
+ * reported is the memory allocated while opening the diagram once.
+ */
+public final class BenchmarkOpen implements Benchmark
+{
+	private static final int[] NODES = {1000, 5000, 10000};
+	private static final int WARMUP = 2;
+	private static final int RUNS = 5;
+
+	@Override
+	public void run() throws IOException
+	{
+		File file = File.createTempFile("benchmark", ".jet");
+		file.deleteOnExit();
+		printRow("nodes", "size (KB)", "tree (ms)", "stream (ms)", "tree (MB)", "stream (MB)");
+		for( int nodes : NODES )
+		{
+			PersistenceService.save(SyntheticDiagrams.classDiagram(nodes, 2 * nodes), file);
+			Runnable tree = () -> readTree(file);
+			Runnable stream = () -> readStream(file);
+			double treeTime = medianMillis(tree, WARMUP, RUNS);
+			double streamTime = medianMillis(stream, WARMUP, RUNS);
+			printRow(nodes, file.length() / 1024, treeTime, streamTime, 
+					allocatedMegabytes(tree), allocatedMegabytes(stream));
+		}
+	}
+	
+	/*
+	 * The implementation of PersistenceService.read before the decoder could stream.
+	 */
+	private static void readTree(File pFile)
+	{
+		try( BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(pFile), UTF_8)))
+		{
+			new VersionMigrator().migrate(new JSONObject(in.readLine()));
+		}
+		catch( IOException exception )
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+	
+	private static void readStream(File pFile)
+	{
+		try
+		{
+			PersistenceService.read(pFile);
+		}
+		catch( IOException exception )
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.allocatedMegabytes;
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.medianMillis;
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.printRow;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+
+import ca.mcgill.cs.jetuml.benchmarks.Benchmark;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+
+/**
+ * Compares the cost of saving a class diagram by building its entire JSON
+ * tree and then its entire text in memory, as was done before, with the cost 
+ * of writing the diagram to the file as it is encoded. The memory reported 
+ * is the memory allocated during a single save.
+ */
+public final class BenchmarkSave implements Benchmark
+{
+	private static final int[] NODES = {1000, 5000, 20000};
+	private static final int WARMUP = 3;
+	private static final int RUNS = 7;
+
+	@Override
+	public void run() throws IOException
+	{
+		File file = File.createTempFile("benchmark", ".jet");
+		file.deleteOnExit();
+		printRow("nodes", "size (KB)", "tree (ms)", "stream (ms)", "tree (MB)", "stream (MB)");
+		for( int nodes : NODES )
+		{
+			Diagram diagram = SyntheticDiagrams.classDiagram(nodes, 2 * nodes);
+			Runnable tree = () -> saveTree(diagram, file);
+			Runnable stream = () -> saveStream(diagram, file);
+			double treeTime = medianMillis(tree, WARMUP, RUNS);
+			double streamTime = medianMillis(stream, WARMUP, RUNS);
+			printRow(nodes, file.length() / 1024, treeTime, streamTime, 
+					allocatedMegabytes(tree), allocatedMegabytes(stream));
+		}
+	}
+	
+	/*
+	 * The implementation of PersistenceService.save before the encoder could stream.
+	 */
+	private static void saveTree(Diagram pDiagram, File pFile)
+	{
+		try( PrintWriter out = new PrintWriter(new OutputStreamWriter(new FileOutputStream(pFile), UTF_8)))
+		{
+			out.println(JsonEncoder.encode(pDiagram).toString());
+		}
+		catch( IOException exception )
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+	
+	private static void saveStream(Diagram pDiagram, File pFile)
+	{
+		try
+		{
+			PersistenceService.save(pDiagram, pFile);
+		}
+		catch( IOException exception )
+		{
+			throw new UncheckedIOException(exception);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.medianMillis;
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.printRow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ca.mcgill.cs.jetuml.benchmarks.Benchmark;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Measures the cost of repainting a class diagram as the number of edges grows,
+ * and compares the adjacency lookups done while routing edges (once per edge end)
+ * with the linear scan of all the edges that these lookups used to require.
+ */
+public final class BenchmarkEdgeAdjacency implements Benchmark
+{
+	private static final int NODES = 200;
+	private static final int[] EDGES = {250, 500, 1000, 2000};
+	private static final int CANVAS_SIZE = 4000;
+	private static final int REPAINT_WARMUP = 2;
+	private static final int REPAINT_RUNS = 5;
+
+	@Override
+	public void run()
+	{
+		GraphicsContext graphics = new Canvas(CANVAS_SIZE, CANVAS_SIZE).getGraphicsContext2D();
+		DiagramViewer viewer = new DiagramViewer();
+		printRow("edges", "repaint (ms)", "index (ms)", "scan (ms)");
+		for( int edges : EDGES )
+		{
+			Diagram diagram = SyntheticDiagrams.classDiagram(NODES, edges);
+			double repaint = medianMillis(() -> viewer.draw(diagram, graphics), REPAINT_WARMUP, REPAINT_RUNS);
+			double index = medianMillis(() -> lookUpWithIndex(diagram));
+			double scan = medianMillis(() -> lookUpWithScan(diagram));
+			printRow(edges, repaint, index, scan);
+		}
+	}
+
+	private static int lookUpWithIndex(Diagram pDiagram)
+	{
+		int count = 0;
+		for( Edge edge : pDiagram.edges() )
+		{
+			for( Edge connected : pDiagram.edgesConnectedTo(edge.getStart()) )
+			{
+				count += connected.getEnd() == edge.getEnd() ? 1 : 0;
+			}
+			for( Edge connected : pDiagram.edgesConnectedTo(edge.getEnd()) )
+			{
+				count += connected.getStart() == edge.getStart() ? 1 : 0;
+			}
+		}
+		return count;
+	}
+
+	private static int lookUpWithScan(Diagram pDiagram)
+	{
+		int count = 0;
+		for( Edge edge : pDiagram.edges() )
+		{
+			for( Edge connected : scan(pDiagram, edge.getStart()) )
+			{
+				count += connected.getEnd() == edge.getEnd() ? 1 : 0;
+			}
+			for( Edge connected : scan(pDiagram, edge.getEnd()) )
+			{
+				count += connected.getStart() == edge.getStart() ? 1 : 0;
+			}
+		}
+		return count;
+	}
+
+	/*
+	 * The implementation of Diagram.edgesConnectedTo before the adjacency index.
+	 */
+	private static Iterable<Edge> scan(Diagram pDiagram, Node pNode)
+	{
+		List<Edge> result = new ArrayList<>();
+		for( Edge edge : pDiagram.edges() )
+		{
+			if( edge.getStart() == pNode || edge.getEnd() == pNode )
+			{
+				result.add(edge);
+			}
+		}
+		return result;
+	}
+}
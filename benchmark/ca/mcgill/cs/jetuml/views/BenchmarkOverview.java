@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.medianMillis;
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.printRow;
+
+import ca.mcgill.cs.jetuml.benchmarks.Benchmark;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Compares the cost of drawing an entire class diagram in full and as an 
+ * overview, as is done when the diagram is zoomed out far enough to be 
+ * seen in its entirety. Each drawing is followed by a snapshot of the canvas, 
+ * so that the time includes rendering the drawing commands, and not only 
+ * issuing them. The time taken by a snapshot alone is reported for reference.
+ */
+public final class BenchmarkOverview implements Benchmark
+{
+	private static final int[] NODES = {100, 200, 400, 800};
+	private static final int CANVAS_SIZE = 4000;
+	private static final int WARMUP = 2;
+	private static final int RUNS = 5;
+
+	@Override
+	public boolean runsOnFxThread()
+	{
+		return true;
+	}
+	
+	@Override
+	public void run()
+	{
+		Canvas canvas = new Canvas(CANVAS_SIZE, CANVAS_SIZE);
+		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		DiagramViewer viewer = new DiagramViewer();
+		printRow("nodes", "snapshot (ms)", "full (ms)", "overview (ms)");
+		for( int nodes : NODES )
+		{
+			Diagram diagram = SyntheticDiagrams.classDiagram(nodes, 2 * nodes);
+			Rectangle bounds = viewer.getBounds(diagram);
+			double snapshot = medianMillis(() -> canvas.snapshot(null, null), WARMUP, RUNS);
+			double full = medianMillis(() -> 
+			{
+				viewer.draw(diagram, graphics, bounds);
+				canvas.snapshot(null, null);
+			}, WARMUP, RUNS);
+			double overview = medianMillis(() -> 
+			{
+				viewer.drawOverview(diagram, graphics, bounds);
+				canvas.snapshot(null, null);
+			}, WARMUP, RUNS);
+			printRow(nodes, snapshot, full, overview);
+		}
+	}
+}
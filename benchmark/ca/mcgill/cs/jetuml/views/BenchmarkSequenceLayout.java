@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.medianMillis;
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.printRow;
+
+import ca.mcgill.cs.jetuml.benchmarks.Benchmark;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Measures the cost of repainting a sequence diagram as the number 
+ * of calls grows, both when the diagram is unchanged between repaints, 
+ * and when one object is moved before each repaint, as during a drag.
+ */
+public final class BenchmarkSequenceLayout implements Benchmark
+{
+	private static final int OBJECTS = 10;
+	private static final int[] CALLS = {50, 100, 200, 300, 600};
+	private static final int CANVAS_SIZE = 4000;
+
+	@Override
+	public void run()
+	{
+		GraphicsContext graphics = new Canvas(CANVAS_SIZE, CANVAS_SIZE).getGraphicsContext2D();
+		DiagramViewer viewer = DiagramType.viewerFor(new Diagram(DiagramType.SEQUENCE));
+		printRow("calls", "static (ms)", "drag (ms)");
+		for( int calls : CALLS )
+		{
+			Diagram diagram = SyntheticDiagrams.sequenceDiagram(OBJECTS, calls);
+			Node object = diagram.rootNodes().get(0);
+			double unchanged = medianMillis(() -> viewer.draw(diagram, graphics));
+			double drag = medianMillis(() -> 
+			{
+				object.translate(1, 0);
+				viewer.draw(diagram, graphics);
+			});
+			printRow(calls, unchanged, drag);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.medianMillis;
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.printRow;
+
+import ca.mcgill.cs.jetuml.benchmarks.Benchmark;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Compares the time to draw a frame of an entire class diagram when the 
+ * shadows of the nodes are drawn with a DropShadow effect and when they are
+ * copied from sprites. Each drawing is followed by a snapshot of the canvas, 
+ * so that the time includes rendering the drawing commands, and not only 
+ * issuing them. The time taken by a snapshot alone is reported for reference.
+ */
+public final class BenchmarkShadows implements Benchmark
+{
+	private static final int[] NODES = {100, 200, 300, 400};
+	private static final int CANVAS_SIZE = 4000;
+
+	@Override
+	public boolean runsOnFxThread()
+	{
+		return true;
+	}
+	
+	@Override
+	public void run()
+	{
+		Canvas canvas = new Canvas(CANVAS_SIZE, CANVAS_SIZE);
+		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		DiagramViewer viewer = new DiagramViewer();
+		printRow("nodes", "snapshot (ms)", "effect (ms)", "sprites (ms)");
+		for( int nodes : NODES )
+		{
+			Diagram diagram = SyntheticDiagrams.classDiagram(nodes, 2 * nodes);
+			Rectangle bounds = viewer.getBounds(diagram);
+			Runnable frame = () -> 
+			{
+				viewer.draw(diagram, graphics, bounds);
+				canvas.snapshot(null, null);
+			};
+			double snapshot = medianMillis(() -> canvas.snapshot(null, null));
+			ShadowSprites.setEnabled(false);
+			double effect = medianMillis(frame);
+			ShadowSprites.setEnabled(true);
+			double sprites = medianMillis(frame);
+			printRow(nodes, snapshot, effect, sprites);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.medianMillis;
+import static ca.mcgill.cs.jetuml.benchmarks.Benchmarks.printRow;
+
+import ca.mcgill.cs.jetuml.benchmarks.Benchmark;
+
+/**
+ * Compares the throughput of StringViewer.getDimension, which caches measurements, 
+ * with that of measuring each string with a new Text node, for sets of distinct 
+ * strings measured repeatedly, as when computing the bounds of the nodes of a diagram.
+ * Throughput is reported in measurements per millisecond.
+ */
+public final class BenchmarkStringMeasurement implements Benchmark
+{
+	private static final int[] STRINGS = {100, 1000, 4000};
+	private static final int MEASUREMENTS = 20000;
+	private static final StringViewer VIEWER = new StringViewer(StringViewer.Align.LEFT, false, false);
+
+	@Override
+	public void run()
+	{
+		printRow("strings", "cached", "uncached");
+		for( int size : STRINGS )
+		{
+			String[] strings = new String[size];
+			for( int i = 0; i < size; i++ )
+			{
+				strings[i] = "+method" + i + "(pParameter : int) : String";
+			}
+			double cached = MEASUREMENTS / medianMillis(() -> 
+			{
+				for( int i = 0; i < MEASUREMENTS; i++ )
+				{
+					VIEWER.getDimension(strings[i % size]);
+				}
+			});
+			double uncached = MEASUREMENTS / medianMillis(() -> 
+			{
+				for( int i = 0; i < MEASUREMENTS; i++ )
+				{
+					VIEWER.measure(strings[i % size]);
+				}
+			});
+			printRow(size, cached, uncached);
+		}
+	}
+}
@@ -72,4 +72,13 @@ public abstract class AbstractDiagramElement implements DiagramElement
 	{
 		aProperties = new Properties();
 	}
+	
+	/**
+	 * Notifies the diagram that contains this element, if any, 
+	 * that the state of this element has changed. Does nothing
+	 * by default.
+	 * 
+	 * @param pKind The kind of change.
+	 */
+	protected void notifyModified(DiagramEvent.Kind pKind) {}
 }
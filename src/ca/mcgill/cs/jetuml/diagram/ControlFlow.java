@@ -23,8 +23,11 @@ package ca.mcgill.cs.jetuml.diagram;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -37,25 +40,139 @@ import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.viewers.nodes.ImplicitParameterNodeViewer;
 
 /**
- * An immutable wrapper around a SequenceDiagram that can answer
+ * A wrapper around a SequenceDiagram that can answer
  * various queries about the control-flow represented by 
  * the wrapped sequence diagram.
+ * 
+ * The call relations are indexed in a single pass over the edges 
+ * of the diagram the first time they are queried, and indexed again
+ * only after a change to the structure of the diagram. Moving nodes and
+ * editing their properties does not affect the index. Each diagram owns
+ * its control flow, so all the clients that query a diagram share the 
+ * same index.
  */
 public final class ControlFlow
 {
 	private final Diagram aDiagram;
+	private boolean aIndexed;
+	
+	private final Map<Node, List<CallEdge>> aCalls = new IdentityHashMap<>();
+	private final Map<Node, List<Node>> aCallees = new IdentityHashMap<>();
+	private final Map<Node, Node> aCallers = new IdentityHashMap<>();
+	private final Map<Node, Integer> aNestingDepths = new IdentityHashMap<>();
+	private final Map<Node, Edge> aConstructorEdges = new IdentityHashMap<>();
+	private final Map<Node, List<Edge>> aReturnEdges = new IdentityHashMap<>();
+	
+	private ControlFlow(Diagram pDiagram)
+	{
+		aDiagram = pDiagram;
+		aDiagram.addListener(this::diagramChanged);
+	}
 	
 	/**
-	 * Creates a new ControlFlow to query pDiagram.
+	 * Returns the control flow of pDiagram. All the calls 
+	 * for the same diagram return the same instance.
 	 * 
-	 * @param pDiagram The diagram to wrap.
-	 * @pre pDiagram != null.
+	 * @param pDiagram The diagram to query.
+	 * @return A ControlFlow that wraps pDiagram.
+	 * @pre pDiagram != null && pDiagram.getType() == DiagramType.SEQUENCE
 	 */
-	public ControlFlow(Diagram pDiagram)
+	public static ControlFlow of(Diagram pDiagram)
 	{
 		assert pDiagram != null;
 		assert pDiagram.getType() == DiagramType.SEQUENCE;
-		aDiagram = pDiagram;
+		return pDiagram.getCache(ControlFlow.class, ControlFlow::new);
+	}
+	
+	private void diagramChanged(DiagramEvent pEvent)
+	{
+		if( pEvent.getKind() != DiagramEvent.Kind.NODE_MOVED && pEvent.getKind() != DiagramEvent.Kind.PROPERTY_CHANGED &&
+				pEvent.getKind() != DiagramEvent.Kind.NODE_REORDERED )
+		{
+			aIndexed = false;
+		}
+	}
+	
+	/*
+	 * Rebuilds the index if the structure of the diagram changed since it was last built.
+	 */
+	private void index()
+	{
+		if( aIndexed )
+		{
+			return;
+		}
+		aCalls.clear();
+		aCallees.clear();
+		aCallers.clear();
+		aNestingDepths.clear();
+		aConstructorEdges.clear();
+		aReturnEdges.clear();
+		for( Edge edge : aDiagram.edges() )
+		{
+			if( edge instanceof CallEdge )
+			{
+				aCalls.computeIfAbsent(edge.getStart(), node -> new ArrayList<>()).add((CallEdge) edge);
+				aCallees.computeIfAbsent(edge.getStart(), node -> new ArrayList<>()).add(edge.getEnd());
+				aCallers.putIfAbsent(edge.getEnd(), edge.getStart());
+			}
+			if( edge.getClass() == ConstructorEdge.class )
+			{
+				aConstructorEdges.putIfAbsent(edge.getEnd(), edge);
+			}
+			else if( edge.getClass() == ReturnEdge.class )
+			{
+				aReturnEdges.computeIfAbsent(edge.getStart(), node -> new ArrayList<>()).add(edge);
+			}
+		}
+		indexNestingDepths();
+		aIndexed = true;
+	}
+	
+	/*
+	 * Computes the nesting depth of every call node that has a caller by walking
+	 * down the call tree from each entry point, counting the call nodes 
+	 * on the current path that are on each implicit parameter node.
+	 */
+	private void indexNestingDepths()
+	{
+		Map<Node, List<Node>> called = new IdentityHashMap<>();
+		for( Map.Entry<Node, Node> entry : aCallers.entrySet() )
+		{
+			called.computeIfAbsent(entry.getValue(), node -> new ArrayList<>()).add(entry.getKey());
+		}
+		Map<Node, Integer> activations = new IdentityHashMap<>();
+		for( Node caller : called.keySet() )
+		{
+			if( !aCallers.containsKey(caller) )
+			{
+				indexNestingDepths(caller, called, activations);
+			}
+		}
+	}
+	
+	private void indexNestingDepths(Node pCaller, Map<Node, List<Node>> pCalled, Map<Node, Integer> pActivations)
+	{
+		pActivations.merge(parentOf(pCaller), 1, Integer::sum);
+		for( Node callee : pCalled.getOrDefault(pCaller, Collections.emptyList()) )
+		{
+			aNestingDepths.put(callee, pActivations.getOrDefault(parentOf(callee), 0));
+			indexNestingDepths(callee, pCalled, pActivations);
+		}
+		pActivations.merge(parentOf(pCaller), -1, Integer::sum);
+	}
+	
+	/*
+	 * The parent of pNode, or null for nodes, such as 
+	 * call nodes being created, that do not have one yet.
+	 */
+	private static Node parentOf(Node pNode)
+	{
+		if( pNode.hasParent() )
+		{
+			return pNode.getParent();
+		}
+		return null;
 	}
 	
 	/**
@@ -70,15 +187,8 @@ public final class ControlFlow
 	public List<Node> getCallees(Node pNode)
 	{
 		assert pNode != null && aDiagram.contains(pNode);
-		List<Node> callees = new ArrayList<>();
-		for( Edge edge : aDiagram.edges() )
-		{
-			if ( edge.getStart() == pNode && edge instanceof CallEdge )
-			{
-				callees.add(edge.getEnd());
-			}
-		}
-		return callees;
+		index();
+		return Collections.unmodifiableList(aCallees.getOrDefault(pNode, Collections.emptyList()));
 	}
 	
 	/**
@@ -89,15 +199,8 @@ public final class ControlFlow
 	public List<CallEdge> getCalls(Node pCaller)
 	{
 		assert pCaller != null;
-		ArrayList<CallEdge> result = new ArrayList<>();
-		for( Edge edge : aDiagram.edges() )
-		{
-			if( edge instanceof CallEdge && edge.getStart() == pCaller )
-			{
-				result.add((CallEdge)edge);
-			}
-		}
-		return result;
+		index();
+		return Collections.unmodifiableList(aCalls.getOrDefault(pCaller, Collections.emptyList()));
 	}
 	
 	/**
@@ -111,14 +214,8 @@ public final class ControlFlow
 	public Optional<CallNode> getCaller(Node pNode)
 	{
 		assert pNode != null && aDiagram.contains(pNode);
-		for( Edge edge : aDiagram.edges() )
-		{
-			if( edge.getEnd() == pNode  && edge instanceof CallEdge )
-			{
-				return Optional.of((CallNode) edge.getStart());
-			}
-		}
-		return Optional.empty();
+		index();
+		return Optional.ofNullable((CallNode) aCallers.get(pNode));
 	}
 	
 	/**
@@ -182,17 +279,8 @@ public final class ControlFlow
 	public int getNestingDepth(CallNode pNode)
 	{
 		assert pNode != null;
-		int result = 0;
-		Optional<CallNode> node = getCaller(pNode);
-		while( node.isPresent() )
-		{
-			if( node.get().getParent() == pNode.getParent() )
-			{
-				result++;
-			}
-			node = getCaller(node.get());
-		}
-		return result;
+		index();
+		return aNestingDepths.getOrDefault(pNode, 0);
 	}
 	
 	/**
@@ -216,18 +304,8 @@ public final class ControlFlow
 	public boolean isConstructorExecution(Node pNode)
 	{
 		assert pNode != null;
-		if( pNode.getClass() != CallNode.class )
-		{
-			return false;
-		}
-		for( Edge edge : aDiagram.edges() )
-		{
-			if ( edge.getEnd() == pNode && edge.getClass() == ConstructorEdge.class )
-			{
-				return true;
-			}
-		}
-		return false;	
+		index();
+		return pNode.getClass() == CallNode.class && aConstructorEdges.containsKey(pNode);
 	}
 	
 	/*
@@ -249,18 +327,8 @@ public final class ControlFlow
 	private Optional<Edge> getConstructorEdge(Node pNode)
 	{
 		assert pNode != null && isConstructorExecution(pNode);
-		if( pNode.getClass() != CallNode.class )
-		{
-			return Optional.empty();	
-		}
-		for( Edge edge : aDiagram.edges() )
-		{
-			if ( edge.getEnd() == pNode && edge.getClass() == ConstructorEdge.class )
-			{
-				return Optional.of(edge);
-			}
-		}
-		return Optional.empty();	
+		index();
+		return Optional.ofNullable(aConstructorEdges.get(pNode));
 	}
 
 	/**
@@ -290,13 +358,7 @@ public final class ControlFlow
 				}
 				
 				// Add upstream edges of the child nodes
-				for( Edge edge: aDiagram.edges() )
-				{
-					if( edge.getEnd() == child )
-					{
-						downstreamElements.add(edge);
-					}
-				}
+				downstreamElements.addAll(aDiagram.edgesTo(child));
 			}
 		}
 		else if( pEdge.getClass() == CallEdge.class )
@@ -374,9 +436,10 @@ public final class ControlFlow
 	
 	private Optional<Edge> getReturnEdge(Edge pEdge)
 	{
-		for( Edge edge : aDiagram.edges() )
+		index();
+		for( Edge edge : aReturnEdges.getOrDefault(pEdge.getEnd(), Collections.emptyList()) )
 		{
-			if( edge.getClass() == ReturnEdge.class && edge.getStart() == pEdge.getEnd() && edge.getEnd() == pEdge.getStart() )
+			if( edge.getEnd() == pEdge.getStart() )
 			{
 				return Optional.of(edge);
 			}
@@ -21,9 +21,12 @@
 package ca.mcgill.cs.jetuml.diagram;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.FieldNode;
@@ -45,6 +48,18 @@ public final class Diagram implements DiagramData
 	private final ArrayList<Node> aRootNodes;
 	private final ArrayList<Edge> aEdges;
 	private final DiagramType aType;
+	
+	/*
+	 * Adjacency index of the edges in aEdges, by node. The lists in each entry 
+	 * follow the order of aEdges, so that lookups return the same sequence of edges
+	 * as a scan of aEdges would.
+	 */
+	private final Map<Node, Adjacency> aAdjacency = new IdentityHashMap<>();
+	private final List<Node> aRootNodesView;
+	private final List<Edge> aEdgesView;
+	private long aVersion;
+	private final List<DiagramListener> aListeners = new ArrayList<>();
+	private final Map<Class<?>, Object> aCaches = new HashMap<>();
 
 	/**
 	 * Creates an empty diagram.
@@ -56,6 +71,8 @@ public final class Diagram implements DiagramData
 		aType = pType;
 		aRootNodes = new ArrayList<>();
 		aEdges = new ArrayList<>();
+		aRootNodesView = Collections.unmodifiableList(aRootNodes);
+		aEdgesView = Collections.unmodifiableList(aEdges);
 	}
 
 	/**
@@ -78,6 +95,7 @@ public final class Diagram implements DiagramData
 
 		// Reassign diagram
 		copy.aEdges.forEach(edge -> edge.connect(edge.getStart(), edge.getEnd(), copy));
+		copy.aEdges.forEach(edge -> copy.indexEdge(edge, true));
 		for( Node node : copy.aRootNodes )
 		{
 			copy.attachNode(node);
@@ -125,13 +143,109 @@ public final class Diagram implements DiagramData
 	@Override
 	public List<Node> rootNodes()
 	{
-		return Collections.unmodifiableList(aRootNodes);
+		return aRootNodesView;
 	}
 
 	@Override
 	public List<Edge> edges()
 	{
-		return Collections.unmodifiableList(aEdges);
+		return aEdgesView;
+	}
+
+	/**
+	 * @return A number that increases every time the structure of this diagram
+	 *     or the state of one of its elements changes.
+	 */
+	public long getVersion()
+	{
+		return aVersion;
+	}
+	
+	/**
+	 * Registers pListener to be notified of every subsequent change 
+	 * to this diagram. Listeners are not copied when the diagram is duplicated.
+	 * 
+	 * @param pListener The listener to add.
+	 * @pre pListener != null
+	 */
+	public void addListener(DiagramListener pListener)
+	{
+		assert pListener != null;
+		aListeners.add(pListener);
+	}
+	
+	/**
+	 * Stops notifying pListener of changes to this diagram. 
+	 * Has no effect if pListener is not registered.
+	 * 
+	 * @param pListener The listener to remove.
+	 * @pre pListener != null
+	 */
+	public void removeListener(DiagramListener pListener)
+	{
+		assert pListener != null;
+		aListeners.remove(pListener);
+	}
+	
+	/**
+	 * Returns the cache of type pType of this diagram, creating it with pFactory
+	 * the first time it is requested. A cache holds values computed from the
+	 * diagram, such as an index or the geometry of its elements, and keeps them 
+	 * up to date by listening to the diagram. Caches belong to their diagram, 
+	 * so they are discarded with it, and they are not copied when the diagram 
+	 * is duplicated.
+	 * 
+	 * @param pType The type of the cache.
+	 * @param pFactory A function that creates the cache of a diagram.
+	 * @param <T> The type of the cache.
+	 * @return The cache of type pType of this diagram.
+	 * @pre pType != null && pFactory != null
+	 */
+	public <T> T getCache(Class<T> pType, Function<Diagram, T> pFactory)
+	{
+		assert pType != null && pFactory != null;
+		// Not computeIfAbsent: creating a cache can request another cache.
+		Object cache = aCaches.get(pType);
+		if( cache == null )
+		{
+			cache = pFactory.apply(this);
+			aCaches.put(pType, cache);
+		}
+		return pType.cast(cache);
+	}
+	
+	/**
+	 * Records that pElement, which belongs to this diagram, was modified in place, 
+	 * for example by being moved, by having one of its properties changed, or by 
+	 * gaining or losing a child.
+	 * 
+	 * @param pKind The kind of modification.
+	 * @param pElement The element that was modified.
+	 * @pre pKind != null && pElement != null
+	 */
+	public void elementModified(DiagramEvent.Kind pKind, DiagramElement pElement)
+	{
+		assert pKind != null && pElement != null;
+		changed(pKind, pElement);
+	}
+	
+	/*
+	 * Increments the version of the diagram, then notifies the listeners.
+	 * Listeners are notified from a copy of the list so that they can 
+	 * unregister themselves as a reaction to the event.
+	 */
+	private void changed(DiagramEvent.Kind pKind, DiagramElement pElement)
+	{
+		aVersion++;
+		if( aListeners.isEmpty() )
+		{
+			return;
+		}
+		DiagramEvent event = new DiagramEvent(pKind, pElement, aVersion);
+		for( DiagramListener listener : new ArrayList<>(aListeners) )
+		{
+			listener.diagramChanged(event);
+		}
 	}
 
 	/**
@@ -223,22 +337,57 @@ public final class Diagram implements DiagramData
 
 	/**
 	 * @param pNode The node to test for
-	 * @return All the edges connected to pNode
+	 * @return All the edges connected to pNode, in the order in which they 
+	 *     appear in the list of edges. The result is an unmodifiable view 
+	 *     that must not be retained across modifications of the diagram.
 	 * @pre pNode != null
 	 * @pre contains(pNode)
 	 */
 	public Iterable<Edge> edgesConnectedTo(Node pNode)
 	{
 		assert pNode != null && contains(pNode);
-		Collection<Edge> lReturn = new ArrayList<>();
-		for( Edge edge : aEdges )
+		Adjacency adjacency = aAdjacency.get(pNode);
+		if( adjacency == null )
 		{
-			if( edge.getStart() == pNode || edge.getEnd() == pNode )
-			{
-				lReturn.add(edge);
-			}
+			return Collections.emptyList();
 		}
-		return lReturn;
+		return adjacency.aAllView;
+	}
+	
+	/**
+	 * @param pNode The node to test for.
+	 * @return All the edges whose start node is pNode, in the order in which they 
+	 *     appear in the list of edges. The result is an unmodifiable view 
+	 *     that must not be retained across modifications of the diagram.
+	 * @pre pNode != null
+	 */
+	public List<Edge> edgesFrom(Node pNode)
+	{
+		assert pNode != null;
+		Adjacency adjacency = aAdjacency.get(pNode);
+		if( adjacency == null )
+		{
+			return Collections.emptyList();
+		}
+		return adjacency.aOutgoingView;
+	}
+	
+	/**
+	 * @param pNode The node to test for.
+	 * @return All the edges whose end node is pNode, in the order in which they 
+	 *     appear in the list of edges. The result is an unmodifiable view 
+	 *     that must not be retained across modifications of the diagram.
+	 * @pre pNode != null
+	 */
+	public List<Edge> edgesTo(Node pNode)
+	{
+		assert pNode != null;
+		Adjacency adjacency = aAdjacency.get(pNode);
+		if( adjacency == null )
+		{
+			return Collections.emptyList();
+		}
+		return adjacency.aIncomingView;
 	}
 
 	/**
@@ -253,6 +402,7 @@ public final class Diagram implements DiagramData
 		assert pNode != null;
 		recursiveAttach(pNode);
 		aRootNodes.add(pNode);
+		changed(DiagramEvent.Kind.NODE_ADDED, pNode);
 	}
 
 	private void recursiveAttach(Node pNode)
@@ -279,6 +429,7 @@ public final class Diagram implements DiagramData
 		assert pNode != null && aRootNodes.contains(pNode);
 		recursiveDetach(pNode);
 		aRootNodes.remove(pNode);
+		changed(DiagramEvent.Kind.NODE_REMOVED, pNode);
 	}
 
 	/**
@@ -292,6 +443,8 @@ public final class Diagram implements DiagramData
 	{
 		assert pEdge != null && pEdge.getStart() != null && pEdge.getEnd() != null && pEdge.getDiagram() != null;
 		aEdges.add(pEdge);
+		indexEdge(pEdge);
+		changed(DiagramEvent.Kind.EDGE_ADDED, pEdge);
 	}
 	
 	/**
@@ -305,6 +458,8 @@ public final class Diagram implements DiagramData
 	{
 		assert pEdge != null && pIndex >= 0 && pIndex <= aEdges.size();
 		aEdges.add(pIndex, pEdge);
+		indexEdge(pEdge);
+		changed(DiagramEvent.Kind.EDGE_ADDED, pEdge);
 	}
 
 
@@ -330,11 +485,134 @@ public final class Diagram implements DiagramData
 	{
 		assert pEdge != null && aEdges.contains(pEdge);
 		aEdges.remove(pEdge);
+		unindexEdge(pEdge, pEdge.getStart(), pEdge.getEnd());
+		changed(DiagramEvent.Kind.EDGE_REMOVED, pEdge);
+	}
+	
+	/**
+	 * Notifies this diagram that pEdge was reconnected from pOldStart and pOldEnd to 
+	 * its current start and end nodes, so that the adjacency index can be kept up to date.
+	 * Has no effect if pEdge is not an edge of this diagram.
+	 * 
+	 * @param pEdge The edge that was reconnected.
+	 * @param pOldStart The start node of the edge before it was reconnected.
+	 * @param pOldEnd The end node of the edge before it was reconnected.
+	 * @pre pEdge != null && pOldStart != null && pOldEnd != null
+	 */
+	public void edgeReconnected(Edge pEdge, Node pOldStart, Node pOldEnd)
+	{
+		assert pEdge != null && pOldStart != null && pOldEnd != null;
+		if( pEdge.getStart() == pOldStart && pEdge.getEnd() == pOldEnd )
+		{
+			return;
+		}
+		if( unindexEdge(pEdge, pOldStart, pOldEnd) )
+		{
+			indexEdge(pEdge);
+			changed(DiagramEvent.Kind.EDGE_RECONNECTED, pEdge);
+		}
+	}
+	
+	/*
+	 * Adds pEdge, which must already be in aEdges, to the adjacency lists of its nodes.
+	 */
+	private void indexEdge(Edge pEdge)
+	{
+		indexEdge(pEdge, aEdges.get(aEdges.size() - 1) == pEdge);
+	}
+	
+	/*
+	 * If pAppend is true, pEdge is added at the end of the adjacency lists, 
+	 * which is only correct if it follows all the edges already indexed.
+	 */
+	private void indexEdge(Edge pEdge, boolean pAppend)
+	{
+		insert(adjacencyOf(pEdge.getStart()).aOutgoing, pEdge, pAppend);
+		insert(adjacencyOf(pEdge.getEnd()).aIncoming, pEdge, pAppend);
+		insert(adjacencyOf(pEdge.getStart()).aAll, pEdge, pAppend);
+		if( pEdge.getEnd() != pEdge.getStart() )
+		{
+			insert(adjacencyOf(pEdge.getEnd()).aAll, pEdge, pAppend);
+		}
+	}
+	
+	/*
+	 * Removes pEdge from the adjacency lists of pStart and pEnd.
+	 * Returns true if the edge was indexed.
+	 */
+	private boolean unindexEdge(Edge pEdge, Node pStart, Node pEnd)
+	{
+		Adjacency start = aAdjacency.get(pStart);
+		Adjacency end = aAdjacency.get(pEnd);
+		if( start == null || end == null || !removeIdentical(start.aOutgoing, pEdge) )
+		{
+			return false;
+		}
+		removeIdentical(end.aIncoming, pEdge);
+		removeIdentical(start.aAll, pEdge);
+		removeIdentical(end.aAll, pEdge);
+		if( start.isEmpty() )
+		{
+			aAdjacency.remove(pStart);
+		}
+		if( end.isEmpty() )
+		{
+			aAdjacency.remove(pEnd);
+		}
+		return true;
+	}
+	
+	private Adjacency adjacencyOf(Node pNode)
+	{
+		return aAdjacency.computeIfAbsent(pNode, node -> new Adjacency());
+	}
+	
+	/*
+	 * Inserts pEdge in pList so that pList remains ordered like aEdges.
+	 */
+	private void insert(List<Edge> pList, Edge pEdge, boolean pAppend)
+	{
+		if( pAppend )
+		{
+			pList.add(pEdge);
+			return;
+		}
+		int position = indexOfIdentical(aEdges, pEdge);
+		int index = 0;
+		while( index < pList.size() && indexOfIdentical(aEdges, pList.get(index)) < position )
+		{
+			index++;
+		}
+		pList.add(index, pEdge);
+	}
+	
+	private static int indexOfIdentical(List<Edge> pList, Edge pEdge)
+	{
+		for( int i = 0; i < pList.size(); i++ )
+		{
+			if( pList.get(i) == pEdge )
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	private static boolean removeIdentical(List<Edge> pList, Edge pEdge)
+	{
+		int index = indexOfIdentical(pList, pEdge);
+		if( index < 0 )
+		{
+			return false;
+		}
+		pList.remove(index);
+		return true;
 	}
 
 	/**
 	 * Recursively reorder the node to be on top of its parent's children. If the node is not a child node or the node
-	 * does not have a parent, check if the node is a root node of the diagram and place it on top.
+	 * does not have a parent, check if the node is a root node of the diagram and place it on top. A change of order
+	 * is reported as a single NODE_REORDERED event, as it does not change the structure of the diagram.
 	 * 
 	 * @param pNode The node to be placed on top
 	 * @pre pNode != null
@@ -342,23 +620,61 @@ public final class Diagram implements DiagramData
 	public void placeOnTop(Node pNode)
 	{
 		assert pNode != null;
+		if( reorder(pNode) )
+		{
+			changed(DiagramEvent.Kind.NODE_REORDERED, pNode);
+		}
+	}
+	
+	/*
+	 * Returns whether the order of the nodes changed.
+	 */
+	private boolean reorder(Node pNode)
+	{
 		// Certain nodes should not have their order changed
 		if( pNode.getClass() == CallNode.class || pNode.getClass() == FieldNode.class )
 		{
-			return;
+			return false;
 		}
+		boolean changed = false;
 		if( pNode.hasParent() )
 		{
 			Node parent = pNode.getParent();
-			// Move the child node to the top of all other children
-			parent.placeLast(pNode);
+			List<Node> siblings = parent.getChildren();
+			if( siblings.get(siblings.size() - 1) != pNode )
+			{
+				// Move the child node to the top of all other children
+				parent.placeLast(pNode);
+				changed = true;
+			}
 			// Recursively reorder the node's parent
-			placeOnTop(parent);
+			changed |= reorder(parent);
+		}
+		else if( containsAsRoot(pNode) && aRootNodes.get(aRootNodes.size() - 1) != pNode )
+		{
+			aRootNodes.remove(pNode);
+			aRootNodes.add(pNode);
+			changed = true;
 		}
-		else if( containsAsRoot(pNode) )
+		return changed;
+	}
+	
+	/*
+	 * The edges connected to a node. Each list is exposed through 
+	 * an unmodifiable view created once, so that lookups do not allocate.
+	 */
+	private static final class Adjacency
+	{
+		private final List<Edge> aOutgoing = new ArrayList<>();
+		private final List<Edge> aIncoming = new ArrayList<>();
+		private final List<Edge> aAll = new ArrayList<>();
+		private final List<Edge> aOutgoingView = Collections.unmodifiableList(aOutgoing);
+		private final List<Edge> aIncomingView = Collections.unmodifiableList(aIncoming);
+		private final List<Edge> aAllView = Collections.unmodifiableList(aAll);
+		
+		boolean isEmpty()
 		{
-			removeRootNode(pNode);
-			addRootNode(pNode);
+			return aAll.isEmpty();
 		}
 	}
 }
\ No newline at end of file
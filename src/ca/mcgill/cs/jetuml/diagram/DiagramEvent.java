@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.diagram;
+
+/**
+ * A change to a diagram or to one of its elements, as reported 
+ * to the listeners of the diagram.
+ */
+public final class DiagramEvent
+{
+	/**
+	 * The kinds of changes that can be reported.
+	 */
+	public enum Kind
+	{
+		/** A root node was added to the diagram. */
+		NODE_ADDED, 
+		
+		/** A root node was removed from the diagram. */
+		NODE_REMOVED, 
+		
+		/** A node changed position. */
+		NODE_MOVED, 
+		
+		/** An edge was added to the diagram. */
+		EDGE_ADDED, 
+		
+		/** An edge was removed from the diagram. */
+		EDGE_REMOVED, 
+		
+		/** An edge of the diagram was connected to a different start or end node. */
+		EDGE_RECONNECTED, 
+		
+		/** The value of a property of a node or edge changed. */
+		PROPERTY_CHANGED, 
+		
+		/** A node gained or lost a child. The element of the event is the parent. */
+		CHILD_REPARENTED,
+		
+		/** 
+		 * A node was placed on top of the other nodes, which only changes the order in 
+		 * which nodes are drawn. The element of the event is the node. 
+		 */
+		NODE_REORDERED
+	}
+	
+	private final Kind aKind;
+	private final DiagramElement aElement;
+	private final long aVersion;
+	
+	/**
+	 * Creates a new event.
+	 * 
+	 * @param pKind The kind of change.
+	 * @param pElement The element that changed.
+	 * @param pVersion The version of the diagram after the change.
+	 * @pre pKind != null && pElement != null
+	 */
+	public DiagramEvent(Kind pKind, DiagramElement pElement, long pVersion)
+	{
+		assert pKind != null && pElement != null;
+		aKind = pKind;
+		aElement = pElement;
+		aVersion = pVersion;
+	}
+	
+	/**
+	 * @return The kind of change.
+	 */
+	public Kind getKind()
+	{
+		return aKind;
+	}
+	
+	/**
+	 * @return The element that changed.
+	 */
+	public DiagramElement getElement()
+	{
+		return aElement;
+	}
+	
+	/**
+	 * @return The version of the diagram after the change.
+	 */
+	public long getVersion()
+	{
+		return aVersion;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return aKind + " " + aElement + " v" + aVersion;
+	}
+}
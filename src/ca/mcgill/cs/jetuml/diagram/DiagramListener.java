@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.diagram;
+
+/**
+ * Objects interested in changes to a diagram, such as caches
+ * of values computed from the state of its elements.
+ */
+public interface DiagramListener
+{
+	/**
+	 * Called after every change to the diagram or one of its elements.
+	 * 
+	 * @param pEvent The change.
+	 */
+	void diagramChanged(DiagramEvent pEvent);
+}
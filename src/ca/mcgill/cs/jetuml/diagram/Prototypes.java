@@ -22,12 +22,16 @@ package ca.mcgill.cs.jetuml.diagram;
 
 import static ca.mcgill.cs.jetuml.application.ApplicationResources.RESOURCES;
 
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.AssociationEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.CallEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.ConstructorEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.GeneralizationEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.NoteEdge;
@@ -39,6 +43,7 @@ import ca.mcgill.cs.jetuml.diagram.edges.UseCaseAssociationEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.UseCaseDependencyEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.UseCaseGeneralizationEdge;
 import ca.mcgill.cs.jetuml.diagram.nodes.ActorNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.FieldNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.FinalStateNode;
@@ -49,16 +54,23 @@ import ca.mcgill.cs.jetuml.diagram.nodes.NoteNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.ObjectNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.PackageDescriptionNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PointNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.StateNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.UseCaseNode;
 
 /**
- * Prototype objects for creating diagram elements.
+ * Prototype objects for creating diagram elements. 
+ * 
+ * This class also knows how to create a new element of each type of node 
+ * and edge from the simple name of its class, which is how the type of 
+ * the elements is saved in files.
  */
 public final class Prototypes
 {   // CSOFF:
 	private static final Prototypes INSTANCE = new Prototypes();
 	private final Map<DiagramElement, String> aKeys = new IdentityHashMap<>();
+	private final Map<String, Supplier<Node>> aNodeTypes = new HashMap<>();
+	private final Map<String, Supplier<Edge>> aEdgeTypes = new HashMap<>();
 	
 	public static final DiagramElement NOTE = create(new NoteNode(), "note");
 	public static final DiagramElement NOTE_CONNECTOR = create(new NoteEdge(), "note_connector");
@@ -103,7 +115,49 @@ public final class Prototypes
 	public static final DiagramElement USE_CASE_GENERALIZATION = 
 			create(new UseCaseGeneralizationEdge(), "use_case_generalization");	// CSON:
 	
-	private Prototypes() {}
+	private Prototypes() 
+	{
+		addNodeType(ActorNode.class, ActorNode::new);
+		addNodeType(CallNode.class, CallNode::new);
+		addNodeType(ClassNode.class, ClassNode::new);
+		addNodeType(FieldNode.class, FieldNode::new);
+		addNodeType(FinalStateNode.class, FinalStateNode::new);
+		addNodeType(ImplicitParameterNode.class, ImplicitParameterNode::new);
+		addNodeType(InitialStateNode.class, InitialStateNode::new);
+		addNodeType(InterfaceNode.class, InterfaceNode::new);
+		addNodeType(NoteNode.class, NoteNode::new);
+		addNodeType(ObjectNode.class, ObjectNode::new);
+		addNodeType(PackageDescriptionNode.class, PackageDescriptionNode::new);
+		addNodeType(PackageNode.class, PackageNode::new);
+		addNodeType(PointNode.class, PointNode::new);
+		addNodeType(StateNode.class, StateNode::new);
+		addNodeType(UseCaseNode.class, UseCaseNode::new);
+		
+		addEdgeType(AggregationEdge.class, AggregationEdge::new);
+		addEdgeType(AssociationEdge.class, AssociationEdge::new);
+		addEdgeType(CallEdge.class, CallEdge::new);
+		addEdgeType(ConstructorEdge.class, ConstructorEdge::new);
+		addEdgeType(DependencyEdge.class, DependencyEdge::new);
+		addEdgeType(GeneralizationEdge.class, GeneralizationEdge::new);
+		addEdgeType(NoteEdge.class, NoteEdge::new);
+		addEdgeType(ObjectCollaborationEdge.class, ObjectCollaborationEdge::new);
+		addEdgeType(ObjectReferenceEdge.class, ObjectReferenceEdge::new);
+		addEdgeType(ReturnEdge.class, ReturnEdge::new);
+		addEdgeType(StateTransitionEdge.class, StateTransitionEdge::new);
+		addEdgeType(UseCaseAssociationEdge.class, UseCaseAssociationEdge::new);
+		addEdgeType(UseCaseDependencyEdge.class, UseCaseDependencyEdge::new);
+		addEdgeType(UseCaseGeneralizationEdge.class, UseCaseGeneralizationEdge::new);
+	}
+	
+	private void addNodeType(Class<? extends Node> pType, Supplier<Node> pSupplier)
+	{
+		aNodeTypes.put(pType.getSimpleName(), pSupplier);
+	}
+	
+	private void addEdgeType(Class<? extends Edge> pType, Supplier<Edge> pSupplier)
+	{
+		aEdgeTypes.put(pType.getSimpleName(), pSupplier);
+	}
 	
 	/**
 	 * @return The singleton instance of this class.
@@ -113,6 +167,30 @@ public final class Prototypes
 		return INSTANCE;
 	}
 	
+	/**
+	 * @param pType The simple name of the class of a node.
+	 * @return A new node of type pType, with default properties, 
+	 *     or empty if there is no such type of node.
+	 * @pre pType != null
+	 */
+	public Optional<Node> createNode(String pType)
+	{
+		assert pType != null;
+		return Optional.ofNullable(aNodeTypes.get(pType)).map(Supplier::get);
+	}
+	
+	/**
+	 * @param pType The simple name of the class of an edge.
+	 * @return A new edge of type pType, with default properties, 
+	 *     or empty if there is no such type of edge.
+	 * @pre pType != null
+	 */
+	public Optional<Edge> createEdge(String pType)
+	{
+		assert pType != null;
+		return Optional.ofNullable(aEdgeTypes.get(pType)).map(Supplier::get);
+	}
+	
 	private static DiagramElement create(DiagramElement pElement, String pKey)
 	{
 		INSTANCE.aKeys.put(pElement, pKey);
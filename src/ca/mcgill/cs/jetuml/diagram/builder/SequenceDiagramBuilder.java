@@ -100,7 +100,7 @@ public class SequenceDiagramBuilder extends DiagramBuilder
 			Node startNode = start.get();
 			Node endNode = end.get();
 			return 	(startNode instanceof ImplicitParameterNode || startNode instanceof CallNode) && 
-					new ControlFlow(aDiagram).canCreateConstructedObject(endNode, pEnd);
+					ControlFlow.of(aDiagram).canCreateConstructedObject(endNode, pEnd);
 		}
 		return false;
 	}
@@ -109,7 +109,7 @@ public class SequenceDiagramBuilder extends DiagramBuilder
 	protected List<DiagramElement> getCoRemovals(DiagramElement pElement)
 	{
 		List<DiagramElement> result = super.getCoRemovals(pElement);
-		ControlFlow flow = new ControlFlow(aDiagram);
+		ControlFlow flow = ControlFlow.of(aDiagram);
 		if(pElement instanceof Node)
 		{
 			result.addAll(flow.getNodeUpstreams((Node)pElement));
@@ -195,7 +195,7 @@ public class SequenceDiagramBuilder extends DiagramBuilder
 	
 	private int computeInsertionIndex( Node pCaller, int pY)
 	{
-		for( CallEdge callee : new ControlFlow(aDiagram).getCalls(pCaller))
+		for( CallEdge callee : ControlFlow.of(aDiagram).getCalls(pCaller))
 		{
 			if( EdgeViewerRegistry.getConnectionPoints(callee).getY1() > pY )
 			{
@@ -60,7 +60,7 @@ public final class SequenceDiagramEdgeConstraints
 	 */
 	public static Constraint returnEdge(Edge pEdge, Node pStart, Node pEnd, Diagram pDiagram)
 	{
-		ControlFlow flow = new ControlFlow(pDiagram);
+		ControlFlow flow = ControlFlow.of(pDiagram);
 		return ()->
 		{
 			return !(pEdge.getClass() == ReturnEdge.class && 
@@ -95,7 +95,7 @@ public final class SequenceDiagramEdgeConstraints
 		{
 			return !(pEdge.getClass() == CallEdge.class && 
 					pStartNode.getClass() == ImplicitParameterNode.class &&
-					new ControlFlow(pDiagram).hasEntryPoint());
+					ControlFlow.of(pDiagram).hasEntryPoint());
 		};
 	}
 }
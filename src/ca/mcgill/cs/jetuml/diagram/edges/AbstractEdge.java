@@ -22,6 +22,7 @@ package ca.mcgill.cs.jetuml.diagram.edges;
 
 import ca.mcgill.cs.jetuml.diagram.AbstractDiagramElement;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
 
@@ -38,9 +39,41 @@ public abstract class AbstractEdge extends AbstractDiagramElement implements Edg
 	public void connect(Node pStart, Node pEnd, Diagram pDiagram)
 	{
 		assert pStart != null && pEnd != null;
+		Node oldStart = aStart;
+		Node oldEnd = aEnd;
+		Diagram oldDiagram = aDiagram;
 		aStart = pStart;
 		aEnd = pEnd;
 		aDiagram = pDiagram;
+		if( oldStart != null && oldEnd != null )
+		{
+			notifyReconnected(oldDiagram, oldStart, oldEnd);
+			if( pDiagram != oldDiagram )
+			{
+				notifyReconnected(pDiagram, oldStart, oldEnd);
+			}
+		}
+	}
+	
+	/*
+	 * Keeps the adjacency index of pDiagram in sync if this edge
+	 * was already part of it.
+	 */
+	private void notifyReconnected(Diagram pDiagram, Node pOldStart, Node pOldEnd)
+	{
+		if( pDiagram != null )
+		{
+			pDiagram.edgeReconnected(this, pOldStart, pOldEnd);
+		}
+	}
+
+	@Override
+	protected void notifyModified(Kind pKind)
+	{
+		if( aDiagram != null )
+		{
+			aDiagram.elementModified(pKind, this);
+		}
 	}
 
 	@Override
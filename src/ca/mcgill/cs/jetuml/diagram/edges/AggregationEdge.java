@@ -20,6 +20,8 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.diagram.edges;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
+
 /**
  *  An edge that that represents a UML aggregation or 
  *  composition, with optional labels.
@@ -64,12 +66,13 @@ public final class AggregationEdge extends ThreeLabelEdge
 	public void setType(Type pType)
 	{
 		aType = pType;
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 	
 	@Override
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add("Aggregation Type", () -> aType, pType -> aType = Type.valueOf((String) pType));
+		properties().add("Aggregation Type", () -> aType, pType -> setType(Type.valueOf((String) pType)));
 	}
 }
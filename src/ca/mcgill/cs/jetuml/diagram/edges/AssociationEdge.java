@@ -20,6 +20,8 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.diagram.edges;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
+
 /**
  *  An edge that that represents a UML association, with optional 
  *  labels and directionality.
@@ -43,6 +45,7 @@ public final class AssociationEdge extends ThreeLabelEdge
 	public void setDirectionality( Directionality pDirectionality )
 	{
 		aDirectionality = pDirectionality;
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 	
 	/**
@@ -58,6 +61,6 @@ public final class AssociationEdge extends ThreeLabelEdge
 	{
 		super.buildProperties();
 		properties().add("directionality", () -> aDirectionality, 
-				pDirectionality -> aDirectionality = Directionality.valueOf((String)pDirectionality ));
+				pDirectionality -> setDirectionality(Directionality.valueOf((String)pDirectionality)));
 	}
 }
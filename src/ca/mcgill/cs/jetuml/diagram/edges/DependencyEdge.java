@@ -20,6 +20,8 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.diagram.edges;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
+
 /**
  * An edge that that represents a UML dependency with an optional label.
  * A DependencyEdge can be either unidirectional (from start to end),
@@ -45,6 +47,7 @@ public final class DependencyEdge extends SingleLabelEdge
 	{
 		assert pDirectionality != null;
 		aDirectionality = pDirectionality;
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 
 	/**
@@ -60,6 +63,6 @@ public final class DependencyEdge extends SingleLabelEdge
 	{
 		super.buildProperties();
 		properties().add("directionality", () -> aDirectionality,
-				directionality -> aDirectionality = Directionality.valueOf((String) directionality));
+				directionality -> setDirectionality(Directionality.valueOf((String) directionality)));
 	}
 }
@@ -20,6 +20,8 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.diagram.edges;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
+
 /**
  *  An edge that that represents a UML generalization (inheritance
  *  or implementation).
@@ -65,12 +67,13 @@ public final class GeneralizationEdge extends AbstractEdge
 	public void setType(Type pType)
 	{
 		aType = pType;
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 	
 	@Override
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add("Generalization Type", () -> aType, pType -> aType = Type.valueOf((String) pType));
+		properties().add("Generalization Type", () -> aType, pType -> setType(Type.valueOf((String) pType)));
 	}
 }
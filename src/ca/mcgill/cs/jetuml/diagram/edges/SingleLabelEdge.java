@@ -20,6 +20,8 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.diagram.edges;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
+
 /**
  * An edge with a single middle label.
  */
@@ -34,6 +36,7 @@ public abstract class SingleLabelEdge extends AbstractEdge
 	public void setMiddleLabel(String pNewValue)
 	{
 		aLabelText = pNewValue;
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 
 	/**
@@ -49,6 +52,6 @@ public abstract class SingleLabelEdge extends AbstractEdge
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add("middleLabel", ()-> aLabelText, pLabel -> aLabelText = (String) pLabel );
+		properties().add("middleLabel", ()-> aLabelText, pLabel -> setMiddleLabel((String) pLabel));
 	}
 }
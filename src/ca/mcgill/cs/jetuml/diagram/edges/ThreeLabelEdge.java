@@ -20,6 +20,8 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.diagram.edges;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
+
 /**
  * An edge with three labels.
  */
@@ -34,6 +36,7 @@ public abstract class ThreeLabelEdge extends SingleLabelEdge
 	public void setStartLabel(String pLabel)
 	{
 		aStartLabel = pLabel;
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 	
 	/**
@@ -42,6 +45,7 @@ public abstract class ThreeLabelEdge extends SingleLabelEdge
 	public void setEndLabel(String pLabel)
 	{
 		aEndLabel = pLabel;
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 	
 	/**
@@ -64,7 +68,7 @@ public abstract class ThreeLabelEdge extends SingleLabelEdge
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().addAt("startLabel", ()-> aStartLabel, pLabel -> aStartLabel = (String) pLabel, 0);
-		properties().add("endLabel", ()-> aEndLabel, pLabel -> aEndLabel = (String) pLabel);
+		properties().addAt("startLabel", ()-> aStartLabel, pLabel -> setStartLabel((String) pLabel), 0);
+		properties().add("endLabel", ()-> aEndLabel, pLabel -> setEndLabel((String) pLabel));
 	}
 }
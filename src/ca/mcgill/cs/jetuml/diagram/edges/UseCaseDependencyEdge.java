@@ -20,6 +20,8 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.diagram.edges;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
+
 /**
  *  An edge that that represents a UML dependency
  *  between use cases.
@@ -67,10 +69,20 @@ public final class UseCaseDependencyEdge extends AbstractEdge
 		return aType;
 	}
 	
+	/**
+	 * Sets the type of dependency.
+	 * @param pType The desired type of dependency
+	 */
+	public void setType(Type pType)
+	{
+		aType = pType;
+		notifyModified(Kind.PROPERTY_CHANGED);
+	}
+	
 	@Override
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add("Dependency Type", () -> aType, pType -> aType = Type.valueOf((String)pType));
+		properties().add("Dependency Type", () -> aType, pType -> setType(Type.valueOf((String)pType)));
 	}
 }
@@ -27,6 +27,7 @@ import java.util.Optional;
 
 import ca.mcgill.cs.jetuml.diagram.AbstractDiagramElement;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.geom.Point;
 
@@ -42,6 +43,7 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 	public void translate(int pDeltaX, int pDeltaY)
 	{
 		aPosition = new Point( aPosition.getX() + pDeltaX, aPosition.getY() + pDeltaY );
+		notifyModified(Kind.NODE_MOVED);
 	}
 	
 	@Override
@@ -54,6 +56,7 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 	public final void moveTo(Point pPoint)
 	{
 		aPosition = pPoint;
+		notifyModified(Kind.NODE_MOVED);
 	}
 
 	@Override
@@ -74,8 +77,8 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().addInvisible("x", () -> aPosition.getX(), pX -> aPosition.setX((int)pX)); 
-		properties().addInvisible("y", () -> aPosition.getY(), pY -> aPosition.setY((int)pY));
+		properties().addInvisible("x", () -> aPosition.getX(), pX -> moveTo(new Point((int)pX, aPosition.getY()))); 
+		properties().addInvisible("y", () -> aPosition.getY(), pY -> moveTo(new Point(aPosition.getX(), (int)pY)));
 	}
 	
 	@Override
@@ -90,6 +93,12 @@ public abstract class AbstractNode extends AbstractDiagramElement implements Nod
 	{
 		aDiagram = Optional.empty();
 	}
+	
+	@Override
+	protected void notifyModified(Kind pKind)
+	{
+		aDiagram.ifPresent(diagram -> diagram.elementModified(pKind, this));
+	}
 
 	@Override
 	public final Optional<Diagram> getDiagram()
@@ -23,6 +23,7 @@ package ca.mcgill.cs.jetuml.diagram.nodes;
 
 import java.util.Optional;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
 import ca.mcgill.cs.jetuml.diagram.Node;
 
 /**
@@ -41,6 +42,7 @@ public class AbstractPackageNode extends AbstractNode
 	public void setName(String pName)
 	{
 		aName = pName;
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 
 	/**
@@ -77,7 +79,7 @@ public class AbstractPackageNode extends AbstractNode
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add("name", () -> aName, pName -> aName = (String)pName);
+		properties().add("name", () -> aName, pName -> setName((String)pName));
 	}
 
 	@Override
@@ -23,6 +23,7 @@ package ca.mcgill.cs.jetuml.diagram.nodes;
 
 import java.util.Optional;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
 import ca.mcgill.cs.jetuml.diagram.Node;
 
 /**
@@ -52,6 +53,7 @@ public class CallNode extends AbstractNode
 	public void setOpenBottom(boolean pNewValue)
 	{ 
 		aOpenBottom = pNewValue; 
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 
 	@Override
@@ -65,7 +67,7 @@ public class CallNode extends AbstractNode
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add("openBottom", () -> aOpenBottom, pOpen -> aOpenBottom = (boolean) pOpen);
+		properties().add("openBottom", () -> aOpenBottom, pOpen -> setOpenBottom((boolean) pOpen));
 	}
 	
 	/**
@@ -21,6 +21,8 @@
 
 package ca.mcgill.cs.jetuml.diagram.nodes;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
+
 /**
  * A class node in a class diagram.
  */
@@ -46,6 +48,7 @@ public final class ClassNode extends TypeNode
 	{
 		assert pNewValue != null;
 		aAttributes = pNewValue;
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 
 	/**
@@ -61,6 +64,6 @@ public final class ClassNode extends TypeNode
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().addAt("attributes", () -> aAttributes, pAttributes -> aAttributes = (String)pAttributes, 3);
+		properties().addAt("attributes", () -> aAttributes, pAttributes -> setAttributes((String)pAttributes), 3);
 	}
 }
@@ -23,6 +23,7 @@ package ca.mcgill.cs.jetuml.diagram.nodes;
 
 import java.util.Optional;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
 import ca.mcgill.cs.jetuml.diagram.Node;
 
 /**
@@ -48,6 +49,7 @@ public final class FieldNode extends NamedNode
 	public void setValue(String pNewValue)
 	{
 		aValue = pNewValue;
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 
 	/**
@@ -90,7 +92,7 @@ public final class FieldNode extends NamedNode
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add("value", () -> aValue, pValue -> aValue = (String) pValue);
+		properties().add("value", () -> aValue, pValue -> setValue((String) pValue));
 	}
 
 	@Override
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
 import ca.mcgill.cs.jetuml.diagram.Node;
 
 /**
@@ -75,6 +76,7 @@ public final class ImplicitParameterNode extends NamedNode
 		}
 		aCallNodes.add(pNode);
 		pNode.link(this);
+		notifyModified(Kind.CHILD_REPARENTED);
 	}
 
 	@Override
@@ -84,6 +86,7 @@ public final class ImplicitParameterNode extends NamedNode
 		assert pNode.getParent() == this;
 		aCallNodes.remove(pNode);
 		pNode.unlink();
+		notifyModified(Kind.CHILD_REPARENTED);
 	}
 	
 	@Override
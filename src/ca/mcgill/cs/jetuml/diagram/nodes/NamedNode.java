@@ -21,6 +21,8 @@
 
 package ca.mcgill.cs.jetuml.diagram.nodes;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
+
 /**
  * A node with a name.
  */
@@ -35,6 +37,7 @@ public abstract class NamedNode extends AbstractNode
 	public void setName(String pName)
 	{
 		aName = pName;
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 
 	/**
@@ -50,6 +53,6 @@ public abstract class NamedNode extends AbstractNode
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add("name", () -> aName, pName -> aName = (String)pName);
+		properties().add("name", () -> aName, pName -> setName((String)pName));
 	}
 }
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
 import ca.mcgill.cs.jetuml.diagram.Node;
 
 /**
@@ -77,6 +78,7 @@ public final class ObjectNode extends NamedNode
 		}
 		aFields.add(pIndex, pNode);
 		pNode.link(this);
+		notifyModified(Kind.CHILD_REPARENTED);
 	}
 
 	@Override
@@ -92,6 +94,7 @@ public final class ObjectNode extends NamedNode
 		assert pNode.getParent() == this;
 		aFields.remove(pNode);
 		pNode.unlink();
+		notifyModified(Kind.CHILD_REPARENTED);
 	}
 	
 	@Override
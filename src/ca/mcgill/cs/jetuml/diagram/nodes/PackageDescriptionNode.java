@@ -21,6 +21,8 @@
 
 package ca.mcgill.cs.jetuml.diagram.nodes;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
+
 /**
  * A package description node in a UML diagram.
  */
@@ -37,6 +39,7 @@ public final class PackageDescriptionNode extends AbstractPackageNode
 	{
 		assert pContents != null;
 		aContents = pContents;
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 	
 	/**
@@ -58,6 +61,6 @@ public final class PackageDescriptionNode extends AbstractPackageNode
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add("contents", () -> aContents, pContents -> aContents = (String)pContents);
+		properties().add("contents", () -> aContents, pContents -> setContents((String)pContents));
 	}
 }
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
 import ca.mcgill.cs.jetuml.diagram.Node;
 
 /**
@@ -73,6 +74,7 @@ public final class PackageNode extends AbstractPackageNode
 		}
 		aContainedNodes.add(pIndex, pNode);
 		pNode.link(this);
+		notifyModified(Kind.CHILD_REPARENTED);
 	}
 
 	@Override
@@ -89,6 +91,20 @@ public final class PackageNode extends AbstractPackageNode
 		assert pNode.getParent() == this;
 		aContainedNodes.remove(pNode);
 		pNode.unlink();
+		notifyModified(Kind.CHILD_REPARENTED);
+	}
+	
+	/*
+	 * Changing the order of the children does not reparent them, 
+	 * so it is not reported as a change.
+	 */
+	@Override
+	public void placeLast(Node pNode)
+	{
+		assert pNode != null;
+		assert getChildren().contains(pNode);
+		aContainedNodes.remove(pNode);
+		aContainedNodes.add(pNode);
 	}
 	
 	@Override
@@ -23,6 +23,7 @@ package ca.mcgill.cs.jetuml.diagram.nodes;
 
 import java.util.Optional;
 
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent.Kind;
 import ca.mcgill.cs.jetuml.diagram.Node;
 
 /**
@@ -43,6 +44,7 @@ public abstract class TypeNode extends NamedNode
 	{
 		assert pMethods != null;
 		aMethods = pMethods;
+		notifyModified(Kind.PROPERTY_CHANGED);
 	}
 	
 	/**
@@ -95,7 +97,7 @@ public abstract class TypeNode extends NamedNode
 	protected void buildProperties()
 	{
 		super.buildProperties();
-		properties().add("methods", () -> aMethods, pMethods -> aMethods = (String)pMethods);
+		properties().add("methods", () -> aMethods, pMethods -> setMethods((String)pMethods));
 	}
 	
 	@Override
@@ -107,6 +107,35 @@ public class Line
 				abs(getX2() - getX1()), abs(getY2() - getY1()));
 	}
 	
+	@Override
+	public int hashCode()
+	{
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + aPoint1.hashCode();
+		result = prime * result + aPoint2.hashCode();
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object pObject)
+	{
+		if(this == pObject)
+		{
+			return true;
+		}
+		if(pObject == null)
+		{
+			return false;
+		}
+		if(getClass() != pObject.getClass())
+		{
+			return false;
+		}
+		Line other = (Line) pObject;
+		return aPoint1.equals(other.aPoint1) && aPoint2.equals(other.aPoint2);
+	}
+	
 	@Override
 	public String toString()
 	{
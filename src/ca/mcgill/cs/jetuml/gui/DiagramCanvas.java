@@ -22,14 +22,28 @@ package ca.mcgill.cs.jetuml.gui;
 
 import static ca.mcgill.cs.jetuml.diagram.DiagramType.viewerFor;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
 import ca.mcgill.cs.jetuml.application.UserPreferences;
 import ca.mcgill.cs.jetuml.application.UserPreferences.BooleanPreference;
 import ca.mcgill.cs.jetuml.application.UserPreferences.BooleanPreferenceChangeHandler;
 import ca.mcgill.cs.jetuml.application.UserPreferences.IntegerPreference;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramElement;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
 import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.geom.Dimension;
+import ca.mcgill.cs.jetuml.geom.Line;
+import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
+import ca.mcgill.cs.jetuml.views.GeometryChange;
 import ca.mcgill.cs.jetuml.views.Grid;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import ca.mcgill.cs.jetuml.views.ViewerUtilities;
@@ -38,7 +52,21 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
 /**
- * A canvas on which to view diagrams.
+ * A canvas on which to view diagrams. The selection handles, the rubberband, 
+ * and the lasso are drawn on a separate, transparent overlay canvas that must 
+ * be stacked on top of this one, so that they can be redrawn without redrawing
+ * the diagram.
+ * 
+ * A canvas is either sized to the entire diagram, or virtual. A virtual canvas
+ * only covers the visible area of the diagram: it is resized and moved to this 
+ * area every time it changes, and draws the diagram translated so that its 
+ * origin is at the top-left corner of the area. The memory used by a virtual 
+ * canvas therefore does not depend on the size of the diagram. A virtual canvas 
+ * is also zoomed: the diagram is drawn scaled, and the canvas has the size of
+ * the visible area on the screen, whatever the scale. The position of a virtual 
+ * canvas is therefore expressed in the coordinates of the entire diagram, scaled. 
+ * The coordinates of the diagram, available through getDiagramDimension() and 
+ * toDiagramPoint(), are those used to interact with it.
  */
 public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanPreferenceChangeHandler
 {	
@@ -47,25 +75,121 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	 * is automatically increased to accommodate a diagram larger than the 
 	 * preferred size. */
 	private static final int DIMENSION_BUFFER = 20;
+	/* The number of pixels by which a damaged region is grown to include
+	 * the drop shadows around the elements and the selection handles. */
+	private static final int DAMAGE_MARGIN = 10;
+	/* The number of elements that can change between two paints before the
+	 * entire canvas is painted instead of the region they cover. */
+	private static final int MAX_DAMAGED_ELEMENTS = 64;
+	/* The number of times a damaged region is grown to include the elements 
+	 * that intersect it before the entire canvas is painted instead. */
+	private static final int MAX_EXPANSIONS = 4;
 	
 	private final Diagram aDiagram;
+	private final Dimension aDiagramDimension;
+	private final boolean aVirtual;
+	private final Canvas aOverlay = new Canvas();
+	private final RepaintScheduler aRepaintScheduler = new RepaintScheduler(this::paintPanel);
 	private DiagramCanvasController aController;
+	private Optional<Rectangle> aVisibleBounds = Optional.empty();
+	private Point aOrigin = new Point(0, 0); // The point of the diagram at the top-left corner of the canvas
+	private double aScale = 1;
+	private boolean aOverview;
+	
+	/* What was drawn the last time the canvas was painted, and the elements 
+	 * changed since, to find the region that needs to be painted again. */
+	private final Map<DiagramElement, Rectangle> aPaintedBounds = new IdentityHashMap<>();
+	private final Set<DiagramElement> aDamagedElements = Collections.newSetFromMap(new IdentityHashMap<>());
+	private Optional<Rectangle> aPaintedRegion = Optional.empty();
+	private Optional<Rectangle> aPaintedOverlay = Optional.empty();
+	private boolean aRepaintAll = true;
 	
 	/**
-	 * Constructs the canvas, assigns the diagram to it.
+	 * Constructs the canvas, assigns the diagram to it. The canvas
+	 * is sized to the entire diagram.
 	 * 
 	 * @param pDiagram The diagram to draw on this canvas.
 	 * @pre pDiagram != null;
 	 */
 	public DiagramCanvas(Diagram pDiagram)
+	{
+		this(pDiagram, false);
+	}
+	
+	/**
+	 * Constructs the canvas, assigns the diagram to it. A virtual canvas 
+	 * is empty until its visible bounds are set.
+	 * 
+	 * @param pDiagram The diagram to draw on this canvas.
+	 * @param pVirtual True if the canvas should only cover the visible area of the diagram.
+	 * @pre pDiagram != null;
+	 */
+	public DiagramCanvas(Diagram pDiagram, boolean pVirtual)
 	{
 		assert pDiagram != null;
-		Dimension dimension = getDiagramCanvasWidth(pDiagram);
-		setWidth(dimension.width());
-		setHeight(dimension.height());
+		aDiagramDimension = getDiagramCanvasWidth(pDiagram);
+		aVirtual = pVirtual;
+		if( !aVirtual )
+		{
+			setCanvasSize(aDiagramDimension.width(), aDiagramDimension.height());
+		}
 		getGraphicsContext2D().setLineWidth(LINE_WIDTH);
 		getGraphicsContext2D().setFill(Color.WHITE);
+		aOverlay.getGraphicsContext2D().setLineWidth(LINE_WIDTH);
+		aOverlay.setMouseTransparent(true);
 		aDiagram = pDiagram;
+		aDiagram.addListener(this::diagramChanged);
+	}
+	
+	/**
+	 * @return The dimension of the area in which the diagram is drawn. For a canvas
+	 *     that is not virtual, this is also the dimension of the canvas.
+	 */
+	public Dimension getDiagramDimension()
+	{
+		return aDiagramDimension;
+	}
+	
+	/**
+	 * @param pX The x coordinate of a point relative to this canvas.
+	 * @param pY The y coordinate of a point relative to this canvas.
+	 * @return The point of the diagram at this position of the canvas.
+	 */
+	public Point toDiagramPoint(double pX, double pY)
+	{
+		return new Point((int) (pX / aScale) + aOrigin.getX(), (int) (pY / aScale) + aOrigin.getY());
+	}
+	
+	/**
+	 * @return The canvas on which the selection is drawn. It has the same 
+	 *     size as this canvas and must be displayed on top of it.
+	 */
+	public Canvas getOverlay()
+	{
+		return aOverlay;
+	}
+	
+	/*
+	 * The elements damaged by a change are the element that changed, which
+	 * can change its appearance without changing its bounds, and the elements
+	 * whose geometry the change can affect. If there are too many of them, 
+	 * the entire canvas is painted again instead.
+	 */
+	private void diagramChanged(DiagramEvent pEvent)
+	{
+		if( aRepaintAll )
+		{
+			return;
+		}
+		GeometryChange change = GeometryChange.of(aDiagram, pEvent);
+		aDamagedElements.add(pEvent.getElement());
+		aDamagedElements.addAll(change.getNodes());
+		aDamagedElements.addAll(change.getEdges());
+		if( change.affectsAll() || aDamagedElements.size() > MAX_DAMAGED_ELEMENTS )
+		{
+			aRepaintAll = true;
+			aDamagedElements.clear();
+		}
 	}
 	
 	/**
@@ -84,6 +208,103 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	    return false;
 	}
 	
+	/**
+	 * Restricts the drawing of the diagram to the elements that intersect 
+	 * pVisibleBounds, and repaints the canvas if this area or the scale changed.
+	 * A virtual canvas is moved to the part of this area that lies within the 
+	 * diagram, scaled by pScale, and is repainted immediately so that it is never 
+	 * displayed at its new position with its previous content.
+	 * 
+	 * @param pVisibleBounds The area of the diagram visible to the user.
+	 * @param pScale The scale at which the diagram is drawn.
+	 * @pre pVisibleBounds != null && pScale > 0
+	 * @pre aVirtual || pScale == 1
+	 */
+	public void setVisibleBounds(Rectangle pVisibleBounds, double pScale)
+	{
+		assert pVisibleBounds != null && pScale > 0;
+		assert aVirtual || pScale == 1;
+		Rectangle visibleBounds = pVisibleBounds;
+		if( aVirtual )
+		{
+			visibleBounds = withinDiagram(pVisibleBounds);
+		}
+		if( !aVisibleBounds.isPresent() || !aVisibleBounds.get().equals(visibleBounds) || aScale != pScale )
+		{
+			aVisibleBounds = Optional.of(visibleBounds);
+			aScale = pScale;
+			aRepaintAll = true;
+			if( aVirtual )
+			{
+				moveTo(visibleBounds);
+				paintPanel();
+			}
+			else
+			{
+				requestRepaint();
+			}
+		}
+	}
+	
+	/**
+	 * Selects whether the diagram is drawn in full, or as an overview without
+	 * the details that are not legible at small scales, and repaints the 
+	 * canvas if this changes.
+	 * 
+	 * @param pOverview True to draw an overview of the diagram.
+	 */
+	public void setOverview(boolean pOverview)
+	{
+		if( aOverview != pOverview )
+		{
+			aOverview = pOverview;
+			aRepaintAll = true;
+			requestRepaint();
+		}
+	}
+	
+	/**
+	 * @return True if the diagram is drawn as an overview.
+	 */
+	boolean isOverview()
+	{
+		return aOverview;
+	}
+	
+	private Rectangle withinDiagram(Rectangle pArea)
+	{
+		int x = Math.max(pArea.getX(), 0);
+		int y = Math.max(pArea.getY(), 0);
+		int maxX = Math.max(Math.min(pArea.getMaxX(), aDiagramDimension.width()), x);
+		int maxY = Math.max(Math.min(pArea.getMaxY(), aDiagramDimension.height()), y);
+		return new Rectangle(x, y, maxX - x, maxY - y);
+	}
+	
+	/*
+	 * The content of the canvases no longer lines up with the diagram once
+	 * they are moved, so the entire overlay is cleared the next time it is painted.
+	 */
+	private void moveTo(Rectangle pArea)
+	{
+		setCanvasSize((int) Math.ceil(pArea.getWidth() * aScale), (int) Math.ceil(pArea.getHeight() * aScale));
+		double x = pArea.getX() * aScale;
+		double y = pArea.getY() * aScale;
+		relocate(x, y);
+		aOverlay.relocate(x, y);
+		getGraphicsContext2D().setTransform(aScale, 0, 0, aScale, -x, -y);
+		aOverlay.getGraphicsContext2D().setTransform(aScale, 0, 0, aScale, -x, -y);
+		aOrigin = new Point(pArea.getX(), pArea.getY());
+		aPaintedOverlay = Optional.of(pArea);
+	}
+	
+	private void setCanvasSize(int pWidth, int pHeight)
+	{
+		setWidth(pWidth);
+		setHeight(pHeight);
+		aOverlay.setWidth(pWidth);
+		aOverlay.setHeight(pHeight);
+	}
+	
 	/**
 	 * @return The diagram painted on this canvas.
 	 */
@@ -93,29 +314,242 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	}
 	
 	/**
-	 * Paints the panel and all the graph elements in aDiagramView.
-	 * Called after the panel is resized.
+	 * Paints the parts of the panel that changed since it was last painted.
+	 * If the diagram changed, the region to paint is the union of the previous 
+	 * and current bounds of the elements affected by the changes, and only the 
+	 * elements that intersect this region are drawn. The entire diagram is painted 
+	 * the first time, after the visible area or the grid preference change, and
+	 * when the changes affect too many elements. The overlay is then cleared and
+	 * the selection handles, rubberband, and lasso are drawn again on it.
+	 * 
+	 * This method paints the panel immediately. Code that reacts to a change
+	 * should call requestRepaint() instead, so that all the changes made
+	 * before the next frame are painted at once.
 	 */
 	public void paintPanel()
+	{
+		aController.synchronizeSelectionModel();
+		aPaintedRegion = Optional.empty();
+		if( aRepaintAll || !aDamagedElements.isEmpty() )
+		{
+			paintDiagram();
+		}
+		paintOverlay();
+	}
+	
+	/**
+	 * Schedules a repaint of the panel for the next frame. All the 
+	 * requests made before this frame result in a single repaint.
+	 */
+	public void requestRepaint()
+	{
+		aRepaintScheduler.requestRepaint();
+	}
+	
+	/**
+	 * @return The number of repaints requested since this canvas was created.
+	 */
+	public long getRequestedRepaints()
+	{
+		return aRepaintScheduler.getRequestedRepaints();
+	}
+	
+	/**
+	 * @return The number of repaints performed in response to a request 
+	 *     since this canvas was created.
+	 */
+	public long getPerformedRepaints()
+	{
+		return aRepaintScheduler.getPerformedRepaints();
+	}
+	
+	/**
+	 * @return The region of the diagram painted the last time the panel 
+	 *     was painted, if any. The region is empty if only the overlay was painted.
+	 */
+	Optional<Rectangle> getPaintedRegion()
+	{
+		return aPaintedRegion;
+	}
+	
+	/*
+	 * The bounds of all the elements are only recorded when the entire canvas
+	 * is painted. Otherwise, only the bounds of the damaged elements are updated.
+	 */
+	private void paintDiagram()
+	{
+		if( !aRepaintAll )
+		{
+			Optional<Rectangle> damaged = getDamagedRegion();
+			if( damaged.isPresent() )
+			{
+				aPaintedRegion = includeIntersectingElements(grow(damaged.get()));
+				aPaintedRegion.ifPresent(region -> paint(region, aPaintedRegion));
+				aRepaintAll = !aPaintedRegion.isPresent();
+			}
+		}
+		if( aRepaintAll )
+		{
+			Rectangle region = new Rectangle(aOrigin.getX(), aOrigin.getY(), 
+					(int) Math.ceil(getWidth() / aScale), (int) Math.ceil(getHeight() / aScale));
+			paint(region, aVisibleBounds);
+			aPaintedRegion = Optional.of(region);
+			aPaintedBounds.clear();
+			aDiagram.rootNodes().forEach(this::addNodeBounds);
+			aDiagram.edges().forEach(edge -> aPaintedBounds.put(edge, ViewerUtilities.getBounds(edge)));
+		}
+		aDamagedElements.clear();
+		aRepaintAll = false;
+	}
+	
+	/*
+	 * Only the area covered by the previous overlay is cleared, so the cost 
+	 * of redrawing the overlay does not depend on the size of the diagram.
+	 */
+	private void paintOverlay()
+	{
+		GraphicsContext context = aOverlay.getGraphicsContext2D();
+		aPaintedOverlay.map(DiagramCanvas::grow).ifPresent(area -> 
+				context.clearRect(area.getX(), area.getY(), area.getWidth(), area.getHeight()));
+		aController.getSelectionModel().forEach( selected -> ViewerUtilities.drawSelectionHandles(selected, context));
+		aController.getSelectionModel().getRubberband().ifPresent( rubberband -> 
+				ToolGraphics.drawRubberband(DrawingContext.of(context), rubberband));
+		aController.getSelectionModel().getLasso().ifPresent( lasso -> ToolGraphics.drawLasso(DrawingContext.of(context), lasso));
+		aPaintedOverlay = getOverlayBounds();
+	}
+	
+	/*
+	 * Clears pRegion and paints the grid and the elements that intersect pDrawingArea 
+	 * (or all the elements if it is empty), clipped to pRegion.
+	 */
+	private void paint(Rectangle pRegion, Optional<Rectangle> pDrawingArea)
 	{
 		GraphicsContext context = getGraphicsContext2D();
+		context.save();
+		context.beginPath();
+		context.rect(pRegion.getX(), pRegion.getY(), pRegion.getWidth(), pRegion.getHeight());
+		context.clip();
+		context.beginPath();
 		context.setFill(Color.WHITE); 
-		context.fillRect(0, 0, getWidth(), getHeight());
+		context.fillRect(pRegion.getX(), pRegion.getY(), pRegion.getWidth(), pRegion.getHeight());
 		if(UserPreferences.instance().getBoolean(BooleanPreference.showGrid)) 
 		{
-			Grid.draw(context, new Rectangle(0, 0, (int) getWidth(), (int) getHeight()));
+			Grid.draw(context, pRegion);
 		}
-		DiagramType.viewerFor(aDiagram).draw(aDiagram, context);
-		aController.synchronizeSelectionModel();
-		aController.getSelectionModel().forEach( selected -> ViewerUtilities.drawSelectionHandles(selected, context));
-		aController.getSelectionModel().getRubberband().ifPresent( rubberband -> ToolGraphics.drawRubberband(context, rubberband));
-		aController.getSelectionModel().getLasso().ifPresent( lasso -> ToolGraphics.drawLasso(context, lasso));
+		if( aOverview )
+		{
+			DiagramType.viewerFor(aDiagram).drawOverview(aDiagram, context, pDrawingArea.orElse(pRegion));
+		}
+		else if( pDrawingArea.isPresent() )
+		{
+			DiagramType.viewerFor(aDiagram).draw(aDiagram, context, pDrawingArea.get());
+		}
+		else
+		{
+			DiagramType.viewerFor(aDiagram).draw(aDiagram, context);
+		}
+		context.restore();
+	}
+	
+	private void addNodeBounds(Node pNode)
+	{
+		aPaintedBounds.put(pNode, ViewerUtilities.getBounds(pNode));
+		pNode.getChildren().forEach(this::addNodeBounds);
+	}
+	
+	/*
+	 * The area covered by the selection handles, the rubberband, and the lasso.
+	 */
+	private Optional<Rectangle> getOverlayBounds()
+	{
+		Optional<Rectangle> result = Optional.empty();
+		for( DiagramElement selected : aController.getSelectionModel() )
+		{
+			result = union(result, ViewerUtilities.getBounds(selected));
+		}
+		Optional<Line> rubberband = aController.getSelectionModel().getRubberband();
+		if( rubberband.isPresent() )
+		{
+			result = union(result, rubberband.get().spanning());
+		}
+		Optional<Rectangle> lasso = aController.getSelectionModel().getLasso();
+		if( lasso.isPresent() )
+		{
+			result = union(result, lasso.get());
+		}
+		return result;
+	}
+	
+	/*
+	 * The union of the bounds painted for the damaged elements and of their 
+	 * current bounds, which replace them. Elements that are no longer in the
+	 * diagram only have painted bounds.
+	 */
+	private Optional<Rectangle> getDamagedRegion()
+	{
+		Optional<Rectangle> result = Optional.empty();
+		for( DiagramElement element : aDamagedElements )
+		{
+			Rectangle previous = aPaintedBounds.remove(element);
+			if( previous != null )
+			{
+				result = union(result, previous);
+			}
+			if( GeometryChange.isInDiagram(aDiagram, element) )
+			{
+				Rectangle bounds = ViewerUtilities.getBounds(element);
+				aPaintedBounds.put(element, bounds);
+				result = union(result, bounds);
+			}
+		}
+		return result;
+	}
+	
+	/*
+	 * Grows pRegion until it contains all the elements that intersect it, so that 
+	 * the elements redrawn are never cut by the clip: text in particular 
+	 * is not rendered reliably across the edges of a clip. Each pass tests all the
+	 * elements, so the region is only grown a few times. If it still needs to grow,
+	 * the result is empty and the entire canvas must be painted instead.
+	 */
+	private Optional<Rectangle> includeIntersectingElements(Rectangle pRegion)
+	{
+		Rectangle region = pRegion;
+		for( int i = 0; i < MAX_EXPANSIONS; i++ )
+		{
+			Rectangle grown = region;
+			for( Rectangle bounds : aPaintedBounds.values() )
+			{
+				Rectangle area = grow(bounds);
+				if( area.intersects(grown) && !grown.contains(area) )
+				{
+					grown = grown.add(area);
+				}
+			}
+			if( grown.equals(region) )
+			{
+				return Optional.of(region);
+			}
+			region = grown;
+		}
+		return Optional.empty();
+	}
+	
+	private static Rectangle grow(Rectangle pRectangle)
+	{
+		return new Rectangle(pRectangle.getX() - DAMAGE_MARGIN, pRectangle.getY() - DAMAGE_MARGIN, 
+				pRectangle.getWidth() + 2 * DAMAGE_MARGIN, pRectangle.getHeight() + 2 * DAMAGE_MARGIN);
+	}
+	
+	private static Optional<Rectangle> union(Optional<Rectangle> pRegion, Rectangle pRectangle)
+	{
+		return Optional.of(pRegion.map(region -> region.add(pRectangle)).orElse(pRectangle));
 	}
 	
 	@Override
 	public void selectionModelChanged()
 	{
-		paintPanel();		
+		requestRepaint();
 	}
 
 	@Override
@@ -123,7 +557,8 @@ public class DiagramCanvas extends Canvas implements SelectionObserver, BooleanP
 	{
 		if( pPreference == BooleanPreference.showGrid )
 		{
-			paintPanel();
+			aRepaintAll = true;
+			requestRepaint();
 		}
 	}
 	
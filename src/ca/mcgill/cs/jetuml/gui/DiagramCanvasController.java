@@ -45,7 +45,6 @@ import ca.mcgill.cs.jetuml.diagram.builder.SequenceDiagramBuilder;
 import ca.mcgill.cs.jetuml.diagram.edges.ConstructorEdge;
 import ca.mcgill.cs.jetuml.diagram.nodes.FieldNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
-import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
@@ -86,7 +85,7 @@ public class DiagramCanvasController
 	{
 		aCanvas = pCanvas;
 		aDiagramBuilder = DiagramType.newBuilderInstanceFor(aCanvas.getDiagram());
-		aDiagramBuilder.setCanvasDimension(new Dimension((int) aCanvas.getWidth(), (int)aCanvas.getHeight()));
+		aDiagramBuilder.setCanvasDimension(aCanvas.getDiagramDimension());
 		aSelectionModel = new SelectionModel(aCanvas);
 		aToolBar = pToolBar;
 		aCanvas.setOnMousePressed(this::mousePressed);
@@ -147,7 +146,7 @@ public class DiagramCanvasController
 		if( edited.isPresent() )
 		{
 			PropertyEditorDialog dialog = new PropertyEditorDialog((Stage)aCanvas.getScene().getWindow(), 
-					edited.get(), ()-> aCanvas.paintPanel());
+					edited.get(), ()-> aCanvas.requestRepaint());
 			
 			CompoundOperation operation = dialog.show();
 			if(!operation.isEmpty())
@@ -180,7 +179,7 @@ public class DiagramCanvasController
 		}
 		aSelectionModel.setSelectionTo(newElementList);
 		Clipboard.instance().copy(newElements);
-		aCanvas.paintPanel();
+		aCanvas.requestRepaint();
 	}
 	
 	/**
@@ -208,7 +207,7 @@ public class DiagramCanvasController
 		if( aProcessor.canUndo() )
 		{
 			aProcessor.undoLastExecutedOperation();
-			aCanvas.paintPanel();
+			aCanvas.requestRepaint();
 		}
 	}
 	
@@ -222,7 +221,7 @@ public class DiagramCanvasController
 		if( aProcessor.canRedo() )
 		{
 			aProcessor.redoLastUndoneOperation();
-			aCanvas.paintPanel();
+			aCanvas.requestRepaint();
 		}
 	}
 	
@@ -241,7 +240,7 @@ public class DiagramCanvasController
 	{
 		aProcessor.executeNewOperation(aDiagramBuilder.createRemoveElementsOperation(aSelectionModel));
 		aSelectionModel.clearSelection();
-		aCanvas.paintPanel();
+		aCanvas.requestRepaint();
 	}
 	
 	/**
@@ -270,7 +269,7 @@ public class DiagramCanvasController
 	
 	private Point getMousePoint(MouseEvent pEvent)
 	{
-		return new Point((int)pEvent.getX(), (int)pEvent.getY());
+		return aCanvas.toDiagramPoint(pEvent.getX(), pEvent.getY());
 	}
 
 	private Optional<? extends DiagramElement> getSelectedElement(MouseEvent pEvent)
@@ -380,7 +379,7 @@ public class DiagramCanvasController
 			aProcessor.executeNewOperation(aDiagramBuilder.createAddNodeOperation(newNode, new Point(point.getX(), point.getY())));
 			aSelectionModel.set(newNode);
 			aCanvas.getDiagram().placeOnTop(newNode);
-			aCanvas.paintPanel();
+			aCanvas.requestRepaint();
 			if( UserPreferences.instance().getBoolean(BooleanPreference.autoEditNode))
 			{
 				editSelected();
@@ -427,7 +426,7 @@ public class DiagramCanvasController
 		Point point = getMousePoint(pEvent);
 		aLastMousePoint = new Point(point.getX(), point.getY()); 
 		aMouseDownPoint = aLastMousePoint;
-		aCanvas.paintPanel();
+		aCanvas.requestRepaint();
 	}
 
 	private void mouseReleased(MouseEvent pEvent)
@@ -466,7 +465,7 @@ public class DiagramCanvasController
 			{
 				selected.translate(dx, dy);
 			}
-			aCanvas.paintPanel();
+			aCanvas.requestRepaint();
 		}
 	}
 	
@@ -487,7 +486,7 @@ public class DiagramCanvasController
 				aProcessor.executeNewOperation(aDiagramBuilder.createAddEdgeOperation(newEdge, 
 						aMouseDownPoint, pMousePoint));
 				aSelectionModel.set(newEdge);
-				aCanvas.paintPanel();
+				aCanvas.requestRepaint();
 			}
 		}
 		aSelectionModel.deactivateRubberband();
@@ -500,7 +499,7 @@ public class DiagramCanvasController
 		{
 			aProcessor.storeAlreadyExecutedOperation(operation);
 		}
-		aCanvas.paintPanel();
+		aCanvas.requestRepaint();
 	}
 
 	private void mouseDragged(MouseEvent pEvent)
@@ -561,15 +560,15 @@ public class DiagramCanvasController
 		Rectangle bounds = aSelectionModel.getEntireSelectionBounds();
 		dx = Math.max(dx, -bounds.getX());
 		dy = Math.max(dy, -bounds.getY());
-		dx = Math.min(dx, (int) aCanvas.getWidth() - bounds.getMaxX());
-		dy = Math.min(dy, (int) aCanvas.getHeight() - bounds.getMaxY());
+		dx = Math.min(dx, aCanvas.getDiagramDimension().width() - bounds.getMaxX());
+		dy = Math.min(dy, aCanvas.getDiagramDimension().height() - bounds.getMaxY());
 
 		for(Node selected : aSelectionModel.getSelectedNodes())
 		{
 			selected.translate(dx, dy);
 		}
 		aLastMousePoint = pMousePoint; 
-		aCanvas.paintPanel();
+		aCanvas.requestRepaint();
 	}
 	
 	/**
@@ -592,6 +591,6 @@ public class DiagramCanvasController
 		}
 		// Place the modified nodes on the top
 		selectedNodes.forEach(node -> aCanvas.getDiagram().placeOnTop(node));
-		aCanvas.paintPanel();
+		aCanvas.requestRepaint();
 	}
 }
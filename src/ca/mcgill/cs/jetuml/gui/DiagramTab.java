@@ -30,14 +30,17 @@ import java.util.Optional;
 
 import ca.mcgill.cs.jetuml.application.UserPreferences;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import javafx.beans.binding.DoubleBinding;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.geometry.Bounds;
-import javafx.scene.Group;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Tab;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 
 /**
@@ -47,8 +50,10 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 {
 	private static final double DEFAULT_SCALE = 1.0;
 	private static final double SCALE_MULTIPLIER = 1.25;
-	private static final double ZOOM_MIN = DEFAULT_SCALE / (SCALE_MULTIPLIER * SCALE_MULTIPLIER);
+	private static final double ZOOM_MIN = DEFAULT_SCALE / (SCALE_MULTIPLIER * SCALE_MULTIPLIER * SCALE_MULTIPLIER * SCALE_MULTIPLIER);
 	private static final double ZOOM_MAX = DEFAULT_SCALE * SCALE_MULTIPLIER * SCALE_MULTIPLIER;
+	private static final int BUFFER = 12; // (border insets + border width + 1)*2
+	private static final double OVERVIEW_SCALE = 0.6; // Below this zoom level, only an overview of the diagram is drawn
 	
 	private final DoubleProperty aZoom;
 	private final Diagram aDiagram;
@@ -65,7 +70,7 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		aDiagram = pDiagram;
 		DiagramTabToolBar sideBar = new DiagramTabToolBar(pDiagram);
 		UserPreferences.instance().addBooleanPreferenceChangeHandler(sideBar);
-		aDiagramCanvas = new DiagramCanvas(pDiagram);
+		aDiagramCanvas = new DiagramCanvas(pDiagram, true);
 		UserPreferences.instance().addBooleanPreferenceChangeHandler(aDiagramCanvas);
 		aDiagramCanvasController = new DiagramCanvasController(aDiagramCanvas, sideBar, this);
 		aDiagramCanvas.setController(aDiagramCanvasController);
@@ -74,25 +79,36 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		BorderPane layout = new BorderPane();
 		layout.setRight(sideBar);
 
+		// The canvas is virtual: it only covers the visible part of the diagram, and moves 
+		// within a Pane that has the size of the entire diagram at the current zoom level. 
+		// The zoom is applied by the canvas when it draws the diagram, so that the canvas 
+		// keeps the size of the viewport. The Pane also layers the overlay on which the 
+		// selection is drawn on top of the diagram.
+		aZoom = new SimpleDoubleProperty(DEFAULT_SCALE);
+		Dimension dimension = aDiagramCanvas.getDiagramDimension();
+		DoubleBinding width = aZoom.multiply(dimension.width());
+		DoubleBinding height = aZoom.multiply(dimension.height());
+		Pane area = new Pane(aDiagramCanvas, aDiagramCanvas.getOverlay());
+		area.minWidthProperty().bind(width);
+		area.prefWidthProperty().bind(width);
+		area.maxWidthProperty().bind(width);
+		area.minHeightProperty().bind(height);
+		area.prefHeightProperty().bind(height);
+		area.maxHeightProperty().bind(height);
+		
 		// We put the diagram in a fixed-size StackPane for the sole purpose of being able to
 		// decorate it with CSS. The StackPane needs to have a fixed size so the border fits the 
-		// canvas and not the parent container.
-		StackPane pane = new StackPane(aDiagramCanvas);
-		final int buffer = 12; // (border insets + border width + 1)*2
-		pane.setMaxSize(aDiagramCanvas.getWidth() + buffer, aDiagramCanvas.getHeight() + buffer);
+		// diagram and not the parent container.
+		StackPane pane = new StackPane(area);
+		pane.maxWidthProperty().bind(width.add(BUFFER));
+		pane.maxHeightProperty().bind(height.add(BUFFER));
 		final String cssDefault = "-fx-border-color: grey; -fx-border-insets: 4;"
 				+ "-fx-border-width: 1; -fx-border-style: solid;";
 		pane.setStyle(cssDefault);
 		
-		aZoom = new SimpleDoubleProperty(DEFAULT_SCALE);
-		pane.scaleXProperty().bind(aZoom);
-		pane.scaleYProperty().bind(aZoom);
-		
-		// First, wrap the StackPane in a Group to allow the scrolling to be based around the visual bounds
-		// of the canvas rather than its layout bounds.
-		// Then we wrap the Group within an additional, resizable StackPane that can grow to fit the parent
+		// We wrap the StackPane within an additional, resizable StackPane that can grow to fit the parent
 		// ScrollPane and thus center the decorated canvas.
-		ScrollPane scroll = new ScrollPane(new StackPane(new Group(pane)));
+		ScrollPane scroll = new ScrollPane(new StackPane(pane));
 		
 		// The call below is necessary to removes the focus highlight around the Canvas
 		// See issue #250
@@ -104,6 +120,16 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		
 		setTitle();
 		setContent(layout);
+		
+		// The overview must be selected before the visible bounds are updated, 
+		// as the visible bounds of the virtual canvas are painted immediately.
+		aZoom.addListener(pObservable -> aDiagramCanvas.setOverview(aZoom.get() < OVERVIEW_SCALE));
+		
+		// Only the part of the diagram visible in the viewport is drawn
+		scroll.hvalueProperty().addListener(pObservable -> updateVisibleBounds());
+		scroll.vvalueProperty().addListener(pObservable -> updateVisibleBounds());
+		scroll.viewportBoundsProperty().addListener(pObservable -> updateVisibleBounds());
+		aZoom.addListener(pObservable -> updateVisibleBounds());
 
 		setOnCloseRequest(pEvent -> 
 		{
@@ -136,6 +162,14 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		return aDiagram;
 	}
 	
+	/**
+	 * @return The canvas on which the diagram is drawn.
+	 */
+	DiagramCanvas getDiagramCanvas()
+	{
+		return aDiagramCanvas;
+	}
+	
 	/**
 	 * Copy the current selection to the clipboard.
 	 */
@@ -287,6 +321,11 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		((ScrollPane)((BorderPane)getContent()).getCenter()).setVvalue(projection.getAdjustedVValueToRevealY(pTo.getY()));
 	}
 	
+	/*
+	 * The projection of the viewport on the diagram, in the coordinates of the diagram. 
+	 * The dimensions of the viewport are converted to these coordinates to account for
+	 * the zoom level.
+	 */
 	private ViewportProjection getViewportProjection()
 	{
 		ScrollPane scrollPane = (ScrollPane)((BorderPane)getContent()).getCenter();
@@ -294,13 +333,25 @@ public class DiagramTab extends Tab implements MouseDraggedGestureHandler, KeyEv
 		// Because, when the scrollbars are not displayed, the Scrollpane will increase
 		// the viewport size beyond the canvas size, it's necessary to max out the dimensions
 		// at the size of the canvas.
-		int viewportWidth = Math.min((int) bounds.getWidth(), (int) aDiagramCanvas.getWidth());
-		int viewportHeight = Math.min((int) bounds.getHeight(), (int) aDiagramCanvas.getHeight());
+		Dimension dimension = aDiagramCanvas.getDiagramDimension();
+		int viewportWidth = Math.min((int) Math.ceil(bounds.getWidth() / aZoom.get()), dimension.width());
+		int viewportHeight = Math.min((int) Math.ceil(bounds.getHeight() / aZoom.get()), dimension.height());
 		return new ViewportProjection(viewportWidth, viewportHeight, 
-				(int) aDiagramCanvas.getWidth(), (int) aDiagramCanvas.getHeight(), 
+				dimension.width(), dimension.height(), 
 				scrollPane.getHvalue(), scrollPane.getVvalue());
 	}
 
+	/*
+	 * Because the projection ignores the border around the canvas, the 
+	 * visible area is grown by the size of this border on all sides.
+	 */
+	private void updateVisibleBounds()
+	{
+		Rectangle visible = getViewportProjection().getVisibleBounds();
+		aDiagramCanvas.setVisibleBounds(new Rectangle(visible.getX() - BUFFER, visible.getY() - BUFFER, 
+				visible.getWidth() + 2 * BUFFER, visible.getHeight() + 2 * BUFFER), aZoom.get());
+	}
+
 	@Override
 	public void shiftKeyPressed() 
 	{
@@ -389,6 +389,7 @@ public class EditorFrame extends BorderPane
 	public void copyToClipboard() 
 	{
 		DiagramTab frame = getSelectedDiagramTab();
+		warnIfScaledDown(frame.getDiagram());
 		final Image image = ImageCreator.createImage(frame.getDiagram());
 		final Clipboard clipboard = Clipboard.getSystemClipboard();
 	    final ClipboardContent content = new ClipboardContent();
@@ -400,6 +401,20 @@ public class EditorFrame extends BorderPane
 		alert.showAndWait();
 	}
 
+	/*
+	 * Tells the user that the image of pDiagram will not be at full size.
+	 */
+	private void warnIfScaledDown(Diagram pDiagram)
+	{
+		if( ImageCreator.isScaledDown(pDiagram) )
+		{
+			Alert alert = new Alert(AlertType.WARNING, RESOURCES.getString("warning.image_scaled.message"), ButtonType.OK);
+			alert.setTitle(RESOURCES.getString("warning.image_scaled.title"));
+			alert.initOwner(aMainStage);
+			alert.showAndWait();
+		}
+	}
+
 	/* @pre there is a selected diagram tab, not just the welcome tab */
 	private DiagramTab getSelectedDiagramTab()
 	{
@@ -573,6 +588,7 @@ public class EditorFrame extends BorderPane
 			setLastDir(KEY_LAST_EXPORT_DIR, dir);
 		}
 		DiagramTab frame = getSelectedDiagramTab();
+		warnIfScaledDown(frame.getDiagram());
 		try (OutputStream out = new FileOutputStream(file)) 
 		{
 			BufferedImage image = getBufferedImage(frame.getDiagram()); 
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.gui;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Coalesces the requests to repaint a component into at most one repaint
+ * per pulse of the JavaFX application thread. A request only marks the
+ * component as needing a repaint. The repaint is performed the next time
+ * the scene is rendered, however many requests were made in the meantime.
+ * The timer is stopped as soon as the repaint is done, so it does not run
+ * while there is nothing to repaint.
+ *
+ * This class must only be used from the JavaFX application thread.
+ */
+final class RepaintScheduler
+{
+	private final Runnable aRepaint;
+	private final AnimationTimer aTimer = new AnimationTimer()
+	{
+		@Override
+		public void handle(long pNow)
+		{
+			repaintIfNeeded();
+		}
+	};
+	private boolean aDirty;
+	private long aRequested;
+	private long aPerformed;
+
+	/**
+	 * Creates a scheduler for a repaint operation.
+	 *
+	 * @param pRepaint The operation that repaints the component.
+	 * @pre pRepaint != null
+	 */
+	RepaintScheduler(Runnable pRepaint)
+	{
+		assert pRepaint != null;
+		aRepaint = pRepaint;
+	}
+
+	/**
+	 * Requests a repaint at the next pulse.
+	 */
+	void requestRepaint()
+	{
+		aRequested++;
+		if( !aDirty )
+		{
+			aDirty = true;
+			aTimer.start();
+		}
+	}
+
+	/*
+	 * The timer is stopped before repainting, so that a request made
+	 * during the repaint schedules another one for the next pulse.
+	 */
+	private void repaintIfNeeded()
+	{
+		aTimer.stop();
+		if( aDirty )
+		{
+			aDirty = false;
+			aPerformed++;
+			aRepaint.run();
+		}
+	}
+
+	/**
+	 * @return The number of repaints requested since this scheduler was created.
+	 */
+	long getRequestedRepaints()
+	{
+		return aRequested;
+	}
+
+	/**
+	 * @return The number of repaints performed since this scheduler was created.
+	 */
+	long getPerformedRepaints()
+	{
+		return aPerformed;
+	}
+}
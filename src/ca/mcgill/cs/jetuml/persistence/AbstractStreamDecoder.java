@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import ca.mcgill.cs.jetuml.JetUML;
+import ca.mcgill.cs.jetuml.application.Version;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.Property;
+
+/**
+ * Base class for the decoders that create the elements of a diagram as its
+ * encoding is read, without building the JSONObject tree of the entire diagram. 
+ * Subclasses read the members of each node and edge into aMembers, and create
+ * the element as soon as all its members are read. Only the members of the 
+ * current element are kept until then, because the members of an element 
+ * can be in any order. The children of the nodes and the nodes connected by 
+ * the edges are restored once all the nodes are known.
+ *
+ * Diagrams saved with a version that is not compatible with the current one
+ * are not decoded: they have to be migrated by a VersionMigrator, which works
+ * on the JSONObject tree. As the version of a diagram can be read after its
+ * elements, the errors found in the elements are only reported once the version 
+ * of the diagram is known to be compatible.
+ */
+abstract class AbstractStreamDecoder
+{
+	protected final Map<String, Object> aMembers = new HashMap<>();
+	protected String aDiagramType;
+	protected String aVersion;
+	protected boolean aHasNodes;
+	protected boolean aHasEdges;
+	private final Map<Integer, Node> aNodes = new TreeMap<>();
+	private final Map<Node, JSONArray> aChildren = new LinkedHashMap<>();
+	private final Map<Edge, int[]> aEdges = new LinkedHashMap<>();
+	private DeserializationException aError;
+	
+	/**
+	 * Creates a node from the members read into aMembers.
+	 */
+	protected void createNode()
+	{
+		try
+		{
+			Node node = JsonDecoder.createNode(getString("type"));
+			setProperties(node.properties());
+			aNodes.put(getInt("id"), node);
+			if( aMembers.containsKey("children") )
+			{
+				aChildren.put(node, (JSONArray) get("children"));
+			}
+		}
+		catch( JSONException | ClassCastException | DeserializationException exception )
+		{
+			fail(exception);
+		}
+	}
+	
+	/**
+	 * Creates an edge from the members read into aMembers.
+	 */
+	protected void createEdge()
+	{
+		try
+		{
+			Edge edge = JsonDecoder.createEdge(getString("type"));
+			setProperties(edge.properties());
+			aEdges.put(edge, new int[] {getInt("start"), getInt("end")});
+		}
+		catch( JSONException | ClassCastException | DeserializationException exception )
+		{
+			fail(exception);
+		}
+	}
+	
+	private void setProperties(Iterable<Property> pProperties)
+	{
+		for( Property property : pProperties )
+		{
+			property.set(get(property.getName()));
+		}
+	}
+	
+	/*
+	 * Only the first error is reported.
+	 */
+	private void fail(RuntimeException pException)
+	{
+		if( aError != null )
+		{
+			return;
+		}
+		if( pException instanceof DeserializationException )
+		{
+			aError = (DeserializationException) pException;
+		}
+		else
+		{
+			aError = new DeserializationException("Cannot decode serialized object", pException);
+		}
+	}
+	
+	/**
+	 * Creates the diagram once its entire encoding is read.
+	 * 
+	 * @return The decoded diagram, or empty if the diagram was saved with a 
+	 *     version that is not compatible with the current one.
+	 * @throws DeserializationException If it's not possible to decode the diagram.
+	 */
+	protected Optional<VersionedDiagram> createDiagram()
+	{
+		if( aVersion == null )
+		{
+			throw new DeserializationException("Cannot decode the file: the version is missing");
+		}
+		try
+		{
+			Version version = Version.parse(aVersion);
+			if( !version.compatibleWith(JetUML.VERSION) )
+			{
+				return Optional.empty();
+			}
+			if( aError != null )
+			{
+				throw aError;
+			}
+			if( aDiagramType == null || !aHasNodes || !aHasEdges )
+			{
+				throw new DeserializationException("Cannot decode serialized object: the diagram is incomplete");
+			}
+			Diagram diagram = new Diagram(DiagramType.fromName(aDiagramType));
+			restoreNodes(diagram);
+			restoreEdges(diagram);
+			return Optional.of(new VersionedDiagram(diagram, version, false));
+		}
+		catch( JSONException | IllegalArgumentException exception )
+		{
+			throw new DeserializationException("Cannot decode serialized object", exception);
+		}
+	}
+	
+	/*
+	 * The root nodes are added in the order of their identifiers, 
+	 * which is the order in which they were saved.
+	 */
+	private void restoreNodes(Diagram pDiagram)
+	{
+		DeserializationContext context = new DeserializationContext(pDiagram);
+		aNodes.forEach((id, node) -> context.addNode(node, id));
+		for( Map.Entry<Node, JSONArray> children : aChildren.entrySet() )
+		{
+			for( int i = 0; i < children.getValue().length(); i++ )
+			{
+				children.getKey().addChild(getNode(children.getValue().getInt(i)));
+			}
+		}
+		for( Node node : aNodes.values() )
+		{
+			if( !node.hasParent() )
+			{
+				pDiagram.addRootNode(node);
+			}
+		}
+		context.attachNodes();
+	}
+	
+	private void restoreEdges(Diagram pDiagram)
+	{
+		for( Map.Entry<Edge, int[]> edge : aEdges.entrySet() )
+		{
+			edge.getKey().connect(getNode(edge.getValue()[0]), getNode(edge.getValue()[1]), pDiagram);
+			pDiagram.addEdge(edge.getKey());
+		}
+	}
+	
+	private Node getNode(int pId)
+	{
+		Node node = aNodes.get(pId);
+		if( node == null )
+		{
+			throw new DeserializationException("Cannot decode serialized object: no node with id " + pId);
+		}
+		return node;
+	}
+	
+	private Object get(String pName)
+	{
+		Object value = aMembers.get(pName);
+		if( value == null )
+		{
+			throw new JSONException("JSONObject[" + JSONObject.quote(pName) + "] not found.");
+		}
+		return value;
+	}
+	
+	private String getString(String pName)
+	{
+		return (String) get(pName);
+	}
+	
+	private int getInt(String pName)
+	{
+		return ((Number) get(pName)).intValue();
+	}
+}
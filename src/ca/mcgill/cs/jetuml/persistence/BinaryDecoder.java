@@ -0,0 +1,336 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static ca.mcgill.cs.jetuml.persistence.BinaryEncoder.FORMAT_REVISION;
+import static ca.mcgill.cs.jetuml.persistence.BinaryEncoder.MAGIC;
+import static ca.mcgill.cs.jetuml.persistence.BinaryEncoder.TAG_ARRAY;
+import static ca.mcgill.cs.jetuml.persistence.BinaryEncoder.TAG_FALSE;
+import static ca.mcgill.cs.jetuml.persistence.BinaryEncoder.TAG_INTEGER;
+import static ca.mcgill.cs.jetuml.persistence.BinaryEncoder.TAG_OBJECT;
+import static ca.mcgill.cs.jetuml.persistence.BinaryEncoder.TAG_STRING;
+import static ca.mcgill.cs.jetuml.persistence.BinaryEncoder.TAG_SYMBOL;
+import static ca.mcgill.cs.jetuml.persistence.BinaryEncoder.TAG_TRUE;
+import static ca.mcgill.cs.jetuml.persistence.BinaryEncoder.VARINT_BITS;
+import static ca.mcgill.cs.jetuml.persistence.BinaryEncoder.VARINT_MASK;
+import static ca.mcgill.cs.jetuml.persistence.BinaryEncoder.VARINT_MORE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import ca.mcgill.cs.jetuml.JetUML;
+import ca.mcgill.cs.jetuml.application.Version;
+
+/**
+ * Decodes a diagram as its binary encoding is read. The binary notation
+ * is described in BinaryEncoder.
+ * 
+ * The version of a diagram is in the header of its binary encoding. The 
+ * diagrams that must be migrated are thus read into a JSONObject tree from 
+ * the start, and migrated in the same way as diagrams saved in JSON.
+ */
+public final class BinaryDecoder extends AbstractStreamDecoder
+{
+	private static final int MAX_VARINT_BYTES = 5;
+	
+	private final InputStream aInput;
+	private final List<String> aSymbols = new ArrayList<>();
+	
+	private BinaryDecoder(InputStream pInput)
+	{
+		aInput = pInput;
+	}
+	
+	/**
+	 * Checks whether pInput starts with the header of a binary encoding, 
+	 * without consuming any of its bytes. 
+	 * 
+	 * @param pInput The stream to check, positioned at its beginning.
+	 * @return True if pInput starts with the header of a binary encoding.
+	 * @throws IOException If pInput cannot be read.
+	 * @pre pInput != null && pInput.markSupported()
+	 */
+	public static boolean hasHeader(InputStream pInput) throws IOException
+	{
+		assert pInput != null && pInput.markSupported();
+		pInput.mark(MAGIC.length);
+		byte[] start = pInput.readNBytes(MAGIC.length);
+		pInput.reset();
+		return Arrays.equals(MAGIC, start);
+	}
+	
+	/**
+	 * Reads the binary encoding of a diagram and decodes it. 
+	 * 
+	 * @param pInput The stream of the encoding, positioned at its beginning.
+	 * @return The decoded diagram.
+	 * @throws IOException If pInput cannot be read.
+	 * @throws DeserializationException If it's not possible to decode the diagram.
+	 * @pre pInput != null
+	 */
+	public static VersionedDiagram decode(InputStream pInput) throws IOException
+	{
+		assert pInput != null;
+		BinaryDecoder decoder = new BinaryDecoder(pInput);
+		decoder.readHeader();
+		if( !decoder.isCompatible() )
+		{
+			JSONObject diagram = decoder.readObject();
+			diagram.put("version", decoder.aVersion);
+			return new VersionMigrator().migrate(diagram);
+		}
+		decoder.readDiagram();
+		return decoder.createDiagram().get();
+	}
+	
+	private void readHeader() throws IOException
+	{
+		if( !Arrays.equals(MAGIC, aInput.readNBytes(MAGIC.length)) )
+		{
+			throw new DeserializationException("Cannot decode the file: this is not a binary diagram");
+		}
+		if( readByte() != FORMAT_REVISION )
+		{
+			throw new DeserializationException("Cannot decode the file: unknown revision of the binary format");
+		}
+		aVersion = readString();
+	}
+	
+	private boolean isCompatible()
+	{
+		try
+		{
+			return Version.parse(aVersion).compatibleWith(JetUML.VERSION);
+		}
+		catch( IllegalArgumentException exception )
+		{
+			throw new DeserializationException("Cannot decode serialized object", exception);
+		}
+	}
+	
+	private void readDiagram() throws IOException
+	{
+		expect(TAG_OBJECT);
+		int members = readCount();
+		for( int i = 0; i < members; i++ )
+		{
+			switch( readSymbol() )
+			{
+			case "nodes":
+				aHasNodes = true;
+				readElements(true);
+				break;
+			case "edges":
+				aHasEdges = true;
+				readElements(false);
+				break;
+			case "diagram":
+				aDiagramType = readValue().toString();
+				break;
+			default:
+				readValue();
+			}
+		}
+	}
+	
+	private void readElements(boolean pNodes) throws IOException
+	{
+		expect(TAG_ARRAY);
+		int elements = readCount();
+		for( int i = 0; i < elements; i++ )
+		{
+			readMembers();
+			if( pNodes )
+			{
+				createNode();
+			}
+			else
+			{
+				createEdge();
+			}
+		}
+	}
+	
+	private void readMembers() throws IOException
+	{
+		aMembers.clear();
+		expect(TAG_OBJECT);
+		int members = readCount();
+		for( int i = 0; i < members; i++ )
+		{
+			String name = readSymbol();
+			aMembers.put(name, readValue());
+		}
+	}
+	
+	/*
+	 * Objects and arrays are read as JSON objects and arrays. 
+	 */
+	private Object readValue() throws IOException
+	{
+		int tag = readByte();
+		Object value;
+		switch( tag )
+		{
+		case TAG_FALSE:
+			value = Boolean.FALSE;
+			break;
+		case TAG_TRUE:
+			value = Boolean.TRUE;
+			break;
+		case TAG_INTEGER:
+			int zigzag = readVarint();
+			value = (zigzag >>> 1) ^ -(zigzag & 1);
+			break;
+		case TAG_STRING:
+			value = readString();
+			break;
+		case TAG_SYMBOL:
+			value = readSymbol();
+			break;
+		case TAG_OBJECT:
+			value = readObjectMembers();
+			break;
+		case TAG_ARRAY:
+			value = readArrayElements();
+			break;
+		default:
+			throw new DeserializationException("Cannot decode the file: unknown tag " + tag);
+		}
+		return value;
+	}
+	
+	private JSONObject readObject() throws IOException
+	{
+		expect(TAG_OBJECT);
+		return readObjectMembers();
+	}
+	
+	private JSONObject readObjectMembers() throws IOException
+	{
+		JSONObject object = new JSONObject();
+		int members = readCount();
+		for( int i = 0; i < members; i++ )
+		{
+			String name = readSymbol();
+			object.put(name, readValue());
+		}
+		return object;
+	}
+	
+	private JSONArray readArrayElements() throws IOException
+	{
+		JSONArray array = new JSONArray();
+		int elements = readCount();
+		for( int i = 0; i < elements; i++ )
+		{
+			array.put(readValue());
+		}
+		return array;
+	}
+	
+	private String readSymbol() throws IOException
+	{
+		int index = readCount();
+		if( index == 0 )
+		{
+			String symbol = readString();
+			aSymbols.add(symbol);
+			return symbol;
+		}
+		if( index > aSymbols.size() )
+		{
+			throw new DeserializationException("Cannot decode the file: unknown symbol " + index);
+		}
+		return aSymbols.get(index - 1);
+	}
+	
+	private String readString() throws IOException
+	{
+		int length = readCount();
+		byte[] bytes = aInput.readNBytes(length);
+		if( bytes.length != length )
+		{
+			throw endOfFile();
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	/*
+	 * Reads a varint that cannot be negative, such as a length 
+	 * or an index. The five bytes of a varint can encode a negative 
+	 * int, which only a corrupted file can contain here.
+	 */
+	private int readCount() throws IOException
+	{
+		int count = readVarint();
+		if( count < 0 )
+		{
+			throw new DeserializationException("Cannot decode the file: invalid number");
+		}
+		return count;
+	}
+	
+	private int readVarint() throws IOException
+	{
+		int value = 0;
+		for( int i = 0; i < MAX_VARINT_BYTES; i++ )
+		{
+			int next = readByte();
+			value |= (next & VARINT_MASK) << (i * VARINT_BITS);
+			if( (next & VARINT_MORE) == 0 )
+			{
+				return value;
+			}
+		}
+		throw new DeserializationException("Cannot decode the file: invalid number");
+	}
+	
+	private void expect(byte pTag) throws IOException
+	{
+		if( readByte() != pTag )
+		{
+			throw new DeserializationException("Cannot decode the file: unexpected value");
+		}
+	}
+	
+	private int readByte() throws IOException
+	{
+		int next = aInput.read();
+		if( next < 0 )
+		{
+			throw endOfFile();
+		}
+		return next;
+	}
+	
+	private static DeserializationException endOfFile()
+	{
+		return new DeserializationException("Cannot decode the file: unexpected end of file");
+	}
+}
@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ca.mcgill.cs.jetuml.JetUML;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.Property;
+
+/**
+ * Converts a diagram to a compact binary notation with the same structure 
+ * as its JSON notation: an object with the type of the diagram, an array of 
+ * node objects and an array of edge objects, whose members are the same as
+ * in JSON. The notation is:
+ * 
+ * * A header: the bytes of MAGIC, the FORMAT_REVISION byte, and the JetUML version as a string
+ * * The diagram, as an object
+ * 
+ * The parts of the notation are encoded as follows:
+ * 
+ * * An object: the number of members, then the name of each member as a symbol, followed by its value
+ * * An array: the number of elements, then each element as a value
+ * * A value: a tag byte, then an integer, a string, a symbol, an object or an array, depending on the tag
+ * * An integer, including the identifiers of the nodes: a zigzag varint
+ * * A string: the number of bytes of its UTF-8 encoding, as a varint, then these bytes
+ * * A symbol: 0 followed by a string, the first time the string is used as a symbol, 
+ *   and otherwise 1 + the index of the string among the symbols already defined
+ * 
+ * Symbols are used for the names of the members, the names of the types, and 
+ * the values of enumerated properties, so that each of these strings is only
+ * written once.
+ */
+public final class BinaryEncoder
+{
+	static final byte[] MAGIC = {(byte) 0x89, 'J', 'E', 'T'};
+	static final byte FORMAT_REVISION = 1;
+	
+	static final byte TAG_FALSE = 0;
+	static final byte TAG_TRUE = 1;
+	static final byte TAG_INTEGER = 2;
+	static final byte TAG_STRING = 3;
+	static final byte TAG_SYMBOL = 4;
+	static final byte TAG_OBJECT = 5;
+	static final byte TAG_ARRAY = 6;
+	
+	static final int VARINT_BITS = 7;
+	static final int VARINT_MASK = 0x7F;
+	static final int VARINT_MORE = 0x80;
+	
+	private final OutputStream aOutput;
+	private final Map<String, Integer> aSymbols = new HashMap<>();
+	
+	private BinaryEncoder(OutputStream pOutput)
+	{
+		aOutput = pOutput;
+	}
+	
+	/**
+	 * Writes the binary encoding of pDiagram to pOutput.
+	 * 
+	 * @param pDiagram The diagram to serialize.
+	 * @param pOutput The stream to write the encoding to. It is not closed.
+	 * @throws IOException If pOutput cannot be written to.
+	 * @pre pDiagram != null && pOutput != null
+	 */
+	public static void write(Diagram pDiagram, OutputStream pOutput) throws IOException
+	{
+		assert pDiagram != null && pOutput != null;
+		BinaryEncoder encoder = new BinaryEncoder(pOutput);
+		pOutput.write(MAGIC);
+		pOutput.write(FORMAT_REVISION);
+		encoder.writeString(JetUML.VERSION.toString());
+		encoder.writeDiagram(pDiagram);
+	}
+	
+	private void writeDiagram(Diagram pDiagram) throws IOException
+	{
+		SerializationContext context = new SerializationContext(pDiagram);
+		aOutput.write(TAG_OBJECT);
+		writeVarint(3);
+		writeSymbol("diagram");
+		writeSymbolValue(pDiagram.getName());
+		writeSymbol("nodes");
+		aOutput.write(TAG_ARRAY);
+		writeVarint(context.size());
+		for( Node node : context )
+		{
+			writeNode(node, context);
+		}
+		writeSymbol("edges");
+		aOutput.write(TAG_ARRAY);
+		writeVarint(pDiagram.edges().size());
+		for( Edge edge : pDiagram.edges() )
+		{
+			writeEdge(edge, context);
+		}
+	}
+	
+	private void writeNode(Node pNode, SerializationContext pContext) throws IOException
+	{
+		List<Property> properties = encodedProperties(pNode.properties());
+		boolean hasChildren = pNode.getChildren().size() > 0;
+		int members = properties.size() + 2;
+		if( hasChildren )
+		{
+			members++;
+		}
+		aOutput.write(TAG_OBJECT);
+		writeVarint(members);
+		writeProperties(properties);
+		writeSymbol("id");
+		writeIntegerValue(pContext.getId(pNode));
+		writeSymbol("type");
+		writeSymbolValue(pNode.getClass().getSimpleName());
+		if( hasChildren )
+		{
+			writeSymbol("children");
+			aOutput.write(TAG_ARRAY);
+			writeVarint(pNode.getChildren().size());
+			for( Node child : pNode.getChildren() )
+			{
+				writeIntegerValue(pContext.getId(child));
+			}
+		}
+	}
+	
+	private void writeEdge(Edge pEdge, SerializationContext pContext) throws IOException
+	{
+		List<Property> properties = encodedProperties(pEdge.properties());
+		aOutput.write(TAG_OBJECT);
+		writeVarint(properties.size() + 3);
+		writeProperties(properties);
+		writeSymbol("type");
+		writeSymbolValue(pEdge.getClass().getSimpleName());
+		writeSymbol("start");
+		writeIntegerValue(pContext.getId(pEdge.getStart()));
+		writeSymbol("end");
+		writeIntegerValue(pContext.getId(pEdge.getEnd()));
+	}
+	
+	/*
+	 * The properties with a value that can be encoded, which 
+	 * are the same as the properties encoded in JSON.
+	 */
+	private static List<Property> encodedProperties(Iterable<Property> pProperties)
+	{
+		List<Property> result = new ArrayList<>();
+		for( Property property : pProperties )
+		{
+			Object value = property.get();
+			if( value instanceof String || value instanceof Enum || value instanceof Integer || value instanceof Boolean )
+			{
+				result.add(property);
+			}
+		}
+		return result;
+	}
+	
+	private void writeProperties(List<Property> pProperties) throws IOException
+	{
+		for( Property property : pProperties )
+		{
+			writeSymbol(property.getName());
+			Object value = property.get();
+			if( value instanceof String )
+			{
+				aOutput.write(TAG_STRING);
+				writeString((String) value);
+			}
+			else if( value instanceof Enum )
+			{
+				writeSymbolValue(value.toString());
+			}
+			else if( value instanceof Integer )
+			{
+				writeIntegerValue((Integer) value);
+			}
+			else if( (Boolean) value )
+			{
+				aOutput.write(TAG_TRUE);
+			}
+			else
+			{
+				aOutput.write(TAG_FALSE);
+			}
+		}
+	}
+	
+	private void writeIntegerValue(int pValue) throws IOException
+	{
+		aOutput.write(TAG_INTEGER);
+		writeVarint((pValue << 1) ^ (pValue >> (Integer.SIZE - 1)));
+	}
+	
+	private void writeSymbolValue(String pSymbol) throws IOException
+	{
+		aOutput.write(TAG_SYMBOL);
+		writeSymbol(pSymbol);
+	}
+	
+	private void writeSymbol(String pSymbol) throws IOException
+	{
+		Integer index = aSymbols.get(pSymbol);
+		if( index == null )
+		{
+			aSymbols.put(pSymbol, aSymbols.size());
+			writeVarint(0);
+			writeString(pSymbol);
+		}
+		else
+		{
+			writeVarint(index + 1);
+		}
+	}
+	
+	private void writeString(String pString) throws IOException
+	{
+		byte[] bytes = pString.getBytes(StandardCharsets.UTF_8);
+		writeVarint(bytes.length);
+		aOutput.write(bytes);
+	}
+	
+	/*
+	 * Writes the 32 bits of pValue as an unsigned number.
+	 */
+	private void writeVarint(int pValue) throws IOException
+	{
+		int value = pValue;
+		while( (value & ~VARINT_MASK) != 0 )
+		{
+			aOutput.write((value & VARINT_MASK) | VARINT_MORE);
+			value >>>= VARINT_BITS;
+		}
+		aOutput.write(value);
+	}
+}
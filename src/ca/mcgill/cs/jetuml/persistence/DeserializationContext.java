@@ -20,16 +20,22 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.persistence;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.Node;
 
 /**
  * A deserialization context allows clients to incrementally build
  * up the context. The identifiers that correspond to objects must be 
- * specified explicitly. 
+ * specified explicitly. The nodes are also indexed by identifier,
+ * so that looking up a node does not depend on the size of the diagram.
  */
 public class DeserializationContext extends AbstractContext
 {
+	private final Map<Integer, Node> aIds = new HashMap<>();
+	
 	/**
 	 * Initializes an empty context and associates it with
 	 * pDiagram.
@@ -63,7 +69,12 @@ public class DeserializationContext extends AbstractContext
 	public void addNode(Node pNode, int pId)
 	{
 		assert pNode != null;
-		aNodes.put(pNode, pId);
+		Integer previousId = aNodes.put(pNode, pId);
+		if( previousId != null )
+		{
+			aIds.remove(previousId);
+		}
+		aIds.put(pId, pNode);
 	}
 	
 	/**
@@ -73,14 +84,7 @@ public class DeserializationContext extends AbstractContext
 	 */
 	public Node getNode(int pId)
 	{
-		for( Node node : this )
-		{
-			if( aNodes.get(node) == pId )
-			{
-				return node;
-			}
-		}
-		assert false;
-		return null;
+		assert aIds.containsKey(pId);
+		return aIds.get(pId);
 	}
 }
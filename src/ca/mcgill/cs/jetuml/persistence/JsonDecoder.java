@@ -29,15 +29,13 @@ import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.Property;
+import ca.mcgill.cs.jetuml.diagram.Prototypes;
 
 /**
  * Converts a JSONObject to a versioned diagram.
  */
 public final class JsonDecoder
 {
-	private static final String PREFIX_NODES = "ca.mcgill.cs.jetuml.diagram.nodes.";
-	private static final String PREFIX_EDGES = "ca.mcgill.cs.jetuml.diagram.edges.";
-	
 	private JsonDecoder() {}
 	
 	/**
@@ -75,24 +73,42 @@ public final class JsonDecoder
 		JSONArray nodes = pObject.getJSONArray("nodes");
 		for( int i = 0; i < nodes.length(); i++ )
 		{
-			try
-			{
-				JSONObject object = nodes.getJSONObject(i);
-				Class<?> nodeClass = Class.forName(PREFIX_NODES + object.getString("type"));
-				Node node = (Node) nodeClass.getDeclaredConstructor().newInstance();
-				for( Property property : node.properties() )
-				{
-					property.set(object.get(property.getName()));
-				}
-				pContext.addNode(node, object.getInt("id"));
-			}
-			catch( ReflectiveOperationException exception )
+			JSONObject object = nodes.getJSONObject(i);
+			Node node = createNode(object.getString("type"));
+			for( Property property : node.properties() )
 			{
-				throw new DeserializationException("Cannot instantiate serialized object", exception);
+				property.set(object.get(property.getName()));
 			}
+			pContext.addNode(node, object.getInt("id"));
 		}
 	}
 	
+	/**
+	 * @param pType The simple name of the class of a node.
+	 * @return A new node of type pType, with default properties.
+	 * @throws DeserializationException If there is no such type of node.
+	 * @pre pType != null
+	 */
+	static Node createNode(String pType)
+	{
+		assert pType != null;
+		return Prototypes.instance().createNode(pType).orElseThrow(
+				() -> new DeserializationException("Cannot instantiate serialized object: unknown node type " + pType));
+	}
+	
+	/**
+	 * @param pType The simple name of the class of an edge.
+	 * @return A new edge of type pType, with default properties.
+	 * @throws DeserializationException If there is no such type of edge.
+	 * @pre pType != null
+	 */
+	static Edge createEdge(String pType)
+	{
+		assert pType != null;
+		return Prototypes.instance().createEdge(pType).orElseThrow(
+				() -> new DeserializationException("Cannot instantiate serialized object: unknown edge type " + pType));
+	}
+	
 	/* 
 	 * Discovers the root nodes and stores them in the diagram.
 	 */
@@ -139,23 +155,14 @@ public final class JsonDecoder
 		JSONArray edges = pObject.getJSONArray("edges");
 		for( int i = 0; i < edges.length(); i++ )
 		{
-			try
-			{
-				JSONObject object = edges.getJSONObject(i);
-				Class<?> edgeClass = Class.forName(PREFIX_EDGES + object.getString("type"));
-				Edge edge = (Edge) edgeClass.getDeclaredConstructor().newInstance();
-				
-				for( Property property : edge.properties())
-				{
-					property.set(object.get(property.getName()));
-				}
-				edge.connect(pContext.getNode(object.getInt("start")), pContext.getNode(object.getInt("end")), pContext.pDiagram());
-				pContext.pDiagram().addEdge(edge);
-			}
-			catch( ReflectiveOperationException exception )
+			JSONObject object = edges.getJSONObject(i);
+			Edge edge = createEdge(object.getString("type"));
+			for( Property property : edge.properties())
 			{
-				throw new DeserializationException("Cannot instantiate serialized object", exception);
+				property.set(object.get(property.getName()));
 			}
+			edge.connect(pContext.getNode(object.getInt("start")), pContext.getNode(object.getInt("end")), pContext.pDiagram());
+			pContext.pDiagram().addEdge(edge);
 		}
 	}
 }
@@ -20,6 +20,13 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.persistence;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -36,9 +43,18 @@ import ca.mcgill.cs.jetuml.diagram.Property;
  * * The graph type
  * * An array of node encodings
  * * An array of edge encodings
+ * 
+ * The encoding can be obtained as a JSON object, or written directly as
+ * text. Writing it does not build any JSON object: the members of each element
+ * are written to the output as they are encoded, in the order in which a JSON 
+ * object with the same members would write them.
  */
 public final class JsonEncoder
 {
+	/* The order in which a JSON object writes its members, for each sequence
+	 * of member names put in the object. */
+	private static final Map<List<String>, int[]> MEMBER_ORDERS = new HashMap<>();
+	
 	private JsonEncoder() {}
 	
 	/**
@@ -58,6 +74,109 @@ public final class JsonEncoder
 		return object;
 	}
 	
+	/**
+	 * Writes the encoding of pDiagram to pWriter, as the same text as the
+	 * one obtained from the object returned by encode.
+	 * 
+	 * @param pDiagram The diagram to serialize.
+	 * @param pWriter The writer to write the encoding to. It is not closed.
+	 * @throws IOException If pWriter cannot be written to.
+	 * @pre pDiagram != null && pWriter != null
+	 */
+	public static void write(Diagram pDiagram, Writer pWriter) throws IOException
+	{
+		assert pDiagram != null && pWriter != null;
+		SerializationContext context = new SerializationContext(pDiagram);
+		Members members = new Members();
+		members.put("version", JetUML.VERSION.toString());
+		members.put("diagram", pDiagram.getName());
+		members.put("nodes", (Content) writer -> writeNodes(context, writer));
+		members.put("edges", (Content) writer -> writeEdges(context, writer));
+		members.write(pWriter);
+	}
+	
+	private static void writeNodes(SerializationContext pContext, Writer pWriter) throws IOException
+	{
+		Members members = new Members();
+		pWriter.write('[');
+		boolean first = true;
+		for( Node node : pContext )
+		{
+			if( !first )
+			{
+				pWriter.write(',');
+			}
+			first = false;
+			members.clear();
+			putProperties(node.properties(), members);
+			members.put("id", pContext.getId(node));
+			members.put("type", node.getClass().getSimpleName());
+			if( node.getChildren().size() > 0 )
+			{
+				members.put("children", (Content) writer -> writeChildren(node, pContext, writer));
+			}
+			members.write(pWriter);
+		}
+		pWriter.write(']');
+	}
+	
+	private static void writeChildren(Node pNode, SerializationContext pContext, Writer pWriter) throws IOException
+	{
+		pWriter.write('[');
+		boolean first = true;
+		for( Node child : pNode.getChildren() )
+		{
+			if( !first )
+			{
+				pWriter.write(',');
+			}
+			first = false;
+			pWriter.write(Integer.toString(pContext.getId(child)));
+		}
+		pWriter.write(']');
+	}
+	
+	private static void writeEdges(AbstractContext pContext, Writer pWriter) throws IOException
+	{
+		Members members = new Members();
+		pWriter.write('[');
+		boolean first = true;
+		for( Edge edge : pContext.pDiagram().edges() )
+		{
+			if( !first )
+			{
+				pWriter.write(',');
+			}
+			first = false;
+			members.clear();
+			putProperties(edge.properties(), members);
+			members.put("type", edge.getClass().getSimpleName());
+			members.put("start", pContext.getId(edge.getStart()));
+			members.put("end", pContext.getId(edge.getEnd()));
+			members.write(pWriter);
+		}
+		pWriter.write(']');
+	}
+	
+	/*
+	 * Puts the same members as toJSONObject.
+	 */
+	private static void putProperties(Properties pProperties, Members pMembers)
+	{
+		for( Property property : pProperties )
+		{
+			Object value = property.get();
+			if( value instanceof String || value instanceof Enum )
+			{
+				pMembers.put(property.getName(), value.toString());
+			}
+			else if( value instanceof Integer || value instanceof Boolean )
+			{
+				pMembers.put(property.getName(), value);
+			}
+		}
+	}
+	
 	private static JSONArray encodeNodes(SerializationContext pContext)
 	{
 		JSONArray nodes = new JSONArray();
@@ -123,4 +242,108 @@ public final class JsonEncoder
 		}
 		return object;
 	}
+	
+	/*
+	 * A value written by a function, for the arrays of a member.
+	 */
+	@FunctionalInterface
+	private interface Content
+	{
+		void write(Writer pWriter) throws IOException;
+	}
+	
+	/*
+	 * The members of a JSON object being written. Members are put in the same 
+	 * way as in a JSON object: a null value removes a member, and putting an 
+	 * existing member replaces its value. A JSON object keeps its members in a 
+	 * hash map, so it writes them in the order in which a hash map with the same
+	 * names, put in the same order, iterates over them. This order is computed
+	 * once for each sequence of names.
+	 */
+	private static final class Members
+	{
+		private final List<String> aNames = new ArrayList<>();
+		private final List<Object> aValues = new ArrayList<>();
+		
+		void clear()
+		{
+			aNames.clear();
+			aValues.clear();
+		}
+		
+		void put(String pName, Object pValue)
+		{
+			int index = aNames.indexOf(pName);
+			if( index >= 0 )
+			{
+				aNames.remove(index);
+				aValues.remove(index);
+			}
+			if( pValue != null )
+			{
+				if( index >= 0 )
+				{
+					aNames.add(index, pName);
+					aValues.add(index, pValue);
+				}
+				else
+				{
+					aNames.add(pName);
+					aValues.add(pValue);
+				}
+			}
+		}
+		
+		void write(Writer pWriter) throws IOException
+		{
+			pWriter.write('{');
+			boolean first = true;
+			for( int index : order() )
+			{
+				if( !first )
+				{
+					pWriter.write(',');
+				}
+				first = false;
+				JSONObject.quote(aNames.get(index), pWriter);
+				pWriter.write(':');
+				writeValue(aValues.get(index), pWriter);
+			}
+			pWriter.write('}');
+		}
+		
+		private static void writeValue(Object pValue, Writer pWriter) throws IOException
+		{
+			if( pValue instanceof Content )
+			{
+				((Content) pValue).write(pWriter);
+			}
+			else if( pValue instanceof String )
+			{
+				JSONObject.quote((String) pValue, pWriter);
+			}
+			else
+			{
+				pWriter.write(pValue.toString());
+			}
+		}
+		
+		private int[] order()
+		{
+			int[] order = MEMBER_ORDERS.get(aNames);
+			if( order == null )
+			{
+				Map<String, Boolean> map = new HashMap<>();
+				aNames.forEach(name -> map.put(name, true));
+				order = new int[aNames.size()];
+				int position = 0;
+				for( String name : map.keySet() )
+				{
+					order[position++] = aNames.indexOf(name);
+				}
+				MEMBER_ORDERS.put(new ArrayList<>(aNames), order);
+			}
+			return order;
+		}
+	}
 }
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import java.io.Reader;
+import java.util.Optional;
+
+import org.json.JSONException;
+import org.json.JSONTokener;
+
+/**
+ * Decodes a diagram as its JSON encoding is read. 
+ *
+ * The version of a diagram is the last member of its JSON object, so it is 
+ * only known once its entire encoding is read. For this reason, the diagrams 
+ * that must be migrated are decoded anyway, and discarded at the end.
+ */
+public final class JsonStreamDecoder extends AbstractStreamDecoder
+{
+	private final JSONTokener aTokener;
+	
+	private JsonStreamDecoder(Reader pReader)
+	{
+		aTokener = new JSONTokener(pReader);
+	}
+	
+	/**
+	 * Reads the JSON encoding of a diagram and decodes it. 
+	 * 
+	 * @param pReader The reader of the encoding, positioned at its beginning.
+	 * @return The decoded diagram, or empty if the diagram was saved with a 
+	 *     version that is not compatible with the current one.
+	 * @throws JSONException If the text read is not valid JSON.
+	 * @throws DeserializationException If it's not possible to decode the diagram.
+	 * @pre pReader != null
+	 */
+	public static Optional<VersionedDiagram> decode(Reader pReader)
+	{
+		assert pReader != null;
+		JsonStreamDecoder decoder = new JsonStreamDecoder(pReader);
+		decoder.readDiagram();
+		return decoder.createDiagram();
+	}
+	
+	private void readDiagram()
+	{
+		expect('{');
+		if( consume('}') )
+		{
+			return;
+		}
+		do
+		{
+			switch( readName() )
+			{
+			case "nodes":
+				aHasNodes = true;
+				readArray(this::readNode);
+				break;
+			case "edges":
+				aHasEdges = true;
+				readArray(this::readEdge);
+				break;
+			case "diagram":
+				aDiagramType = aTokener.nextValue().toString();
+				break;
+			case "version":
+				aVersion = aTokener.nextValue().toString();
+				break;
+			default:
+				aTokener.nextValue();
+			}
+		}
+		while( nextMember('}') );
+	}
+	
+	private void readNode()
+	{
+		readMembers();
+		createNode();
+	}
+	
+	private void readEdge()
+	{
+		readMembers();
+		createEdge();
+	}
+	
+	/*
+	 * Reads the next object into aMembers. The values of its members 
+	 * are decoded as they would be in a JSONObject.
+	 */
+	private void readMembers()
+	{
+		aMembers.clear();
+		expect('{');
+		if( consume('}') )
+		{
+			return;
+		}
+		do
+		{
+			String name = readName();
+			aMembers.put(name, aTokener.nextValue());
+		}
+		while( nextMember('}') );
+	}
+	
+	private void readArray(Runnable pReadElement)
+	{
+		expect('[');
+		if( consume(']') )
+		{
+			return;
+		}
+		do
+		{
+			pReadElement.run();
+		}
+		while( nextMember(']') );
+	}
+	
+	private String readName()
+	{
+		expect('"');
+		String name = aTokener.nextString('"');
+		expect(':');
+		return name;
+	}
+	
+	/*
+	 * Returns true if another member or element follows, and false if 
+	 * the object or array is closed by pClose.
+	 */
+	private boolean nextMember(char pClose)
+	{
+		char next = aTokener.nextClean();
+		if( next == ',' )
+		{
+			return true;
+		}
+		if( next != pClose )
+		{
+			throw aTokener.syntaxError("Expected a ',' or '" + pClose + "'");
+		}
+		return false;
+	}
+	
+	private void expect(char pExpected)
+	{
+		if( aTokener.nextClean() != pExpected )
+		{
+			throw aTokener.syntaxError("Expected a '" + pExpected + "'");
+		}
+	}
+	
+	private boolean consume(char pCharacter)
+	{
+		if( aTokener.nextClean() == pCharacter )
+		{
+			return true;
+		}
+		aTokener.back();
+		return false;
+	}
+}
@@ -20,15 +20,24 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.persistence;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -36,15 +45,45 @@ import org.json.JSONObject;
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 
 /**
- * Services for saving and loading Diagram objects. The files are encoded
- * in UTF-8.
+ * Services for saving and loading Diagram objects. Diagrams are saved in 
+ * JSON, encoded in UTF-8, except in files with the BINARY_EXTENSION, where 
+ * they are saved in the binary notation of BinaryEncoder. When a diagram
+ * is read, its notation is recognized from the header of the file. 
+ * Diagrams saved in a file with the COMPRESSED_EXTENSION, such as 
+ * diagram.class.jet.gz, are compressed with GZIP, and compressed files 
+ * are also recognized from their header when they are read.
+ * 
+ * A diagram is saved by writing its encoding directly to the file, 
+ * through the compressor if needed, so that saving a large diagram does 
+ * not require holding its entire encoding in memory. Likewise, a diagram
+ * is decoded as it is read from its file. Only the diagrams saved with an 
+ * older version of JetUML are read into a JSONObject tree, so that they 
+ * can be migrated.
  */
 public final class PersistenceService
 {
+	/**
+	 * The extension of the files in which diagrams are saved in binary.
+	 */
+	public static final String BINARY_EXTENSION = ".jetb";
+	
+	/**
+	 * The extension added to the name of the files in which diagrams are 
+	 * saved compressed.
+	 */
+	public static final String COMPRESSED_EXTENSION = ".gz";
+	
+	private static final int BUFFER_SIZE = 8192;
+	private static final byte[] GZIP_HEADER = 
+		{(byte) GZIPInputStream.GZIP_MAGIC, (byte) (GZIPInputStream.GZIP_MAGIC >> Byte.SIZE)};
+	
 	private PersistenceService() {}
 	
 	/**
-     * Saves the current diagram in a file. 
+     * Saves the current diagram in a file, in binary if the name 
+     * of the file ends with BINARY_EXTENSION, and in JSON otherwise. 
+     * If the name ends with COMPRESSED_EXTENSION, the file is compressed
+     * and the notation is chosen from the rest of the name.
      * 
      * @param pDiagram The diagram to save
      * @param pFile The file in which to save the diagram
@@ -55,15 +94,45 @@ public final class PersistenceService
 	public static void save(Diagram pDiagram, File pFile) throws IOException
 	{
 		assert pDiagram != null && pFile != null;
-		try( PrintWriter out = new PrintWriter(
-				new OutputStreamWriter(new FileOutputStream(pFile), StandardCharsets.UTF_8)))
+		String name = pFile.getName();
+		boolean compressed = name.endsWith(COMPRESSED_EXTENSION);
+		if( compressed )
+		{
+			name = name.substring(0, name.length() - COMPRESSED_EXTENSION.length());
+		}
+		try( OutputStream file = new FileOutputStream(pFile);
+				OutputStream out = new BufferedOutputStream(compress(file, compressed)) )
+		{
+			if( name.endsWith(BINARY_EXTENSION) )
+			{
+				BinaryEncoder.write(pDiagram, out);
+			}
+			else
+			{
+				Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+				JsonEncoder.write(pDiagram, writer);
+				writer.write(System.lineSeparator());
+				writer.flush();
+			}
+		}
+	}
+	
+	/*
+	 * Returns a stream that compresses what is written to pFile if 
+	 * pCompressed is true, and pFile itself otherwise. pFile is 
+	 * closed by the caller if the compressed stream cannot be created.
+	 */
+	private static OutputStream compress(OutputStream pFile, boolean pCompressed) throws IOException
+	{
+		if( pCompressed )
 		{
-			out.println(JsonEncoder.encode(pDiagram).toString());
+			return new GZIPOutputStream(pFile, BUFFER_SIZE);
 		}
+		return pFile;
 	}
 	
 	/**
-	 * Reads a diagram from a file.
+	 * Reads a diagram from a file, in binary or in JSON, compressed or not.
 	 * 
 	 * @param pFile The file to read the diagram from.
 	 * @return The diagram that is read in
@@ -74,8 +143,53 @@ public final class PersistenceService
 	public static VersionedDiagram read(File pFile) throws IOException, DeserializationException
 	{
 		assert pFile != null;
-		try( BufferedReader in = new BufferedReader(
-				new InputStreamReader(new FileInputStream(pFile), StandardCharsets.UTF_8)))
+		try( InputStream in = open(pFile) )
+		{
+			if( BinaryDecoder.hasHeader(in) )
+			{
+				return BinaryDecoder.decode(in);
+			}
+			Optional<VersionedDiagram> diagram = JsonStreamDecoder.decode(new InputStreamReader(in, StandardCharsets.UTF_8));
+			if( diagram.isPresent() )
+			{
+				return diagram.get();
+			}
+		}
+		catch( JSONException e )
+		{
+			throw new DeserializationException("Cannot decode the file", e);
+		}
+		return readAndMigrate(pFile);
+	}
+	
+	/*
+	 * Opens pFile, decompressing it as it is read if it starts with the 
+	 * header of GZIP. The stream returned supports mark and reset.
+	 */
+	private static InputStream open(File pFile) throws IOException
+	{
+		InputStream in = new BufferedInputStream(new FileInputStream(pFile));
+		in.mark(GZIP_HEADER.length);
+		byte[] start = in.readNBytes(GZIP_HEADER.length);
+		in.reset();
+		if( Arrays.equals(GZIP_HEADER, start) )
+		{
+			try
+			{
+				in = new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE));
+			}
+			catch( IOException e )
+			{
+				in.close();
+				throw e;
+			}
+		}
+		return in;
+	}
+	
+	private static VersionedDiagram readAndMigrate(File pFile) throws IOException
+	{
+		try( BufferedReader in = new BufferedReader(new InputStreamReader(open(pFile), StandardCharsets.UTF_8)))
 		{
 			// Extra wrapper to support backward compatibility. Eventually take down the migrator.
 			// Replace VersionMigrator.migrate with JSonDecoder.decode
@@ -29,9 +29,9 @@ import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import javafx.geometry.Bounds;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.shape.LineTo;
 import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.Path;
@@ -88,16 +88,27 @@ public abstract class AbstractEdgeViewer implements EdgeViewer
 	@Override
 	public boolean contains(Edge pEdge, Point pPoint)
 	{
-		// Purposefully does not include the arrow head and labels, which create large bounds.
-		Line conn = getConnectionPoints(pEdge);
-		if(pPoint.distance(conn.getPoint1()) <= MAX_DISTANCE || pPoint.distance(conn.getPoint2()) <= MAX_DISTANCE)
-		{
-			return false;
-		}
-
-		Shape fatPath = getShape(pEdge);
-		fatPath.setStrokeWidth(2 * MAX_DISTANCE);
-		return fatPath.contains(pPoint.getX(), pPoint.getY());
+		return EdgeHitArea.of(pEdge, this).contains(pPoint.getX(), pPoint.getY());
+	}
+	
+	/**
+	 * By default, the hit area of an edge is the band of width 
+	 * 2 * MAX_DISTANCE around its shape, which must be a path. 
+	 * The points near the connection points are excluded, so that
+	 * the node under them can be selected.
+	 * 
+	 * @param pEdge The edge whose hit area we want.
+	 * @return The hit area of pEdge.
+	 * @pre pEdge != null
+	 * @pre getShape(pEdge) instanceof Path
+	 */
+	EdgeHitArea createHitArea(Edge pEdge)
+	{
+		assert pEdge != null;
+		Shape shape = getShape(pEdge);
+		assert shape instanceof Path : getClass().getSimpleName() + " must override createHitArea for shapes of type " + 
+				shape.getClass().getSimpleName();
+		return EdgeHitArea.around((Path) shape, getConnectionPoints(pEdge), MAX_DISTANCE);
 	}
 	
 	@Override
@@ -126,8 +137,20 @@ public abstract class AbstractEdgeViewer implements EdgeViewer
 				NodeViewerRegistry.getConnectionPoints(pEdge.getEnd(), toEnd.rotatedBy(DEGREES_180)));
 	}
 
+	/*
+	 * By default, the overview of an edge is a straight line between its 
+	 * connection points.
+	 */
+	@Override
+	public void drawOverview(Edge pEdge, DrawingContext pGraphics)
+	{
+		Line connectionPoints = getConnectionPoints(pEdge);
+		ToolGraphics.strokeSharpLine(pGraphics, connectionPoints.getX1(), connectionPoints.getY1(), 
+				connectionPoints.getX2(), connectionPoints.getY2());
+	}
+
 	@Override
-	public void drawSelectionHandles(Edge pEdge, GraphicsContext pGraphics)
+	public void drawSelectionHandles(Edge pEdge, DrawingContext pGraphics)
 	{
 		ToolGraphics.drawHandles(pGraphics, getConnectionPoints(pEdge));		
 	}
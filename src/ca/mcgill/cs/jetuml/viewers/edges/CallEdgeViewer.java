@@ -36,11 +36,11 @@ import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
 import ca.mcgill.cs.jetuml.views.ArrowHead;
 import ca.mcgill.cs.jetuml.views.ArrowHeadView;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
 import ca.mcgill.cs.jetuml.views.LineStyle;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.shape.LineTo;
 import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.Path;
@@ -111,7 +111,7 @@ public final class CallEdgeViewer extends AbstractEdgeViewer
 	}
 
 	@Override
-	public void draw(Edge pEdge, GraphicsContext pGraphics)
+	public void draw(Edge pEdge, DrawingContext pGraphics)
 	{
 		ToolGraphics.strokeSharpPath(pGraphics, (Path) getShape(pEdge), LineStyle.SOLID);
 		
@@ -124,6 +124,12 @@ public final class CallEdgeViewer extends AbstractEdgeViewer
 		}
 	}
 	
+	@Override
+	public void drawOverview(Edge pEdge, DrawingContext pGraphics)
+	{
+		ToolGraphics.strokeSharpPath(pGraphics, (Path) getShape(pEdge), LineStyle.SOLID);
+	}
+	
 	private Rectangle getStringBounds(CallEdge pEdge)
 	{
 		assert pEdge != null;
@@ -143,7 +149,7 @@ public final class CallEdgeViewer extends AbstractEdgeViewer
 		}
 	}
 
-	private void drawLabel(CallEdge pEdge, GraphicsContext pGraphics, String pLabel)
+	private void drawLabel(CallEdge pEdge, DrawingContext pGraphics, String pLabel)
 	{
 		if( pEdge.isSelfEdge() )
 		{
@@ -206,7 +212,7 @@ public final class CallEdgeViewer extends AbstractEdgeViewer
 		final float scale = 0.6f;
 		final int offset = 15;
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		DrawingContext graphics = DrawingContext.of(canvas.getGraphicsContext2D());
 		canvas.getGraphicsContext2D().scale(scale, scale);
 		Path path = new Path();
 		path.getElements().addAll(new MoveTo(1, offset), new LineTo(BUTTON_SIZE*(1/scale)-1, offset));
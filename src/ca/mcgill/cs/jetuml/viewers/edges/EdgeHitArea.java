@@ -0,0 +1,385 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.edges;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.geom.Line;
+import ca.mcgill.cs.jetuml.views.GeometryChange;
+import javafx.scene.shape.Arc;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.QuadCurveTo;
+
+/**
+ * The area of an edge that responds to the mouse, reduced to a list of 
+ * line segments that can be tested against a point without creating any object.
+ *
+ * The area is either the band of a given width around the segments, minus
+ * the disks of the same width around the connection points of the edge, or
+ * the region enclosed by the segments. Curves are approximated with short
+ * segments. A point is first tested against the bounding box of the area, so
+ * that most of the edges of a diagram are rejected with four comparisons.
+ *
+ * The areas of the edges of a diagram are cached by the diagram until a change
+ * to the diagram can affect them, as determined by GeometryChange.
+ */
+final class EdgeHitArea
+{
+	private static final int CURVE_SEGMENTS = 16;
+	private static final double DEGREES_PER_ARC_SEGMENT = 10;
+	private static final int COORDINATES_PER_SEGMENT = 4;
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final double[] aSegments;
+	private final boolean aRegion;
+	private final double aTolerance;
+	private final double[] aExcluded;
+	private final double aMinX;
+	private final double aMinY;
+	private final double aMaxX;
+	private final double aMaxY;
+
+	private EdgeHitArea(double[] pSegments, boolean pRegion, double pTolerance, double[] pExcluded)
+	{
+		aSegments = pSegments;
+		aRegion = pRegion;
+		aTolerance = pTolerance;
+		aExcluded = pExcluded;
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for( int i = 0; i < aSegments.length; i += 2 )
+		{
+			minX = Math.min(minX, aSegments[i]);
+			maxX = Math.max(maxX, aSegments[i]);
+			minY = Math.min(minY, aSegments[i+1]);
+			maxY = Math.max(maxY, aSegments[i+1]);
+		}
+		aMinX = minX - pTolerance;
+		aMinY = minY - pTolerance;
+		aMaxX = maxX + pTolerance;
+		aMaxY = maxY + pTolerance;
+	}
+
+	/**
+	 * Returns the hit area of pEdge, creating it with pViewer if it is not
+	 * cached. The area is not cached if the nodes of pEdge are not part of 
+	 * its diagram, as changes to these nodes do not notify the diagram.
+	 *
+	 * @param pEdge The edge to test.
+	 * @param pViewer The viewer of pEdge.
+	 * @return The hit area of pEdge.
+	 * @pre pEdge != null && pViewer != null
+	 */
+	static EdgeHitArea of(Edge pEdge, AbstractEdgeViewer pViewer)
+	{
+		assert pEdge != null && pViewer != null;
+		Diagram diagram = pEdge.getDiagram();
+		if( diagram == null || pEdge.getStart().getDiagram().orElse(null) != diagram || 
+				pEdge.getEnd().getDiagram().orElse(null) != diagram )
+		{
+			return pViewer.createHitArea(pEdge);
+		}
+		Map<Edge, EdgeHitArea> areas = diagram.getCache(Cache.class, Cache::new).aAreas;
+		EdgeHitArea area = areas.get(pEdge);
+		if( area == null )
+		{
+			area = pViewer.createHitArea(pEdge);
+			areas.put(pEdge, area);
+		}
+		return area;
+	}
+
+	/**
+	 * Creates the band of width 2 * pTolerance around the outline of pPath,
+	 * excluding the points within pTolerance of the ends of pExcluded.
+	 *
+	 * @param pPath A path made of moves, lines, quadratic curves and closings.
+	 * @param pExcluded The connection points of the edge.
+	 * @param pTolerance The largest distance between the outline and a point of the area.
+	 * @return The hit area.
+	 * @pre pPath != null && pExcluded != null && pTolerance >= 0
+	 */
+	static EdgeHitArea around(Path pPath, Line pExcluded, double pTolerance)
+	{
+		assert pPath != null && pExcluded != null && pTolerance >= 0;
+		return new EdgeHitArea(flatten(pPath), false, pTolerance, 
+				new double[] { pExcluded.getX1(), pExcluded.getY1(), pExcluded.getX2(), pExcluded.getY2() });
+	}
+
+	/**
+	 * Creates the region enclosed by pArc and the chord between its ends.
+	 *
+	 * @param pArc An arc.
+	 * @return The hit area.
+	 * @pre pArc != null
+	 */
+	static EdgeHitArea inside(Arc pArc)
+	{
+		assert pArc != null;
+		int steps = Math.max(1, (int) Math.ceil(Math.abs(pArc.getLength()) / DEGREES_PER_ARC_SEGMENT));
+		Segments segments = new Segments();
+		double previousX = 0;
+		double previousY = 0;
+		for( int i = 0; i <= steps; i++ )
+		{
+			double angle = Math.toRadians(pArc.getStartAngle() + pArc.getLength() * i / steps);
+			double x = pArc.getCenterX() + pArc.getRadiusX() * Math.cos(angle);
+			double y = pArc.getCenterY() - pArc.getRadiusY() * Math.sin(angle);
+			if( i > 0 )
+			{
+				segments.add(previousX, previousY, x, y);
+			}
+			previousX = x;
+			previousY = y;
+		}
+		segments.close();
+		return new EdgeHitArea(segments.toArray(), true, 0, new double[0]);
+	}
+
+	/**
+	 * @param pX The x coordinate of the point to test.
+	 * @param pY The y coordinate of the point to test.
+	 * @return True if the point is in this area.
+	 */
+	boolean contains(double pX, double pY)
+	{
+		if( pX < aMinX || pX > aMaxX || pY < aMinY || pY > aMaxY )
+		{
+			return false;
+		}
+		if( aRegion )
+		{
+			return encloses(pX, pY);
+		}
+		double toleranceSquared = aTolerance * aTolerance;
+		for( int i = 0; i < aExcluded.length; i += 2 )
+		{
+			if( distanceSquared(pX, pY, aExcluded[i], aExcluded[i+1]) <= toleranceSquared )
+			{
+				return false;
+			}
+		}
+		for( int i = 0; i < aSegments.length; i += COORDINATES_PER_SEGMENT )
+		{
+			if( segmentDistanceSquared(pX, pY, i) <= toleranceSquared )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Even-odd rule: a point is enclosed if a horizontal ray 
+	 * from the point crosses the outline an odd number of times.
+	 */
+	private boolean encloses(double pX, double pY)
+	{
+		boolean inside = false;
+		for( int i = 0; i < aSegments.length; i += COORDINATES_PER_SEGMENT )
+		{
+			double x1 = aSegments[i];
+			double y1 = aSegments[i+1];
+			double x2 = aSegments[i+2];
+			double y2 = aSegments[i+3];
+			if( (y1 > pY) != (y2 > pY) && pX < x1 + (pY - y1) * (x2 - x1) / (y2 - y1) )
+			{
+				inside = !inside;
+			}
+		}
+		return inside;
+	}
+
+	private double segmentDistanceSquared(double pX, double pY, int pIndex)
+	{
+		double x1 = aSegments[pIndex];
+		double y1 = aSegments[pIndex+1];
+		double dx = aSegments[pIndex+2] - x1;
+		double dy = aSegments[pIndex+3] - y1;
+		double lengthSquared = dx * dx + dy * dy;
+		double t = 0;
+		if( lengthSquared > 0 )
+		{
+			t = Math.max(0, Math.min(1, ((pX - x1) * dx + (pY - y1) * dy) / lengthSquared));
+		}
+		return distanceSquared(pX, pY, x1 + t * dx, y1 + t * dy);
+	}
+
+	private static double distanceSquared(double pX1, double pY1, double pX2, double pY2)
+	{
+		double dx = pX2 - pX1;
+		double dy = pY2 - pY1;
+		return dx * dx + dy * dy;
+	}
+
+	private static double[] flatten(Path pPath)
+	{
+		Segments segments = new Segments();
+		double x = 0;
+		double y = 0;
+		for( PathElement element : pPath.getElements() )
+		{
+			if( element instanceof MoveTo )
+			{
+				x = ((MoveTo) element).getX();
+				y = ((MoveTo) element).getY();
+				segments.moveTo(x, y);
+			}
+			else if( element instanceof LineTo )
+			{
+				LineTo lineTo = (LineTo) element;
+				segments.add(x, y, lineTo.getX(), lineTo.getY());
+				x = lineTo.getX();
+				y = lineTo.getY();
+			}
+			else if( element instanceof QuadCurveTo )
+			{
+				QuadCurveTo curveTo = (QuadCurveTo) element;
+				addCurve(segments, x, y, curveTo);
+				x = curveTo.getX();
+				y = curveTo.getY();
+			}
+			else
+			{
+				assert element instanceof ClosePath;
+				x = segments.aStartX;
+				y = segments.aStartY;
+				segments.close();
+			}
+		}
+		return segments.toArray();
+	}
+
+	private static void addCurve(Segments pSegments, double pX, double pY, QuadCurveTo pCurve)
+	{
+		double previousX = pX;
+		double previousY = pY;
+		for( int i = 1; i <= CURVE_SEGMENTS; i++ )
+		{
+			double t = (double) i / CURVE_SEGMENTS;
+			double u = 1 - t;
+			double x = u * u * pX + 2 * u * t * pCurve.getControlX() + t * t * pCurve.getX();
+			double y = u * u * pY + 2 * u * t * pCurve.getControlY() + t * t * pCurve.getY();
+			pSegments.add(previousX, previousY, x, y);
+			previousX = x;
+			previousY = y;
+		}
+	}
+
+	/*
+	 * The hit areas of the edges of a diagram.
+	 */
+	private static final class Cache
+	{
+		private final Diagram aDiagram;
+		private final Map<Edge, EdgeHitArea> aAreas = new IdentityHashMap<>();
+		
+		Cache(Diagram pDiagram)
+		{
+			aDiagram = pDiagram;
+			aDiagram.addListener(this::diagramChanged);
+		}
+		
+		private void diagramChanged(DiagramEvent pEvent)
+		{
+			if( aAreas.isEmpty() )
+			{
+				return;
+			}
+			GeometryChange change = GeometryChange.of(aDiagram, pEvent);
+			if( change.affectsAll() )
+			{
+				aAreas.clear();
+			}
+			else
+			{
+				change.getEdges().forEach(aAreas::remove);
+			}
+		}
+	}
+
+	/*
+	 * A growable list of segments that remembers where 
+	 * the current subpath starts, so it can be closed.
+	 */
+	private static final class Segments
+	{
+		private double[] aCoordinates = new double[INITIAL_CAPACITY];
+		private int aSize;
+		private double aStartX;
+		private double aStartY;
+		private double aEndX;
+		private double aEndY;
+		private boolean aStarted;
+
+		void moveTo(double pX, double pY)
+		{
+			aStartX = pX;
+			aStartY = pY;
+			aStarted = false;
+		}
+
+		void add(double pX1, double pY1, double pX2, double pY2)
+		{
+			if( !aStarted )
+			{
+				aStartX = pX1;
+				aStartY = pY1;
+				aStarted = true;
+			}
+			if( aSize + COORDINATES_PER_SEGMENT > aCoordinates.length )
+			{
+				aCoordinates = Arrays.copyOf(aCoordinates, aCoordinates.length * 2);
+			}
+			aCoordinates[aSize++] = pX1;
+			aCoordinates[aSize++] = pY1;
+			aCoordinates[aSize++] = pX2;
+			aCoordinates[aSize++] = pY2;
+			aEndX = pX2;
+			aEndY = pY2;
+		}
+
+		void close()
+		{
+			if( aStarted )
+			{
+				add(aEndX, aEndY, aStartX, aStartY);
+			}
+			aStarted = false;
+		}
+
+		double[] toArray()
+		{
+			return Arrays.copyOf(aCoordinates, aSize);
+		}
+	}
+}
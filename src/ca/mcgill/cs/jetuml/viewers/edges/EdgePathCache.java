@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.edges;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.views.GeometryChange;
+import javafx.geometry.Point2D;
+
+/**
+ * The paths of the segmented edges of a diagram, computed by their
+ * segmentation style the first time they are needed, and reused until 
+ * a change to the diagram can affect them, as determined by GeometryChange.
+ * Each diagram owns the cache of its paths.
+ */
+final class EdgePathCache
+{
+	private final Diagram aDiagram;
+	private final Map<Edge, Point2D[]> aPaths = new IdentityHashMap<>();
+	
+	private EdgePathCache(Diagram pDiagram)
+	{
+		aDiagram = pDiagram;
+		aDiagram.addListener(this::diagramChanged);
+	}
+	
+	/**
+	 * Returns the path of pEdge according to pStyle. If pEdge and its end
+	 * nodes belong to the same diagram, the path is cached. Otherwise, moving
+	 * the nodes would not notify the diagram of pEdge. The same edge must 
+	 * always be queried with the same style. The array returned must not be modified.
+	 * 
+	 * @param pEdge The edge whose path to compute.
+	 * @param pStyle The segmentation style of pEdge.
+	 * @return The points at which the line representing pEdge is bent.
+	 * @pre pEdge != null && pStyle != null
+	 */
+	static Point2D[] getPath(Edge pEdge, SegmentationStyle pStyle)
+	{
+		assert pEdge != null && pStyle != null;
+		Diagram diagram = pEdge.getDiagram();
+		if( diagram == null || pEdge.getStart().getDiagram().orElse(null) != diagram || 
+				pEdge.getEnd().getDiagram().orElse(null) != diagram )
+		{
+			return pStyle.getPath(pEdge);
+		}
+		return diagram.getCache(EdgePathCache.class, EdgePathCache::new).pathOf(pEdge, pStyle);
+	}
+	
+	private Point2D[] pathOf(Edge pEdge, SegmentationStyle pStyle)
+	{
+		Point2D[] path = aPaths.get(pEdge);
+		if( path == null )
+		{
+			path = pStyle.getPath(pEdge);
+			aPaths.put(pEdge, path);
+		}
+		return path;
+	}
+	
+	private void diagramChanged(DiagramEvent pEvent)
+	{
+		if( aPaths.isEmpty() )
+		{
+			return;
+		}
+		GeometryChange change = GeometryChange.of(aDiagram, pEvent);
+		if( change.affectsAll() )
+		{
+			aPaths.clear();
+		}
+		else
+		{
+			change.getEdges().forEach(aPaths::remove);
+		}
+	}
+}
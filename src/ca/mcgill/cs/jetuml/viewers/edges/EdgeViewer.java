@@ -24,8 +24,8 @@ import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Abstract strategy that describes objects that can draw and
@@ -48,7 +48,16 @@ public interface EdgeViewer
      * @param pGraphics the graphics context
      * @pre pEdge != null
 	 */
-   	void draw(Edge pEdge, GraphicsContext pGraphics);
+   	void draw(Edge pEdge, DrawingContext pGraphics);
+   	
+   	/**
+     * Draws a simplified version of pEdge, legible when the diagram is 
+     * viewed at a small scale: the path of the edge, without arrow heads or labels.
+     * @param pEdge The edge to draw.
+     * @param pGraphics the graphics context
+     * @pre pEdge != null
+	 */
+   	void drawOverview(Edge pEdge, DrawingContext pGraphics);
    	
    	/**
    	 * Returns an icon that represents pEdge.
@@ -64,7 +73,7 @@ public interface EdgeViewer
      * @param pGraphics the graphics context
      * @pre pEdge != null && pGraphics != null
 	 */
-   	void drawSelectionHandles(Edge pEdge, GraphicsContext pGraphics);
+   	void drawSelectionHandles(Edge pEdge, DrawingContext pGraphics);
    	
    	/**
      * Tests whether pEdge contains a point.
@@ -21,7 +21,11 @@
 package ca.mcgill.cs.jetuml.viewers.edges;
 
 import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
 
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.AssociationEdge;
@@ -40,12 +44,24 @@ import ca.mcgill.cs.jetuml.diagram.edges.UseCaseGeneralizationEdge;
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.DisplayList;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
+import ca.mcgill.cs.jetuml.views.GeometryChange;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Keeps track of the association between an edge type and the viewer
  * that needs to be used to view it.
+ * 
+ * The bounds of the edges of a diagram are cached by the diagram until a 
+ * change can affect them, as determined by GeometryChange. They are needed 
+ * for every edge each time the diagram is painted, to cull the edges outside 
+ * of the visible area, and computing them requires building the shape of the 
+ * edge and measuring its labels. The drawing of an edge is a function of its
+ * geometry and properties, so the edges of a diagram are drawn once into a 
+ * DisplayList, cached and invalidated with their bounds, and replayed when 
+ * the diagram is painted again.
  */
 public final class EdgeViewerRegistry
 {	
@@ -113,7 +129,51 @@ public final class EdgeViewerRegistry
 	 */
    	public static void draw(Edge pEdge, GraphicsContext pGraphics)
    	{
-   		INSTANCE.viewerFor(pEdge).draw(pEdge, pGraphics);
+   		INSTANCE.replayOrRecord(pEdge, pGraphics);
+   	}
+   	
+	private void replayOrRecord(Edge pEdge, GraphicsContext pGraphics)
+	{
+		Diagram diagram = cachingDiagram(pEdge);
+		if( diagram == null )
+		{
+			viewerFor(pEdge).draw(pEdge, DrawingContext.of(pGraphics));
+			return;
+		}
+		Map<Edge, DisplayList> cache = diagram.getCache(ViewCache.class, ViewCache::new).aDisplayLists;
+		DisplayList displayList = cache.get(pEdge);
+		if( displayList == null )
+		{
+			cache.put(pEdge, DisplayList.record(pGraphics, graphics -> viewerFor(pEdge).draw(pEdge, graphics)));
+		}
+		else
+		{
+			displayList.replay(pGraphics);
+		}
+	}
+	
+	/*
+	 * The display list of pEdge cached by its diagram, if any. For testing.
+	 */
+	static Optional<DisplayList> cachedDisplayList(Edge pEdge)
+	{
+		Diagram diagram = cachingDiagram(pEdge);
+		if( diagram == null )
+		{
+			return Optional.empty();
+		}
+		return Optional.ofNullable(diagram.getCache(ViewCache.class, ViewCache::new).aDisplayLists.get(pEdge));
+	}
+   	
+	/**
+     * Draws a simplified version of pEdge, for small scales.
+     * @param pEdge The edge to draw.
+     * @param pGraphics the graphics context
+     * @pre pEdge != null
+	 */
+   	public static void drawOverview(Edge pEdge, GraphicsContext pGraphics)
+   	{
+   		INSTANCE.viewerFor(pEdge).drawOverview(pEdge, DrawingContext.of(pGraphics));
    	}
    	
    	/**
@@ -124,7 +184,7 @@ public final class EdgeViewerRegistry
 	 */
    	public static void drawSelectionHandles(Edge pEdge, GraphicsContext pGraphics)
    	{
-   		INSTANCE.viewerFor(pEdge).drawSelectionHandles(pEdge, pGraphics);
+   		INSTANCE.viewerFor(pEdge).drawSelectionHandles(pEdge, DrawingContext.of(pGraphics));
    	}
    	
 	/**
@@ -136,7 +196,40 @@ public final class EdgeViewerRegistry
    	 */
 	public static Rectangle getBounds(Edge pEdge)
 	{
-		return INSTANCE.viewerFor(pEdge).getBounds(pEdge);
+		return INSTANCE.boundsOf(pEdge);
+	}
+	
+	private Rectangle boundsOf(Edge pEdge)
+	{
+		Diagram diagram = cachingDiagram(pEdge);
+		if( diagram == null )
+		{
+			return viewerFor(pEdge).getBounds(pEdge);
+		}
+		Map<Edge, Rectangle> cache = diagram.getCache(ViewCache.class, ViewCache::new).aBounds;
+		Rectangle bounds = cache.get(pEdge);
+		if( bounds == null )
+		{
+			bounds = viewerFor(pEdge).getBounds(pEdge);
+			cache.put(pEdge, bounds);
+		}
+		return bounds;
+	}
+	
+	/*
+	 * The diagram that caches the bounds and display list of pEdge, or null if 
+	 * they are not cached. They are only cached if the edge and its nodes are 
+	 * part of the same diagram, as changes to nodes outside of it do not notify it.
+	 */
+	private static Diagram cachingDiagram(Edge pEdge)
+	{
+		Diagram diagram = pEdge.getDiagram();
+		if( diagram == null || pEdge.getStart().getDiagram().orElse(null) != diagram || 
+				pEdge.getEnd().getDiagram().orElse(null) != diagram )
+		{
+			return null;
+		}
+		return diagram;
 	}
 	
   	/**
@@ -151,4 +244,42 @@ public final class EdgeViewerRegistry
    	{
 		return INSTANCE.viewerFor(pEdge).getConnectionPoints(pEdge);
    	}
+	
+	/*
+	 * The bounds and display lists of the edges of a diagram.
+	 */
+	private static final class ViewCache
+	{
+		private final Diagram aDiagram;
+		private final Map<Edge, Rectangle> aBounds = new IdentityHashMap<>();
+		private final Map<Edge, DisplayList> aDisplayLists = new IdentityHashMap<>();
+		
+		ViewCache(Diagram pDiagram)
+		{
+			aDiagram = pDiagram;
+			aDiagram.addListener(this::diagramChanged);
+		}
+		
+		private void diagramChanged(DiagramEvent pEvent)
+		{
+			if( aBounds.isEmpty() && aDisplayLists.isEmpty() )
+			{
+				return;
+			}
+			GeometryChange change = GeometryChange.of(aDiagram, pEvent);
+			if( change.affectsAll() )
+			{
+				aBounds.clear();
+				aDisplayLists.clear();
+			}
+			else
+			{
+				for( Edge edge : change.getEdges() )
+				{
+					aBounds.remove(edge);
+					aDisplayLists.remove(edge);
+				}
+			}
+		}
+	}
 }
@@ -23,13 +23,18 @@ package ca.mcgill.cs.jetuml.viewers.edges;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge;
-import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge.Type;
 import ca.mcgill.cs.jetuml.diagram.edges.AssociationEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
 import ca.mcgill.cs.jetuml.diagram.edges.GeneralizationEdge;
@@ -42,6 +47,7 @@ import ca.mcgill.cs.jetuml.viewers.edges.SegmentationStyle.Side;
 import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
 import ca.mcgill.cs.jetuml.viewers.nodes.PackageDescriptionNodeViewer;
 import ca.mcgill.cs.jetuml.viewers.nodes.PackageNodeViewer;
+import ca.mcgill.cs.jetuml.views.GeometryChange;
 import javafx.geometry.Point2D;
 
 /**
@@ -250,70 +256,34 @@ public final class SegmentationStyleFactory
 	private static Position computePosition(Edge pEdge, Side pStartSide, boolean pForward)
 	{
 		assert pEdge != null && pStartSide != null && pEdge.getDiagram() != null;
-		Node tempTarget = pEdge.getStart();
+		Node target = pEdge.getStart();
 		if( !pForward )
 		{
-			tempTarget = pEdge.getEnd();
+			target = pEdge.getEnd();
 		}
-		final Node target = tempTarget;
-		List<Edge> edgesOnSelectedSide = getAllEdgesForSide(target, pStartSide);
-		sortPositions(edgesOnSelectedSide, target, pStartSide);
-		
-		// Group identical edge ends
-		List<Edge> finalPositions = new ArrayList<>();
-		int index = -1;
-		for( Edge edge : edgesOnSelectedSide )
-		{
-			int aggregated = -1;
-			for( Edge classifiedEdge : finalPositions )
-			{
-				if( canAggregate(edge, classifiedEdge, target))
-				{
-					aggregated = finalPositions.indexOf(classifiedEdge);
-					break;
-				}
-			}
-			if( aggregated < 0 )
-			{
-				finalPositions.add(edge);
-				aggregated = finalPositions.size() - 1;
-			}
-			if( edge == pEdge )
-			{
-				index = aggregated;
-			}
-		}
-		return new Position(index + 1, finalPositions.size());
+		return SideLayout.of(pEdge, target, pStartSide).getPosition(pEdge);
 	}
 	
-	// CSOFF:
-	private static boolean canAggregate(Edge pEdge1, Edge pEdge2, Node pTarget)
+	/*
+	 * Generalizations of the same type that end at pTarget share their
+	 * position, as do aggregations of the same type that start at pTarget.
+	 * Other edges have a position of their own.
+	 */
+	private static Optional<Enum<?>> getSharedPositionKey(Edge pEdge, Node pTarget)
 	{
-		if( pEdge1.getEnd() == pTarget && pEdge2.getEnd() == pTarget &&
-				pEdge1 instanceof GeneralizationEdge && pEdge2 instanceof GeneralizationEdge &&
-				((GeneralizationEdge)pEdge1).getType() == ((GeneralizationEdge)pEdge2).getType())
+		if( pEdge.getEnd() == pTarget && pEdge instanceof GeneralizationEdge )
 		{
-			return true;
+			return Optional.of(((GeneralizationEdge)pEdge).getType());
 		}
-		else if( pEdge1.getStart() == pTarget && pEdge2.getStart() == pTarget && 
-				pEdge1 instanceof AggregationEdge && pEdge2 instanceof AggregationEdge &&
-				((AggregationEdge)pEdge1).getType() == Type.Aggregation &&
-				((AggregationEdge)pEdge2).getType() == Type.Aggregation)
+		else if( pEdge.getStart() == pTarget && pEdge instanceof AggregationEdge )
 		{
-			return true;
-		}
-		else if( pEdge1.getStart() == pTarget && pEdge2.getStart() == pTarget && 
-				pEdge1 instanceof AggregationEdge && pEdge2 instanceof AggregationEdge &&
-				((AggregationEdge)pEdge1).getType() == Type.Composition &&
-				((AggregationEdge)pEdge2).getType() == Type.Composition)
-		{
-			return true;
+			return Optional.of(((AggregationEdge)pEdge).getType());
 		}
 		else
 		{
-			return false;
+			return Optional.empty();
 		}
-	} // CSON:
+	}
 	
 	private static List<Edge> getAllEdgesForSide(Node pTarget, Side pSide)
 	{
@@ -674,6 +644,117 @@ public final class SegmentationStyleFactory
 		}
 	}
 	
+	/*
+	 * The positions of the edges attached to one side of a node, computed
+	 * for all of them at once: the edges are collected, sorted and grouped 
+	 * once, instead of once for each of their ends. Each diagram owns the 
+	 * layouts of the sides of its nodes, which are kept until a change to the
+	 * diagram can affect the edges attached to them, as determined by GeometryChange.
+	 */
+	private static final class SideLayout
+	{
+		private final Map<Edge, Integer> aIndices = new IdentityHashMap<>();
+		private int aTotal;
+		
+		private SideLayout(Node pTarget, Side pSide)
+		{
+			List<Edge> edges = getAllEdgesForSide(pTarget, pSide);
+			sortPositions(edges, pTarget, pSide);
+			Map<Enum<?>, Integer> shared = new HashMap<>();
+			for( Edge edge : edges )
+			{
+				Optional<Enum<?>> key = getSharedPositionKey(edge, pTarget);
+				Integer index = key.map(shared::get).orElse(null);
+				if( index == null )
+				{
+					index = aTotal;
+					aTotal++;
+					if( key.isPresent() )
+					{
+						shared.put(key.get(), index);
+					}
+				}
+				aIndices.put(edge, index);
+			}
+		}
+		
+		/*
+		 * pTarget is an end of pEdge and must belong to a diagram. The layout is
+		 * only cached if pEdge and its end nodes belong to the same diagram. 
+		 * Otherwise, moving the nodes would not notify the diagram of pEdge.
+		 */
+		static SideLayout of(Edge pEdge, Node pTarget, Side pSide)
+		{
+			Diagram diagram = pEdge.getDiagram();
+			if( diagram == null || pEdge.getStart().getDiagram().orElse(null) != diagram || 
+					pEdge.getEnd().getDiagram().orElse(null) != diagram )
+			{
+				return new SideLayout(pTarget, pSide);
+			}
+			return diagram.getCache(Cache.class, Cache::new).layoutOf(pTarget, pSide);
+		}
+		
+		/*
+		 * An edge that is not attached to this side, according to the 
+		 * attachment rules of its type, comes before all the others.
+		 */
+		Position getPosition(Edge pEdge)
+		{
+			return new Position(aIndices.getOrDefault(pEdge, -1) + 1, aTotal);
+		}
+		
+		/*
+		 * The layout of a side depends on the edges attached to the node and on
+		 * the position of the nodes at their other end, so it is discarded with
+		 * the ends of every edge affected by a change.
+		 */
+		private static final class Cache
+		{
+			private final Diagram aDiagram;
+			private final Map<Node, Map<Side, SideLayout>> aLayouts = new IdentityHashMap<>();
+			
+			private Cache(Diagram pDiagram)
+			{
+				aDiagram = pDiagram;
+				aDiagram.addListener(this::diagramChanged);
+			}
+			
+			private SideLayout layoutOf(Node pTarget, Side pSide)
+			{
+				Map<Side, SideLayout> layouts = aLayouts.computeIfAbsent(pTarget, node -> new EnumMap<>(Side.class));
+				SideLayout layout = layouts.get(pSide);
+				if( layout == null )
+				{
+					layout = new SideLayout(pTarget, pSide);
+					layouts.put(pSide, layout);
+				}
+				return layout;
+			}
+			
+			private void diagramChanged(DiagramEvent pEvent)
+			{
+				if( aLayouts.isEmpty() )
+				{
+					return;
+				}
+				GeometryChange change = GeometryChange.of(aDiagram, pEvent);
+				if( change.affectsAll() )
+				{
+					aLayouts.clear();
+				}
+				else
+				{
+					change.getNodes().forEach(aLayouts::remove);
+					for( Edge edge : change.getEdges() )
+					{
+						aLayouts.remove(edge.getStart());
+						aLayouts.remove(edge.getEnd());
+					}
+				}
+			}
+		}
+	}
+	
 	/** 
 	 * Indicates the total number of connection points
 	 * on the side of a rectangular node, and the index
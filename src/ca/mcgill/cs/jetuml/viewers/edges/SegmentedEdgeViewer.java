@@ -29,13 +29,13 @@ import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.views.ArrowHead;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
 import ca.mcgill.cs.jetuml.views.LineStyle;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.geometry.VPos;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
 import javafx.scene.shape.LineTo;
@@ -87,7 +87,7 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 	 * @param pString the string to draw 
 	 * @param pCenter true if the string should be centered along the segment
 	 */
-	private static void drawString(GraphicsContext pGraphics, Point2D pEndPoint1, Point2D pEndPoint2, 
+	private static void drawString(DrawingContext pGraphics, Point2D pEndPoint1, Point2D pEndPoint2, 
 			ArrowHead pArrowHead, String pString, boolean pCenter)
 	{
 		if (pString == null || pString.length() == 0)
@@ -118,7 +118,7 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 	}
 	
 	@Override
-	public void draw(Edge pEdge, GraphicsContext pGraphics)
+	public void draw(Edge pEdge, DrawingContext pGraphics)
 	{
 		Point2D[] points = getPoints(pEdge);		
 		ToolGraphics.strokeSharpPath(pGraphics, getSegmentPath(pEdge), aLineStyleExtractor.apply(pEdge));
@@ -136,6 +136,12 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 				aArrowEndExtractor.apply(pEdge), aEndLabelExtractor.apply(pEdge), false);
 	}
 	
+	@Override
+	public void drawOverview(Edge pEdge, DrawingContext pGraphics)
+	{
+		ToolGraphics.strokeSharpPath(pGraphics, getSegmentPath(pEdge), LineStyle.SOLID);
+	}
+	
 	/**
 	 * Computes the attachment point for drawing a string.
 	 * @param pEndPoint1 an endpoint of the segment along which to draw the string
@@ -202,7 +208,7 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 	
 	private Point2D[] getPoints(Edge pEdge)
 	{
-		return aStyle.getPath(pEdge);
+		return EdgePathCache.getPath(pEdge, aStyle);
 	}
 
 	@Override
@@ -287,10 +293,11 @@ public class SegmentedEdgeViewer extends AbstractEdgeViewer
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
 		Path path = new Path();
 		path.getElements().addAll(new MoveTo(OFFSET, OFFSET), new LineTo(BUTTON_SIZE-OFFSET, BUTTON_SIZE-OFFSET));
-		ToolGraphics.strokeSharpPath(canvas.getGraphicsContext2D(), path, aLineStyleExtractor.apply(pEdge));
-		aArrowEndExtractor.apply(pEdge).view().draw(canvas.getGraphicsContext2D(), 
+		DrawingContext graphics = DrawingContext.of(canvas.getGraphicsContext2D());
+		ToolGraphics.strokeSharpPath(graphics, path, aLineStyleExtractor.apply(pEdge));
+		aArrowEndExtractor.apply(pEdge).view().draw(graphics, 
 				new Point(OFFSET, OFFSET), new Point(BUTTON_SIZE-OFFSET, BUTTON_SIZE - OFFSET));
-		aArrowStartExtractor.apply(pEdge).view().draw(canvas.getGraphicsContext2D(), 
+		aArrowStartExtractor.apply(pEdge).view().draw(graphics, 
 				new Point(BUTTON_SIZE-OFFSET, BUTTON_SIZE - OFFSET), new Point(OFFSET, OFFSET));
 		return canvas;
 	}
@@ -22,6 +22,11 @@ package ca.mcgill.cs.jetuml.viewers.edges;
 
 import static ca.mcgill.cs.jetuml.views.StringViewer.FONT;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
 import ca.mcgill.cs.jetuml.diagram.Edge;
 import ca.mcgill.cs.jetuml.diagram.edges.StateTransitionEdge;
 import ca.mcgill.cs.jetuml.geom.Conversions;
@@ -32,12 +37,13 @@ import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
 import ca.mcgill.cs.jetuml.views.ArrowHead;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
+import ca.mcgill.cs.jetuml.views.GeometryChange;
 import ca.mcgill.cs.jetuml.views.LineStyle;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
 import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
 import javafx.scene.shape.Arc;
@@ -51,6 +57,11 @@ import javafx.scene.text.TextAlignment;
 
 /**
  * An edge view specialized for state transitions.
+ * 
+ * The geometry of a transition (its connection points, control point, label 
+ * font and label bounds) is computed once and cached in a layout for the edge. 
+ * Each diagram owns the layouts of its transitions, which are kept until a change
+ * to the diagram can affect them, as determined by GeometryChange.
  */
 public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 {
@@ -70,10 +81,8 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 	// before centering the edge label on one side instead of in the center.
 	private static final int VERTICAL_TOLERANCE = 20; 
 
-	private Font aFont = FONT;
-	
 	@Override
-	public void draw(Edge pEdge, GraphicsContext pGraphics)
+	public void draw(Edge pEdge, DrawingContext pGraphics)
 	{
 		if(isSelfEdge(pEdge))
 		{
@@ -88,25 +97,26 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 		drawArrowHead(pEdge, pGraphics);
 	}
 	
-	private void drawArrowHead(Edge pEdge, GraphicsContext pGraphics)
+	private void drawArrowHead(Edge pEdge, DrawingContext pGraphics)
 	{
+		EdgeLayout layout = getLayout(pEdge);
 		if( isSelfEdge(pEdge) )
 		{
-			Point connectionPoint2 = getSelfEdgeConnectionPoints(pEdge).getPoint2();
-			if( getPosition(pEdge) == 1 )
+			Point connectionPoint2 = layout.aConnectionPoints.getPoint2();
+			if( layout.aPosition == 1 )
 			{
 				ArrowHead.V.view().draw(pGraphics, new Point(connectionPoint2.getX()+SELF_EDGE_OFFSET, 
-						connectionPoint2.getY()-SELF_EDGE_OFFSET/4), getConnectionPoints(pEdge).getPoint2());
+						connectionPoint2.getY()-SELF_EDGE_OFFSET/4), connectionPoint2);
 			}
 			else
 			{
 				ArrowHead.V.view().draw(pGraphics, new Point(connectionPoint2.getX()-SELF_EDGE_OFFSET/4, 
-						connectionPoint2.getY()-SELF_EDGE_OFFSET), getConnectionPoints(pEdge).getPoint2());
+						connectionPoint2.getY()-SELF_EDGE_OFFSET), connectionPoint2);
 			}
 		}
 		else
 		{
-			ArrowHead.V.view().draw(pGraphics, Conversions.toPoint(getControlPoint(pEdge)), getConnectionPoints(pEdge).getPoint2());
+			ArrowHead.V.view().draw(pGraphics, Conversions.toPoint(layout.aControlPoint), layout.aConnectionPoints.getPoint2());
 		}
 	}
 	
@@ -114,10 +124,10 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 	 *  Draws the label.
 	 *  @param pGraphics2D the graphics context
 	 */
-	private void drawLabel(StateTransitionEdge pEdge, GraphicsContext pGraphics)
+	private void drawLabel(StateTransitionEdge pEdge, DrawingContext pGraphics)
 	{
-		adjustLabelFont(pEdge);
-		Rectangle2D labelBounds = getLabelBounds(pEdge);
+		EdgeLayout layout = getLayout(pEdge);
+		Rectangle2D labelBounds = layout.aLabelBounds;
 		double x = labelBounds.getMinX();
 		double y = labelBounds.getMinY();
 		
@@ -125,7 +135,7 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 		Font oldFont = pGraphics.getFont();
 		pGraphics.translate(x, y);
 		pGraphics.setFill(Color.BLACK);
-		pGraphics.setFont(aFont);
+		pGraphics.setFont(layout.aFont);
 		pGraphics.setTextAlign(TextAlignment.CENTER);
 		pGraphics.fillText(pEdge.getMiddleLabel(), labelBounds.getWidth()/2, 0);
 		pGraphics.setFill(oldFill);
@@ -133,7 +143,7 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 		pGraphics.translate(-x, -y);        
 	}
 	
-	private void drawSelfEdge(Edge pEdge, GraphicsContext pGraphics)
+	private void drawSelfEdge(Edge pEdge, DrawingContext pGraphics)
 	{
 		Arc arc = (Arc) getShape(pEdge);
 		double width = pGraphics.getLineWidth();
@@ -143,18 +153,6 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 		pGraphics.setLineWidth(width);
 	}
 	
-	private Rectangle2D getLabelBounds(StateTransitionEdge pEdge)
-	{
-		if( isSelfEdge(pEdge) )
-		{
-			return getSelfEdgeLabelBounds(pEdge);
-		}
-		else
-		{
-			return getNormalEdgeLabelBounds(pEdge);
-		}
-	}
-	
 	/**
      * Gets the dimensions for pString.
      * @param pString The input string. Can be null.
@@ -169,19 +167,36 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 		return textDimensions(pString);
 	}
 	
+	/*
+	 * Returns the layout of pEdge. The layout is only cached if pEdge and its 
+	 * end nodes belong to the same diagram. Otherwise, moving the nodes would
+	 * not notify the diagram of pEdge, and pEdge is laid out as the first 
+	 * transition between its nodes.
+	 */
+	private EdgeLayout getLayout(Edge pEdge)
+	{
+		StateTransitionEdge edge = (StateTransitionEdge) pEdge;
+		Diagram diagram = pEdge.getDiagram();
+		if( diagram == null || pEdge.getStart().getDiagram().orElse(null) != diagram || 
+				pEdge.getEnd().getDiagram().orElse(null) != diagram )
+		{
+			return new EdgeLayout(edge, 1);
+		}
+		return diagram.getCache(LayoutCache.class, LayoutCache::new).layoutOf(this, edge);
+	}
+	
 	/*
 	 * Gets the bounds of the label text.
 	 * @return the bounds of the label text
 	 */
-	private Rectangle2D getNormalEdgeLabelBounds(StateTransitionEdge pEdge)
+	private Rectangle2D getNormalEdgeLabelBounds(Line pConnectionPoints, Point2D pControlPoint, String pLabel, int pPosition)
 	{
-		Line line = getConnectionPoints(pEdge);
-		Point2D control = getControlPoint(pEdge);
+		Line line = pConnectionPoints;
+		Point2D control = pControlPoint;
 		double x = control.getX() / 2 + line.getX1() / 4 + line.getX2() / 4;
 		double y = control.getY() / 2 + line.getY1() / 4 + line.getY2() / 4;
 
-		adjustLabelFont(pEdge);
-		Dimension textDimensions = getLabelBounds(pEdge.getMiddleLabel());
+		Dimension textDimensions = getLabelBounds(pLabel);
 
 		int gap = 3;
 		if( line.getY1() >= line.getY2() - VERTICAL_TOLERANCE && 
@@ -209,7 +224,7 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 		}
 		
 		// Additional gap to make sure the labels don't overlap
-		if( pEdge.getDiagram() != null && getPosition(pEdge) > 1 )
+		if( pPosition > 1 )
 		{
 			double delta = Math.abs(Math.atan2(line.getX2()-line.getX1(), line.getY2()-line.getY1()));
 			delta = textDimensions.height() - delta*RADIANS_TO_PIXELS;
@@ -230,12 +245,11 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 	 * in the middle of it.
 	 * @return the bounds of the label text
 	 */
-	private Rectangle2D getSelfEdgeLabelBounds(StateTransitionEdge pEdge)
+	private Rectangle2D getSelfEdgeLabelBounds(Line pConnectionPoints, String pLabel, int pPosition)
 	{
-		Line line = getConnectionPoints(pEdge);
-		adjustLabelFont(pEdge);
-		Dimension textDimensions = getLabelBounds(pEdge.getMiddleLabel());
-		if( getPosition(pEdge) == 1 )
+		Line line = pConnectionPoints;
+		Dimension textDimensions = getLabelBounds(pLabel);
+		if( pPosition == 1 )
 		{
 			return new Rectangle2D(line.getX1() + SELF_EDGE_OFFSET - textDimensions.width()/2,	
 					line.getY1() - SELF_EDGE_OFFSET*2, textDimensions.width(), textDimensions.height());
@@ -247,18 +261,22 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 		}
 	}   
 	
-	private void adjustLabelFont(StateTransitionEdge pEdge)
+	/*
+	 * Long labels are drawn with a smaller font. The bounds of 
+	 * the label are still measured with the default font.
+	 */
+	private static Font getLabelFont(String pLabel)
 	{
-		if(pEdge.getMiddleLabel().length() > MAX_LENGTH_FOR_NORMAL_FONT)
+		if(pLabel.length() > MAX_LENGTH_FOR_NORMAL_FONT)
 		{
-			float difference = pEdge.getMiddleLabel().length() - MAX_LENGTH_FOR_NORMAL_FONT;
-			difference = difference / (2*pEdge.getMiddleLabel().length()); // damping
+			float difference = pLabel.length() - MAX_LENGTH_FOR_NORMAL_FONT;
+			difference = difference / (2*pLabel.length()); // damping
 			double newFontSize = Math.max(MIN_FONT_SIZE, (1-difference) * FONT.getSize());
-			aFont = new Font(aFont.getName(), newFontSize);
+			return new Font(FONT.getName(), newFontSize);
 		}
 		else
 		{
-			aFont = FONT;
+			return FONT;
 		}
 	}
 
@@ -267,28 +285,28 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 	{
 		if( isSelfEdge(pEdge) )
 		{
-			return getSelfEdgeShape(pEdge);
+			return getSelfEdgeShape(getLayout(pEdge));
 		}
 		else
 		{
-			return getNormalEdgeShape(pEdge);
+			return getNormalEdgeShape(getLayout(pEdge));
 		}
 	}
 	
-	private boolean isSelfEdge(Edge pEdge)
+	private static boolean isSelfEdge(Edge pEdge)
 	{
 		return pEdge.getStart() == pEdge.getEnd();
 	}
 	
-	private Shape getSelfEdgeShape(Edge pEdge)
+	private static Shape getSelfEdgeShape(EdgeLayout pLayout)
 	{
-		Line line = getSelfEdgeConnectionPoints(pEdge);
+		Line line = pLayout.aConnectionPoints;
 		Arc arc = new Arc();
 		arc.setRadiusX(SELF_EDGE_OFFSET*2);
 		arc.setRadiusY(SELF_EDGE_OFFSET*2);
 		arc.setLength(DEGREES_270);
 		arc.setType(ArcType.OPEN);
-		if( getPosition(pEdge) == 1 )
+		if( pLayout.aPosition == 1 )
 		{
 			arc.setCenterX(line.getX1());
 			arc.setCenterY(line.getY1()-SELF_EDGE_OFFSET);
@@ -302,19 +320,22 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 		}
 		return arc;
 	}
-	
+
+	/*
+	 * The hit area of a self edge is the region enclosed by a slightly 
+	 * larger arc, so that the loop can be selected by clicking inside it.
+	 */
 	@Override
-	public boolean contains(Edge pEdge, Point pPoint)
+	EdgeHitArea createHitArea(Edge pEdge)
 	{
-		boolean result = super.contains(pEdge, pPoint);
-		if (getShape(pEdge) instanceof Arc)
+		if( isSelfEdge(pEdge) )
 		{
 			Arc arc = (Arc) getShape(pEdge);
 			arc.setRadiusX(arc.getRadiusX() + 2 * MAX_DISTANCE);
 			arc.setRadiusY(arc.getRadiusY() + 2 * MAX_DISTANCE);
-			result = arc.contains(pPoint.getX(), pPoint.getY());
+			return EdgeHitArea.inside(arc);
 		}
-		return result;
+		return super.createHitArea(pEdge);
 	}
 	
 	/** 
@@ -322,7 +343,7 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 	 *     edges between the same start and end nodes. 
 	 * @pre getGraph() != null
 	 */
-	private int getPosition(Edge pEdge)
+	private static int getPosition(Edge pEdge)
 	{
 		assert pEdge.getDiagram() != null;
 		int lReturn = 0;
@@ -345,32 +366,28 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 	 * The connection points for the self-edge are an offset from the top-right
 	 * corner.
 	 */
-	private Line getSelfEdgeConnectionPoints(Edge pEdge)
+	private static Line getSelfEdgeConnectionPoints(Rectangle pBounds, int pPosition)
 	{
-		if( getPosition(pEdge) == 1 )
+		if( pPosition == 1 )
 		{
-			Point2D point1 = new Point2D(NodeViewerRegistry.getBounds(pEdge.getStart()).getMaxX() - SELF_EDGE_OFFSET, 
-					NodeViewerRegistry.getBounds(pEdge.getStart()).getY());
-			Point2D point2 = new Point2D(NodeViewerRegistry.getBounds(pEdge.getStart()).getMaxX(), 
-					NodeViewerRegistry.getBounds(pEdge.getStart()).getY() + SELF_EDGE_OFFSET);
+			Point2D point1 = new Point2D(pBounds.getMaxX() - SELF_EDGE_OFFSET, pBounds.getY());
+			Point2D point2 = new Point2D(pBounds.getMaxX(), pBounds.getY() + SELF_EDGE_OFFSET);
 			return new Line(Conversions.toPoint(point1), Conversions.toPoint(point2));
 		}
 		else
 		{
-			Point2D point1 = new Point2D(NodeViewerRegistry.getBounds(pEdge.getStart()).getX(), 
-					NodeViewerRegistry.getBounds(pEdge.getStart()).getY() + SELF_EDGE_OFFSET);
-			Point2D point2 = new Point2D(NodeViewerRegistry.getBounds(pEdge.getStart()).getX() + SELF_EDGE_OFFSET, 
-					NodeViewerRegistry.getBounds(pEdge.getStart()).getY());
+			Point2D point1 = new Point2D(pBounds.getX(), pBounds.getY() + SELF_EDGE_OFFSET);
+			Point2D point2 = new Point2D(pBounds.getX() + SELF_EDGE_OFFSET, pBounds.getY());
 			return new Line(Conversions.toPoint(point1), Conversions.toPoint(point2));
 		}
 	}
 	
-	private Shape getNormalEdgeShape(Edge pEdge)
+	private static Shape getNormalEdgeShape(EdgeLayout pLayout)
 	{
-		Line line = getConnectionPoints(pEdge);
+		Line line = pLayout.aConnectionPoints;
 		Path path = new Path();
 		MoveTo moveTo = new MoveTo(line.getPoint1().getX(), line.getPoint1().getY());
-		QuadCurveTo curveTo = new QuadCurveTo(getControlPoint(pEdge).getX(), getControlPoint(pEdge).getY(), 
+		QuadCurveTo curveTo = new QuadCurveTo(pLayout.aControlPoint.getX(), pLayout.aControlPoint.getY(), 
 				line.getPoint2().getX(), line.getPoint2().getY());
 		path.getElements().addAll(moveTo, curveTo);
 		return path;
@@ -381,11 +398,11 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
      *  Gets the control point for the quadratic spline.
      * @return the control point
      */
-	private Point2D getControlPoint(Edge pEdge)
+	private static Point2D getControlPoint(Line pConnectionPoints, int pPosition)
 	{
-		Line line = getConnectionPoints(pEdge);
+		Line line = pConnectionPoints;
 		double tangent = Math.tan(Math.toRadians(DEGREES_10));
-		if( getPosition(pEdge) > 1 )
+		if( pPosition > 1 )
 		{
 			tangent = Math.tan(Math.toRadians(DEGREES_20));
 		}
@@ -397,34 +414,27 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 	@Override
 	public Rectangle getBounds(Edge pEdge)
 	{
-		return super.getBounds(pEdge).add(Conversions.toRectangle(getLabelBounds((StateTransitionEdge)pEdge)));
+		return super.getBounds(pEdge).add(Conversions.toRectangle(getLayout(pEdge).aLabelBounds));
 	}
 	
 	@Override
 	public Line getConnectionPoints(Edge pEdge)
 	{
-		if(isSelfEdge(pEdge))
-		{
-			return getSelfEdgeConnectionPoints(pEdge);
-		}
-		else
-		{
-			return getNormalEdgeConnectionsPoints(pEdge);
-		}
+		return getLayout(pEdge).aConnectionPoints;
 	}
 	
 	/*
 	 * The connection points are a slight offset from the center.
 	 * @return
 	 */
-	private Line getNormalEdgeConnectionsPoints(Edge pEdge)
+	private static Line getNormalEdgeConnectionsPoints(Edge pEdge, int pPosition)
 	{
 		Rectangle start = NodeViewerRegistry.getBounds(pEdge.getStart());
 		Rectangle end = NodeViewerRegistry.getBounds(pEdge.getEnd());
 		Point startCenter = start.getCenter();
 		Point endCenter = end.getCenter();
 		int turn = DEGREES_5;
-		if( pEdge.getDiagram() != null && getPosition(pEdge) > 1 )
+		if( pPosition > 1 )
 		{
 			turn = DEGREES_20;
 		}
@@ -438,7 +448,7 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 	public Canvas createIcon(Edge pEdge)
 	{   //CSOFF: Magic numbers
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		DrawingContext graphics = DrawingContext.of(canvas.getGraphicsContext2D());
 		graphics.scale(0.6, 0.6);
 		Line line = new Line(new Point(2,2), new Point(40,40));
 		final double tangent = Math.tan(Math.toRadians(DEGREES_10));
@@ -456,4 +466,82 @@ public final class StateTransitionEdgeViewer extends AbstractEdgeViewer
 		ArrowHead.V.view().draw(graphics, control, new Point(40, 40));
 		return canvas;
 	}
+	
+	/*
+	 * The geometry of a transition at position pPosition among the transitions 
+	 * between the same nodes. The control point is only used by transitions 
+	 * between two nodes.
+	 */
+	private final class EdgeLayout
+	{
+		private final int aPosition;
+		private final Line aConnectionPoints;
+		private final Point2D aControlPoint;
+		private final Font aFont;
+		private final Rectangle2D aLabelBounds;
+		
+		EdgeLayout(StateTransitionEdge pEdge, int pPosition)
+		{
+			String label = pEdge.getMiddleLabel();
+			aPosition = pPosition;
+			if( isSelfEdge(pEdge) )
+			{
+				aConnectionPoints = getSelfEdgeConnectionPoints(NodeViewerRegistry.getBounds(pEdge.getStart()), pPosition);
+				aControlPoint = null;
+				aLabelBounds = getSelfEdgeLabelBounds(aConnectionPoints, label, pPosition);
+			}
+			else
+			{
+				aConnectionPoints = getNormalEdgeConnectionsPoints(pEdge, pPosition);
+				aControlPoint = getControlPoint(aConnectionPoints, pPosition);
+				aLabelBounds = getNormalEdgeLabelBounds(aConnectionPoints, aControlPoint, label, pPosition);
+			}
+			aFont = getLabelFont(label);
+		}
+	}
+	
+	/*
+	 * The layout of a transition depends on its label, on the bounds of its 
+	 * nodes and on the other transitions between them, so it is discarded for
+	 * every edge affected by a change, including removed edges.
+	 */
+	private static final class LayoutCache
+	{
+		private final Diagram aDiagram;
+		private final Map<Edge, EdgeLayout> aLayouts = new IdentityHashMap<>();
+		
+		private LayoutCache(Diagram pDiagram)
+		{
+			aDiagram = pDiagram;
+			aDiagram.addListener(this::diagramChanged);
+		}
+		
+		private EdgeLayout layoutOf(StateTransitionEdgeViewer pViewer, StateTransitionEdge pEdge)
+		{
+			EdgeLayout layout = aLayouts.get(pEdge);
+			if( layout == null )
+			{
+				layout = pViewer.new EdgeLayout(pEdge, getPosition(pEdge));
+				aLayouts.put(pEdge, layout);
+			}
+			return layout;
+		}
+		
+		private void diagramChanged(DiagramEvent pEvent)
+		{
+			if( aLayouts.isEmpty() )
+			{
+				return;
+			}
+			GeometryChange change = GeometryChange.of(aDiagram, pEvent);
+			if( change.affectsAll() )
+			{
+				aLayouts.clear();
+			}
+			else
+			{
+				change.getEdges().forEach(aLayouts::remove);
+			}
+		}
+	}
 }
@@ -23,13 +23,16 @@ package ca.mcgill.cs.jetuml.viewers.nodes;
 import java.util.Optional;
 
 import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.nodes.NamedNode;
 import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.GeomUtils;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
+import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
+import ca.mcgill.cs.jetuml.views.ViewUtils;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
 /**
@@ -39,6 +42,56 @@ public abstract class AbstractNodeViewer implements NodeViewer
 {
 	public static final int BUTTON_SIZE = 25;
 	public static final int OFFSET = 3;
+	private static final int OVERVIEW_NAME_HEIGHT = 20;
+	private static final StringViewer OVERVIEW_NAME_VIEWER = new StringViewer(StringViewer.Align.CENTER, true, false);
+	
+	/*
+	 * By default, the overview of a node is a box the size of its bounds,
+	 * with the name of the node at the top.
+	 */
+	@Override
+	public void drawOverview(Node pNode, DrawingContext pGraphics)
+	{
+		Rectangle bounds = getBounds(pNode);
+		ViewUtils.drawRectangle(pGraphics, Color.BLACK, Color.WHITE, 
+				bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight());
+		drawOverviewName(getOverviewName(pNode), pGraphics, bounds);
+	}
+	
+	/**
+	 * Draws pName at the top of pBounds, for the overview of a node.
+	 * 
+	 * @param pName The name to draw. Nothing is drawn if it is empty.
+	 * @param pGraphics The graphics context.
+	 * @param pBounds The box that represents the node.
+	 * @pre pName != null && pGraphics != null && pBounds != null
+	 */
+	protected static void drawOverviewName(String pName, DrawingContext pGraphics, Rectangle pBounds)
+	{
+		assert pName != null && pGraphics != null && pBounds != null;
+		if( !pName.isEmpty() )
+		{
+			OVERVIEW_NAME_VIEWER.draw(pName, pGraphics, new Rectangle(pBounds.getX(), pBounds.getY(), 
+					pBounds.getWidth(), Math.min(pBounds.getHeight(), OVERVIEW_NAME_HEIGHT)));
+		}
+	}
+	
+	/**
+	 * By default, the name of a named node, and no name for other nodes.
+	 * 
+	 * @param pNode The node to draw.
+	 * @return The name to show in the overview of pNode, or an empty string.
+	 * @pre pNode != null
+	 */
+	protected String getOverviewName(Node pNode)
+	{
+		assert pNode != null;
+		if( pNode instanceof NamedNode )
+		{
+			return ((NamedNode) pNode).getName();
+		}
+		return "";
+	}
 	
 	/* 
 	 * The default behavior for containment is to return true if the point is
@@ -85,7 +138,7 @@ public abstract class AbstractNodeViewer implements NodeViewer
 	}
 	
 	@Override
-	public void drawSelectionHandles(Node pNode, GraphicsContext pGraphics)
+	public void drawSelectionHandles(Node pNode, DrawingContext pGraphics)
 	{
 		ToolGraphics.drawHandles(pGraphics, getBounds(pNode));		
 	}
@@ -100,12 +153,12 @@ public abstract class AbstractNodeViewer implements NodeViewer
 		double scaleY = (BUTTON_SIZE - OFFSET)/ (double) height;
 		double scale = Math.min(scaleX, scaleY);
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		DrawingContext graphics = DrawingContext.of(canvas.getGraphicsContext2D());
 		graphics.scale(scale, scale);
 		graphics.translate(Math.max((height - width) / 2, 0), Math.max((width - height) / 2, 0));
 		graphics.setFill(Color.WHITE);
 		graphics.setStroke(Color.BLACK);
-		draw(pNode, canvas.getGraphicsContext2D());
+		draw(pNode, graphics);
 		return canvas;
 	}
 }
@@ -28,9 +28,10 @@ import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.ViewUtils;
-import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
 
 /**
  * Common functionality to view the different types of package nodes.
@@ -46,7 +47,7 @@ public abstract class AbstractPackageNodeViewer extends AbstractNodeViewer
 	private static final StringViewer NAME_VIEWER = new StringViewer(StringViewer.Align.LEFT, false, false);
 	
 	@Override
-	public void draw(Node pNode, GraphicsContext pGraphics)
+	public void draw(Node pNode, DrawingContext pGraphics)
 	{
 		assert pNode instanceof AbstractPackageNode;
 		Rectangle topBounds = getTopBounds((AbstractPackageNode)pNode);
@@ -57,6 +58,19 @@ public abstract class AbstractPackageNodeViewer extends AbstractNodeViewer
 				topBounds.getY(), topBounds.getWidth(), topBounds.getHeight()));
 	}
 	
+	@Override
+	public void drawOverview(Node pNode, DrawingContext pGraphics)
+	{
+		assert pNode instanceof AbstractPackageNode;
+		Rectangle topBounds = getTopBounds((AbstractPackageNode)pNode);
+		Rectangle bottomBounds = getBottomBounds((AbstractPackageNode)pNode);
+		ViewUtils.drawRectangle(pGraphics, Color.BLACK, Color.WHITE, 
+				topBounds.getX(), topBounds.getY(), topBounds.getWidth(), topBounds.getHeight());
+		ViewUtils.drawRectangle(pGraphics, Color.BLACK, Color.WHITE, 
+				bottomBounds.getX(), bottomBounds.getY(), bottomBounds.getWidth(), bottomBounds.getHeight());
+		drawOverviewName(((AbstractPackageNode)pNode).getName(), pGraphics, topBounds);
+	}
+	
 	@Override
 	public Point getConnectionPoint(Node pNode, Direction pDirection)
 	{
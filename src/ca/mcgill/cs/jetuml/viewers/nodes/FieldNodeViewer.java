@@ -27,9 +27,9 @@ import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
 /**
@@ -49,7 +49,7 @@ public final class FieldNodeViewer extends AbstractNodeViewer
 	private static final ObjectNodeViewer OBJECT_NODE_VIEWER = new ObjectNodeViewer();
 	
 	@Override
-	public void draw(Node pNode, GraphicsContext pGraphics)
+	public void draw(Node pNode, DrawingContext pGraphics)
 	{
 		final Rectangle bounds = getBounds(pNode);
 		final int split = getSplitPosition(pNode);
@@ -61,6 +61,12 @@ public final class FieldNodeViewer extends AbstractNodeViewer
 				pGraphics, new Rectangle(split + MID_OFFSET, bounds.getY(), rightWidth(pNode), bounds.getHeight()));
 	}
 	
+	@Override
+	public void drawOverview(Node pNode, DrawingContext pGraphics)
+	{
+		// Do nothing, a field is a detail of the box of its object.
+	}
+	
 	private int getSplitPosition(Node pNode)
 	{
 		ObjectNode parent = (ObjectNode)pNode.getParent();
@@ -142,7 +148,7 @@ public final class FieldNodeViewer extends AbstractNodeViewer
 		double scaleY = (BUTTON_SIZE - OFFSET)/ (double) height;
 		double scale = Math.min(scaleX, scaleY);
 		Canvas canvas = new Canvas(BUTTON_SIZE, BUTTON_SIZE);
-		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		DrawingContext graphics = DrawingContext.of(canvas.getGraphicsContext2D());
 		graphics.scale(scale, scale);
 		graphics.translate(Math.max((height - width) / 2, 0), Math.max((width - height) / 2, 0));
 		graphics.setFill(Color.WHITE);
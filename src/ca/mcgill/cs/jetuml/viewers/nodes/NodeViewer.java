@@ -24,8 +24,8 @@ import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Abstract strategy that describes objects that can draw and
@@ -48,7 +48,17 @@ public interface NodeViewer
      * @param pGraphics the graphics context
      * @pre pNode != null && pGraphics != null
 	 */
-   	void draw(Node pNode, GraphicsContext pGraphics);
+   	void draw(Node pNode, DrawingContext pGraphics);
+   	
+   	/**
+     * Draws a simplified version of the element, legible when the diagram
+     * is viewed at a small scale: a box with the name of the element, 
+     * without drop shadow or details.
+     * @param pNode The node to draw.
+     * @param pGraphics the graphics context
+     * @pre pNode != null && pGraphics != null
+	 */
+   	void drawOverview(Node pNode, DrawingContext pGraphics);
    	
    	/**
    	 * Returns an icon that represents the element.
@@ -64,7 +74,7 @@ public interface NodeViewer
      * @param pGraphics the graphics context
      * @pre pNode != null && pGraphics != null
 	 */
-   	void drawSelectionHandles(Node pNode, GraphicsContext pGraphics);
+   	void drawSelectionHandles(Node pNode, DrawingContext pGraphics);
    	
    	/**
      * Tests whether the node contains a point.
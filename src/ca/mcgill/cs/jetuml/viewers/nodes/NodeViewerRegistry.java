@@ -21,7 +21,11 @@
 package ca.mcgill.cs.jetuml.viewers.nodes;
 
 import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
 
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
 import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.nodes.ActorNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
@@ -41,12 +45,23 @@ import ca.mcgill.cs.jetuml.diagram.nodes.UseCaseNode;
 import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.DisplayList;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
+import ca.mcgill.cs.jetuml.views.GeometryChange;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Keeps track of the association between a node type and the viewer
  * that needs to be used to view it.
+ * 
+ * The bounds of the nodes of a diagram are cached by the diagram until a 
+ * change can affect them, as determined by GeometryChange, since they are 
+ * queried many times per repaint and computing them can require measuring 
+ * text and visiting all the children of a node. The drawing of a node is
+ * a function of its geometry and properties, so the nodes of a diagram are 
+ * drawn once into a DisplayList, cached and invalidated with their bounds, 
+ * and replayed when the diagram is painted again.
  */
 public final class NodeViewerRegistry
 {	
@@ -115,7 +130,47 @@ public final class NodeViewerRegistry
 	 */
    	public static void draw(Node pNode, GraphicsContext pGraphics)
    	{
-   		INSTANCE.viewerFor(pNode).draw(pNode, pGraphics);
+   		INSTANCE.replayOrRecord(pNode, pGraphics);
+   	}
+   	
+	private void replayOrRecord(Node pNode, GraphicsContext pGraphics)
+	{
+		Optional<Diagram> diagram = pNode.getDiagram();
+		if( !diagram.isPresent() )
+		{
+			viewerFor(pNode).draw(pNode, DrawingContext.of(pGraphics));
+			return;
+		}
+		Map<Node, DisplayList> cache = diagram.get().getCache(ViewCache.class, ViewCache::new).aDisplayLists;
+		DisplayList displayList = cache.get(pNode);
+		if( displayList == null )
+		{
+			cache.put(pNode, DisplayList.record(pGraphics, graphics -> viewerFor(pNode).draw(pNode, graphics)));
+		}
+		else
+		{
+			displayList.replay(pGraphics);
+		}
+	}
+	
+	/*
+	 * The display list of pNode cached by its diagram, if any. For testing.
+	 */
+	static Optional<DisplayList> cachedDisplayList(Node pNode)
+	{
+		return pNode.getDiagram().map(diagram -> 
+				diagram.getCache(ViewCache.class, ViewCache::new).aDisplayLists.get(pNode));
+	}
+   	
+	/**
+     * Draws a simplified version of pNode, for small scales.
+     * @param pNode The node to draw.
+     * @param pGraphics the graphics context
+     * @pre pNode != null
+	 */
+   	public static void drawOverview(Node pNode, GraphicsContext pGraphics)
+   	{
+   		INSTANCE.viewerFor(pNode).drawOverview(pNode, DrawingContext.of(pGraphics));
    	}
    	
    	/**
@@ -126,7 +181,7 @@ public final class NodeViewerRegistry
 	 */
    	public static void drawSelectionHandles(Node pNode, GraphicsContext pGraphics)
    	{
-   		INSTANCE.viewerFor(pNode).drawSelectionHandles(pNode, pGraphics);
+   		INSTANCE.viewerFor(pNode).drawSelectionHandles(pNode, DrawingContext.of(pGraphics));
    	}
    	
 	/**
@@ -138,7 +193,24 @@ public final class NodeViewerRegistry
    	 */
 	public static Rectangle getBounds(Node pNode)
 	{
-		return INSTANCE.viewerFor(pNode).getBounds(pNode);
+		return INSTANCE.boundsOf(pNode);
+	}
+	
+	private Rectangle boundsOf(Node pNode)
+	{
+		Optional<Diagram> diagram = pNode.getDiagram();
+		if( !diagram.isPresent() )
+		{
+			return viewerFor(pNode).getBounds(pNode);
+		}
+		Map<Node, Rectangle> cache = diagram.get().getCache(ViewCache.class, ViewCache::new).aBounds;
+		Rectangle bounds = cache.get(pNode);
+		if( bounds == null )
+		{
+			bounds = viewerFor(pNode).getBounds(pNode);
+			cache.put(pNode, bounds);
+		}
+		return bounds;
 	}
 	
   	/**
@@ -154,4 +226,42 @@ public final class NodeViewerRegistry
    	{
 		return INSTANCE.viewerFor(pNode).getConnectionPoint(pNode, pDirection);
    	}
+	
+	/*
+	 * The bounds and display lists of the nodes of a diagram.
+	 */
+	private static final class ViewCache
+	{
+		private final Diagram aDiagram;
+		private final Map<Node, Rectangle> aBounds = new IdentityHashMap<>();
+		private final Map<Node, DisplayList> aDisplayLists = new IdentityHashMap<>();
+		
+		ViewCache(Diagram pDiagram)
+		{
+			aDiagram = pDiagram;
+			aDiagram.addListener(this::diagramChanged);
+		}
+		
+		private void diagramChanged(DiagramEvent pEvent)
+		{
+			if( aBounds.isEmpty() && aDisplayLists.isEmpty() )
+			{
+				return;
+			}
+			GeometryChange change = GeometryChange.of(aDiagram, pEvent);
+			if( change.affectsAll() )
+			{
+				aBounds.clear();
+				aDisplayLists.clear();
+			}
+			else
+			{
+				for( Node node : change.getNodes() )
+				{
+					aBounds.remove(node);
+					aDisplayLists.remove(node);
+				}
+			}
+		}
+	}
 }
@@ -24,9 +24,9 @@ import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.diagram.nodes.NoteNode;
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import ca.mcgill.cs.jetuml.views.ToolGraphics;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.LineTo;
 import javafx.scene.shape.MoveTo;
@@ -44,7 +44,7 @@ public final class NoteNodeViewer extends AbstractNodeViewer
 	private static final StringViewer NOTE_VIEWER = new StringViewer(StringViewer.Align.LEFT, false, false);
 	
 	@Override
-	public void draw(Node pNode, GraphicsContext pGraphics)
+	public void draw(Node pNode, DrawingContext pGraphics)
 	{
 		ToolGraphics.strokeAndFillSharpPath(pGraphics, createNotePath(pNode), NOTE_COLOR, true);
 		ToolGraphics.strokeAndFillSharpPath(pGraphics, createFoldPath(pNode), Color.WHITE, false);
@@ -52,6 +52,15 @@ public final class NoteNodeViewer extends AbstractNodeViewer
 				new Rectangle(pNode.position().getX(), pNode.position().getY(), DEFAULT_WIDTH, DEFAULT_HEIGHT));
 	}
 	
+	/*
+	 * The text of a note is not a name, so the overview of a note is its outline only.
+	 */
+	@Override
+	public void drawOverview(Node pNode, DrawingContext pGraphics)
+	{
+		ToolGraphics.strokeAndFillSharpPath(pGraphics, createNotePath(pNode), NOTE_COLOR, false);
+	}
+	
 	private Path createNotePath(Node pNode)
 	{
 		Path path = new Path();
@@ -68,7 +77,7 @@ public final class NoteNodeViewer extends AbstractNodeViewer
 	
 	/**
 	 * Fills in note fold.
-	 * @param pGraphics GraphicsContext in which to fill the fold
+	 * @param pGraphics DrawingContext in which to fill the fold
 	 */
 	private Path createFoldPath(Node pNode)
 	{
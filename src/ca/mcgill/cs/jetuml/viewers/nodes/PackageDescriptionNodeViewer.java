@@ -27,9 +27,9 @@ import ca.mcgill.cs.jetuml.diagram.nodes.AbstractPackageNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.PackageDescriptionNode;
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
 import ca.mcgill.cs.jetuml.views.StringViewer;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 
 /**
  * An object to render a package in a class diagram.
@@ -39,7 +39,7 @@ public final class PackageDescriptionNodeViewer extends AbstractPackageNodeViewe
 	private static final StringViewer CONTENTS_VIEWER = new StringViewer(StringViewer.Align.CENTER, false, false);
 	
 	@Override
-	public void draw(Node pNode, GraphicsContext pGraphics)
+	public void draw(Node pNode, DrawingContext pGraphics)
 	{
 		super.draw(pNode, pGraphics);
 		Rectangle bottomBounds = getBottomBounds((AbstractPackageNode)pNode);
@@ -68,7 +68,7 @@ public final class PackageDescriptionNodeViewer extends AbstractPackageNodeViewe
 	{
 		assert pNode instanceof AbstractPackageNode;
 		Canvas icon = super.createIcon(pNode);
-		CONTENTS_VIEWER.draw("description", icon.getGraphicsContext2D(), getBottomBounds((AbstractPackageNode)pNode));
+		CONTENTS_VIEWER.draw("description", DrawingContext.of(icon.getGraphicsContext2D()), getBottomBounds((AbstractPackageNode)pNode));
 		return icon;
 	}
 }
@@ -24,7 +24,7 @@ import ca.mcgill.cs.jetuml.diagram.Node;
 import ca.mcgill.cs.jetuml.geom.Direction;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
-import javafx.scene.canvas.GraphicsContext;
+import ca.mcgill.cs.jetuml.views.DrawingContext;
 
 /**
  * An object to render a PointNode.
@@ -52,7 +52,13 @@ public final class PointNodeViewer extends AbstractNodeViewer
 	}
 	
 	@Override
-	public void draw(Node pNode, GraphicsContext pGraphics) 
+	public void draw(Node pNode, DrawingContext pGraphics) 
+	{
+		// Do nothing, a point is invisible.
+	}
+	
+	@Override
+	public void drawOverview(Node pNode, DrawingContext pGraphics) 
 	{
 		// Do nothing, a point is invisible.
 	}
@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.nodes;
+
+import static ca.mcgill.cs.jetuml.geom.GeomUtils.max;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import ca.mcgill.cs.jetuml.diagram.ControlFlow;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ImplicitParameterNode;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.StringViewer;
+
+/**
+ * Computes the geometry of the call nodes and implicit parameter nodes of
+ * a sequence diagram.
+ *
+ * The vertical position of a call node depends on the position of its caller
+ * and of the calls that precede it, which in turn depend on their own callers,
+ * so computing the geometry of each node independently revisits the same part
+ * of the control flow over and over. Instead, a layout walks the indexed control 
+ * flow of the diagram, memoizing the geometry of each node the first time it is needed. 
+ * Each diagram owns its layout, which forgets the geometry of all the nodes when the 
+ * diagram changes, except when nodes are only reordered.
+ */
+final class SequenceDiagramLayout
+{
+	private static final int CALL_WIDTH = 16;
+	private static final int CALL_DEFAULT_HEIGHT = 30;
+	private static final int Y_GAP_BIG = 20;
+	private static final int Y_GAP_SMALL = 20; // Was 10, changed to 20 to account for label space
+	private static final int Y_GAP_TINY = 5; // Was 10, changed to 20 to account for label space
+
+	private static final int OBJECT_DEFAULT_WIDTH = 80;
+	private static final int OBJECT_DEFAULT_HEIGHT = 120;
+	private static final int HORIZONTAL_PADDING = 10; // 2x the left and right padding around the name of the implicit parameter
+	private static final int TAIL_HEIGHT = 20; // Piece of the life line below the last call node
+	private static final int TOP_HEIGHT = 60;
+	private static final StringViewer NAME_VIEWER = new StringViewer(StringViewer.Align.CENTER, false, true);
+
+	private final Optional<ControlFlow> aFlow;
+
+	private final Map<Node, Integer> aCallY = new IdentityHashMap<>();
+	private final Map<Node, Integer> aCallMaxY = new IdentityHashMap<>();
+	private final Map<Node, Rectangle> aTopRectangles = new IdentityHashMap<>();
+	private final Map<Node, Rectangle> aObjectBounds = new IdentityHashMap<>();
+
+	private SequenceDiagramLayout(Optional<Diagram> pDiagram)
+	{
+		aFlow = pDiagram.map(ControlFlow::of);
+		pDiagram.ifPresent(diagram -> diagram.addListener(this::diagramChanged));
+	}
+
+	/**
+	 * Returns the layout of the diagram that contains pNode. If pNode is not
+	 * attached to a diagram, returns a new layout that treats it as a node 
+	 * without caller or callees.
+	 *
+	 * @param pNode A call node or implicit parameter node.
+	 * @return The layout that can compute the geometry of pNode.
+	 * @pre pNode != null
+	 */
+	static SequenceDiagramLayout of(Node pNode)
+	{
+		assert pNode != null;
+		Optional<Diagram> diagram = pNode.getDiagram();
+		if( !diagram.isPresent() )
+		{
+			return new SequenceDiagramLayout(diagram);
+		}
+		return diagram.get().getCache(SequenceDiagramLayout.class, 
+				owner -> new SequenceDiagramLayout(Optional.of(owner)));
+	}
+	
+	private void diagramChanged(DiagramEvent pEvent)
+	{
+		if( pEvent.getKind() != DiagramEvent.Kind.NODE_REORDERED )
+		{
+			aCallY.clear();
+			aCallMaxY.clear();
+			aTopRectangles.clear();
+			aObjectBounds.clear();
+		}
+	}
+
+	private Optional<CallNode> getCaller(Node pCallNode)
+	{
+		return aFlow.flatMap(flow -> flow.getCaller(pCallNode));
+	}
+
+	private List<Node> getCallees(Node pCallNode)
+	{
+		return aFlow.map(flow -> flow.getCallees(pCallNode)).orElse(Collections.emptyList());
+	}
+
+	private boolean isConstructorExecution(Node pCallNode)
+	{
+		return aFlow.map(flow -> flow.isConstructorExecution(pCallNode)).orElse(false);
+	}
+
+	/**
+	 * @param pCallNode A call node.
+	 * @return The bounds of pCallNode.
+	 * @pre pCallNode != null
+	 */
+	Rectangle getCallNodeBounds(Node pCallNode)
+	{
+		assert pCallNode != null;
+		int y = getCallNodeY(pCallNode);
+		return new Rectangle(getCallNodeX(pCallNode), y, CALL_WIDTH, getCallNodeMaxY(pCallNode) - y);
+	}
+
+	/*
+	 * The x position is a function of the position of the implicit parameter
+	 * node and the nesting depth of the call node.
+	 */
+	private int getCallNodeX(Node pCallNode)
+	{
+		if( !pCallNode.hasParent() )
+		{
+			return 0;
+		}
+		return getTopRectangle(pCallNode.getParent()).getCenter().getX() - CALL_WIDTH / 2 +
+				getNestingDepth(pCallNode) * CALL_WIDTH/2;
+	}
+
+	private int getNestingDepth(Node pCallNode)
+	{
+		return aFlow.map(flow -> flow.getNestingDepth((CallNode) pCallNode)).orElse(0);
+	}
+
+	/**
+	 * @param pCallNode A call node.
+	 * @return The y coordinate of the top of pCallNode.
+	 * @pre pCallNode != null
+	 */
+	int getCallNodeY(Node pCallNode)
+	{
+		assert pCallNode != null;
+		Integer y = aCallY.get(pCallNode);
+		if( y == null )
+		{
+			y = computeCallNodeY(pCallNode);
+			aCallY.put(pCallNode, y);
+		}
+		return y;
+	}
+
+	private int computeCallNodeY(Node pCallNode)
+	{
+		if( isConstructorExecution(pCallNode) )
+		{
+			return getTopRectangle(pCallNode.getParent()).getMaxY() + Y_GAP_TINY;
+		}
+		if( !pCallNode.hasParent() || !aFlow.isPresent() )
+		{
+			return 0; // Only used for the ImageCreator
+		}
+		Optional<CallNode> caller = getCaller(pCallNode);
+		if( !caller.isPresent() )
+		{
+			return getTopRectangle(pCallNode.getParent()).getMaxY() + Y_GAP_SMALL;
+		}
+		return getYWithCaller(pCallNode, caller.get());
+	}
+	
+	/*
+	 * A gap below the last return Y value of the caller or a set 
+	 * distance before the previous call node, whatever is lower.
+	 */
+	private int getYWithCaller(Node pCallNode, CallNode pCaller)
+	{
+		Optional<Node> previousCallee = getPreviousCallee(pCallNode);
+		if( previousCallee.isPresent() )
+		{
+			return getCallNodeMaxY(previousCallee.get()) + Y_GAP_SMALL;
+		}
+		else if( pCaller.getParent() == pCallNode.getParent() )
+		{
+			return getCallNodeY(pCaller) + Y_GAP_BIG;
+		}
+		else
+		{
+			return getCallNodeY(pCaller) + Y_GAP_SMALL;
+		}
+	}
+
+	/**
+	 * @param pCallNode A call node.
+	 * @return If there's no callee, returns a fixed offset from the y position.
+	 *     Otherwise, return with a gap from last callee.
+	 * @pre pCallNode != null
+	 */
+	int getCallNodeMaxY(Node pCallNode)
+	{
+		assert pCallNode != null;
+		Integer maxY = aCallMaxY.get(pCallNode);
+		if( maxY == null )
+		{
+			List<Node> callees = getCallees(pCallNode);
+			if( callees.isEmpty() )
+			{
+				maxY = getCallNodeY(pCallNode) + CALL_DEFAULT_HEIGHT;
+			}
+			else
+			{
+				maxY = getCallNodeMaxY(callees.get(callees.size()-1)) + Y_GAP_SMALL;
+			}
+			aCallMaxY.put(pCallNode, maxY);
+		}
+		return maxY;
+	}
+
+	/*
+	 * The node called by the caller of pCallNode just before pCallNode,
+	 * or empty if pCallNode is the first callee.
+	 */
+	private Optional<Node> getPreviousCallee(Node pCallNode)
+	{
+		List<Node> callees = getCallees(getCaller(pCallNode).get());
+		int index = callees.indexOf(pCallNode);
+		if( index <= 0 )
+		{
+			return Optional.empty();
+		}
+		return Optional.of(callees.get(index - 1));
+	}
+
+	/**
+	 * @param pObject An implicit parameter node.
+	 * @return The rectangle at the top of pObject.
+	 * @pre pObject != null
+	 */
+	Rectangle getTopRectangle(Node pObject)
+	{
+		assert pObject != null;
+		Rectangle top = aTopRectangles.get(pObject);
+		if( top == null )
+		{
+			int width = Math.max(NAME_VIEWER.getDimension(((ImplicitParameterNode)pObject).getName()).width() +
+					HORIZONTAL_PADDING, OBJECT_DEFAULT_WIDTH);
+			int y = 0;
+			if( isInConstructorCall(pObject) )
+			{
+				y = getYWithConstructorCall(pObject);
+			}
+			top = new Rectangle(pObject.position().getX(), y, width, TOP_HEIGHT);
+			aTopRectangles.put(pObject, top);
+		}
+		return top;
+	}
+
+	/**
+	 * @param pObject An implicit parameter node.
+	 * @return The bounds of pObject, including its life line.
+	 * @pre pObject != null
+	 */
+	Rectangle getImplicitParameterNodeBounds(Node pObject)
+	{
+		assert pObject != null;
+		Rectangle bounds = aObjectBounds.get(pObject);
+		if( bounds == null )
+		{
+			Rectangle top = getTopRectangle(pObject);
+			int maxX = 0;
+			int maxY = 0;
+			for( Node child : pObject.getChildren() )
+			{
+				Rectangle childBounds = getCallNodeBounds(child);
+				maxX = Math.max(maxX, childBounds.getMaxX());
+				maxY = Math.max(maxY, childBounds.getMaxY());
+			}
+			int width = max(top.getWidth(), OBJECT_DEFAULT_WIDTH, maxX - pObject.position().getX());
+			int height = max(OBJECT_DEFAULT_HEIGHT, maxY + TAIL_HEIGHT) - top.getY();
+			bounds = new Rectangle(pObject.position().getX(), top.getY(), width, height);
+			aObjectBounds.put(pObject, bounds);
+		}
+		return bounds;
+	}
+
+	private boolean isInConstructorCall(Node pObject)
+	{
+		return !pObject.getChildren().isEmpty() && isConstructorExecution(pObject.getChildren().get(0));
+	}
+
+	private int getYWithConstructorCall(Node pObject)
+	{
+		Node child = pObject.getChildren().get(0);
+		Optional<Node> previousCallee = getPreviousCallee(child);
+		// If the node is the first callee, set a fix distance from its caller
+		if( !previousCallee.isPresent() )
+		{
+			return getCallNodeY(getCaller(child).get()) + Y_GAP_SMALL;
+		}
+		// If the previous callee is in constructor call, use the bound of the previous callee's parent
+		if( isConstructorExecution(previousCallee.get()) )
+		{
+			return getImplicitParameterNodeBounds(previousCallee.get().getParent()).getMaxY();
+		}
+		// Otherwise, use a fixed distance from the previous callee
+		return getCallNodeMaxY(previousCallee.get()) + Y_GAP_SMALL;
+	}
+}
@@ -29,7 +29,6 @@ import static ca.mcgill.cs.jetuml.views.ArrowHead.TRIANGLE;
 import static ca.mcgill.cs.jetuml.views.ArrowHead.V;
 
 import ca.mcgill.cs.jetuml.geom.Point;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.LineTo;
 import javafx.scene.shape.MoveTo;
@@ -61,7 +60,7 @@ public final class ArrowHeadView
 	 * @param pPoint1 a point on the axis of the arrow head
 	 * @param pEnd the end point of the arrow head
 	 */
-	public void draw(GraphicsContext pGraphics, Point pPoint1, Point pEnd)
+	public void draw(DrawingContext pGraphics, Point pPoint1, Point pEnd)
 	{
 		if(aArrowHead == ArrowHead.BLACK_DIAMOND || aArrowHead == BLACK_TRIANGLE) 
 		{
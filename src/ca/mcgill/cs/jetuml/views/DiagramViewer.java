@@ -21,7 +21,14 @@
 
 package ca.mcgill.cs.jetuml.views;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 import ca.mcgill.cs.jetuml.diagram.Diagram;
 import ca.mcgill.cs.jetuml.diagram.DiagramElement;
@@ -36,10 +43,15 @@ import javafx.scene.canvas.GraphicsContext;
 /**
  * A strategy for drawing a diagram and computing geometric properties of a 
  * diagram. This class can be inherited if certain diagram types require specialized 
- * services. This class is stateless.
+ * services. This class is stateless: the spatial index used to find the
+ * elements at a point is maintained per diagram.
  */
 public class DiagramViewer
 {
+	/* The number of pixels by which the visible area is grown before culling, 
+	 * to keep drawing the drop shadows of the elements just outside of it. */
+	private static final int CULLING_MARGIN = 10;
+	
 	/**
 	 * Draws pDiagram onto pGraphics.
 	 * 
@@ -55,12 +67,78 @@ public class DiagramViewer
 		pDiagram.edges().forEach(edge -> EdgeViewerRegistry.draw(edge, pGraphics));
 	}
 	
+	/**
+	 * Draws the elements of pDiagram that are visible in pVisible onto pGraphics.
+	 * The nodes and edges whose bounds do not intersect pVisible are skipped. Edges 
+	 * that cross pVisible are drawn in full, so the part that lies outside 
+	 * of pVisible may be drawn as well.
+	 * 
+	 * @param pDiagram the diagram to draw.
+	 * @param pGraphics the graphics context where the
+	 *     diagram should be drawn.
+	 * @param pVisible the area of the diagram that needs to be drawn.
+	 * @pre pDiagram != null && pGraphics != null && pVisible != null.
+	 */
+	public final void draw(Diagram pDiagram, GraphicsContext pGraphics, Rectangle pVisible)
+	{
+		assert pDiagram != null && pGraphics != null && pVisible != null;
+		drawVisible(pDiagram, pGraphics, pVisible, NodeViewerRegistry::draw, EdgeViewerRegistry::draw);
+	}
+	
+	/**
+	 * Draws an overview of the elements of pDiagram that are visible in pVisible 
+	 * onto pGraphics, for when the diagram is viewed at a scale too small for 
+	 * its details to be legible. Nodes are drawn as boxes with their name, and 
+	 * edges as their path only, without drop shadows, arrow heads, or labels. 
+	 * The elements are culled as they are by draw.
+	 * 
+	 * @param pDiagram the diagram to draw.
+	 * @param pGraphics the graphics context where the
+	 *     diagram should be drawn.
+	 * @param pVisible the area of the diagram that needs to be drawn.
+	 * @pre pDiagram != null && pGraphics != null && pVisible != null.
+	 */
+	public final void drawOverview(Diagram pDiagram, GraphicsContext pGraphics, Rectangle pVisible)
+	{
+		assert pDiagram != null && pGraphics != null && pVisible != null;
+		drawVisible(pDiagram, pGraphics, pVisible, NodeViewerRegistry::drawOverview, EdgeViewerRegistry::drawOverview);
+	}
+	
+	private void drawVisible(Diagram pDiagram, GraphicsContext pGraphics, Rectangle pVisible, 
+			BiConsumer<Node, GraphicsContext> pNodeDrawer, BiConsumer<Edge, GraphicsContext> pEdgeDrawer)
+	{
+		Rectangle visible = new Rectangle(pVisible.getX() - CULLING_MARGIN, pVisible.getY() - CULLING_MARGIN, 
+				pVisible.getWidth() + 2 * CULLING_MARGIN, pVisible.getHeight() + 2 * CULLING_MARGIN);
+		pDiagram.rootNodes().forEach(node -> drawNode(node, pGraphics, visible, pNodeDrawer));
+		for( Edge edge : pDiagram.edges() )
+		{
+			if( EdgeViewerRegistry.getBounds(edge).intersects(visible) )
+			{
+				pEdgeDrawer.accept(edge, pGraphics);
+			}
+		}
+	}
+	
 	private void drawNode(Node pNode, GraphicsContext pGraphics)
 	{
 		NodeViewerRegistry.draw(pNode, pGraphics);
 		pNode.getChildren().forEach(node -> drawNode(node, pGraphics));
 	}
 	
+	/*
+	 * The children are visited even if pNode is not visible, 
+	 * because nothing guarantees that they lie within its bounds.
+	 */
+	private void drawNode(Node pNode, GraphicsContext pGraphics, Rectangle pVisible, 
+			BiConsumer<Node, GraphicsContext> pNodeDrawer)
+	{
+		if( NodeViewerRegistry.getBounds(pNode).intersects(pVisible) )
+		{
+			pNodeDrawer.accept(pNode, pGraphics);
+		}
+		pNode.getChildren().forEach(node -> drawNode(node, pGraphics, pVisible, pNodeDrawer));
+	}
+	
 	/**
 	 * Finds the edge that contains the given point, if it 
 	 * exists.
@@ -73,9 +151,32 @@ public class DiagramViewer
 	public final Optional<Edge> findEdge(Diagram pDiagram, Point pPoint)
 	{
 		assert pDiagram != null && pPoint != null;
-		for(Edge edge : pDiagram.edges())
+		if( !usesSpatialIndex() )
 		{
-			if(EdgeViewerRegistry.contains(edge, pPoint))
+			return firstEdgeContaining(pDiagram.edges(), pPoint);
+		}
+		// Only the candidates are tested. When several of them contain the point,
+		// the first one in the diagram is returned, as when all the edges are tested.
+		List<Edge> hits = new ArrayList<>();
+		for( DiagramElement candidate : SpatialIndex.of(pDiagram).edgesAt(pPoint) )
+		{
+			if( EdgeViewerRegistry.contains((Edge) candidate, pPoint) )
+			{
+				hits.add((Edge) candidate);
+			}
+		}
+		if( hits.size() > 1 )
+		{
+			hits.sort(Comparator.comparingInt(pDiagram.edges()::indexOf));
+		}
+		return hits.stream().findFirst();
+	}
+	
+	private static Optional<Edge> firstEdgeContaining(List<Edge> pEdges, Point pPoint)
+	{
+		for(Edge edge : pEdges)
+		{
+			if( EdgeViewerRegistry.contains(edge, pPoint))
 			{
 				return Optional.of(edge);
 			}
@@ -94,9 +195,14 @@ public class DiagramViewer
 	public final Optional<Node> findNode(Diagram pDiagram, Point pPoint)
 	{
 		assert pDiagram != null && pPoint != null;
+		Optional<Set<Node>> roots = spatialIndex(pDiagram).map(index -> rootsOf(index.nodesAt(pPoint)));
 		Node result = null;
 		for(Node node : pDiagram.rootNodes())
 		{
+			if( roots.isPresent() && !roots.get().contains(node) )
+			{
+				continue;
+			}
 			Node temp = deepFindNode(pDiagram, node, pPoint);
 			if (temp != null)
 			{
@@ -106,6 +212,53 @@ public class DiagramViewer
 		return Optional.ofNullable(result);
 	}
 	
+	/*
+	 * The spatial index of pDiagram, or empty if this viewer does not 
+	 * use one and all the elements must be tested.
+	 */
+	private Optional<SpatialIndex> spatialIndex(Diagram pDiagram)
+	{
+		if( !usesSpatialIndex() )
+		{
+			return Optional.empty();
+		}
+		return Optional.of(SpatialIndex.of(pDiagram));
+	}
+	
+	/*
+	 * The root nodes of the trees that contain a node in pNodes. Only these 
+	 * trees need to be searched, but they are searched in full to preserve
+	 * the order in which deepFindNode visits the nodes.
+	 */
+	private static Set<Node> rootsOf(Set<DiagramElement> pNodes)
+	{
+		Set<Node> roots = Collections.newSetFromMap(new IdentityHashMap<>());
+		for( DiagramElement element : pNodes )
+		{
+			Node root = (Node) element;
+			while( root.hasParent() )
+			{
+				root = root.getParent();
+			}
+			roots.add(root);
+		}
+		return roots;
+	}
+	
+	/**
+	 * Indicates whether findNode and findEdge can restrict their search to
+	 * the elements whose bounds, grown by a small margin, contain the point.
+	 * Subclasses must return false if the hit area of their elements can extend 
+	 * further than their bounds, or if deepFindNode can return a node
+	 * outside of the tree it searches.
+	 * 
+	 * @return True if hit tests can use a spatial index of the diagram.
+	 */
+	protected boolean usesSpatialIndex()
+	{
+		return true;
+	}
+	
 	/**
 	 * Find the "deepest" child that contains pPoint,
 	 * where depth is measured in terms of distance from
@@ -0,0 +1,344 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.effect.Effect;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.ArcType;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * A recording of the drawing of a diagram element, which can be replayed
+ * instead of drawing the element again as long as it does not change.
+ * Replaying a display list only issues the recorded calls to the graphics
+ * context: it does not lay out the element, measure its text, or build its 
+ * shape.
+ * 
+ * A display list is recorded while the element is drawn on a graphics context,
+ * and the values read from this context while recording, such as the line width, 
+ * are part of the recording. A display list must therefore only be replayed on a 
+ * graphics context set up as the one it was recorded on, apart from its transform. 
+ * The state of the graphics context is saved before recording or replaying the 
+ * list and restored after, so that the state a viewer leaves behind does not 
+ * depend on whether its drawing was recorded or replayed.
+ */
+public final class DisplayList
+{
+	private final List<Consumer<GraphicsContext>> aCommands;
+	
+	private DisplayList(List<Consumer<GraphicsContext>> pCommands)
+	{
+		aCommands = pCommands;
+	}
+	
+	/**
+	 * Draws on pGraphics and records the drawing.
+	 * 
+	 * @param pGraphics The graphics context to draw on.
+	 * @param pDrawing Draws on the drawing context it is given.
+	 * @return The recording of the drawing.
+	 * @pre pGraphics != null && pDrawing != null
+	 */
+	public static DisplayList record(GraphicsContext pGraphics, Consumer<DrawingContext> pDrawing)
+	{
+		assert pGraphics != null && pDrawing != null;
+		Recorder recorder = new Recorder(pGraphics);
+		pGraphics.save();
+		pDrawing.accept(recorder);
+		pGraphics.restore();
+		return new DisplayList(recorder.aCommands);
+	}
+	
+	/**
+	 * Draws the recording on pGraphics.
+	 * 
+	 * @param pGraphics The graphics context to draw on.
+	 * @pre pGraphics != null
+	 */
+	public void replay(GraphicsContext pGraphics)
+	{
+		assert pGraphics != null;
+		pGraphics.save();
+		for( Consumer<GraphicsContext> command : aCommands )
+		{
+			command.accept(pGraphics);
+		}
+		pGraphics.restore();
+	}
+	
+	/**
+	 * @return The number of calls to the graphics context in the recording.
+	 */
+	public int size()
+	{
+		return aCommands.size();
+	}
+	
+	/*
+	 * Draws on a graphics context and records each call that changes its state
+	 * or draws. Calls that read its state are not recorded.
+	 */
+	private static final class Recorder implements DrawingContext
+	{
+		private final GraphicsContext aGraphics;
+		private final List<Consumer<GraphicsContext>> aCommands = new ArrayList<>();
+		
+		Recorder(GraphicsContext pGraphics)
+		{
+			aGraphics = pGraphics;
+		}
+		
+		private void run(Consumer<GraphicsContext> pCommand)
+		{
+			pCommand.accept(aGraphics);
+			aCommands.add(pCommand);
+		}
+		
+		/*
+		 * The array of dashes can be modified by the caller after the call.
+		 */
+		private static double[] copy(double[] pDashes)
+		{
+			if( pDashes == null )
+			{
+				return null;
+			}
+			return pDashes.clone();
+		}
+		
+		@Override
+		public void setFill(Paint pPaint)
+		{
+			run(graphics -> graphics.setFill(pPaint));
+		}
+		
+		@Override
+		public Paint getFill()
+		{
+			return aGraphics.getFill();
+		}
+		
+		@Override
+		public void setStroke(Paint pPaint)
+		{
+			run(graphics -> graphics.setStroke(pPaint));
+		}
+		
+		@Override
+		public Paint getStroke()
+		{
+			return aGraphics.getStroke();
+		}
+		
+		@Override
+		public void setLineWidth(double pWidth)
+		{
+			run(graphics -> graphics.setLineWidth(pWidth));
+		}
+		
+		@Override
+		public double getLineWidth()
+		{
+			return aGraphics.getLineWidth();
+		}
+		
+		@Override
+		public void setLineDashes(double... pDashes)
+		{
+			double[] dashes = copy(pDashes);
+			run(graphics -> graphics.setLineDashes(dashes));
+		}
+		
+		@Override
+		public double[] getLineDashes()
+		{
+			return aGraphics.getLineDashes();
+		}
+		
+		@Override
+		public void setFont(Font pFont)
+		{
+			run(graphics -> graphics.setFont(pFont));
+		}
+		
+		@Override
+		public Font getFont()
+		{
+			return aGraphics.getFont();
+		}
+		
+		@Override
+		public void setTextAlign(TextAlignment pAlignment)
+		{
+			run(graphics -> graphics.setTextAlign(pAlignment));
+		}
+		
+		@Override
+		public TextAlignment getTextAlign()
+		{
+			return aGraphics.getTextAlign();
+		}
+		
+		@Override
+		public void setTextBaseline(VPos pBaseline)
+		{
+			run(graphics -> graphics.setTextBaseline(pBaseline));
+		}
+		
+		@Override
+		public VPos getTextBaseline()
+		{
+			return aGraphics.getTextBaseline();
+		}
+		
+		@Override
+		public void setEffect(Effect pEffect)
+		{
+			run(graphics -> graphics.setEffect(pEffect));
+		}
+		
+		@Override
+		public void translate(double pX, double pY)
+		{
+			run(graphics -> graphics.translate(pX, pY));
+		}
+		
+		@Override
+		public void scale(double pX, double pY)
+		{
+			run(graphics -> graphics.scale(pX, pY));
+		}
+		
+		@Override
+		public void fillRect(double pX, double pY, double pWidth, double pHeight)
+		{
+			run(graphics -> graphics.fillRect(pX, pY, pWidth, pHeight));
+		}
+		
+		@Override
+		public void strokeRect(double pX, double pY, double pWidth, double pHeight)
+		{
+			run(graphics -> graphics.strokeRect(pX, pY, pWidth, pHeight));
+		}
+		
+		@Override
+		public void fillRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight)
+		{
+			run(graphics -> graphics.fillRoundRect(pX, pY, pWidth, pHeight, pArcWidth, pArcHeight));
+		}
+		
+		@Override
+		public void strokeRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth,
+				double pArcHeight)
+		{
+			run(graphics -> graphics.strokeRoundRect(pX, pY, pWidth, pHeight, pArcWidth, pArcHeight));
+		}
+		
+		@Override
+		public void fillOval(double pX, double pY, double pWidth, double pHeight)
+		{
+			run(graphics -> graphics.fillOval(pX, pY, pWidth, pHeight));
+		}
+		
+		@Override
+		public void strokeOval(double pX, double pY, double pWidth, double pHeight)
+		{
+			run(graphics -> graphics.strokeOval(pX, pY, pWidth, pHeight));
+		}
+		
+		@Override
+		public void strokeArc(double pX, double pY, double pWidth, double pHeight, double pStartAngle,
+				double pArcExtent, ArcType pClosure)
+		{
+			run(graphics -> graphics.strokeArc(pX, pY, pWidth, pHeight, pStartAngle, pArcExtent, pClosure));
+		}
+		
+		@Override
+		public void strokeLine(double pX1, double pY1, double pX2, double pY2)
+		{
+			run(graphics -> graphics.strokeLine(pX1, pY1, pX2, pY2));
+		}
+		
+		@Override
+		public void fillText(String pText, double pX, double pY)
+		{
+			run(graphics -> graphics.fillText(pText, pX, pY));
+		}
+		
+		@Override
+		public void drawImage(Image pImage, double pX, double pY)
+		{
+			run(graphics -> graphics.drawImage(pImage, pX, pY));
+		}
+		
+		@Override
+		public void drawImage(Image pImage, double pSourceX, double pSourceY, double pSourceWidth,
+				double pSourceHeight, double pX, double pY, double pWidth, double pHeight)
+		{
+			run(graphics -> graphics.drawImage(pImage, pSourceX, pSourceY, pSourceWidth, pSourceHeight, pX, pY,
+					pWidth, pHeight));
+		}
+		
+		@Override
+		public void beginPath()
+		{
+			run(graphics -> graphics.beginPath());
+		}
+		
+		@Override
+		public void moveTo(double pX, double pY)
+		{
+			run(graphics -> graphics.moveTo(pX, pY));
+		}
+		
+		@Override
+		public void lineTo(double pX, double pY)
+		{
+			run(graphics -> graphics.lineTo(pX, pY));
+		}
+		
+		@Override
+		public void quadraticCurveTo(double pControlX, double pControlY, double pX, double pY)
+		{
+			run(graphics -> graphics.quadraticCurveTo(pControlX, pControlY, pX, pY));
+		}
+		
+		@Override
+		public void fill()
+		{
+			run(graphics -> graphics.fill());
+		}
+		
+		@Override
+		public void stroke()
+		{
+			run(graphics -> graphics.stroke());
+		}
+	}
+}
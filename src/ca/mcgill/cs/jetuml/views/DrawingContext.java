@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.effect.Effect;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.ArcType;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * The operations of a GraphicsContext with which viewers draw diagram 
+ * elements. Each method behaves as the method of GraphicsContext with the
+ * same name. Viewers draw through this interface instead of drawing directly
+ * on a GraphicsContext so that their drawing can be recorded in a DisplayList.
+ */
+public interface DrawingContext
+{
+	/**
+	 * @param pGraphics The graphics context to draw on.
+	 * @return A drawing context that draws directly on pGraphics.
+	 * @pre pGraphics != null
+	 */
+	static DrawingContext of(GraphicsContext pGraphics)
+	{
+		assert pGraphics != null;
+		return new DirectDrawingContext(pGraphics);
+	}
+	
+	/**
+	 * Sets the paint used to fill shapes and text.
+	 * @param pPaint The paint.
+	 */
+	void setFill(Paint pPaint);
+	
+	/**
+	 * @return The paint used to fill shapes and text.
+	 */
+	Paint getFill();
+	
+	/**
+	 * Sets the paint used to stroke shapes.
+	 * @param pPaint The paint.
+	 */
+	void setStroke(Paint pPaint);
+	
+	/**
+	 * @return The paint used to stroke shapes.
+	 */
+	Paint getStroke();
+	
+	/**
+	 * Sets the width of stroked lines.
+	 * @param pWidth The width.
+	 */
+	void setLineWidth(double pWidth);
+	
+	/**
+	 * @return The width of stroked lines.
+	 */
+	double getLineWidth();
+	
+	/**
+	 * Sets the dash pattern of stroked lines.
+	 * @param pDashes The lengths of the dashes and gaps, or null for solid lines.
+	 */
+	void setLineDashes(double... pDashes);
+	
+	/**
+	 * @return The dash pattern of stroked lines, or null for solid lines.
+	 */
+	double[] getLineDashes();
+	
+	/**
+	 * Sets the font of text.
+	 * @param pFont The font.
+	 */
+	void setFont(Font pFont);
+	
+	/**
+	 * @return The font of text.
+	 */
+	Font getFont();
+	
+	/**
+	 * Sets the horizontal alignment of text.
+	 * @param pAlignment The alignment.
+	 */
+	void setTextAlign(TextAlignment pAlignment);
+	
+	/**
+	 * @return The horizontal alignment of text.
+	 */
+	TextAlignment getTextAlign();
+	
+	/**
+	 * Sets the vertical alignment of text.
+	 * @param pBaseline The baseline.
+	 */
+	void setTextBaseline(VPos pBaseline);
+	
+	/**
+	 * @return The vertical alignment of text.
+	 */
+	VPos getTextBaseline();
+	
+	/**
+	 * Sets the effect applied to what is drawn.
+	 * @param pEffect The effect, or null for none.
+	 */
+	void setEffect(Effect pEffect);
+	
+	/**
+	 * Translates the coordinates.
+	 * @param pX The translation along the x-axis.
+	 * @param pY The translation along the y-axis.
+	 */
+	void translate(double pX, double pY);
+	
+	/**
+	 * Scales the coordinates.
+	 * @param pX The scale along the x-axis.
+	 * @param pY The scale along the y-axis.
+	 */
+	void scale(double pX, double pY);
+	
+	/**
+	 * Fills a rectangle.
+	 * @param pX The x-coordinate.
+	 * @param pY The y-coordinate.
+	 * @param pWidth The width.
+	 * @param pHeight The height.
+	 */
+	void fillRect(double pX, double pY, double pWidth, double pHeight);
+	
+	/**
+	 * Strokes a rectangle.
+	 * @param pX The x-coordinate.
+	 * @param pY The y-coordinate.
+	 * @param pWidth The width.
+	 * @param pHeight The height.
+	 */
+	void strokeRect(double pX, double pY, double pWidth, double pHeight);
+	
+	/**
+	 * Fills a rectangle with rounded corners.
+	 * @param pX The x-coordinate.
+	 * @param pY The y-coordinate.
+	 * @param pWidth The width.
+	 * @param pHeight The height.
+	 * @param pArcWidth The width of the arcs at the corners.
+	 * @param pArcHeight The height of the arcs at the corners.
+	 */
+	void fillRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight);
+	
+	/**
+	 * Strokes a rectangle with rounded corners.
+	 * @param pX The x-coordinate.
+	 * @param pY The y-coordinate.
+	 * @param pWidth The width.
+	 * @param pHeight The height.
+	 * @param pArcWidth The width of the arcs at the corners.
+	 * @param pArcHeight The height of the arcs at the corners.
+	 */
+	void strokeRoundRect(double pX, double pY, double pWidth, double pHeight, double pArcWidth, double pArcHeight);
+	
+	/**
+	 * Fills an oval.
+	 * @param pX The x-coordinate.
+	 * @param pY The y-coordinate.
+	 * @param pWidth The width.
+	 * @param pHeight The height.
+	 */
+	void fillOval(double pX, double pY, double pWidth, double pHeight);
+	
+	/**
+	 * Strokes an oval.
+	 * @param pX The x-coordinate.
+	 * @param pY The y-coordinate.
+	 * @param pWidth The width.
+	 * @param pHeight The height.
+	 */
+	void strokeOval(double pX, double pY, double pWidth, double pHeight);
+	
+	/**
+	 * Strokes an arc of an oval.
+	 * @param pX The x-coordinate.
+	 * @param pY The y-coordinate.
+	 * @param pWidth The width.
+	 * @param pHeight The height.
+	 * @param pStartAngle The starting angle of the arc, in degrees.
+	 * @param pArcExtent The angular extent of the arc, in degrees.
+	 * @param pClosure How the arc is closed.
+	 */
+	void strokeArc(double pX, double pY, double pWidth, double pHeight, double pStartAngle, double pArcExtent, 
+			ArcType pClosure);
+	
+	/**
+	 * Strokes a line.
+	 * @param pX1 The x-coordinate of the start of the line.
+	 * @param pY1 The y-coordinate of the start of the line.
+	 * @param pX2 The x-coordinate of the end of the line.
+	 * @param pY2 The y-coordinate of the end of the line.
+	 */
+	void strokeLine(double pX1, double pY1, double pX2, double pY2);
+	
+	/**
+	 * Fills text.
+	 * @param pText The text.
+	 * @param pX The x-coordinate.
+	 * @param pY The y-coordinate.
+	 */
+	void fillText(String pText, double pX, double pY);
+	
+	/**
+	 * Draws an image.
+	 * @param pImage The image.
+	 * @param pX The x-coordinate.
+	 * @param pY The y-coordinate.
+	 */
+	void drawImage(Image pImage, double pX, double pY);
+	
+	/**
+	 * Draws an image.
+	 * @param pImage The image.
+	 * @param pSourceX The x-coordinate of the area of the image to draw.
+	 * @param pSourceY The y-coordinate of the area of the image to draw.
+	 * @param pSourceWidth The width of the area of the image to draw.
+	 * @param pSourceHeight The height of the area of the image to draw.
+	 * @param pX The x-coordinate.
+	 * @param pY The y-coordinate.
+	 * @param pWidth The width.
+	 * @param pHeight The height.
+	 */
+	void drawImage(Image pImage, double pSourceX, double pSourceY, double pSourceWidth, double pSourceHeight, 
+			double pX, double pY, double pWidth, double pHeight);
+	
+	/**
+	 * Starts a new path.
+	 */
+	void beginPath();
+	
+	/**
+	 * Starts a new subpath of the path at a point.
+	 * @param pX The x-coordinate.
+	 * @param pY The y-coordinate.
+	 */
+	void moveTo(double pX, double pY);
+	
+	/**
+	 * Adds a line to the path.
+	 * @param pX The x-coordinate.
+	 * @param pY The y-coordinate.
+	 */
+	void lineTo(double pX, double pY);
+	
+	/**
+	 * Adds a quadratic curve to the path.
+	 * @param pControlX The x-coordinate of the control point.
+	 * @param pControlY The y-coordinate of the control point.
+	 * @param pX The x-coordinate.
+	 * @param pY The y-coordinate.
+	 */
+	void quadraticCurveTo(double pControlX, double pControlY, double pX, double pY);
+	
+	/**
+	 * Fills the path.
+	 */
+	void fill();
+	
+	/**
+	 * Strokes the path.
+	 */
+	void stroke();
+}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramElement;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+
+/**
+ * The elements of a diagram whose geometry can be affected by a change to
+ * the diagram. Caches of geometry listen to their diagram and use this class
+ * to find the values a change makes stale.
+ * 
+ * The bounds of a node depend on the other nodes of its tree: the bounds of 
+ * a parent depend on its children, and the bounds of some children depend on
+ * their parent. A change to a node therefore affects the nodes of its tree.
+ * The path of an edge depends on the bounds of its end nodes, and on the other 
+ * edges attached to the same sides of these nodes, which are sorted by the 
+ * position of their own other end. A change to a node therefore affects the edges 
+ * connected to its tree and the edges that share an end node with them, and a 
+ * change to an edge affects the edge and the edges that share an end node with it.
+ * Reordering nodes does not change their geometry. Reconnecting an edge, whose
+ * previous end nodes are unknown, and any change to a sequence diagram, whose
+ * layout is computed as a whole, can affect all the elements.
+ */
+public final class GeometryChange
+{
+	private static final GeometryChange NONE = new GeometryChange(null, null, false);
+	private static final GeometryChange ALL = new GeometryChange(null, null, true);
+	
+	private final Diagram aDiagram;
+	private final DiagramElement aElement;
+	private final boolean aAll;
+	private Set<Node> aNodes;
+	private Set<Edge> aEdges;
+	
+	private GeometryChange(Diagram pDiagram, DiagramElement pElement, boolean pAll)
+	{
+		aDiagram = pDiagram;
+		aElement = pElement;
+		aAll = pAll;
+	}
+	
+	/**
+	 * @param pDiagram The diagram that changed.
+	 * @param pEvent The change.
+	 * @return The elements of pDiagram whose geometry can be affected by pEvent.
+	 * @pre pDiagram != null && pEvent != null
+	 */
+	public static GeometryChange of(Diagram pDiagram, DiagramEvent pEvent)
+	{
+		assert pDiagram != null && pEvent != null;
+		if( pEvent.getKind() == DiagramEvent.Kind.NODE_REORDERED )
+		{
+			return NONE;
+		}
+		if( pEvent.getKind() == DiagramEvent.Kind.EDGE_RECONNECTED || pDiagram.getType() == DiagramType.SEQUENCE )
+		{
+			return ALL;
+		}
+		return new GeometryChange(pDiagram, pEvent.getElement(), false);
+	}
+	
+	/**
+	 * @return True if the change can affect any element of the diagram. 
+	 *     In this case the sets of nodes and edges are empty.
+	 */
+	public boolean affectsAll()
+	{
+		return aAll;
+	}
+	
+	/**
+	 * @return The nodes whose bounds can be affected, including the nodes
+	 *     removed from the diagram by the change.
+	 */
+	public Set<Node> getNodes()
+	{
+		if( aNodes == null )
+		{
+			aNodes = newSet();
+			if( aElement instanceof Node )
+			{
+				Node root = (Node) aElement;
+				while( root.hasParent() )
+				{
+					root = root.getParent();
+				}
+				addTree(root);
+			}
+		}
+		return Collections.unmodifiableSet(aNodes);
+	}
+	
+	/**
+	 * @return The edges whose path can be affected, including the edge 
+	 *     removed from the diagram by the change.
+	 */
+	public Set<Edge> getEdges()
+	{
+		if( aEdges == null )
+		{
+			aEdges = newSet();
+			Set<Node> visited = newSet();
+			if( aElement instanceof Edge )
+			{
+				Edge edge = (Edge) aElement;
+				aEdges.add(edge);
+				addEdgesAt(edge.getStart(), visited);
+				addEdgesAt(edge.getEnd(), visited);
+			}
+			else if( aElement instanceof Node && isInDiagram(aDiagram, aElement) )
+			{
+				for( Node node : getNodes() )
+				{
+					for( Edge edge : aDiagram.edgesConnectedTo(node) )
+					{
+						aEdges.add(edge);
+						addEdgesAt(edge.getStart(), visited);
+						addEdgesAt(edge.getEnd(), visited);
+					}
+				}
+			}
+		}
+		return Collections.unmodifiableSet(aEdges);
+	}
+	
+	private void addTree(Node pNode)
+	{
+		aNodes.add(pNode);
+		pNode.getChildren().forEach(this::addTree);
+	}
+	
+	private void addEdgesAt(Node pNode, Set<Node> pVisited)
+	{
+		if( pVisited.add(pNode) && isInDiagram(aDiagram, pNode) )
+		{
+			for( Edge edge : aDiagram.edgesConnectedTo(pNode) )
+			{
+				aEdges.add(edge);
+			}
+		}
+	}
+	
+	/**
+	 * Checks whether pElement is part of pDiagram: a node in the tree of one 
+	 * of its root nodes, or one of its edges. Unlike Diagram.contains, this 
+	 * test does not search the entire diagram. The edges connected to a node 
+	 * removed from the diagram, or to a copy of a node of the diagram, are not
+	 * looked up by this class: the edges of a removed node are removed 
+	 * separately, and copies have no edges in the diagram.
+	 * 
+	 * @param pDiagram The diagram to check.
+	 * @param pElement The element to look for.
+	 * @return True if pElement is in pDiagram.
+	 * @pre pDiagram != null && pElement != null
+	 */
+	public static boolean isInDiagram(Diagram pDiagram, DiagramElement pElement)
+	{
+		assert pDiagram != null && pElement != null;
+		if( pElement instanceof Edge )
+		{
+			Edge edge = (Edge) pElement;
+			if( !isInDiagram(pDiagram, edge.getStart()) )
+			{
+				return false;
+			}
+			for( Edge connected : pDiagram.edgesConnectedTo(edge.getStart()) )
+			{
+				if( connected == edge )
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+		Node root = (Node) pElement;
+		while( root.hasParent() )
+		{
+			root = root.getParent();
+		}
+		return root.getDiagram().orElse(null) == pDiagram && pDiagram.containsAsRoot(root);
+	}
+	
+	private static <T> Set<T> newSet()
+	{
+		return Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+}
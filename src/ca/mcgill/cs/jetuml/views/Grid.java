@@ -24,8 +24,11 @@ package ca.mcgill.cs.jetuml.views;
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
 import javafx.scene.paint.Paint;
 
 /**
@@ -36,31 +39,61 @@ public final class Grid
 {
 	private static final Color GRID_COLOR = Color.rgb(220, 220, 220);
 	private static final double GRID_SIZE = 10;
+	private static final int TILE_SIZE = 100; // Must be a multiple of GRID_SIZE
+	
+	/* A tile of the grid, rendered once and repeated to fill the area of the grid, 
+	 * and the line width it was rendered with. */
+	private static ImagePattern aTile;
+	private static double aTileLineWidth;
 	
 	private Grid() {}
 	
 	/**
-     * Draws this grid inside a rectangle.
+     * Draws this grid inside a rectangle. The lines are always drawn
+     * at multiples of the grid size, so that the grid drawn over part of the 
+     * canvas lines up with the grid drawn over the rest of it.
+     * The rectangle is filled with a tile of the grid anchored at the origin,
+     * which is only rendered again if the line width of pGraphics changes.
+     * The zoom level is applied to the canvas as a whole, so it does not
+     * affect the tile.
      * @param pGraphics the graphics context
      * @param pBounds the bounding rectangle
      */
 	public static void draw(GraphicsContext pGraphics, Rectangle pBounds)
 	{
-		Paint oldStroke = pGraphics.getStroke();
-		pGraphics.setStroke(GRID_COLOR);
-		int x1 = pBounds.getX();
-		int y1 = pBounds.getY();
-		int x2 = pBounds.getMaxX();
-		int y2 = pBounds.getMaxY();
-		for(int x = x1; x < x2; x += GRID_SIZE)
-		{
-			ToolGraphics.strokeSharpLine(pGraphics, x, y1, x, y2);
-		}
-		for(int y = y1; y < y2; y += GRID_SIZE)
+		Paint oldFill = pGraphics.getFill();
+		pGraphics.setFill(tile(pGraphics.getLineWidth()));
+		pGraphics.fillRect(pBounds.getX(), pBounds.getY(), pBounds.getWidth(), pBounds.getHeight());
+		pGraphics.setFill(oldFill);
+	}
+	
+	/*
+	 * The lines of the tile span it entirely, so that they join the lines 
+	 * of the neighboring tiles. Only the lines at the top and left of the 
+	 * tile are drawn, the others belong to the next tile.
+	 */
+	private static ImagePattern tile(double pLineWidth)
+	{
+		if( aTile == null || aTileLineWidth != pLineWidth )
 		{
-			ToolGraphics.strokeSharpLine(pGraphics, x1, y, x2, y);
+			Canvas canvas = new Canvas(TILE_SIZE, TILE_SIZE);
+			GraphicsContext graphics = canvas.getGraphicsContext2D();
+			graphics.setLineWidth(pLineWidth);
+			graphics.setStroke(GRID_COLOR);
+			for( int offset = 0; offset < TILE_SIZE; offset += GRID_SIZE )
+			{
+				graphics.strokeLine(offset + 0.5, 0, offset + 0.5, TILE_SIZE);
+			}
+			for( int offset = 0; offset < TILE_SIZE; offset += GRID_SIZE )
+			{
+				graphics.strokeLine(0, offset + 0.5, TILE_SIZE, offset + 0.5);
+			}
+			SnapshotParameters parameters = new SnapshotParameters();
+			parameters.setFill(Color.TRANSPARENT);
+			aTile = new ImagePattern(canvas.snapshot(parameters, null), 0, 0, TILE_SIZE, TILE_SIZE, false);
+			aTileLineWidth = pLineWidth;
 		}
-		pGraphics.setStroke(oldStroke);
+		return aTile;
 	}
 
 	
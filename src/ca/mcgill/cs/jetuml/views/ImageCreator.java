@@ -35,6 +35,15 @@ import javafx.scene.paint.Color;
  */
 public final class ImageCreator 
 {
+	/*
+	 * The largest width or height of an image, in pixels. The image is drawn 
+	 * in tiles, so its size is not limited by the size of a canvas, but the image
+	 * itself is held in memory, at four bytes per pixel. The images of larger 
+	 * diagrams are scaled down to fit.
+	 */
+	static final int MAX_IMAGE_SIZE = 8192;
+	static final int TILE_SIZE = 2048;
+	
 	private static final double LINE_WIDTH = 0.6;
 	private static final int DIAGRAM_PADDING = 4;
 	
@@ -42,6 +51,7 @@ public final class ImageCreator
 	
 	/**
 	 * Creates an image of an entire diagram, with a white border around.
+	 * The image is scaled down if its width or height would exceed MAX_IMAGE_SIZE.
 	 * @param pDiagram The diagram to create an image off.
 	 * @return An image of the diagram.
 	 * @pre pDiagram != null.
@@ -51,16 +61,50 @@ public final class ImageCreator
 		assert pDiagram != null;
 		DiagramViewer viewer = DiagramType.viewerFor(pDiagram);
 		Rectangle bounds = viewer.getBounds(pDiagram);
-		Canvas canvas = new Canvas(bounds.getWidth() + DIAGRAM_PADDING * 2, 
-				bounds.getHeight() + DIAGRAM_PADDING *2);
+		double scale = getScale(bounds);
+		int width = (int) Math.min(MAX_IMAGE_SIZE, Math.ceil((bounds.getWidth() + DIAGRAM_PADDING * 2) * scale));
+		int height = (int) Math.min(MAX_IMAGE_SIZE, Math.ceil((bounds.getHeight() + DIAGRAM_PADDING * 2) * scale));
+		Canvas canvas = new Canvas(Math.min(width, TILE_SIZE), Math.min(height, TILE_SIZE));
 		GraphicsContext context = canvas.getGraphicsContext2D();
 		context.setLineWidth(LINE_WIDTH);
-		context.setFill(Color.WHITE);
-		context.translate(-bounds.getX()+DIAGRAM_PADDING, -bounds.getY()+DIAGRAM_PADDING);
-		viewer.draw(pDiagram, context);
-		WritableImage image = new WritableImage(bounds.getWidth() + DIAGRAM_PADDING * 2, 
-				bounds.getHeight() + DIAGRAM_PADDING *2);
-		canvas.snapshot(null, image);
+		WritableImage tile = new WritableImage((int) canvas.getWidth(), (int) canvas.getHeight());
+		WritableImage image = new WritableImage(width, height);
+		for( int y = 0; y < height; y += TILE_SIZE )
+		{
+			for( int x = 0; x < width; x += TILE_SIZE )
+			{
+				context.setTransform(1, 0, 0, 1, 0, 0);
+				context.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+				context.setTransform(scale, 0, 0, scale, 
+						(DIAGRAM_PADDING - bounds.getX()) * scale - x, (DIAGRAM_PADDING - bounds.getY()) * scale - y);
+				context.setFill(Color.WHITE);
+				viewer.draw(pDiagram, context, new Rectangle(
+						(int) Math.floor(x / scale) + bounds.getX() - DIAGRAM_PADDING, 
+						(int) Math.floor(y / scale) + bounds.getY() - DIAGRAM_PADDING,
+						(int) Math.ceil(TILE_SIZE / scale) + 1, (int) Math.ceil(TILE_SIZE / scale) + 1));
+				canvas.snapshot(null, tile);
+				image.getPixelWriter().setPixels(x, y, Math.min(TILE_SIZE, width - x), Math.min(TILE_SIZE, height - y), 
+						tile.getPixelReader(), 0, 0);
+			}
+		}
 		return image;
 	}
+	
+	/**
+	 * @param pDiagram The diagram to check.
+	 * @return True if the image of pDiagram created by createImage is scaled down 
+	 *     because the diagram is too large.
+	 * @pre pDiagram != null.
+	 */
+	public static boolean isScaledDown(Diagram pDiagram)
+	{
+		assert pDiagram != null;
+		return getScale(DiagramType.viewerFor(pDiagram).getBounds(pDiagram)) < 1;
+	}
+	
+	private static double getScale(Rectangle pBounds)
+	{
+		int size = Math.max(pBounds.getWidth(), pBounds.getHeight()) + DIAGRAM_PADDING * 2;
+		return Math.min(1, MAX_IMAGE_SIZE / (double) size);
+	}
 }
\ No newline at end of file
@@ -37,7 +37,7 @@ public class SequenceDiagramViewer extends DiagramViewer
 	@Override
 	protected Node deepFindNode(Diagram pDiagram, Node pNode, Point pPoint )
 	{		
-		ControlFlow flow = new ControlFlow(pDiagram);
+		ControlFlow flow = ControlFlow.of(pDiagram);
 		if( pNode instanceof CallNode )
 		{
 			for(Node child : flow.getCallees(pNode))
@@ -55,6 +55,17 @@ public class SequenceDiagramViewer extends DiagramViewer
 		return super.deepFindNode(pDiagram, pNode, pPoint);
 	}
 	
+	/*
+	 * The search for a node follows the calls to other implicit parameter nodes,
+	 * and the life line of an implicit parameter node can be selected below its bounds,
+	 * so the nodes that can contain a point cannot be derived from their bounds.
+	 */
+	@Override
+	protected boolean usesSpatialIndex()
+	{
+		return false;
+	}
+	
 	/*
 	 * Used during pasting to determine whether the current selection bounds completely overlaps the new elements.
 	 * For sequence diagrams the height between the selection bounds and the bounds of the new elements may vary, but 
@@ -0,0 +1,332 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import javafx.application.Platform;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.effect.BlurType;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.effect.Shadow;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.PathElement;
+import javafx.scene.shape.QuadCurveTo;
+
+/**
+ * Fills shapes with a drop shadow. By default, the shadow of a shape is 
+ * copied from an image of the shadow alone (a sprite), rendered the first 
+ * time a shape of the same kind and size is drawn, instead of applying a 
+ * DropShadow effect to every shape on every repaint.
+ * 
+ * Away from its corners, the shadow of a rectangle is the same all along
+ * each side. The shadow of a rectangle, rounded or not, is therefore 
+ * assembled from the slices of a single sprite of a small rectangle: the 
+ * corners are copied as is and the middle row and column are stretched to 
+ * the size of the rectangle. Other shapes have one sprite per size, kept 
+ * in a cache of the least recently used sprites.
+ * 
+ * Sprites can only be rendered on the JavaFX application thread. On 
+ * other threads, and when sprites are disabled, shadows are drawn with 
+ * the effect. The cache of sprites is therefore confined to the JavaFX 
+ * application thread and needs no lock: it must only be accessed after 
+ * usesSprites() has returned true.
+ */
+final class ShadowSprites
+{
+	private static final int OFFSET = 3;
+	private static final int RADIUS = 3;
+	private static final Color COLOR = Color.LIGHTGRAY;
+	private static final DropShadow DROP_SHADOW = new DropShadow(RADIUS, OFFSET, OFFSET, COLOR);
+	private static final Shadow SHADOW = new Shadow(BlurType.THREE_PASS_BOX, COLOR, RADIUS);
+	private static final int PADDING = 2 * RADIUS; // Space around a shape that contains its blurred edges
+	private static final int CACHE_CAPACITY = 256;
+	
+	/*
+	 * Least recently used sprites, keyed by the kind of shape and its geometry
+	 * relative to its top-left corner. Confined to the JavaFX application thread.
+	 */
+	private static final Map<String, Image> SPRITES = new LinkedHashMap<>(CACHE_CAPACITY, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Image> pEldest)
+		{
+			return size() > CACHE_CAPACITY;
+		}
+	};
+	
+	private static boolean aEnabled = true;
+	
+	private ShadowSprites() {}
+	
+	/**
+	 * Selects whether shadows are copied from sprites or drawn with an effect.
+	 * 
+	 * @param pEnabled True to copy shadows from sprites, false to draw them with an effect.
+	 */
+	static void setEnabled(boolean pEnabled)
+	{
+		aEnabled = pEnabled;
+	}
+	
+	/**
+	 * @return True if shadows are copied from sprites.
+	 */
+	static boolean isEnabled()
+	{
+		return aEnabled;
+	}
+	
+	/**
+	 * Fills a rectangle with the current fill of pGraphics, and draws its shadow.
+	 * The rectangle is aligned with the pixels as in ViewUtils.
+	 * 
+	 * @param pGraphics The graphics context.
+	 * @param pRectangle The rectangle to fill.
+	 * @param pArc The diameter of the arcs at the corners of the rectangle, or 0 for square corners.
+	 * @pre pGraphics != null && pRectangle != null && pArc >= 0
+	 */
+	static void fillRectangle(DrawingContext pGraphics, Rectangle pRectangle, int pArc)
+	{
+		assert pGraphics != null && pRectangle != null && pArc >= 0;
+		Consumer<DrawingContext> shape = graphics -> fillRectangleShape(graphics, pRectangle, pArc);
+		int corner = pArc / 2 + PADDING;
+		if( !usesSprites() )
+		{
+			fillWithEffect(pGraphics, shape);
+		}
+		else if( pRectangle.getWidth() > 2 * corner && pRectangle.getHeight() > 2 * corner )
+		{
+			drawSlices(pGraphics, rectangleSprite(pArc, corner), pRectangle, corner);
+			shape.accept(pGraphics);
+		}
+		else
+		{
+			fillWithSprite(pGraphics, "rectangle " + pArc + " " + pRectangle.getWidth() + " " + pRectangle.getHeight(), 
+					pRectangle, shape);
+		}
+	}
+	
+	/**
+	 * Fills an oval with the current fill of pGraphics, and draws its shadow.
+	 * The oval is aligned with the pixels as in ViewUtils.
+	 * 
+	 * @param pGraphics The graphics context.
+	 * @param pBounds The bounds of the oval.
+	 * @pre pGraphics != null && pBounds != null
+	 */
+	static void fillOval(DrawingContext pGraphics, Rectangle pBounds)
+	{
+		assert pGraphics != null && pBounds != null;
+		Consumer<DrawingContext> shape = graphics -> graphics.fillOval(pBounds.getX() + 0.5, pBounds.getY() + 0.5, 
+				pBounds.getWidth(), pBounds.getHeight());
+		if( usesSprites() )
+		{
+			fillWithSprite(pGraphics, "oval " + pBounds.getWidth() + " " + pBounds.getHeight(), pBounds, shape);
+		}
+		else
+		{
+			fillWithEffect(pGraphics, shape);
+		}
+	}
+	
+	/**
+	 * Fills a path and draws its shadow.
+	 * 
+	 * @param pGraphics The graphics context.
+	 * @param pPath The path to fill. Its coordinates are truncated to integers.
+	 * @param pShape Fills pPath on the graphics context it is given.
+	 * @pre pGraphics != null && pPath != null && pShape != null
+	 */
+	static void fillPath(DrawingContext pGraphics, Path pPath, Consumer<DrawingContext> pShape)
+	{
+		assert pGraphics != null && pPath != null && pShape != null;
+		if( !usesSprites() )
+		{
+			fillWithEffect(pGraphics, pShape);
+			return;
+		}
+		int[] coordinates = coordinates(pPath);
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		for( int i = 0; i < coordinates.length; i += 2 )
+		{
+			minX = Math.min(minX, coordinates[i]);
+			minY = Math.min(minY, coordinates[i + 1]);
+			maxX = Math.max(maxX, coordinates[i]);
+			maxY = Math.max(maxY, coordinates[i + 1]);
+		}
+		StringBuilder key = new StringBuilder("path");
+		for( int i = 0; i < coordinates.length; i += 2 )
+		{
+			key.append(' ').append(coordinates[i] - minX).append(',').append(coordinates[i + 1] - minY);
+		}
+		fillWithSprite(pGraphics, key.toString(), new Rectangle(minX, minY, maxX - minX, maxY - minY), pShape);
+	}
+	
+	/*
+	 * The coordinates of the points of the path, including the control
+	 * points of its curves, which bound the area covered by the path.
+	 */
+	private static int[] coordinates(Path pPath)
+	{
+		int[] coordinates = new int[pPath.getElements().size() * 4];
+		int size = 0;
+		for( PathElement element : pPath.getElements() )
+		{
+			if( element instanceof MoveTo )
+			{
+				coordinates[size++] = (int) ((MoveTo) element).getX();
+				coordinates[size++] = (int) ((MoveTo) element).getY();
+			}
+			else if( element instanceof LineTo )
+			{
+				coordinates[size++] = (int) ((LineTo) element).getX();
+				coordinates[size++] = (int) ((LineTo) element).getY();
+			}
+			else if( element instanceof QuadCurveTo )
+			{
+				QuadCurveTo curve = (QuadCurveTo) element;
+				coordinates[size++] = (int) curve.getControlX();
+				coordinates[size++] = (int) curve.getControlY();
+				coordinates[size++] = (int) curve.getX();
+				coordinates[size++] = (int) curve.getY();
+			}
+		}
+		int[] result = new int[size];
+		System.arraycopy(coordinates, 0, result, 0, size);
+		return result;
+	}
+	
+	private static boolean usesSprites()
+	{
+		return aEnabled && Platform.isFxApplicationThread();
+	}
+	
+	private static void fillWithEffect(DrawingContext pGraphics, Consumer<DrawingContext> pShape)
+	{
+		pGraphics.setEffect(DROP_SHADOW);
+		pShape.accept(pGraphics);
+		pGraphics.setEffect(null);
+	}
+	
+	private static void fillWithSprite(DrawingContext pGraphics, String pKey, Rectangle pBounds, 
+			Consumer<DrawingContext> pShape)
+	{
+		assert Platform.isFxApplicationThread();
+		Image sprite = SPRITES.get(pKey);
+		if( sprite == null )
+		{
+			sprite = render(pBounds, pShape);
+			SPRITES.put(pKey, sprite);
+		}
+		pGraphics.drawImage(sprite, pBounds.getX() - PADDING + OFFSET, pBounds.getY() - PADDING + OFFSET);
+		pShape.accept(pGraphics);
+	}
+	
+	private static Image rectangleSprite(int pArc, int pCorner)
+	{
+		assert Platform.isFxApplicationThread();
+		int size = 2 * pCorner + 1;
+		Rectangle rectangle = new Rectangle(0, 0, size, size);
+		return SPRITES.computeIfAbsent("rectangle " + pArc, 
+				key -> render(rectangle, graphics -> fillRectangleShape(graphics, rectangle, pArc)));
+	}
+	
+	/*
+	 * Renders the shadow of a shape that lies within pBounds, without offset,
+	 * on a transparent image that extends beyond pBounds by the padding.
+	 */
+	private static Image render(Rectangle pBounds, Consumer<DrawingContext> pShape)
+	{
+		Canvas canvas = new Canvas(pBounds.getWidth() + 2 * PADDING, pBounds.getHeight() + 2 * PADDING);
+		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		graphics.translate(PADDING - pBounds.getX(), PADDING - pBounds.getY());
+		graphics.setEffect(SHADOW);
+		pShape.accept(DrawingContext.of(graphics));
+		SnapshotParameters parameters = new SnapshotParameters();
+		parameters.setFill(Color.TRANSPARENT);
+		return canvas.snapshot(parameters, null);
+	}
+	
+	/*
+	 * Draws the shadow of pRectangle from the sprite of a square rectangle whose
+	 * middle row and column are pCorner pixels away from its sides. The sprite
+	 * is cut in three along each axis, and the middle slices, one pixel wide, 
+	 * are stretched to fill the length of pRectangle. The middle of the shadow 
+	 * is hidden by the rectangle, so it is not drawn.
+	 */
+	private static void drawSlices(DrawingContext pGraphics, Image pSprite, Rectangle pRectangle, int pCorner)
+	{
+		int middle = PADDING + pCorner;
+		int[] sources = {0, middle, middle + 1};
+		int[] sourceSizes = {middle, 1, middle};
+		int[] xs = slices(pRectangle.getX() - PADDING + OFFSET, pRectangle.getWidth() - 2 * pCorner, middle);
+		int[] ys = slices(pRectangle.getY() - PADDING + OFFSET, pRectangle.getHeight() - 2 * pCorner, middle);
+		for( int column = 0; column < sources.length; column++ )
+		{
+			for( int row = 0; row < sources.length; row++ )
+			{
+				if( column == 1 && row == 1 )
+				{
+					continue;
+				}
+				pGraphics.drawImage(pSprite, sources[column], sources[row], sourceSizes[column], sourceSizes[row], 
+						xs[column], ys[row], xs[column + 1] - xs[column], ys[row + 1] - ys[row]);
+			}
+		}
+	}
+	
+	/*
+	 * The boundaries of the three slices along one axis: a corner, the 
+	 * stretched middle, and the other corner.
+	 */
+	private static int[] slices(int pStart, int pMiddleLength, int pCornerLength)
+	{
+		return new int[] {pStart, pStart + pCornerLength, pStart + pCornerLength + pMiddleLength, 
+				pStart + 2 * pCornerLength + pMiddleLength};
+	}
+	
+	private static void fillRectangleShape(DrawingContext pGraphics, Rectangle pRectangle, int pArc)
+	{
+		if( pArc == 0 )
+		{
+			pGraphics.fillRect(pRectangle.getX() + 0.5, pRectangle.getY() + 0.5, 
+					pRectangle.getWidth(), pRectangle.getHeight());
+		}
+		else
+		{
+			pGraphics.fillRoundRect(pRectangle.getX() + 0.5, pRectangle.getY() + 0.5, 
+					pRectangle.getWidth(), pRectangle.getHeight(), pArc, pArc);
+		}
+	}
+}
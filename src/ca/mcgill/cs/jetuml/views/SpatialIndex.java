@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramElement;
+import ca.mcgill.cs.jetuml.diagram.DiagramEvent;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.viewers.edges.EdgeViewerRegistry;
+import ca.mcgill.cs.jetuml.viewers.nodes.NodeViewerRegistry;
+
+/**
+ * A uniform grid over the bounds of the nodes and edges of a diagram,
+ * used to find the few elements that can contain a point without testing
+ * all of them.
+ *
+ * Each element is registered in every cell its bounds overlap, grown by
+ * a margin that covers the parts of the hit area of an element that lie
+ * outside of its bounds (the tolerance around the path of an edge, or
+ * around a point node). The index listens to its diagram: a change marks
+ * the elements whose geometry it can affect, as described by GeometryChange, 
+ * and only these elements are indexed again at the next query. Changes that 
+ * can affect all the elements cause the entire diagram to be indexed again.
+ *
+ * The candidates returned by the index are a superset of the elements
+ * that contain a point. They must still be tested with the viewers.
+ */
+final class SpatialIndex
+{
+	private static final int CELL_SIZE = 128;
+	private static final int MARGIN = 10;
+	private static final long ROW_MASK = 0xFFFFFFFFL;
+
+	private final Diagram aDiagram;
+	private final Map<Long, List<DiagramElement>> aCells = new HashMap<>();
+	private final Map<DiagramElement, Rectangle> aAreas = new IdentityHashMap<>();
+	private final Set<DiagramElement> aDirty = Collections.newSetFromMap(new IdentityHashMap<>());
+	private boolean aIndexed;
+
+	private SpatialIndex(Diagram pDiagram)
+	{
+		aDiagram = pDiagram;
+		aDiagram.addListener(this::diagramChanged);
+	}
+
+	/**
+	 * Returns the index of pDiagram. All the calls for the same
+	 * diagram return the same instance.
+	 *
+	 * @param pDiagram The diagram to query.
+	 * @return The spatial index of pDiagram.
+	 * @pre pDiagram != null
+	 */
+	static SpatialIndex of(Diagram pDiagram)
+	{
+		assert pDiagram != null;
+		return pDiagram.getCache(SpatialIndex.class, SpatialIndex::new);
+	}
+
+	/**
+	 * @param pPoint The point to test.
+	 * @return The nodes whose hit area can contain pPoint, in no particular order.
+	 * @pre pPoint != null
+	 */
+	Set<DiagramElement> nodesAt(Point pPoint)
+	{
+		assert pPoint != null;
+		return candidatesAt(pPoint, Node.class);
+	}
+
+	/**
+	 * @param pPoint The point to test.
+	 * @return The edges whose hit area can contain pPoint, in no particular order.
+	 * @pre pPoint != null
+	 */
+	Set<DiagramElement> edgesAt(Point pPoint)
+	{
+		assert pPoint != null;
+		return candidatesAt(pPoint, Edge.class);
+	}
+
+	/*
+	 * Nodes and edges are brought up to date separately, so that 
+	 * looking for a node never computes the geometry of edges.
+	 */
+	private Set<DiagramElement> candidatesAt(Point pPoint, Class<? extends DiagramElement> pType)
+	{
+		update(pType);
+		Set<DiagramElement> result = Collections.newSetFromMap(new IdentityHashMap<>());
+		for( DiagramElement element : aCells.getOrDefault(cellOf(pPoint.getX(), pPoint.getY()), Collections.emptyList()) )
+		{
+			if( pType.isInstance(element) && aAreas.get(element).contains(pPoint) )
+			{
+				result.add(element);
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Elements that are no longer in the diagram are removed from the 
+	 * index. Nodes that are not part of the diagram, such as copies of
+	 * its nodes, are never indexed. A child removed from its parent stays
+	 * in the index until the next complete indexing, but findNode ignores 
+	 * it because it is not in the tree of a root node.
+	 */
+	private void diagramChanged(DiagramEvent pEvent)
+	{
+		if( !aIndexed )
+		{
+			return;
+		}
+		GeometryChange change = GeometryChange.of(aDiagram, pEvent);
+		if( change.affectsAll() )
+		{
+			aIndexed = false;
+			return;
+		}
+		mark(change.getNodes());
+		mark(change.getEdges());
+	}
+
+	private void mark(Set<? extends DiagramElement> pElements)
+	{
+		for( DiagramElement element : pElements )
+		{
+			if( GeometryChange.isInDiagram(aDiagram, element) )
+			{
+				aDirty.add(element);
+			}
+			else
+			{
+				remove(element);
+			}
+		}
+	}
+
+	private void markTree(Node pNode)
+	{
+		aDirty.add(pNode);
+		pNode.getChildren().forEach(this::markTree);
+	}
+
+
+
+	/*
+	 * Indexes the entire diagram if needed, otherwise only the elements
+	 * of type pType marked since the last query.
+	 */
+	private void update(Class<? extends DiagramElement> pType)
+	{
+		if( !aIndexed )
+		{
+			aCells.clear();
+			aAreas.clear();
+			aDirty.clear();
+			aDiagram.rootNodes().forEach(this::markTree);
+			aDirty.addAll(aDiagram.edges());
+			aIndexed = true;
+		}
+		List<DiagramElement> dirty = new ArrayList<>();
+		for( DiagramElement element : aDirty )
+		{
+			if( pType.isInstance(element) )
+			{
+				dirty.add(element);
+			}
+		}
+		for( DiagramElement element : dirty )
+		{
+			remove(element);
+			add(element);
+		}
+	}
+
+	private void add(DiagramElement pElement)
+	{
+		Rectangle bounds;
+		if( pElement instanceof Node )
+		{
+			bounds = NodeViewerRegistry.getBounds((Node) pElement);
+		}
+		else
+		{
+			bounds = EdgeViewerRegistry.getBounds((Edge) pElement);
+		}
+		Rectangle area = new Rectangle(bounds.getX() - MARGIN, bounds.getY() - MARGIN,
+				bounds.getWidth() + 2 * MARGIN, bounds.getHeight() + 2 * MARGIN);
+		aAreas.put(pElement, area);
+		for( long cell : cellsOf(area) )
+		{
+			aCells.computeIfAbsent(cell, key -> new ArrayList<>()).add(pElement);
+		}
+	}
+
+	private void remove(DiagramElement pElement)
+	{
+		aDirty.remove(pElement);
+		Rectangle area = aAreas.remove(pElement);
+		if( area == null )
+		{
+			return;
+		}
+		for( long cell : cellsOf(area) )
+		{
+			List<DiagramElement> elements = aCells.get(cell);
+			elements.remove(pElement);
+			if( elements.isEmpty() )
+			{
+				aCells.remove(cell);
+			}
+		}
+	}
+
+	private static List<Long> cellsOf(Rectangle pArea)
+	{
+		List<Long> cells = new ArrayList<>();
+		for( int x = Math.floorDiv(pArea.getX(), CELL_SIZE); x <= Math.floorDiv(pArea.getMaxX(), CELL_SIZE); x++ )
+		{
+			for( int y = Math.floorDiv(pArea.getY(), CELL_SIZE); y <= Math.floorDiv(pArea.getMaxY(), CELL_SIZE); y++ )
+			{
+				cells.add(key(x, y));
+			}
+		}
+		return cells;
+	}
+
+	private static long cellOf(int pX, int pY)
+	{
+		return key(Math.floorDiv(pX, CELL_SIZE), Math.floorDiv(pY, CELL_SIZE));
+	}
+
+	private static long key(int pColumn, int pRow)
+	{
+		return ((long) pColumn << Integer.SIZE) | (pRow & ROW_MASK);
+	}
+}
@@ -20,11 +20,14 @@
  *******************************************************************************/
 package ca.mcgill.cs.jetuml.views;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
 import javafx.geometry.Bounds;
 import javafx.geometry.VPos;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
@@ -36,16 +39,40 @@ import javafx.scene.text.TextBoundsType;
  * - underline
  * - bold
  * - different alignments.
+ * 
+ * Measuring a string requires laying out a JavaFX Text node, and the same 
+ * strings are measured every time the bounds of the nodes that show them
+ * are computed. The bounds of the most recently measured strings are 
+ * therefore cached, for all the viewers together. Strings are measured 
+ * on the JavaFX application thread as well as on other threads (e.g., 
+ * in tests), so every access to the cache holds its lock. Strings are
+ * measured outside of the lock.
  */
 public final class StringViewer
 {
 	public static final Font FONT = Font.font("System", 12);
+	static final int CACHE_CAPACITY = 4096;
 	private static final Font FONT_BOLD = Font.font(FONT.getFamily(), FontWeight.BOLD, FONT.getSize());
 	
 	private static final Dimension EMPTY = new Dimension(0, 0);
 	private static final int HORIZONTAL_TEXT_PADDING = 7;
 	private static final int VERTICAL_TEXT_PADDING = 7;
 	
+	/*
+	 * Least recently used measurements, keyed by the string and 
+	 * the attributes of the viewer that affect its layout. Reading
+	 * an entry reorders the map, so all accesses must synchronize on it.
+	 */
+	private static final Map<MeasurementKey, Bounds> MEASUREMENTS = 
+			new LinkedHashMap<>(CACHE_CAPACITY, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<MeasurementKey, Bounds> pEldest)
+		{
+			return size() > CACHE_CAPACITY;
+		}
+	};
+	
 	/**
 	 * How to align the text in this string.
 	 */
@@ -98,11 +125,43 @@ public final class StringViewer
 		{
 			return EMPTY;
 		}
-		Bounds bounds = getLabel(pString).getLayoutBounds(); 
+		Bounds bounds = getLayoutBounds(pString); 
 		return new Dimension((int) Math.round(bounds.getWidth() + HORIZONTAL_TEXT_PADDING*2), 
 				(int) Math.round(bounds.getHeight() + VERTICAL_TEXT_PADDING*2));
 	}
 	
+	/*
+	 * Returns the layout bounds of the label that shows pString, 
+	 * from the cache if possible.
+	 */
+	Bounds getLayoutBounds(String pString)
+	{
+		MeasurementKey key = new MeasurementKey(pString, aBold, aUnderlined, aAlignment, getFont());
+		Bounds bounds;
+		synchronized( MEASUREMENTS )
+		{
+			bounds = MEASUREMENTS.get(key);
+		}
+		if( bounds == null )
+		{
+			bounds = measure(pString);
+			synchronized( MEASUREMENTS )
+			{
+				MEASUREMENTS.put(key, bounds);
+			}
+		}
+		return bounds;
+	}
+	
+	/*
+	 * Computes the layout bounds of the label that shows pString, 
+	 * without using the cache.
+	 */
+	Bounds measure(String pString)
+	{
+		return getLabel(pString).getLayoutBounds();
+	}
+	
 	private Text getLabel(String pString)
 	{
 		Text label = new Text();
@@ -113,20 +172,24 @@ public final class StringViewer
 		label.setFont(getFont());
 		label.setBoundsType(TextBoundsType.VISUAL);
 		label.setText(pString);
-		
+		label.setTextAlignment(getTextAlignment());
+		return label;
+	}
+	
+	private TextAlignment getTextAlignment()
+	{
 		if(aAlignment == Align.LEFT)
 		{
-			label.setTextAlignment(TextAlignment.LEFT);
+			return TextAlignment.LEFT;
 		}
-		else if(aAlignment == Align.CENTER)
+		else if(aAlignment == Align.RIGHT) 
 		{
-			label.setTextAlignment(TextAlignment.CENTER);
+			return TextAlignment.RIGHT;
 		}
-		else if(aAlignment == Align.RIGHT) 
+		else
 		{
-			label.setTextAlignment(TextAlignment.RIGHT);
+			return TextAlignment.CENTER;
 		}
-		return label;
 	}
 	
 	/**
@@ -135,11 +198,9 @@ public final class StringViewer
      * @param pGraphics the graphics context
      * @param pRectangle the rectangle into which to place the string
 	 */
-	public void draw(String pString, GraphicsContext pGraphics, Rectangle pRectangle)
+	public void draw(String pString, DrawingContext pGraphics, Rectangle pRectangle)
 	{
-		Text label = getLabel(pString);
-		
-		pGraphics.setTextAlign(label.getTextAlignment());
+		pGraphics.setTextAlign(getTextAlignment());
 		
 		int textX = 0;
 		int textY = 0;
@@ -162,7 +223,7 @@ public final class StringViewer
 		{
 			int xOffset = 0;
 			int yOffset = 0;
-			Bounds bounds = label.getLayoutBounds();
+			Bounds bounds = getLayoutBounds(pString);
 			if(aAlignment == Align.CENTER)
 			{
 				xOffset = (int) (bounds.getWidth()/2);
@@ -178,4 +239,47 @@ public final class StringViewer
 		}
 		pGraphics.translate(-pRectangle.getX(), -pRectangle.getY());
 	}
+	
+	/*
+	 * The values that determine the layout of a string.
+	 */
+	private static final class MeasurementKey
+	{
+		private final String aString;
+		private final boolean aBold;
+		private final boolean aUnderlined;
+		private final Align aAlignment;
+		private final Font aFont;
+		
+		MeasurementKey(String pString, boolean pBold, boolean pUnderlined, Align pAlignment, Font pFont)
+		{
+			aString = pString;
+			aBold = pBold;
+			aUnderlined = pUnderlined;
+			aAlignment = pAlignment;
+			aFont = pFont;
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(aString, aBold, aUnderlined, aAlignment, aFont);
+		}
+		
+		@Override
+		public boolean equals(Object pObject)
+		{
+			if( this == pObject )
+			{
+				return true;
+			}
+			if( pObject == null || getClass() != pObject.getClass() )
+			{
+				return false;
+			}
+			MeasurementKey other = (MeasurementKey) pObject;
+			return aString.equals(other.aString) && aBold == other.aBold && aUnderlined == other.aUnderlined &&
+					aAlignment == other.aAlignment && aFont.equals(other.aFont);
+		}
+	}
 }
@@ -21,10 +21,10 @@
 
 package ca.mcgill.cs.jetuml.views;
 
+import java.util.function.Consumer;
+
 import ca.mcgill.cs.jetuml.geom.Line;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.effect.DropShadow;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
 import javafx.scene.shape.LineTo;
@@ -43,7 +43,6 @@ public final class ToolGraphics
 	private static final Color SELECTION_FILL_COLOR = Color.rgb(173, 193, 214);
 	private static final Color SELECTION_FILL_TRANSPARENT = Color.rgb(173, 193, 214, 0.75);
 	private static final double LINE_WIDTH = 0.6;
-	private static final DropShadow DROP_SHADOW = new DropShadow(3, 3, 3, Color.LIGHTGRAY);
 	
 	private ToolGraphics() {}
 	
@@ -55,7 +54,7 @@ public final class ToolGraphics
 	 * @param pX The x-coordinate of the center of the handle.
 	 * @param pY The y-coordinate of the center of the handle.
 	 */
-	private static void drawHandle(GraphicsContext pGraphics, int pX, int pY)
+	private static void drawHandle(DrawingContext pGraphics, int pX, int pY)
 	{
 		Paint oldStroke = pGraphics.getStroke();
 		Paint oldFill = pGraphics.getFill();
@@ -74,7 +73,7 @@ public final class ToolGraphics
 	 * @param pGraphics The graphics context on which to draw the handles.
 	 * @param pBounds Defines the four points where to draw the handles
 	 */
-	public static void drawHandles(GraphicsContext pGraphics, Rectangle pBounds)
+	public static void drawHandles(DrawingContext pGraphics, Rectangle pBounds)
 	{
 		drawHandle(pGraphics, pBounds.getX(), pBounds.getY());
 		drawHandle(pGraphics, pBounds.getX(), pBounds.getMaxY());
@@ -89,7 +88,7 @@ public final class ToolGraphics
 	 * @param pGraphics The graphics context on which to draw the handles.
 	 * @param pBounds Defines the two points where to draw the handles
 	 */
-	public static void drawHandles(GraphicsContext pGraphics, Line pBounds)
+	public static void drawHandles(DrawingContext pGraphics, Line pBounds)
 	{
 		drawHandle(pGraphics, pBounds.getX1(), pBounds.getY1());
 		drawHandle(pGraphics, pBounds.getX2(), pBounds.getY2());
@@ -102,7 +101,7 @@ public final class ToolGraphics
 	 * @param pGraphics The graphics context on which to draw the line.
 	 * @param pLine The line that represents the rubberband.
 	 */
-	public static void drawRubberband(GraphicsContext pGraphics, Line pLine)
+	public static void drawRubberband(DrawingContext pGraphics, Line pLine)
 	{
 		Paint oldStroke = pGraphics.getStroke();
 		pGraphics.setStroke(SELECTION_FILL_COLOR);
@@ -117,7 +116,7 @@ public final class ToolGraphics
 	 * @param pGraphics The graphics context on which to draw the lasso.
 	 * @param pRectangle The rectangle that defines the lasso.
 	 */
-	public static void drawLasso(GraphicsContext pGraphics, Rectangle pRectangle)
+	public static void drawLasso(DrawingContext pGraphics, Rectangle pRectangle)
 	{
 		ViewUtils.drawRectangle(pGraphics, SELECTION_COLOR, SELECTION_FILL_TRANSPARENT, 
 				pRectangle.getX(), pRectangle.getY(), pRectangle.getWidth(), pRectangle.getHeight());
@@ -134,7 +133,7 @@ public final class ToolGraphics
 	 * @param pX2 The x-coordinate of the second point.
 	 * @param pY2 The y-coordinate of the second point.
 	 */
-	public static void strokeSharpLine(GraphicsContext pGraphics, int pX1, int pY1, int pX2, int pY2)
+	public static void strokeSharpLine(DrawingContext pGraphics, int pX1, int pY1, int pX2, int pY2)
 	{
 		pGraphics.strokeLine(pX1 + 0.5, pY1 + 0.5, pX2 + 0.5, pY2 + 0.5);
 	}
@@ -149,7 +148,7 @@ public final class ToolGraphics
 	 * @param pPath The path to stroke
 	 * @param pStyle The line style for the path.
 	 */
-	public static void strokeSharpPath(GraphicsContext pGraphics, Path pPath, LineStyle pStyle)
+	public static void strokeSharpPath(DrawingContext pGraphics, Path pPath, LineStyle pStyle)
 	{
 		double[] oldDash = pGraphics.getLineDashes();
 		pGraphics.setLineDashes(pStyle.getLineDashes());
@@ -161,7 +160,7 @@ public final class ToolGraphics
 		pGraphics.setLineWidth(width);
 	}
 	
-	private static void applyPath(GraphicsContext pGraphics, Path pPath)
+	private static void applyPath(DrawingContext pGraphics, Path pPath)
 	{
 		pGraphics.beginPath();
 		for(PathElement element : pPath.getElements())
@@ -193,22 +192,27 @@ public final class ToolGraphics
 	 * @param pFill The fill color for the path.
 	 * @param pShadow True to include a drop shadow.
 	 */
-	public static void strokeAndFillSharpPath(GraphicsContext pGraphics, Path pPath, Paint pFill, boolean pShadow)
+	public static void strokeAndFillSharpPath(DrawingContext pGraphics, Path pPath, Paint pFill, boolean pShadow)
 	{
 		double width = pGraphics.getLineWidth();
 		Paint fill = pGraphics.getFill();
 		pGraphics.setLineWidth(LINE_WIDTH);
 		pGraphics.setFill(pFill);
-		applyPath(pGraphics, pPath);
-		
+		Consumer<DrawingContext> shape = graphics -> 
+		{
+			applyPath(graphics, pPath);
+			graphics.fill();
+		};
 		if( pShadow )
 		{
-			pGraphics.setEffect(DROP_SHADOW);
+			ShadowSprites.fillPath(pGraphics, pPath, shape);
+		}
+		else
+		{
+			shape.accept(pGraphics);
 		}
-		pGraphics.fill();
 		pGraphics.stroke();
 		pGraphics.setLineWidth(width);
 		pGraphics.setFill(fill);
-		pGraphics.setEffect(null);
 	}
 }
@@ -22,6 +22,7 @@ package ca.mcgill.cs.jetuml.diagram;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -80,7 +81,7 @@ public class TestControlFlow
 	{
 		aDiagram = new Diagram(DiagramType.SEQUENCE);
 		aDiagramAccessor = new DiagramAccessor(aDiagram);
-		aFlow = new ControlFlow(aDiagram);
+		aFlow = ControlFlow.of(aDiagram);
 		
 		aParameter1 = new ImplicitParameterNode();
 		aParameter2 = new ImplicitParameterNode();
@@ -481,4 +482,40 @@ public class TestControlFlow
 	{	
 		assertFalse(aFlow.canCreateConstructedObject(aParameter3, new Point(0, 0)));
 	}
+	
+	@Test
+	public void testGetNestingDepth()
+	{
+		assertEquals(0, aFlow.getNestingDepth(aCall1));
+		assertEquals(0, aFlow.getNestingDepth(aCall2));
+		assertEquals(1, aFlow.getNestingDepth(aCall3));
+		assertEquals(0, aFlow.getNestingDepth(aCall4));
+		assertEquals(0, aFlow.getNestingDepth(aCall5));
+	}
+	
+	@Test
+	public void testIndexFollowsDiagramChanges()
+	{
+		assertTrue(aFlow.getCallees(aCall4).isEmpty());
+		CallNode call6 = new CallNode();
+		aParameter3.addChild(call6);
+		aDiagramAccessor.connectAndAdd(aCallEdge4, aCall4, call6);
+		assertEquals(List.of(call6), aFlow.getCallees(aCall4));
+		assertSame(aCall4, aFlow.getCaller(call6).get());
+		assertEquals(1, aFlow.getNestingDepth(call6));
+		
+		aDiagram.removeEdge(aCallEdge4);
+		assertTrue(aFlow.getCallees(aCall4).isEmpty());
+		assertFalse(aFlow.getCaller(call6).isPresent());
+		assertEquals(0, aFlow.getNestingDepth(call6));
+	}
+	
+	@Test
+	public void testOf()
+	{
+		ControlFlow flow = ControlFlow.of(aDiagram);
+		assertSame(flow, ControlFlow.of(aDiagram));
+		assertSame(aCall2, flow.getCaller(aCall3).get());
+		assertNotSame(flow, ControlFlow.of(aDiagram.duplicate()));
+	}
 }
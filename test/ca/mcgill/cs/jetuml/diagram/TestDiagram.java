@@ -25,7 +25,9 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +36,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
 import ca.mcgill.cs.jetuml.diagram.nodes.AbstractNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
@@ -119,6 +122,30 @@ public class TestDiagram
 		assertSame(aNode4.getChildren().get(1), aNode2);
 	}
 	
+	/*
+	 * Placing a node on top is reported once, and only if the order changes.
+	 */
+	@Test
+	public void testPlaceOnTop_Events()
+	{
+		aNode4.addChild(aNode2);
+		aNode4.addChild(aNode3);
+		aDiagram.addRootNode(aNode4);
+		aDiagram.addRootNode(aNode1);
+		List<DiagramEvent> events = new ArrayList<>();
+		aDiagram.addListener(events::add);
+		aDiagram.placeOnTop(aNode1);
+		assertTrue(events.isEmpty());
+		aDiagram.placeOnTop(aNode2);
+		assertEquals(1, events.size());
+		assertEquals(DiagramEvent.Kind.NODE_REORDERED, events.get(0).getKind());
+		assertSame(aNode2, events.get(0).getElement());
+		assertEquals(List.of(aNode1, aNode4), aDiagram.rootNodes());
+		assertEquals(List.of(aNode3, aNode2), aNode4.getChildren());
+		assertSame(aDiagram, aNode4.getDiagram().get());
+		assertSame(aNode4, aNode2.getParent());
+	}
+	
 	@Test
 	public void testPlaceOnTop_SequenceDiagramWithCallNodes()
 	{
@@ -136,4 +163,200 @@ public class TestDiagram
 		assertSame(childNodes.get(0),callNode1);
 		assertSame(childNodes.get(1), callNode2);
 	}
+	
+	@Test
+	public void testEdgesConnectedTo_NoEdges()
+	{
+		aDiagram.addRootNode(aNode1);
+		assertFalse(aDiagram.edgesConnectedTo(aNode1).iterator().hasNext());
+		assertTrue(aDiagram.edgesFrom(aNode1).isEmpty());
+		assertTrue(aDiagram.edgesTo(aNode1).isEmpty());
+	}
+	
+	@Test
+	public void testEdgesConnectedTo_OrderFollowsEdges()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode3);
+		Edge edge1 = connect(new DependencyEdge(), aNode1, aNode3);
+		Edge edge2 = connect(new DependencyEdge(), aNode3, aNode1);
+		Edge edge3 = connect(new DependencyEdge(), aNode1, aNode1);
+		aDiagram.addEdge(edge1);
+		aDiagram.addEdge(edge2);
+		aDiagram.addEdge(0, edge3);
+		
+		assertEquals(List.of(edge3, edge1, edge2), new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode1));
+		assertEquals(List.of(edge1, edge2), new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode3));
+		assertEquals(List.of(edge3, edge1), aDiagram.edgesFrom(aNode1));
+		assertEquals(List.of(edge3, edge2), aDiagram.edgesTo(aNode1));
+		assertEquals(List.of(edge2), aDiagram.edgesFrom(aNode3));
+		assertEquals(List.of(edge1), aDiagram.edgesTo(aNode3));
+	}
+	
+	@Test
+	public void testEdgesConnectedTo_RemoveEdge()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode3);
+		Edge edge1 = connect(new DependencyEdge(), aNode1, aNode3);
+		Edge edge2 = connect(new DependencyEdge(), aNode1, aNode1);
+		aDiagram.addEdge(edge1);
+		aDiagram.addEdge(edge2);
+		aDiagram.removeEdge(edge2);
+		
+		assertEquals(List.of(edge1), new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode1));
+		aDiagram.removeEdge(edge1);
+		assertTrue(new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode1).isEmpty());
+		assertTrue(new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode3).isEmpty());
+	}
+	
+	@Test
+	public void testEdgesConnectedTo_Reconnect()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addRootNode(aNode3);
+		Edge edge1 = connect(new DependencyEdge(), aNode1, aNode3);
+		Edge edge2 = connect(new DependencyEdge(), aNode2, aNode3);
+		aDiagram.addEdge(edge1);
+		aDiagram.addEdge(edge2);
+		edge1.connect(aNode2, aNode3, aDiagram);
+		
+		assertTrue(new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode1).isEmpty());
+		assertEquals(List.of(edge1, edge2), aDiagram.edgesFrom(aNode2));
+		assertEquals(List.of(edge1, edge2), aDiagram.edgesTo(aNode3));
+	}
+	
+	@Test
+	public void testEdgesConnectedTo_Duplicate()
+	{
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode3);
+		aDiagram.addEdge(connect(new DependencyEdge(), aNode1, aNode3));
+		Diagram copy = aDiagram.duplicate();
+		Node node1 = copy.rootNodes().get(0);
+		Node node3 = copy.rootNodes().get(1);
+		
+		assertEquals(List.of(copy.edges().get(0)), copy.edgesFrom(node1));
+		assertEquals(List.of(copy.edges().get(0)), copy.edgesTo(node3));
+		assertEquals(1, new DiagramAccessor(aDiagram).getEdgesConnectedTo(aNode1).size());
+	}
+	
+	@Test
+	public void testGetVersion_StructuralChanges()
+	{
+		long version = aDiagram.getVersion();
+		aDiagram.addRootNode(aNode1);
+		assertTrue(aDiagram.getVersion() > version);
+		aDiagram.addRootNode(aNode3);
+		version = aDiagram.getVersion();
+		Edge edge = connect(new DependencyEdge(), aNode1, aNode3);
+		aDiagram.addEdge(edge);
+		assertTrue(aDiagram.getVersion() > version);
+		version = aDiagram.getVersion();
+		edge.connect(aNode3, aNode1, aDiagram);
+		assertTrue(aDiagram.getVersion() > version);
+		version = aDiagram.getVersion();
+		aDiagram.removeEdge(edge);
+		assertTrue(aDiagram.getVersion() > version);
+		version = aDiagram.getVersion();
+		aDiagram.removeRootNode(aNode1);
+		assertTrue(aDiagram.getVersion() > version);
+	}
+	
+	@Test
+	public void testGetVersion_ElementChanges()
+	{
+		aDiagram.addRootNode(aNode2);
+		long version = aDiagram.getVersion();
+		aNode2.translate(10, 10);
+		assertTrue(aDiagram.getVersion() > version);
+		version = aDiagram.getVersion();
+		aNode2.properties().get("name").set("Package");
+		assertTrue(aDiagram.getVersion() > version);
+		version = aDiagram.getVersion();
+		((PackageNode)aNode2).setName("Other");
+		assertTrue(aDiagram.getVersion() > version);
+		version = aDiagram.getVersion();
+		aNode2.addChild(aNode3);
+		assertTrue(aDiagram.getVersion() > version);
+		version = aDiagram.getVersion();
+		aNode1.translate(10, 10);
+		assertEquals(version, aDiagram.getVersion());
+	}
+	
+	@Test
+	public void testListener_Events()
+	{
+		List<DiagramEvent> events = new ArrayList<>();
+		aDiagram.addListener(events::add);
+		aDiagram.addRootNode(aNode2);
+		aDiagram.addRootNode(aNode1);
+		aNode2.translate(10, 10);
+		((PackageNode)aNode2).setName("Other");
+		aNode2.addChild(aNode3);
+		Edge edge = connect(new DependencyEdge(), aNode1, aNode3);
+		aDiagram.addEdge(edge);
+		edge.connect(aNode3, aNode1, aDiagram);
+		aDiagram.removeEdge(edge);
+		aDiagram.removeRootNode(aNode1);
+		
+		List<DiagramEvent.Kind> expected = List.of(DiagramEvent.Kind.NODE_ADDED, DiagramEvent.Kind.NODE_ADDED,
+				DiagramEvent.Kind.NODE_MOVED, DiagramEvent.Kind.PROPERTY_CHANGED, DiagramEvent.Kind.CHILD_REPARENTED,
+				DiagramEvent.Kind.EDGE_ADDED, DiagramEvent.Kind.EDGE_RECONNECTED, DiagramEvent.Kind.EDGE_REMOVED, 
+				DiagramEvent.Kind.NODE_REMOVED);
+		assertEquals(expected, events.stream().map(DiagramEvent::getKind).collect(Collectors.toList()));
+		List<DiagramElement> elements = List.of(aNode2, aNode1, aNode2, aNode2, aNode2, edge, edge, edge, aNode1);
+		assertEquals(elements, events.stream().map(DiagramEvent::getElement).collect(Collectors.toList()));
+		assertEquals(aDiagram.getVersion(), events.get(events.size()-1).getVersion());
+	}
+	
+	/*
+	 * Editing a property reports a single change, whether the 
+	 * property is set through the properties or a setter.
+	 */
+	@Test
+	public void testListener_PropertyEdits()
+	{
+		List<DiagramEvent> events = new ArrayList<>();
+		aDiagram.addRootNode(aNode1);
+		aDiagram.addRootNode(aNode3);
+		DependencyEdge edge = new DependencyEdge();
+		aDiagram.addEdge(connect(edge, aNode1, aNode3));
+		aDiagram.addListener(events::add);
+		long version = aDiagram.getVersion();
+		aNode3.properties().get("name").set("Name");
+		aNode3.properties().get("attributes").set("attribute");
+		((ClassNode)aNode3).setMethods("method()");
+		edge.properties().get("directionality").set("Bidirectional");
+		edge.setMiddleLabel("label");
+		aNode1.properties().get("x").set(50);
+		
+		List<DiagramEvent.Kind> expected = List.of(DiagramEvent.Kind.PROPERTY_CHANGED, DiagramEvent.Kind.PROPERTY_CHANGED,
+				DiagramEvent.Kind.PROPERTY_CHANGED, DiagramEvent.Kind.PROPERTY_CHANGED, DiagramEvent.Kind.PROPERTY_CHANGED,
+				DiagramEvent.Kind.NODE_MOVED);
+		assertEquals(expected, events.stream().map(DiagramEvent::getKind).collect(Collectors.toList()));
+		assertEquals(version + expected.size(), aDiagram.getVersion());
+		assertEquals("Name", ((ClassNode)aNode3).getName());
+		assertEquals(DependencyEdge.Directionality.Bidirectional, edge.getDirectionality());
+		assertEquals(50, aNode1.position().getX());
+	}
+	
+	@Test
+	public void testRemoveListener()
+	{
+		List<DiagramEvent> events = new ArrayList<>();
+		DiagramListener listener = events::add;
+		aDiagram.addListener(listener);
+		aDiagram.addRootNode(aNode1);
+		aDiagram.removeListener(listener);
+		aDiagram.addRootNode(aNode2);
+		assertEquals(1, events.size());
+	}
+	
+	private Edge connect(Edge pEdge, Node pStart, Node pEnd)
+	{
+		pEdge.connect(pStart, pEnd, aDiagram);
+		return pEdge;
+	}
 }
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.diagram;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.edges.ConstructorEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PointNode;
+
+public class TestPrototypes
+{
+	private static final Prototypes PROTOTYPES = Prototypes.instance();
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	private static Class<?> createdType(DiagramElement pPrototype)
+	{
+		String type = pPrototype.getClass().getSimpleName();
+		if( pPrototype instanceof Node )
+		{
+			return PROTOTYPES.createNode(type).get().getClass();
+		}
+		return PROTOTYPES.createEdge(type).get().getClass();
+	}
+	
+	@ParameterizedTest
+	@EnumSource(DiagramType.class)
+	public void testCreate_Prototypes(DiagramType pType)
+	{
+		for( DiagramElement prototype : pType.getPrototypes() )
+		{
+			assertSame(prototype.getClass(), createdType(prototype));
+		}
+	}
+	
+	@Test
+	public void testCreate_ElementsWithoutPrototype()
+	{
+		assertSame(CallNode.class, PROTOTYPES.createNode("CallNode").get().getClass());
+		assertSame(PointNode.class, PROTOTYPES.createNode("PointNode").get().getClass());
+		assertSame(ConstructorEdge.class, PROTOTYPES.createEdge("ConstructorEdge").get().getClass());
+	}
+	
+	@Test
+	public void testCreate_NewInstances()
+	{
+		assertNotSame(PROTOTYPES.createNode("ClassNode").get(), PROTOTYPES.createNode("ClassNode").get());
+		assertNotSame(PROTOTYPES.createEdge("NoteEdge").get(), PROTOTYPES.createEdge("NoteEdge").get());
+	}
+	
+	@Test
+	public void testCreate_UnknownTypes()
+	{
+		assertFalse(PROTOTYPES.createNode("NoSuchNode").isPresent());
+		assertFalse(PROTOTYPES.createNode("AbstractNode").isPresent());
+		assertFalse(PROTOTYPES.createNode("NoteEdge").isPresent());
+		assertFalse(PROTOTYPES.createEdge("NoteNode").isPresent());
+		assertFalse(PROTOTYPES.createEdge("ca.mcgill.cs.jetuml.diagram.edges.NoteEdge").isPresent());
+	}
+}
@@ -21,6 +21,8 @@
 package ca.mcgill.cs.jetuml.geom;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
@@ -36,6 +38,17 @@ public class TestLine
 		assertEquals("[(x=0,y=0), (x=1,y=1)]", ZERO_TO_ONE.toString());
 	}
 	
+	@Test
+	public void testEqualsAndHashCode()
+	{
+		Line copy = new Line(new Point(0,0), new Point(1,1));
+		assertTrue(ZERO_TO_ONE.equals(ZERO_TO_ONE));
+		assertTrue(ZERO_TO_ONE.equals(copy));
+		assertEquals(ZERO_TO_ONE.hashCode(), copy.hashCode());
+		assertFalse(ZERO_TO_ONE.equals(new Line(ONE, ZERO)));
+		assertFalse(ZERO_TO_ONE.equals(null));
+	}
+	
 //	@Test
 //	public void testHashCode()
 //	{
@@ -79,6 +79,20 @@ public class TestRectangle
 		assertFalse(RECTANGLE_1.contains(new Point(0,41)));
 	}
 	
+	@Test
+	public void testIntersects()
+	{
+		assertTrue(RECTANGLE_1.intersects(RECTANGLE_1));
+		assertTrue(RECTANGLE_1.intersects(new Rectangle(10,10,5,5)));
+		assertTrue(new Rectangle(10,10,5,5).intersects(RECTANGLE_1));
+		assertTrue(RECTANGLE_1.intersects(new Rectangle(50,30,100,100)));
+		assertTrue(RECTANGLE_1.intersects(new Rectangle(60,40,10,10)));
+		assertTrue(RECTANGLE_1.intersects(new Rectangle(-10,10,100,5)));
+		assertFalse(RECTANGLE_1.intersects(new Rectangle(61,0,10,10)));
+		assertFalse(RECTANGLE_1.intersects(new Rectangle(0,41,10,10)));
+		assertFalse(RECTANGLE_1.intersects(RECTANGLE_2));
+	}
+	
 	@Test
 	public void testGetCenter()
 	{
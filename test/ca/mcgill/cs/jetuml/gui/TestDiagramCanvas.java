@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.geom.Dimension;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.testutils.JavaFXThread;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+import ca.mcgill.cs.jetuml.views.ViewerUtilities;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.transform.Affine;
+
+public class TestDiagramCanvas
+{
+	private static final int WHITE = 0xFFFFFFFF;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	private static DiagramCanvas createCanvas(Diagram pDiagram, boolean pVirtual)
+	{
+		DiagramCanvas canvas = new DiagramCanvas(pDiagram, pVirtual);
+		canvas.setController(new DiagramCanvasController(canvas, new DiagramTabToolBar(pDiagram), pPoint -> {}));
+		return canvas;
+	}
+	
+	private static int overlayPixel(DiagramCanvas pCanvas, int pX, int pY)
+	{
+		return pCanvas.getOverlay().snapshot(null, null).getPixelReader().getArgb(pX, pY);
+	}
+	
+	private static ClassNode addNode(Diagram pDiagram, int pX, int pY)
+	{
+		ClassNode node = new ClassNode();
+		node.translate(pX, pY);
+		pDiagram.addRootNode(node);
+		return node;
+	}
+	
+	/*
+	 * Paints pCanvas, applies pChange to its diagram, and returns the 
+	 * region painted when the canvas is painted again.
+	 */
+	private static Rectangle paintAfter(DiagramCanvas pCanvas, Runnable pChange) throws InterruptedException
+	{
+		return JavaFXThread.callAndWait(() -> 
+		{
+			pCanvas.paintPanel();
+			pChange.run();
+			pCanvas.paintPanel();
+			return pCanvas.getPaintedRegion().get();
+		});
+	}
+	
+	@Test
+	public void testDamagedRegion_NodeMoved() throws InterruptedException
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		ClassNode moved = addNode(diagram, 0, 0);
+		ClassNode other = addNode(diagram, 400, 300);
+		Rectangle before = ViewerUtilities.getBounds(moved);
+		
+		Rectangle region = paintAfter(createCanvas(diagram, false), () -> moved.translate(20, 0));
+		
+		assertTrue(region.contains(before));
+		assertTrue(region.contains(ViewerUtilities.getBounds(moved)));
+		assertFalse(region.intersects(ViewerUtilities.getBounds(other)));
+	}
+	
+	@Test
+	public void testDamagedRegion_EdgeToMovedNode() throws InterruptedException
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		ClassNode start = addNode(diagram, 0, 0);
+		ClassNode moved = addNode(diagram, 400, 0);
+		ClassNode other = addNode(diagram, 400, 300);
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(start, moved, diagram);
+		diagram.addEdge(edge);
+		Rectangle before = ViewerUtilities.getBounds(edge);
+		
+		Rectangle region = paintAfter(createCanvas(diagram, false), () -> moved.translate(0, 30));
+		
+		assertTrue(region.contains(before));
+		assertTrue(region.contains(ViewerUtilities.getBounds(edge)));
+		assertTrue(region.contains(ViewerUtilities.getBounds(start)));
+		assertFalse(region.intersects(ViewerUtilities.getBounds(other)));
+	}
+	
+	/*
+	 * A node that overlaps the damaged region is painted in full.
+	 */
+	@Test
+	public void testDamagedRegion_OverlappingNode() throws InterruptedException
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		ClassNode moved = addNode(diagram, 0, 0);
+		ClassNode overlapping = addNode(diagram, 50, 30);
+		ClassNode other = addNode(diagram, 400, 300);
+		
+		Rectangle region = paintAfter(createCanvas(diagram, false), () -> moved.translate(10, 0));
+		
+		assertTrue(region.contains(ViewerUtilities.getBounds(overlapping)));
+		assertFalse(region.intersects(ViewerUtilities.getBounds(other)));
+	}
+	
+	/*
+	 * The entire canvas is painted when too many elements change.
+	 */
+	@Test
+	public void testDamagedRegion_ManyNodesMoved() throws InterruptedException
+	{
+		Diagram diagram = SyntheticDiagrams.classDiagram(100, 0);
+		DiagramCanvas canvas = createCanvas(diagram, false);
+		
+		Rectangle region = paintAfter(canvas, () -> 
+		{
+			for( Node node : diagram.rootNodes() )
+			{
+				node.translate(10, 0);
+			}
+		});
+		
+		Dimension dimension = canvas.getDiagramDimension();
+		assertEquals(new Rectangle(0, 0, dimension.width(), dimension.height()), region);
+	}
+	
+	@Test
+	public void testNotVirtual()
+	{
+		Diagram diagram = SyntheticDiagrams.classDiagram(10, 10);
+		DiagramCanvas canvas = createCanvas(diagram, false);
+		Dimension dimension = canvas.getDiagramDimension();
+		assertEquals(dimension.width(), (int) canvas.getWidth());
+		assertEquals(dimension.height(), (int) canvas.getHeight());
+		assertEquals(new Point(12, 34), canvas.toDiagramPoint(12.7, 34.2));
+	}
+	
+	/*
+	 * The canvas covers the part of the visible bounds within the 
+	 * diagram, and its coordinates are offset by the position of this area.
+	 */
+	@Test
+	public void testVirtual() throws InterruptedException
+	{
+		JavaFXThread.runAndWait(() -> 
+		{
+			Diagram diagram = SyntheticDiagrams.classDiagram(10, 10);
+			DiagramCanvas canvas = createCanvas(diagram, true);
+			Dimension dimension = canvas.getDiagramDimension();
+			assertEquals(0, (int) canvas.getWidth());
+			
+			canvas.setVisibleBounds(new Rectangle(100, 50, 200, 150), 1);
+			assertEquals(200, (int) canvas.getWidth());
+			assertEquals(150, (int) canvas.getHeight());
+			assertEquals(200, (int) canvas.getOverlay().getWidth());
+			assertEquals(new Point(112, 84), canvas.toDiagramPoint(12, 34));
+			
+			canvas.setVisibleBounds(new Rectangle(-10, -10, dimension.width() + 100, 50), 1);
+			assertEquals(dimension.width(), (int) canvas.getWidth());
+			assertEquals(40, (int) canvas.getHeight());
+			assertEquals(new Point(12, 34), canvas.toDiagramPoint(12, 34));
+		});
+	}
+	
+	/*
+	 * A zoomed canvas has the size of the visible area on the screen, 
+	 * and draws the diagram scaled.
+	 */
+	@Test
+	public void testVirtual_Zoomed() throws InterruptedException
+	{
+		JavaFXThread.runAndWait(() -> 
+		{
+			DiagramCanvas canvas = createCanvas(SyntheticDiagrams.classDiagram(10, 10), true);
+			canvas.setVisibleBounds(new Rectangle(100, 50, 200, 150), 0.5);
+			assertEquals(100, (int) canvas.getWidth());
+			assertEquals(75, (int) canvas.getHeight());
+			assertEquals(50, (int) canvas.getLayoutX());
+			assertEquals(25, (int) canvas.getLayoutY());
+			assertEquals(100, (int) canvas.getOverlay().getWidth());
+			assertEquals(new Point(124, 118), canvas.toDiagramPoint(12, 34));
+			Affine transform = canvas.getGraphicsContext2D().getTransform();
+			assertEquals(0.5, transform.getMxx());
+			assertEquals(-50, (int) transform.getTx());
+			
+			canvas.setVisibleBounds(new Rectangle(100, 50, 200, 150), 2);
+			assertEquals(400, (int) canvas.getWidth());
+			assertEquals(200, (int) canvas.getLayoutX());
+			assertEquals(new Point(106, 67), canvas.toDiagramPoint(12, 34));
+			assertEquals(new Rectangle(100, 50, 200, 150), canvas.getPaintedRegion().get());
+		});
+	}
+	
+	/*
+	 * Selecting an element only paints the overlay.
+	 */
+	@Test
+	public void testSelectionPaintsOverlayOnly() throws InterruptedException
+	{
+		JavaFXThread.runAndWait(() -> 
+		{
+			Diagram diagram = new Diagram(DiagramType.CLASS);
+			ClassNode node = addNode(diagram, 50, 50);
+			DiagramCanvas canvas = new DiagramCanvas(diagram, false);
+			DiagramCanvasController controller = new DiagramCanvasController(canvas, new DiagramTabToolBar(diagram), pPoint -> {});
+			canvas.setController(controller);
+			canvas.paintPanel();
+			assertEquals(WHITE, overlayPixel(canvas, 50, 50));
+			
+			controller.getSelectionModel().set(node);
+			canvas.paintPanel();
+			assertFalse(canvas.getPaintedRegion().isPresent());
+			assertNotEquals(WHITE, overlayPixel(canvas, 50, 50));
+			
+			controller.getSelectionModel().clearSelection();
+			canvas.paintPanel();
+			assertFalse(canvas.getPaintedRegion().isPresent());
+			assertEquals(WHITE, overlayPixel(canvas, 50, 50));
+		});
+	}
+	
+	/*
+	 * The overlay of a virtual canvas covers the same area of the diagram as the 
+	 * canvas when the visible bounds change, by scrolling or by zooming.
+	 */
+	@Test
+	public void testOverlayFollowsVisibleBounds() throws InterruptedException
+	{
+		JavaFXThread.runAndWait(() -> 
+		{
+			DiagramCanvas canvas = createCanvas(SyntheticDiagrams.classDiagram(10, 10), true);
+			Canvas overlay = canvas.getOverlay();
+			Rectangle[] areas = { new Rectangle(0, 0, 300, 200), new Rectangle(100, 50, 300, 200), 
+					new Rectangle(100, 50, 600, 400), new Rectangle(150, 75, 150, 100) };
+			for( Rectangle area : areas )
+			{
+				canvas.setVisibleBounds(area, 1);
+				assertEquals(area.getX(), (int) overlay.getLayoutX());
+				assertEquals(area.getY(), (int) overlay.getLayoutY());
+				assertEquals(canvas.getWidth(), overlay.getWidth());
+				assertEquals(canvas.getHeight(), overlay.getHeight());
+				Affine transform = overlay.getGraphicsContext2D().getTransform();
+				assertEquals(-area.getX(), (int) transform.getTx());
+				assertEquals(-area.getY(), (int) transform.getTy());
+			}
+		});
+	}
+}
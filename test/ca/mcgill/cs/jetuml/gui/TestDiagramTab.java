@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.gui;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.testutils.JavaFXThread;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+
+public class TestDiagramTab
+{
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	/*
+	 * The zoom levels are 1, 0.8, 0.64 and 0.512: the overview is 
+	 * only drawn at the last one, below the scale of 0.6. The canvas
+	 * is painted again as soon as the zoom level changes.
+	 */
+	@Test
+	public void testOverviewThreshold() throws InterruptedException
+	{
+		JavaFXThread.runAndWait(() -> 
+		{
+			DiagramTab tab = new DiagramTab(SyntheticDiagrams.classDiagram(10, 10));
+			DiagramCanvas canvas = tab.getDiagramCanvas();
+			assertFalse(canvas.isOverview());
+			tab.zoomOut();
+			tab.zoomOut();
+			assertFalse(canvas.isOverview());
+			tab.zoomOut();
+			assertTrue(canvas.isOverview());
+			assertTrue(canvas.getPaintedRegion().isPresent());
+			tab.zoomIn();
+			assertFalse(canvas.isOverview());
+			assertTrue(canvas.getPaintedRegion().isPresent());
+			tab.zoomOut();
+			tab.resetZoom();
+			assertFalse(canvas.isOverview());
+			tab.close();
+		});
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.gui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.testutils.JavaFXThread;
+import javafx.application.Platform;
+
+public class TestRepaintScheduler
+{
+	private static final int TIMEOUT = 5;
+	
+	private RepaintScheduler aScheduler;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@Test
+	public void testRequestsCoalesced() throws InterruptedException
+	{
+		CountDownLatch painted = new CountDownLatch(1);
+		Platform.runLater(() -> 
+		{
+			aScheduler = new RepaintScheduler(painted::countDown);
+			aScheduler.requestRepaint();
+			aScheduler.requestRepaint();
+			aScheduler.requestRepaint();
+		});
+		assertTrue(painted.await(TIMEOUT, TimeUnit.SECONDS));
+		JavaFXThread.runAndWait(() -> 
+		{
+			assertEquals(3, aScheduler.getRequestedRepaints());
+			assertEquals(1, aScheduler.getPerformedRepaints());
+		});
+	}
+	
+	@Test
+	public void testRequestAfterRepaint() throws InterruptedException
+	{
+		CountDownLatch painted = new CountDownLatch(2);
+		Platform.runLater(() -> 
+		{
+			aScheduler = new RepaintScheduler(() -> 
+			{
+				painted.countDown();
+				if( painted.getCount() == 1 )
+				{
+					aScheduler.requestRepaint();
+				}
+			});
+			aScheduler.requestRepaint();
+		});
+		assertTrue(painted.await(TIMEOUT, TimeUnit.SECONDS));
+	}
+}
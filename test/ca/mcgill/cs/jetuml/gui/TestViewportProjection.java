@@ -26,6 +26,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+
 public class TestViewportProjection
 {
 	@Test
@@ -295,4 +297,17 @@ public class TestViewportProjection
 		assertEquals(0.152, projection.getAdjustedVValueToRevealY(464), 0.001);
 	}
 	
+	@Test
+	public void testGetVisibleBounds()
+	{
+		ViewportProjection projection = new ViewportProjection(1000, 1000, 1000, 1000, 0.5, 0.5);
+		assertEquals(new Rectangle(0, 0, 1000, 1000), projection.getVisibleBounds());
+		projection = new ViewportProjection(500, 250, 1000, 1000, 0, 0);
+		assertEquals(new Rectangle(0, 0, 500, 250), projection.getVisibleBounds());
+		projection = new ViewportProjection(500, 250, 1000, 1000, 1, 1);
+		assertEquals(new Rectangle(500, 750, 500, 250), projection.getVisibleBounds());
+		projection = new ViewportProjection(500, 250, 1000, 1000, 0.5, 0.2);
+		assertEquals(new Rectangle(250, 150, 500, 250), projection.getVisibleBounds());
+	}
+	
 }
@@ -24,6 +24,11 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -97,6 +102,21 @@ final class PersistenceTestUtils
 		return found;
 	}
 	
+	/*
+	 * The members of pDiagram, except its version, with its nodes sorted by id, 
+	 * so that two encodings of the same diagram can be compared with equals.
+	 */
+	static Map<String, Object> canonical(JSONObject pDiagram)
+	{
+		JSONObject result = new JSONObject(pDiagram.toString());
+		result.remove("version");
+		List<JSONObject> nodes = new ArrayList<>();
+		result.getJSONArray("nodes").forEach(node -> nodes.add((JSONObject) node));
+		nodes.sort(Comparator.comparingInt(node -> node.getInt("id")));
+		result.put("nodes", new JSONArray(nodes));
+		return result.toMap();
+	}
+	
 	static Node findRootNode(Diagram pDiagram, Class<?> pClass, Properties pProperties)
 	{
 		for( Node node : pDiagram.rootNodes() )
@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static ca.mcgill.cs.jetuml.persistence.PersistenceTestUtils.canonical;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.JetUML;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+
+public class TestBinaryEncoding
+{
+	private static final File BINARY_FILE = new File("testdata/tmp" + PersistenceService.BINARY_EXTENSION);
+	private static final File JSON_FILE = new File("testdata/tmp.jet");
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@AfterEach
+	public void tearDown()
+	{
+		BINARY_FILE.delete();
+		JSON_FILE.delete();
+	}
+	
+	private static byte[] encode(Diagram pDiagram) throws IOException
+	{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		BinaryEncoder.write(pDiagram, output);
+		return output.toByteArray();
+	}
+	
+	private static VersionedDiagram decode(byte[] pBytes) throws IOException
+	{
+		return BinaryDecoder.decode(new ByteArrayInputStream(pBytes));
+	}
+	
+	private static void assertSameDiagram(Diagram pExpected, Diagram pActual)
+	{
+		assertEquals(canonical(JsonEncoder.encode(pExpected)), canonical(JsonEncoder.encode(pActual)));
+	}
+	
+	/*
+	 * A diagram converted to binary, then back to JSON, has the same 
+	 * encoding as the diagram read from the original file.
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = {"testPersistenceService.class.jet", "testPersistenceService2.class.jet", 
+			"testPersistenceService.object.jet", "testPersistenceService.sequence.jet", 
+			"testPersistenceService.state.jet", "testPersistenceService.usecase.jet"})
+	public void testRoundTrip_Files(String pFileName) throws IOException
+	{
+		Diagram original = PersistenceService.read(new File("testdata", pFileName)).diagram();
+		PersistenceService.save(original, BINARY_FILE);
+		PersistenceService.save(PersistenceService.read(BINARY_FILE).diagram(), JSON_FILE);
+		assertSameDiagram(original, PersistenceService.read(JSON_FILE).diagram());
+	}
+	
+	@ParameterizedTest
+	@EnumSource(DiagramType.class)
+	public void testRoundTrip_Empty(DiagramType pType) throws IOException
+	{
+		Diagram diagram = new Diagram(pType);
+		VersionedDiagram decoded = decode(encode(diagram));
+		assertEquals(JetUML.VERSION, decoded.version());
+		assertFalse(decoded.wasMigrated());
+		assertSameDiagram(diagram, decoded.diagram());
+	}
+	
+	@Test
+	public void testRoundTrip_Text() throws IOException
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		PackageNode packageNode = new PackageNode();
+		packageNode.setName("\u00e9t\u00e9 \u4e2d\u6587 \ud83d\ude00");
+		ClassNode classNode = new ClassNode();
+		classNode.setName("\"quoted\"\n\\");
+		classNode.setMethods("");
+		classNode.translate(-100000, 70000);
+		packageNode.addChild(classNode);
+		diagram.addRootNode(packageNode);
+		assertSameDiagram(diagram, decode(encode(diagram)).diagram());
+	}
+	
+	@Test
+	public void testSize() throws IOException
+	{
+		Diagram diagram = SyntheticDiagrams.classDiagram(200, 400);
+		StringWriter json = new StringWriter();
+		JsonEncoder.write(diagram, json);
+		byte[] binary = encode(diagram);
+		assertTrue(binary.length * 2 < json.toString().getBytes(StandardCharsets.UTF_8).length);
+		assertSameDiagram(diagram, decode(binary).diagram());
+	}
+	
+	/*
+	 * The format of a file is recognized from its header, whatever its name.
+	 */
+	@Test
+	public void testRead_HeaderDetection() throws IOException
+	{
+		Diagram diagram = SyntheticDiagrams.classDiagram(5, 5);
+		Files.write(JSON_FILE.toPath(), encode(diagram));
+		assertSameDiagram(diagram, PersistenceService.read(JSON_FILE).diagram());
+		PersistenceService.save(diagram, JSON_FILE);
+		assertFalse(BinaryDecoder.hasHeader(new ByteArrayInputStream(Files.readAllBytes(JSON_FILE.toPath()))));
+		PersistenceService.save(diagram, BINARY_FILE);
+		assertTrue(BinaryDecoder.hasHeader(new ByteArrayInputStream(Files.readAllBytes(BINARY_FILE.toPath()))));
+	}
+	
+	/*
+	 * A diagram saved with an older version is migrated. The encoding of a 
+	 * diagram is given an older version by replacing the version in its header.
+	 */
+	@Test
+	public void testRead_Migration() throws IOException
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		ClassNode start = new ClassNode();
+		ClassNode end = new ClassNode();
+		diagram.addRootNode(start);
+		diagram.addRootNode(end);
+		DependencyEdge edge = new DependencyEdge();
+		edge.setDirectionality(DependencyEdge.Directionality.Bidirectional);
+		edge.connect(start, end, diagram);
+		diagram.addEdge(edge);
+		
+		byte[] bytes = encode(diagram);
+		int header = BinaryEncoder.MAGIC.length + 1;
+		int body = header + 1 + bytes[header];
+		ByteArrayOutputStream old = new ByteArrayOutputStream();
+		old.write(bytes, 0, header);
+		old.write(3);
+		old.write("2.4".getBytes(StandardCharsets.UTF_8));
+		old.write(bytes, body, bytes.length - body);
+		
+		VersionedDiagram migrated = decode(old.toByteArray());
+		assertTrue(migrated.wasMigrated());
+		assertEquals(2, migrated.diagram().rootNodes().size());
+		assertEquals(DependencyEdge.Directionality.Unidirectional, 
+				((DependencyEdge) migrated.diagram().edges().get(0)).getDirectionality());
+	}
+	
+	@Test
+	public void testRead_Invalid() throws IOException
+	{
+		byte[] bytes = encode(SyntheticDiagrams.classDiagram(5, 5));
+		assertThrows(DeserializationException.class, () -> decode(Arrays.copyOf(bytes, bytes.length - 1)));
+		assertThrows(DeserializationException.class, () -> decode(Arrays.copyOf(bytes, 2)));
+		bytes[BinaryEncoder.MAGIC.length] = BinaryEncoder.FORMAT_REVISION + 1;
+		assertThrows(DeserializationException.class, () -> decode(bytes));
+	}
+	
+	/*
+	 * Builds the encoding of a diagram from the header of the 
+	 * current version followed by pBody.
+	 */
+	private static byte[] withHeader(int... pBody) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		bytes.write(BinaryEncoder.MAGIC);
+		bytes.write(BinaryEncoder.FORMAT_REVISION);
+		byte[] version = JetUML.VERSION.toString().getBytes(StandardCharsets.UTF_8);
+		bytes.write(version.length);
+		bytes.write(version);
+		for( int value : pBody )
+		{
+			bytes.write(value);
+		}
+		return bytes.toByteArray();
+	}
+	
+	@Test
+	public void testRead_NegativeLength() throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		bytes.write(BinaryEncoder.MAGIC);
+		bytes.write(BinaryEncoder.FORMAT_REVISION);
+		bytes.write(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F});
+		assertThrows(DeserializationException.class, () -> decode(bytes.toByteArray()));
+	}
+	
+	@Test
+	public void testRead_NegativeSymbol() throws IOException
+	{
+		byte[] bytes = withHeader(BinaryEncoder.TAG_OBJECT, 1, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+		assertThrows(DeserializationException.class, () -> decode(bytes));
+	}
+	
+	@Test
+	public void testRead_UnknownSymbol() throws IOException
+	{
+		byte[] bytes = withHeader(BinaryEncoder.TAG_OBJECT, 1, 1);
+		assertThrows(DeserializationException.class, () -> decode(bytes));
+	}
+	
+	@Test
+	public void testRead_NegativeCount() throws IOException
+	{
+		byte[] bytes = withHeader(BinaryEncoder.TAG_OBJECT, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+		assertThrows(DeserializationException.class, () -> decode(bytes));
+	}
+	
+	@Test
+	public void testRead_TooLongNumber() throws IOException
+	{
+		byte[] bytes = withHeader(BinaryEncoder.TAG_OBJECT, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F);
+		assertThrows(DeserializationException.class, () -> decode(bytes));
+	}
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static ca.mcgill.cs.jetuml.persistence.PersistenceTestUtils.canonical;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+
+public class TestCompressedFiles
+{
+	private static final String TEST_FILE_NAME = "testdata/tmp";
+	
+	private File aFile;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@AfterEach
+	public void tearDown()
+	{
+		if( aFile != null )
+		{
+			aFile.delete();
+		}
+	}
+	
+	private static void assertSameDiagram(Diagram pExpected, Diagram pActual)
+	{
+		assertEquals(canonical(JsonEncoder.encode(pExpected)), canonical(JsonEncoder.encode(pActual)));
+	}
+	
+	private void writeCompressed(String pExtension, byte[] pContent) throws IOException
+	{
+		aFile = new File(TEST_FILE_NAME + pExtension);
+		try( OutputStream out = new GZIPOutputStream(Files.newOutputStream(aFile.toPath())))
+		{
+			out.write(pContent);
+		}
+	}
+	
+	@ParameterizedTest
+	@ValueSource(strings = {".jet", PersistenceService.BINARY_EXTENSION})
+	public void testRoundTrip(String pExtension) throws IOException
+	{
+		Diagram diagram = PersistenceService.read(new File("testdata/testPersistenceService.class.jet")).diagram();
+		aFile = new File(TEST_FILE_NAME + pExtension + PersistenceService.COMPRESSED_EXTENSION);
+		PersistenceService.save(diagram, aFile);
+		byte[] content = Files.readAllBytes(aFile.toPath());
+		assertEquals((byte) 0x1F, content[0]);
+		assertEquals((byte) 0x8B, content[1]);
+		assertSameDiagram(diagram, PersistenceService.read(aFile).diagram());
+	}
+	
+	@Test
+	public void testSize() throws IOException
+	{
+		Diagram diagram = SyntheticDiagrams.classDiagram(200, 400);
+		File uncompressed = new File(TEST_FILE_NAME + ".jet");
+		aFile = new File(TEST_FILE_NAME + ".jet" + PersistenceService.COMPRESSED_EXTENSION);
+		PersistenceService.save(diagram, uncompressed);
+		PersistenceService.save(diagram, aFile);
+		long size = uncompressed.length();
+		uncompressed.delete();
+		assertTrue(aFile.length() * 4 < size);
+		assertSameDiagram(diagram, PersistenceService.read(aFile).diagram());
+	}
+	
+	/*
+	 * Compressed files are recognized from their header, whatever their name.
+	 */
+	@Test
+	public void testRead_HeaderDetection() throws IOException
+	{
+		Diagram diagram = SyntheticDiagrams.classDiagram(5, 5);
+		writeCompressed(".jet", JsonEncoder.encode(diagram).toString().getBytes(StandardCharsets.UTF_8));
+		assertSameDiagram(diagram, PersistenceService.read(aFile).diagram());
+	}
+	
+	@Test
+	public void testRead_Migration() throws IOException
+	{
+		writeCompressed(".jet", ("{\"diagram\":\"ClassDiagram\",\"nodes\":[{\"type\":\"ClassNode\",\"id\":0,\"x\":0,\"y\":0," +
+				"\"name\":\"A\",\"methods\":\"\",\"attributes\":\"\"},{\"type\":\"ClassNode\",\"id\":1,\"x\":0,\"y\":200," +
+				"\"name\":\"B\",\"methods\":\"\",\"attributes\":\"\"}],\"edges\":[{\"type\":\"DependencyEdge\",\"start\":0," +
+				"\"end\":1,\"middleLabel\":\"\"}],\"version\":\"2.4\"}").getBytes(StandardCharsets.UTF_8));
+		VersionedDiagram diagram = PersistenceService.read(aFile);
+		assertTrue(diagram.wasMigrated());
+		assertEquals(2, diagram.diagram().rootNodes().size());
+		assertEquals(DependencyEdge.Directionality.Unidirectional, 
+				((DependencyEdge) diagram.diagram().edges().get(0)).getDirectionality());
+	}
+	
+	private void truncate(String pExtension) throws IOException
+	{
+		aFile = new File(TEST_FILE_NAME + pExtension + PersistenceService.COMPRESSED_EXTENSION);
+		PersistenceService.save(SyntheticDiagrams.classDiagram(50, 50), aFile);
+		byte[] content = Files.readAllBytes(aFile.toPath());
+		Files.write(aFile.toPath(), Arrays.copyOf(content, content.length / 2));
+	}
+	
+	/*
+	 * The JSON decoder reports all the errors of its input as a DeserializationException.
+	 */
+	@Test
+	public void testRead_TruncatedJson() throws IOException
+	{
+		truncate(".jet");
+		assertThrows(DeserializationException.class, () -> PersistenceService.read(aFile));
+	}
+	
+	@Test
+	public void testRead_TruncatedBinary() throws IOException
+	{
+		truncate(PersistenceService.BINARY_EXTENSION);
+		assertThrows(IOException.class, () -> PersistenceService.read(aFile));
+	}
+}
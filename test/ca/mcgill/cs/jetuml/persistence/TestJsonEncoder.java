@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+
+public class TestJsonEncoder
+{
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	private static void assertWritesEncoding(Diagram pDiagram) throws IOException
+	{
+		StringWriter writer = new StringWriter();
+		JsonEncoder.write(pDiagram, writer);
+		assertEquals(JsonEncoder.encode(pDiagram).toString(), writer.toString());
+	}
+	
+	@ParameterizedTest
+	@ValueSource(strings = {"testPersistenceService.class.jet", "testPersistenceService2.class.jet", 
+			"testPersistenceService.object.jet", "testPersistenceService.sequence.jet", 
+			"testPersistenceService.state.jet", "testPersistenceService.usecase.jet"})
+	public void testWrite_Files(String pFileName) throws Exception
+	{
+		assertWritesEncoding(PersistenceService.read(new File("testdata", pFileName)).diagram());
+	}
+	
+	@ParameterizedTest
+	@EnumSource(DiagramType.class)
+	public void testWrite_Empty(DiagramType pType) throws IOException
+	{
+		assertWritesEncoding(new Diagram(pType));
+	}
+	
+	@Test
+	public void testWrite_Synthetic() throws IOException
+	{
+		assertWritesEncoding(SyntheticDiagrams.classDiagram(50, 100));
+	}
+	
+	@Test
+	public void testWrite_EscapedText() throws IOException
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		PackageNode packageNode = new PackageNode();
+		packageNode.setName("\"quoted\"\\ </end>");
+		ClassNode node = new ClassNode();
+		node.setName("Line\nbreak\ttab \u00e9\u4e2d\u0001");
+		packageNode.addChild(node);
+		diagram.addRootNode(packageNode);
+		diagram.addRootNode(new ClassNode());
+		assertWritesEncoding(diagram);
+	}
+}
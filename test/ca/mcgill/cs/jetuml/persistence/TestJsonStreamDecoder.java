@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramElement;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.Property;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+
+public class TestJsonStreamDecoder
+{
+	private static final String CURRENT_DIAGRAM = "{\"version\":\"3.1\",\"edges\":[{\"start\":0,\"end\":1,\"type\":\"GeneralizationEdge\"," +
+			"\"middleLabel\":\"\",\"Generalization Type\":\"Implementation\"}],\"diagram\":\"ClassDiagram\",\"nodes\":[" +
+			"{\"type\":\"ClassNode\",\"id\":0,\"x\":10,\"y\":20,\"name\":\"A\",\"methods\":\"\",\"attributes\":\"\"}," +
+			"{\"type\":\"InterfaceNode\",\"id\":1,\"x\":10,\"y\":200,\"name\":\"I\",\"methods\":\"\"}]}";
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	private static Optional<VersionedDiagram> decode(String pText)
+	{
+		return JsonStreamDecoder.decode(new StringReader(pText));
+	}
+	
+	/*
+	 * A description of an element that does not depend on the identifiers
+	 * used in the file, nor on the order of the root nodes.
+	 */
+	private static String describe(DiagramElement pElement)
+	{
+		StringBuilder description = new StringBuilder(pElement.getClass().getSimpleName());
+		for( Property property : pElement.properties() )
+		{
+			description.append(' ').append(property.getName()).append('=').append(property.get());
+		}
+		if( pElement instanceof Node )
+		{
+			description.append(" children=").append(describeAll(((Node) pElement).getChildren()));
+		}
+		else
+		{
+			Edge edge = (Edge) pElement;
+			description.append(" start=").append(describe(edge.getStart())).append(" end=").append(describe(edge.getEnd()));
+		}
+		return description.toString();
+	}
+	
+	private static List<String> describeAll(Iterable<? extends DiagramElement> pElements)
+	{
+		List<String> descriptions = new ArrayList<>();
+		pElements.forEach(element -> descriptions.add(describe(element)));
+		Collections.sort(descriptions);
+		return descriptions;
+	}
+	
+	@ParameterizedTest
+	@ValueSource(strings = {"testPersistenceService.class.jet", "testPersistenceService2.class.jet", 
+			"testPersistenceService.object.jet", "testPersistenceService.sequence.jet", 
+			"testPersistenceService.state.jet", "testPersistenceService.usecase.jet"})
+	public void testDecode_SameAsTree(String pFileName) throws IOException
+	{
+		File file = new File("testdata", pFileName);
+		Diagram tree;
+		try( BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)))
+		{
+			tree = JsonDecoder.decode(new JSONObject(in.readLine()));
+		}
+		VersionedDiagram stream;
+		try( Reader in = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))
+		{
+			stream = JsonStreamDecoder.decode(in).get();
+		}
+		assertFalse(stream.wasMigrated());
+		assertEquals(tree.getType(), stream.diagram().getType());
+		assertEquals(describeAll(tree.rootNodes()), describeAll(stream.diagram().rootNodes()));
+		assertEquals(describeAll(tree.edges()), describeAll(stream.diagram().edges()));
+		stream.diagram().rootNodes().forEach(node -> assertSame(stream.diagram(), node.getDiagram().get()));
+	}
+	
+	@Test
+	public void testDecode_RootNodesInSavedOrder() throws IOException
+	{
+		Diagram diagram = SyntheticDiagrams.classDiagram(30, 20);
+		PackageNode packageNode = new PackageNode();
+		packageNode.addChild(new ClassNode());
+		diagram.addRootNode(packageNode);
+		StringWriter writer = new StringWriter();
+		JsonEncoder.write(diagram, writer);
+		Diagram decoded = decode(writer.toString()).get().diagram();
+		assertEquals(diagram.rootNodes().size(), decoded.rootNodes().size());
+		for( int i = 0; i < diagram.rootNodes().size(); i++ )
+		{
+			assertEquals(describe(diagram.rootNodes().get(i)), describe(decoded.rootNodes().get(i)));
+		}
+		assertEquals(describeAll(diagram.edges()), describeAll(decoded.edges()));
+	}
+	
+	@Test
+	public void testDecode_AnyMemberOrder()
+	{
+		Diagram diagram = decode(CURRENT_DIAGRAM).get().diagram();
+		assertEquals(2, diagram.rootNodes().size());
+		assertEquals("A", ((ClassNode) diagram.rootNodes().get(0)).getName());
+		assertEquals(1, diagram.edges().size());
+		assertSame(diagram.rootNodes().get(0), diagram.edges().get(0).getStart());
+		assertSame(diagram.rootNodes().get(1), diagram.edges().get(0).getEnd());
+	}
+	
+	@Test
+	public void testDecode_OldVersion()
+	{
+		// The dependency edges of old versions have no directionality, and must be migrated
+		assertFalse(decode("{\"diagram\":\"ClassDiagram\",\"nodes\":[{\"type\":\"ClassNode\",\"id\":0,\"x\":0,\"y\":0," +
+				"\"name\":\"\",\"methods\":\"\",\"attributes\":\"\"}],\"edges\":[{\"type\":\"DependencyEdge\",\"start\":0," +
+				"\"end\":0,\"middleLabel\":\"\"}],\"version\":\"2.4\"}").isPresent());
+	}
+	
+	@Test
+	public void testDecode_MissingProperty()
+	{
+		assertThrows(DeserializationException.class, () -> decode(CURRENT_DIAGRAM.replace("\"name\":\"A\",", "")));
+	}
+	
+	@Test
+	public void testDecode_UnknownType()
+	{
+		assertThrows(DeserializationException.class, () -> decode(CURRENT_DIAGRAM.replace("InterfaceNode", "NoSuchNode")));
+	}
+	
+	@Test
+	public void testDecode_UnknownNode()
+	{
+		assertThrows(DeserializationException.class, () -> decode(CURRENT_DIAGRAM.replace("\"end\":1", "\"end\":2")));
+	}
+	
+	@Test
+	public void testDecode_Incomplete()
+	{
+		assertThrows(DeserializationException.class, () -> decode("{}"));
+		assertThrows(DeserializationException.class, () -> decode("{\"version\":\"3.1\",\"diagram\":\"StateDiagram\"}"));
+	}
+	
+	@Test
+	public void testDecode_InvalidJson()
+	{
+		assertThrows(JSONException.class, () -> decode(""));
+		assertThrows(JSONException.class, () -> decode(CURRENT_DIAGRAM.substring(0, CURRENT_DIAGRAM.length() / 2)));
+		assertThrows(JSONException.class, () -> decode(CURRENT_DIAGRAM.replace("},{", "}{")));
+	}
+	
+	@Test
+	public void testDecode_Empty()
+	{
+		Diagram diagram = decode("{\"diagram\":\"UseCaseDiagram\",\"nodes\":[],\"edges\":[],\"version\":\"3.1\"}").get().diagram();
+		assertTrue(diagram.rootNodes().isEmpty());
+		assertTrue(diagram.edges().isEmpty());
+	}
+}
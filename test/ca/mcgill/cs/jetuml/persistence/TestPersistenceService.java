@@ -29,6 +29,8 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Iterator;
 import java.util.List;
 
@@ -182,6 +184,26 @@ public class TestPersistenceService
 		tmp.delete();
 	}
 	
+	/*
+	 * Diagrams saved with an older version are read again to be migrated.
+	 */
+	@Test
+	public void testMigratedDiagram() throws Exception
+	{
+		File tmp = new File(TEST_FILE_NAME);
+		Files.write(tmp.toPath(), ("{\"diagram\":\"ClassDiagram\",\"nodes\":[{\"type\":\"ClassNode\",\"id\":0,\"x\":0,\"y\":0," +
+				"\"name\":\"A\",\"methods\":\"\",\"attributes\":\"\"},{\"type\":\"ClassNode\",\"id\":1,\"x\":0,\"y\":200," +
+				"\"name\":\"B\",\"methods\":\"\",\"attributes\":\"\"}],\"edges\":[{\"type\":\"DependencyEdge\",\"start\":0," +
+				"\"end\":1,\"middleLabel\":\"\"}],\"version\":\"2.4\"}").getBytes(StandardCharsets.UTF_8));
+		VersionedDiagram diagram = PersistenceService.read(tmp);
+		tmp.delete();
+		assertTrue(diagram.wasMigrated());
+		assertEquals(2, numberOfRootNodes(diagram.diagram()));
+		assertEquals(1, numberOfEdges(diagram.diagram()));
+		assertEquals(DependencyEdge.Directionality.Unidirectional, 
+				((DependencyEdge) diagram.diagram().edges().get(0)).getDirectionality());
+	}
+	
 	private void verifyUseCaseDiagram(Diagram pDiagram)
 	{
 		assertEquals(9, numberOfRootNodes(pDiagram));
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.testutils;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import javafx.application.Platform;
+
+/**
+ * Runs code on the JavaFX application thread and reports its outcome
+ * on the test thread, so that a failed assertion or an exception fails
+ * the test with its own message instead of a timeout.
+ */
+public final class JavaFXThread
+{
+	private static final int TIMEOUT = 5; // Seconds
+	
+	private JavaFXThread() {}
+	
+	/**
+	 * Runs pTask on the JavaFX application thread and waits for it to complete.
+	 * 
+	 * @param pTask The code to run.
+	 * @throws InterruptedException If the test thread is interrupted while waiting.
+	 * @pre pTask != null
+	 */
+	public static void runAndWait(Runnable pTask) throws InterruptedException
+	{
+		assert pTask != null;
+		callAndWait(() -> 
+		{
+			pTask.run();
+			return null;
+		});
+	}
+	
+	/**
+	 * Runs pTask on the JavaFX application thread, waits for it to complete,
+	 * and returns its result. Any Throwable raised by pTask is thrown again on
+	 * the calling thread.
+	 * 
+	 * @param pTask The code to run.
+	 * @return The value returned by pTask.
+	 * @throws InterruptedException If the test thread is interrupted while waiting.
+	 * @param <T> The type of the result.
+	 * @pre pTask != null
+	 */
+	public static <T> T callAndWait(Callable<T> pTask) throws InterruptedException
+	{
+		assert pTask != null;
+		JavaFXLoader.load();
+		AtomicReference<T> result = new AtomicReference<>();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		CountDownLatch done = new CountDownLatch(1);
+		Platform.runLater(() -> 
+		{
+			try
+			{
+				result.set(pTask.call());
+			}
+			catch( Throwable throwable )
+			{
+				failure.set(throwable);
+			}
+			finally
+			{
+				done.countDown();
+			}
+		});
+		assertTrue(done.await(TIMEOUT, TimeUnit.SECONDS), "Timed out on the JavaFX application thread");
+		rethrow(failure.get());
+		return result.get();
+	}
+	
+	private static void rethrow(Throwable pFailure)
+	{
+		if( pFailure instanceof Error )
+		{
+			throw (Error) pFailure;
+		}
+		if( pFailure instanceof RuntimeException )
+		{
+			throw (RuntimeException) pFailure;
+		}
+		if( pFailure != null )
+		{
+			throw new AssertionError(pFailure);
+		}
+	}
+}
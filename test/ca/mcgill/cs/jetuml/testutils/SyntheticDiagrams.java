@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *     
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.testutils;
+
+import java.util.Random;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.AssociationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.CallEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.GeneralizationEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ImplicitParameterNode;
+import ca.mcgill.cs.jetuml.geom.Point;
+
+/**
+ * Generates large diagrams for benchmarks. The diagrams are 
+ * deterministic for a given set of parameters.
+ */
+public final class SyntheticDiagrams
+{
+	private static final long SEED = 42;
+	private static final int SPACING = 200;
+	
+	private SyntheticDiagrams() {}
+	
+	/**
+	 * Creates a class diagram with pNodes classes laid out on a grid 
+	 * and pEdges random relationships between them.
+	 * 
+	 * @param pNodes The number of classes.
+	 * @param pEdges The number of relationships.
+	 * @return A new class diagram.
+	 * @pre pNodes > 1 && pEdges >= 0
+	 */
+	public static Diagram classDiagram(int pNodes, int pEdges)
+	{
+		assert pNodes > 1 && pEdges >= 0;
+		Random random = new Random(SEED);
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		int columns = (int) Math.ceil(Math.sqrt(pNodes));
+		Node[] nodes = new Node[pNodes];
+		for( int i = 0; i < pNodes; i++ )
+		{
+			ClassNode node = new ClassNode();
+			node.setName("Class" + i);
+			node.setAttributes("-aField" + i + " : int");
+			node.setMethods("+method" + i + "() : void");
+			node.moveTo(new Point((i % columns) * SPACING, (i / columns) * SPACING));
+			diagram.addRootNode(node);
+			nodes[i] = node;
+		}
+		for( int i = 0; i < pEdges; i++ )
+		{
+			Node start = nodes[random.nextInt(pNodes)];
+			Node end = nodes[random.nextInt(pNodes)];
+			while( end == start )
+			{
+				end = nodes[random.nextInt(pNodes)];
+			}
+			Edge edge = createRelationship(i);
+			edge.connect(start, end, diagram);
+			diagram.addEdge(edge);
+		}
+		return diagram;
+	}
+	
+	/**
+	 * Creates a sequence diagram with pObjects implicit parameters and
+	 * pCalls call nodes, each called by a random call node created before it.
+	 * 
+	 * @param pObjects The number of implicit parameter nodes.
+	 * @param pCalls The number of call nodes.
+	 * @return A new sequence diagram.
+	 * @pre pObjects > 0 && pCalls > 0
+	 */
+	public static Diagram sequenceDiagram(int pObjects, int pCalls)
+	{
+		assert pObjects > 0 && pCalls > 0;
+		Random random = new Random(SEED);
+		Diagram diagram = new Diagram(DiagramType.SEQUENCE);
+		ImplicitParameterNode[] objects = new ImplicitParameterNode[pObjects];
+		for( int i = 0; i < pObjects; i++ )
+		{
+			objects[i] = new ImplicitParameterNode();
+			objects[i].setName("object" + i + ":Type" + i);
+			objects[i].moveTo(new Point(i * SPACING, 0));
+			diagram.addRootNode(objects[i]);
+		}
+		CallNode[] calls = new CallNode[pCalls];
+		for( int i = 0; i < pCalls; i++ )
+		{
+			calls[i] = new CallNode();
+			objects[random.nextInt(pObjects)].addChild(calls[i]);
+			calls[i].attach(diagram);
+			if( i > 0 )
+			{
+				CallEdge edge = new CallEdge();
+				edge.setMiddleLabel("call" + i + "()");
+				edge.connect(calls[random.nextInt(i)], calls[i], diagram);
+				diagram.addEdge(edge);
+			}
+		}
+		return diagram;
+	}
+	
+	/**
+	 * Creates a diagram made of pCopies copies of pDiagram, laid out 
+	 * side by side, so that real diagrams can be scaled up.
+	 * 
+	 * @param pDiagram The diagram to copy.
+	 * @param pCopies The number of copies.
+	 * @return A new diagram of the same type as pDiagram.
+	 * @pre pDiagram != null && pCopies > 0
+	 */
+	public static Diagram scaled(Diagram pDiagram, int pCopies)
+	{
+		assert pDiagram != null && pCopies > 0;
+		Diagram diagram = new Diagram(pDiagram.getType());
+		int width = 0;
+		for( Node node : pDiagram.rootNodes() )
+		{
+			width = Math.max(width, node.position().getX());
+		}
+		width += SPACING;
+		for( int i = 0; i < pCopies; i++ )
+		{
+			Diagram copy = pDiagram.duplicate();
+			for( Node node : copy.rootNodes() )
+			{
+				node.translate(i * width, 0);
+				diagram.addRootNode(node);
+			}
+			for( Edge edge : copy.edges() )
+			{
+				edge.connect(edge.getStart(), edge.getEnd(), diagram);
+				diagram.addEdge(edge);
+			}
+		}
+		return diagram;
+	}
+	
+	private static Edge createRelationship(int pIndex)
+	{
+		switch( pIndex % 4 )
+		{
+		case 0: return new DependencyEdge();
+		case 1: return new AssociationEdge();
+		case 2: return new AggregationEdge();
+		default: return new GeneralizationEdge();
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.edges;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.geom.Line;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+import javafx.scene.shape.Arc;
+import javafx.scene.shape.ArcType;
+import javafx.scene.shape.ClosePath;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+import javafx.scene.shape.QuadCurveTo;
+
+public class TestEdgeHitArea
+{
+	private static final Line FAR_AWAY = new Line(new Point(1000, 1000), new Point(1000, 1000));
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@Test
+	public void testAroundLine()
+	{
+		Path path = new Path(new MoveTo(0, 0), new LineTo(100, 0));
+		EdgeHitArea area = EdgeHitArea.around(path, new Line(new Point(0, 0), new Point(100, 0)), 3);
+		assertTrue(area.contains(50, 0));
+		assertTrue(area.contains(50, 3));
+		assertTrue(area.contains(50, -3));
+		assertFalse(area.contains(50, 4));
+		assertFalse(area.contains(50, -4));
+		assertFalse(area.contains(1, 1));
+		assertFalse(area.contains(99, 0));
+		assertFalse(area.contains(-5, 0));
+		assertFalse(area.contains(105, 0));
+	}
+	
+	@Test
+	public void testAroundCurve()
+	{
+		Path path = new Path(new MoveTo(0, 0), new QuadCurveTo(50, 100, 100, 0));
+		EdgeHitArea area = EdgeHitArea.around(path, FAR_AWAY, 3);
+		assertTrue(area.contains(50, 50));
+		assertTrue(area.contains(50, 48));
+		assertFalse(area.contains(50, 45));
+		assertFalse(area.contains(50, 25));
+		assertFalse(area.contains(50, 100));
+		assertTrue(area.contains(0, 0));
+		assertTrue(area.contains(100, 0));
+	}
+	
+	@Test
+	public void testAroundClosedPath()
+	{
+		Path path = new Path(new MoveTo(0, 0), new LineTo(10, 0), new LineTo(10, 10), new ClosePath());
+		EdgeHitArea area = EdgeHitArea.around(path, FAR_AWAY, 3);
+		assertTrue(area.contains(5, 5));
+		assertTrue(area.contains(10, 5));
+		assertFalse(area.contains(2, 8));
+		assertFalse(area.contains(-5, 5));
+	}
+	
+	@Test
+	public void testInsideArc()
+	{
+		Arc arc = new Arc(0, 0, 10, 10, 0, 270);
+		arc.setType(ArcType.OPEN);
+		EdgeHitArea area = EdgeHitArea.inside(arc);
+		assertTrue(area.contains(-5, -5));
+		assertTrue(area.contains(-5, 5));
+		assertTrue(area.contains(5, -5));
+		assertTrue(area.contains(2, 2));
+		assertFalse(area.contains(6, 6));
+		assertFalse(area.contains(20, 0));
+		assertFalse(area.contains(-11, 0));
+	}
+	
+	@Test
+	public void testCachedUntilDiagramChanges()
+	{
+		Diagram diagram = SyntheticDiagrams.classDiagram(4, 4);
+		Edge edge = diagram.edges().get(0);
+		assertTrue(edge instanceof DependencyEdge);
+		AbstractEdgeViewer viewer = new DependencyEdgeViewer();
+		EdgeHitArea area = EdgeHitArea.of(edge, viewer);
+		assertSame(area, EdgeHitArea.of(edge, viewer));
+		edge.getEnd().translate(50, 50);
+		assertNotSame(area, EdgeHitArea.of(edge, viewer));
+	}
+	
+	@Test
+	public void testKeptAfterUnrelatedChange()
+	{
+		Diagram diagram = SyntheticDiagrams.classDiagram(4, 1);
+		Edge edge = diagram.edges().get(0);
+		AbstractEdgeViewer viewer = new DependencyEdgeViewer();
+		EdgeHitArea area = EdgeHitArea.of(edge, viewer);
+		for( Node node : diagram.rootNodes() )
+		{
+			if( node != edge.getStart() && node != edge.getEnd() )
+			{
+				node.translate(50, 50);
+			}
+		}
+		assertSame(area, EdgeHitArea.of(edge, viewer));
+		diagram.removeEdge(edge);
+		assertNotSame(area, EdgeHitArea.of(edge, viewer));
+	}
+	
+	@Test
+	public void testNotCachedWithoutDiagram()
+	{
+		Diagram diagram = SyntheticDiagrams.classDiagram(2, 0);
+		Edge edge = new DependencyEdge();
+		edge.connect(diagram.rootNodes().get(0), diagram.rootNodes().get(1), null);
+		AbstractEdgeViewer viewer = new DependencyEdgeViewer();
+		assertNotSame(EdgeHitArea.of(edge, viewer), EdgeHitArea.of(edge, viewer));
+	}
+}
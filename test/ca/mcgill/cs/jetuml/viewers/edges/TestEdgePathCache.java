@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.edges;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.edges.AggregationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.AssociationEdge;
+import ca.mcgill.cs.jetuml.diagram.edges.GeneralizationEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+
+public class TestEdgePathCache
+{
+	private static final SegmentationStyle HVH = SegmentationStyleFactory.createHVHStrategy();
+	private static final SegmentationStyle VHV = SegmentationStyleFactory.createVHVStrategy();
+	
+	private Diagram aDiagram;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setup()
+	{
+		aDiagram = SyntheticDiagrams.classDiagram(16, 40);
+	}
+	
+	private static SegmentationStyle styleOf(Edge pEdge)
+	{
+		if( pEdge instanceof GeneralizationEdge )
+		{
+			return VHV;
+		}
+		return HVH;
+	}
+	
+	private static boolean isSegmented(Edge pEdge)
+	{
+		return pEdge instanceof GeneralizationEdge || pEdge instanceof AggregationEdge || 
+				pEdge instanceof AssociationEdge;
+	}
+	
+	/*
+	 * Checks that the cached path of every segmented edge is the path
+	 * computed from scratch.
+	 */
+	private void assertPathsUpToDate()
+	{
+		for( Edge edge : aDiagram.edges() )
+		{
+			if( isSegmented(edge) )
+			{
+				assertArrayEquals(styleOf(edge).getPath(edge), EdgePathCache.getPath(edge, styleOf(edge)));
+			}
+		}
+	}
+	
+	private Edge firstSegmentedEdge()
+	{
+		for( Edge edge : aDiagram.edges() )
+		{
+			if( isSegmented(edge) )
+			{
+				return edge;
+			}
+		}
+		throw new AssertionError();
+	}
+	
+	@Test
+	public void testGetPath_Unchanged()
+	{
+		Edge edge = firstSegmentedEdge();
+		assertSame(EdgePathCache.getPath(edge, styleOf(edge)), EdgePathCache.getPath(edge, styleOf(edge)));
+	}
+	
+	@Test
+	public void testGetPath_UnrelatedChange()
+	{
+		Edge edge = firstSegmentedEdge();
+		ClassNode unconnected = new ClassNode();
+		aDiagram.addRootNode(unconnected);
+		Object path = EdgePathCache.getPath(edge, styleOf(edge));
+		unconnected.moveTo(new Point(5000, 5000));
+		unconnected.setName("Unconnected");
+		assertSame(path, EdgePathCache.getPath(edge, styleOf(edge)));
+	}
+	
+	@Test
+	public void testGetPath_EndNodeMoved()
+	{
+		Edge edge = firstSegmentedEdge();
+		Object path = EdgePathCache.getPath(edge, styleOf(edge));
+		edge.getEnd().translate(10, 0);
+		assertNotSame(path, EdgePathCache.getPath(edge, styleOf(edge)));
+	}
+	
+	/*
+	 * The path of an edge depends on the position of the other end
+	 * of the edges that share one of its ends, even if their own 
+	 * path was never computed.
+	 */
+	@Test
+	public void testGetPath_NeighborMoved()
+	{
+		Edge edge = firstSegmentedEdge();
+		Node neighbor = null;
+		for( Edge other : aDiagram.edgesConnectedTo(edge.getStart()) )
+		{
+			Node end = other.getEnd();
+			if( other.getStart() != edge.getStart() )
+			{
+				end = other.getStart();
+			}
+			if( end != edge.getStart() && end != edge.getEnd() )
+			{
+				neighbor = end;
+			}
+		}
+		Object path = EdgePathCache.getPath(edge, styleOf(edge));
+		neighbor.translate(10, 0);
+		assertNotSame(path, EdgePathCache.getPath(edge, styleOf(edge)));
+	}
+	
+	@Test
+	public void testGetPath_NodesNotInDiagram()
+	{
+		Diagram other = SyntheticDiagrams.classDiagram(2, 0);
+		Edge edge = new AggregationEdge();
+		edge.connect(other.rootNodes().get(0), other.rootNodes().get(1), aDiagram);
+		assertNotSame(EdgePathCache.getPath(edge, styleOf(edge)), EdgePathCache.getPath(edge, styleOf(edge)));
+	}
+	
+	@Test
+	public void testGetPath_AfterMoves()
+	{
+		assertPathsUpToDate();
+		aDiagram.rootNodes().get(0).translate(330, 170);
+		assertPathsUpToDate();
+		aDiagram.rootNodes().get(4).translate(-150, 40);
+		aDiagram.rootNodes().get(5).moveTo(new Point(10, 10));
+		assertPathsUpToDate();
+		((ClassNode) aDiagram.rootNodes().get(7)).setMethods("+aMuchLongerMethodName(int pFirst) : void\n+another() : void");
+		assertPathsUpToDate();
+	}
+	
+	@Test
+	public void testGetPath_AfterStructuralChanges()
+	{
+		assertPathsUpToDate();
+		Node node = aDiagram.rootNodes().get(3);
+		List<Edge> edges = new ArrayList<>();
+		aDiagram.edgesConnectedTo(node).forEach(edges::add);
+		edges.forEach(aDiagram::removeEdge);
+		assertPathsUpToDate();
+		aDiagram.removeRootNode(node);
+		assertPathsUpToDate();
+		AggregationEdge edge = new AggregationEdge();
+		edge.connect(aDiagram.rootNodes().get(1), aDiagram.rootNodes().get(8), aDiagram);
+		aDiagram.addEdge(edge);
+		assertPathsUpToDate();
+		edge.setType(AggregationEdge.Type.Composition);
+		assertPathsUpToDate();
+	}
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.edges;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.views.DisplayList;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+public class TestEdgeViewerRegistry
+{
+	private Diagram aDiagram;
+	private ClassNode aA;
+	private ClassNode aB;
+	private ClassNode aC;
+	private ClassNode aD;
+	private DependencyEdge aAB;
+	private DependencyEdge aCD;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setup()
+	{
+		aDiagram = new Diagram(DiagramType.CLASS);
+		aA = addNode(0, 0);
+		aB = addNode(300, 0);
+		aC = addNode(0, 300);
+		aD = addNode(300, 300);
+		aAB = connect(aA, aB);
+		aCD = connect(aC, aD);
+	}
+	
+	private ClassNode addNode(int pX, int pY)
+	{
+		ClassNode node = new ClassNode();
+		node.moveTo(new Point(pX, pY));
+		aDiagram.addRootNode(node);
+		return node;
+	}
+	
+	private DependencyEdge connect(ClassNode pStart, ClassNode pEnd)
+	{
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(pStart, pEnd, aDiagram);
+		aDiagram.addEdge(edge);
+		return edge;
+	}
+	
+	@Test
+	public void testGetBounds_Reused()
+	{
+		Rectangle bounds = EdgeViewerRegistry.getBounds(aAB);
+		assertSame(bounds, EdgeViewerRegistry.getBounds(aAB));
+		aC.translate(10, 10);
+		aCD.setMiddleLabel("label");
+		assertSame(bounds, EdgeViewerRegistry.getBounds(aAB));
+	}
+	
+	@Test
+	public void testGetBounds_EndNodeMoved()
+	{
+		Rectangle bounds = EdgeViewerRegistry.getBounds(aAB);
+		Rectangle other = EdgeViewerRegistry.getBounds(aCD);
+		aB.translate(0, 10);
+		assertNotSame(bounds, EdgeViewerRegistry.getBounds(aAB));
+		assertSame(other, EdgeViewerRegistry.getBounds(aCD));
+	}
+	
+	@Test
+	public void testGetBounds_EdgeEdited()
+	{
+		Rectangle bounds = EdgeViewerRegistry.getBounds(aAB);
+		aAB.setMiddleLabel("label");
+		assertNotSame(bounds, EdgeViewerRegistry.getBounds(aAB));
+	}
+	
+	/*
+	 * An edge added at an end node can change where 
+	 * the other edges are connected to this node.
+	 */
+	@Test
+	public void testGetBounds_EdgeAddedAtEndNode()
+	{
+		Rectangle bounds = EdgeViewerRegistry.getBounds(aAB);
+		Rectangle other = EdgeViewerRegistry.getBounds(aCD);
+		connect(aB, aD);
+		assertNotSame(bounds, EdgeViewerRegistry.getBounds(aAB));
+		assertNotSame(other, EdgeViewerRegistry.getBounds(aCD));
+	}
+	
+	@Test
+	public void testDraw_Reused()
+	{
+		GraphicsContext graphics = new Canvas(500, 500).getGraphicsContext2D();
+		EdgeViewerRegistry.draw(aAB, graphics);
+		DisplayList displayList = EdgeViewerRegistry.cachedDisplayList(aAB).get();
+		aC.translate(10, 10);
+		EdgeViewerRegistry.draw(aAB, graphics);
+		assertSame(displayList, EdgeViewerRegistry.cachedDisplayList(aAB).get());
+	}
+	
+	@Test
+	public void testDraw_EndNodeMoved()
+	{
+		GraphicsContext graphics = new Canvas(500, 500).getGraphicsContext2D();
+		EdgeViewerRegistry.draw(aAB, graphics);
+		EdgeViewerRegistry.draw(aCD, graphics);
+		aB.translate(0, 10);
+		assertFalse(EdgeViewerRegistry.cachedDisplayList(aAB).isPresent());
+		assertTrue(EdgeViewerRegistry.cachedDisplayList(aCD).isPresent());
+	}
+	
+	@Test
+	public void testGetBounds_NodesInOtherDiagram()
+	{
+		Diagram other = new Diagram(DiagramType.CLASS);
+		ClassNode start = new ClassNode();
+		ClassNode end = new ClassNode();
+		end.translate(300, 0);
+		other.addRootNode(start);
+		other.addRootNode(end);
+		Edge edge = new DependencyEdge();
+		edge.connect(start, end, aDiagram);
+		assertNotSame(EdgeViewerRegistry.getBounds(edge), EdgeViewerRegistry.getBounds(edge));
+		EdgeViewerRegistry.draw(edge, new Canvas(500, 500).getGraphicsContext2D());
+		assertFalse(EdgeViewerRegistry.cachedDisplayList(edge).isPresent());
+	}
+}
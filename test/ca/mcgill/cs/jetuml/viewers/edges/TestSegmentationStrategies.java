@@ -21,6 +21,7 @@
 package ca.mcgill.cs.jetuml.viewers.edges;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -572,4 +573,87 @@ public class TestSegmentationStrategies
 		assertEquals( 1061, points[3].getX(), 0.01);
 		assertEquals( 60, points[3].getY(), 0.01);
 	}
+	
+	/*
+	 * Aggregations of the same type that start at the same node share
+	 * their position on the side of this node.
+	 */
+	@Test
+	public void testAggregationPositions()
+	{
+		ClassNode hub = new ClassNode();
+		aGraph.addRootNode(hub);
+		AggregationEdge[] edges = new AggregationEdge[3];
+		for( int i = 0; i < edges.length; i++ )
+		{
+			ClassNode part = new ClassNode();
+			part.translate(500, (i + 1) * 150);
+			aGraph.addRootNode(part);
+			edges[i] = new AggregationEdge();
+			edges[i].connect(hub, part, aGraph);
+			aGraph.addEdge(edges[i]);
+		}
+		edges[1].setType(AggregationEdge.Type.Composition);
+		Point2D start0 = SegmentationStyleFactory.createHVHStrategy().getPath(edges[0])[0];
+		Point2D start1 = SegmentationStyleFactory.createHVHStrategy().getPath(edges[1])[0];
+		Point2D start2 = SegmentationStyleFactory.createHVHStrategy().getPath(edges[2])[0];
+		assertEquals(start0, start2);
+		assertNotEquals(start0, start1);
+		assertEquals(start0.getX(), start1.getX(), 0.01);
+	}
+	
+	/*
+	 * The positions of the edges on a side of a node are recomputed when an
+	 * edge attached to that side is removed.
+	 */
+	@Test
+	public void testStraightEdgeRemoved()
+	{
+		ClassNode node1 = new ClassNode();
+		ClassNode node2 = new ClassNode();
+		node2.translate(200, 0);
+		aGraph.addRootNode(node1);
+		aGraph.addRootNode(node2);
+		DependencyEdge edge1 = new DependencyEdge();
+		DependencyEdge edge2 = new DependencyEdge();
+		edge1.connect(node1, node2, aGraph);
+		aGraph.addEdge(edge1);
+		edge2.connect(node2, node1, aGraph);
+		aGraph.addEdge(edge2);
+		assertEquals( new Point2D(100,25), SegmentationStyleFactory.createStraightStrategy().getPath(edge1)[0]);
+		
+		aGraph.removeEdge(edge2);
+		
+		Point2D[] points = SegmentationStyleFactory.createStraightStrategy().getPath(edge1);
+		assertEquals( new Point2D(100,30), points[0]);
+		assertEquals( new Point2D(200,30), points[1]);
+	}
+	
+	/*
+	 * The positions of the edges on a side of a node are recomputed when 
+	 * a node at the other end of one of them moves.
+	 */
+	@Test
+	public void testStraightNodeMoved()
+	{
+		ClassNode node1 = new ClassNode();
+		ClassNode node2 = new ClassNode();
+		ClassNode node3 = new ClassNode();
+		node2.translate(200, 0);
+		node3.translate(200, 20);
+		aGraph.addRootNode(node1);
+		aGraph.addRootNode(node2);
+		aGraph.addRootNode(node3);
+		DependencyEdge edge1 = new DependencyEdge();
+		DependencyEdge edge2 = new DependencyEdge();
+		edge1.connect(node1, node2, aGraph);
+		aGraph.addEdge(edge1);
+		edge2.connect(node1, node3, aGraph);
+		aGraph.addEdge(edge2);
+		Point2D before = SegmentationStyleFactory.createStraightStrategy().getPath(edge1)[0];
+		
+		node2.translate(0, 40);
+		
+		assertNotEquals(before, SegmentationStyleFactory.createStraightStrategy().getPath(edge1)[0]);
+	}
 }
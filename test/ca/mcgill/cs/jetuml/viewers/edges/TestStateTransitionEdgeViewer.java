@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.edges;
+
+import static ca.mcgill.cs.jetuml.viewers.edges.EdgeViewerRegistry.getBounds;
+import static ca.mcgill.cs.jetuml.viewers.edges.EdgeViewerRegistry.getConnectionPoints;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.edges.StateTransitionEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.StateNode;
+import ca.mcgill.cs.jetuml.geom.Line;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+
+public class TestStateTransitionEdgeViewer
+{
+	private StateNode aStart;
+	private StateNode aEnd;
+	private StateTransitionEdge aEdge;
+	private Diagram aDiagram;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setup()
+	{
+		aDiagram = new Diagram(DiagramType.STATE);
+		aStart = new StateNode();
+		aEnd = new StateNode();
+		aEnd.translate(200, 30);
+		aDiagram.addRootNode(aStart);
+		aDiagram.addRootNode(aEnd);
+		aEdge = createEdge(aStart, aEnd);
+	}
+	
+	private StateTransitionEdge createEdge(StateNode pStart, StateNode pEnd)
+	{
+		StateTransitionEdge edge = new StateTransitionEdge();
+		edge.connect(pStart, pEnd, aDiagram);
+		aDiagram.addEdge(edge);
+		return edge;
+	}
+	
+	@Test
+	public void testBoundsFollowLabel()
+	{
+		Rectangle bounds = getBounds(aEdge);
+		aEdge.setMiddleLabel("a label that is much longer than the edge");
+		assertTrue(getBounds(aEdge).getWidth() > bounds.getWidth());
+		aEdge.setMiddleLabel("");
+		assertEquals(bounds, getBounds(aEdge));
+	}
+	
+	@Test
+	public void testConnectionPointsFollowNodes()
+	{
+		Line points = getConnectionPoints(aEdge);
+		aStart.translate(30, 40);
+		aEnd.translate(30, 40);
+		Line moved = getConnectionPoints(aEdge);
+		assertEquals(new Point(points.getX1() + 30, points.getY1() + 40), moved.getPoint1());
+		assertEquals(new Point(points.getX2() + 30, points.getY2() + 40), moved.getPoint2());
+	}
+	
+	@Test
+	public void testConnectionPointsFollowPosition()
+	{
+		Line first = getConnectionPoints(aEdge);
+		StateTransitionEdge second = createEdge(aStart, aEnd);
+		assertNotEquals(first, getConnectionPoints(second));
+		aDiagram.removeEdge(aEdge);
+		assertEquals(first, getConnectionPoints(second));
+	}
+	
+	@Test
+	public void testSelfEdgeBoundsFollowLabel()
+	{
+		StateTransitionEdge self = createEdge(aStart, aStart);
+		Rectangle bounds = getBounds(self);
+		self.setMiddleLabel("a label above the loop");
+		assertTrue(getBounds(self).getWidth() > bounds.getWidth());
+	}
+	
+	@Test
+	public void testLayoutKeptAfterUnrelatedChange()
+	{
+		StateNode other = new StateNode();
+		other.translate(0, 300);
+		aDiagram.addRootNode(other);
+		Line points = getConnectionPoints(aEdge);
+		other.translate(10, 10);
+		assertSame(points, getConnectionPoints(aEdge));
+	}
+	
+	@Test
+	public void testConnectionPointsNodesInOtherDiagram()
+	{
+		Diagram other = new Diagram(DiagramType.STATE);
+		StateNode start = new StateNode();
+		StateNode end = new StateNode();
+		end.translate(200, 30);
+		other.addRootNode(start);
+		other.addRootNode(end);
+		StateTransitionEdge edge = createEdge(start, end);
+		Line points = getConnectionPoints(edge);
+		start.translate(30, 40);
+		end.translate(30, 40);
+		assertEquals(new Point(points.getX1() + 30, points.getY1() + 40), getConnectionPoints(edge).getPoint1());
+	}
+}
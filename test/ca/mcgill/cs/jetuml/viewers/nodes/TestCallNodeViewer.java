@@ -91,6 +91,34 @@ public class TestCallNodeViewer
 		assertEquals(new Rectangle(232, 150, 16, 30), NodeViewerRegistry.getBounds(aCallNode1));
 	}	
 	
+	@Test
+	public void testGetBoundsAfterModification()
+	{
+		aImplicitParameterNode1.addChild(aDefaultCallNode1);
+		aDefaultCallNode1.attach(aDiagram);
+		aImplicitParameterNode2.addChild(aDefaultCallNode2);
+		aDefaultCallNode2.attach(aDiagram);
+		aImplicitParameterNode2.translate(200, 0);
+		aDiagram.addRootNode(aImplicitParameterNode1);
+		aDiagram.addRootNode(aImplicitParameterNode2);
+		aCallEdge1.connect(aDefaultCallNode1, aDefaultCallNode2, aDiagram);
+		aDiagram.addEdge(aCallEdge1);
+		assertEquals(new Rectangle(232, 100, 16, 30), NodeViewerRegistry.getBounds(aDefaultCallNode2));
+		
+		aImplicitParameterNode2.translate(100, 0);
+		assertEquals(new Rectangle(332, 100, 16, 30), NodeViewerRegistry.getBounds(aDefaultCallNode2));
+		
+		aImplicitParameterNode2.addChild(aCallNode1);
+		aCallNode1.attach(aDiagram);
+		aCallEdge2.connect(aDefaultCallNode1, aCallNode1, aDiagram);
+		aDiagram.addEdge(aCallEdge2);
+		assertEquals(new Rectangle(32, 80, 16, 120), NodeViewerRegistry.getBounds(aDefaultCallNode1));
+		assertEquals(new Rectangle(332, 150, 16, 30), NodeViewerRegistry.getBounds(aCallNode1));
+		
+		aDiagram.removeEdge(aCallEdge2);
+		assertEquals(new Rectangle(32, 80, 16, 70), NodeViewerRegistry.getBounds(aDefaultCallNode1));
+	}
+	
 	@Test
 	public void testGetBoundsWithConstructorCall()
 	{
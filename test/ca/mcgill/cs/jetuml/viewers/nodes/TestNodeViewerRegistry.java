@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.viewers.nodes;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.views.DisplayList;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+public class TestNodeViewerRegistry
+{
+	private Diagram aDiagram;
+	private ClassNode aA;
+	private ClassNode aB;
+	private GraphicsContext aGraphics;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@BeforeEach
+	public void setup()
+	{
+		aDiagram = new Diagram(DiagramType.CLASS);
+		aA = new ClassNode();
+		aB = new ClassNode();
+		aB.moveTo(new Point(300, 0));
+		aDiagram.addRootNode(aA);
+		aDiagram.addRootNode(aB);
+		aGraphics = new Canvas(500, 500).getGraphicsContext2D();
+	}
+	
+	@Test
+	public void testDraw_Recorded()
+	{
+		assertFalse(NodeViewerRegistry.cachedDisplayList(aA).isPresent());
+		NodeViewerRegistry.draw(aA, aGraphics);
+		DisplayList displayList = NodeViewerRegistry.cachedDisplayList(aA).get();
+		assertTrue(displayList.size() > 0);
+		NodeViewerRegistry.draw(aA, aGraphics);
+		assertSame(displayList, NodeViewerRegistry.cachedDisplayList(aA).get());
+	}
+	
+	@Test
+	public void testDraw_OtherNodeChanged()
+	{
+		NodeViewerRegistry.draw(aA, aGraphics);
+		NodeViewerRegistry.draw(aB, aGraphics);
+		DisplayList displayList = NodeViewerRegistry.cachedDisplayList(aA).get();
+		aB.translate(10, 10);
+		aB.setName("B");
+		assertSame(displayList, NodeViewerRegistry.cachedDisplayList(aA).get());
+		assertFalse(NodeViewerRegistry.cachedDisplayList(aB).isPresent());
+	}
+	
+	@Test
+	public void testDraw_NodeEdited()
+	{
+		NodeViewerRegistry.draw(aA, aGraphics);
+		aA.setName("A");
+		assertFalse(NodeViewerRegistry.cachedDisplayList(aA).isPresent());
+	}
+	
+	/*
+	 * The drawing of a package depends on its children.
+	 */
+	@Test
+	public void testDraw_ChildAdded()
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		PackageNode parent = new PackageNode();
+		diagram.addRootNode(parent);
+		NodeViewerRegistry.draw(parent, aGraphics);
+		parent.addChild(new ClassNode());
+		assertFalse(NodeViewerRegistry.cachedDisplayList(parent).isPresent());
+	}
+	
+	@Test
+	public void testDraw_NotInDiagram()
+	{
+		ClassNode node = new ClassNode();
+		NodeViewerRegistry.draw(node, aGraphics);
+		assertFalse(NodeViewerRegistry.cachedDisplayList(node).isPresent());
+	}
+}
@@ -22,6 +22,8 @@ package ca.mcgill.cs.jetuml.viewers.nodes;
 
 import static ca.mcgill.cs.jetuml.testutils.GeometryUtils.osDependent;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.awt.Graphics2D;
@@ -34,7 +36,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
 import ca.mcgill.cs.jetuml.diagram.nodes.AbstractPackageNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
 import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
 import ca.mcgill.cs.jetuml.geom.Point;
 import ca.mcgill.cs.jetuml.geom.Rectangle;
@@ -120,6 +125,33 @@ public class TestPackageNodeViewer
 		assertEqualRectangles(0,0, osDependent(102,100,101),80, NodeViewerRegistry.getBounds(aPackageNode1));
 	}
 	
+	/*
+	 * Moving a node discards the bounds of its tree only.
+	 */
+	@Test
+	public void testGetBoundsCachedUntilTreeChanges()
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		ClassNode child = new ClassNode();
+		aPackageNode1.addChild(child);
+		diagram.addRootNode(aPackageNode1);
+		PackageNode other = new PackageNode();
+		other.translate(500, 0);
+		diagram.addRootNode(other);
+		Rectangle bounds = NodeViewerRegistry.getBounds(aPackageNode1);
+		Rectangle childBounds = NodeViewerRegistry.getBounds(child);
+		Rectangle otherBounds = NodeViewerRegistry.getBounds(other);
+		assertSame(bounds, NodeViewerRegistry.getBounds(aPackageNode1));
+		
+		child.translate(100, 100);
+		assertEquals(bounds.getMaxX() + 100, NodeViewerRegistry.getBounds(aPackageNode1).getMaxX());
+		assertNotSame(childBounds, NodeViewerRegistry.getBounds(child));
+		assertSame(otherBounds, NodeViewerRegistry.getBounds(other));
+		
+		other.setName("Other");
+		assertNotSame(otherBounds, NodeViewerRegistry.getBounds(other));
+	}
+	
 	@Test
 	public void testGetTopBoundsDefault()
 	{
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.Node;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.testutils.SyntheticDiagrams;
+
+public class TestDiagramViewer
+{
+	private static final int STEP = 15;
+
+	private final DiagramViewer aViewer = new DiagramViewer();
+	private final DiagramViewer aUnindexedViewer = new DiagramViewer()
+	{
+		@Override
+		protected boolean usesSpatialIndex()
+		{
+			return false;
+		}
+	};
+	private Diagram aDiagram;
+
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+
+	@BeforeEach
+	public void setup()
+	{
+		aDiagram = SyntheticDiagrams.classDiagram(6, 10);
+	}
+
+	/*
+	 * Checks that the viewer finds the same elements as a search through all
+	 * the elements, over the entire area of the diagram.
+	 */
+	private void assertFindsAllElements()
+	{
+		Rectangle bounds = aUnindexedViewer.getBounds(aDiagram);
+		for( int x = bounds.getX() - STEP; x <= bounds.getMaxX() + STEP; x += STEP )
+		{
+			for( int y = bounds.getY() - STEP; y <= bounds.getMaxY() + STEP; y += STEP )
+			{
+				Point point = new Point(x, y);
+				assertEquals(aUnindexedViewer.findNode(aDiagram, point), aViewer.findNode(aDiagram, point));
+				assertEquals(aUnindexedViewer.findEdge(aDiagram, point), aViewer.findEdge(aDiagram, point));
+			}
+		}
+	}
+
+	@Test
+	public void testFindElements()
+	{
+		assertFindsAllElements();
+		assertFalse(aViewer.findNode(aDiagram, new Point(-1000, -1000)).isPresent());
+		assertFalse(aViewer.findEdge(aDiagram, new Point(-1000, -1000)).isPresent());
+	}
+
+	@Test
+	public void testFindElements_AfterMoves()
+	{
+		assertFindsAllElements();
+		aDiagram.rootNodes().get(0).translate(330, 170);
+		aDiagram.rootNodes().get(4).translate(-150, 40);
+		aDiagram.rootNodes().get(5).moveTo(new Point(10, 10));
+		assertFindsAllElements();
+	}
+
+	@Test
+	public void testFindElements_AfterStructuralChanges()
+	{
+		assertFindsAllElements();
+		Node node = aDiagram.rootNodes().get(3);
+		List<Edge> edges = new ArrayList<>();
+		aDiagram.edgesConnectedTo(node).forEach(edges::add);
+		edges.forEach(aDiagram::removeEdge);
+		aDiagram.removeRootNode(node);
+		assertFindsAllElements();
+
+		PackageNode packageNode = new PackageNode();
+		ClassNode child = new ClassNode();
+		packageNode.moveTo(new Point(150, 150));
+		aDiagram.addRootNode(packageNode);
+		assertFindsAllElements();
+		packageNode.addChild(child);
+		child.moveTo(new Point(170, 190));
+		assertFindsAllElements();
+		assertSame(child, aViewer.findNode(aDiagram, new Point(175, 195)).get());
+		packageNode.translate(400, 0);
+		assertFindsAllElements();
+		assertSame(child, aViewer.findNode(aDiagram, new Point(575, 195)).get());
+	}
+
+	@Test
+	public void testFindElements_AfterPropertyChanges()
+	{
+		assertFindsAllElements();
+		Node node = aDiagram.rootNodes().get(1);
+		((ClassNode) node).setMethods("+aMuchLongerMethodName(int pFirst, int pSecond) : void\n+another() : void\n+third() : void");
+		assertFindsAllElements();
+	}
+
+	@Test
+	public void testFindElements_ChildRemoved()
+	{
+		PackageNode packageNode = new PackageNode();
+		ClassNode child = new ClassNode();
+		packageNode.addChild(child);
+		packageNode.moveTo(new Point(150, 150));
+		child.moveTo(new Point(170, 190));
+		aDiagram.addRootNode(packageNode);
+		assertFindsAllElements();
+		packageNode.removeChild(child);
+		assertFindsAllElements();
+		assertSame(packageNode, aViewer.findNode(aDiagram, new Point(175, 195)).get());
+	}
+
+	/*
+	 * When several edges contain a point, the first one in the list of
+	 * edges of the diagram is found.
+	 */
+	@Test
+	public void testFindEdge_InDiagramOrder()
+	{
+		Node start = aDiagram.rootNodes().get(0);
+		Node end = aDiagram.rootNodes().get(1);
+		DependencyEdge last = new DependencyEdge();
+		last.connect(start, end, aDiagram);
+		aDiagram.addEdge(last);
+		DependencyEdge first = new DependencyEdge();
+		first.connect(start, end, aDiagram);
+		aDiagram.addEdge(0, first);
+		assertFindsAllElements();
+	}
+}
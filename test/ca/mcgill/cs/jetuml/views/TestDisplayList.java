@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.testutils.JavaFXThread;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+public class TestDisplayList
+{
+	private static final int SIZE = 400;
+	private static final int WHITE = 0xFFFFFFFF;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	private static GraphicsContext newGraphics()
+	{
+		GraphicsContext graphics = new Canvas(SIZE, SIZE).getGraphicsContext2D();
+		graphics.setFill(Color.WHITE);
+		return graphics;
+	}
+	
+	private static int[] pixels(GraphicsContext pGraphics)
+	{
+		int[] pixels = new int[SIZE * SIZE];
+		pGraphics.getCanvas().snapshot(null, null).getPixelReader()
+			.getPixels(0, 0, SIZE, SIZE, PixelFormat.getIntArgbInstance(), pixels, 0, SIZE);
+		return pixels;
+	}
+	
+	/*
+	 * Draws with pDrawing directly, while recording it, and by replaying 
+	 * the recording, and checks that the three drawings are the same.
+	 */
+	private static void assertSameDrawing(Consumer<DrawingContext> pDrawing) throws InterruptedException
+	{
+		JavaFXThread.runAndWait(() -> 
+		{
+			GraphicsContext direct = newGraphics();
+			pDrawing.accept(DrawingContext.of(direct));
+			GraphicsContext recorded = newGraphics();
+			DisplayList displayList = DisplayList.record(recorded, pDrawing);
+			GraphicsContext replayed = newGraphics();
+			displayList.replay(replayed);
+			int[] expected = pixels(direct);
+			assertFalse(Arrays.stream(expected).allMatch(pixel -> pixel == WHITE));
+			assertArrayEquals(expected, pixels(recorded));
+			assertArrayEquals(expected, pixels(replayed));
+		});
+	}
+	
+	@Test
+	public void testReplay_Shapes() throws InterruptedException
+	{
+		assertSameDrawing(graphics -> 
+		{
+			ViewUtils.drawRoundedRectangle(graphics, new Rectangle(20, 20, 100, 60));
+			ViewUtils.drawLine(graphics, 10, 200, 300, 250, LineStyle.DOTTED);
+			ViewUtils.drawText(graphics, 50, 150, "Text", Font.getDefault());
+		});
+	}
+	
+	@Test
+	public void testReplay_Shadows() throws InterruptedException
+	{
+		assertSameDrawing(graphics -> 
+		{
+			graphics.setFill(Color.WHITE);
+			ShadowSprites.fillRectangle(graphics, new Rectangle(20, 20, 100, 60), 0);
+			ShadowSprites.fillOval(graphics, new Rectangle(200, 200, 80, 40));
+		});
+	}
+	
+	/*
+	 * The diagram is drawn twice: the first time, the drawing of each element is 
+	 * recorded, and the second time, it is replayed.
+	 */
+	@Test
+	public void testReplay_Diagram() throws InterruptedException
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		PackageNode parent = new PackageNode();
+		ClassNode start = new ClassNode();
+		start.setName("Start");
+		parent.addChild(start);
+		ClassNode end = new ClassNode();
+		end.moveTo(new Point(250, 250));
+		diagram.addRootNode(parent);
+		diagram.addRootNode(end);
+		DependencyEdge edge = new DependencyEdge();
+		edge.connect(start, end, diagram);
+		diagram.addEdge(edge);
+		JavaFXThread.runAndWait(() -> 
+		{
+			GraphicsContext recorded = newGraphics();
+			DiagramType.viewerFor(diagram).draw(diagram, recorded);
+			GraphicsContext replayed = newGraphics();
+			DiagramType.viewerFor(diagram).draw(diagram, replayed);
+			assertArrayEquals(pixels(recorded), pixels(replayed));
+		});
+	}
+	
+	@Test
+	public void testRecord_StateRestored()
+	{
+		GraphicsContext graphics = newGraphics();
+		DisplayList displayList = DisplayList.record(graphics, drawing -> drawing.setFill(Color.RED));
+		assertEquals(Color.WHITE, graphics.getFill());
+		displayList.replay(graphics);
+		assertEquals(Color.WHITE, graphics.getFill());
+		assertEquals(1, displayList.size());
+	}
+	
+	/*
+	 * The dashes passed to the graphics context while recording can be 
+	 * changed afterwards without changing the recording.
+	 */
+	@Test
+	public void testRecord_LineDashesCopied() throws InterruptedException
+	{
+		double[] dashes = {8, 8};
+		JavaFXThread.runAndWait(() -> 
+		{
+			GraphicsContext expected = newGraphics();
+			DisplayList displayList = DisplayList.record(expected, drawing -> 
+			{
+				drawing.setLineDashes(dashes);
+				drawing.strokeLine(10, 10, 300, 10);
+			});
+			dashes[0] = 1;
+			GraphicsContext replayed = newGraphics();
+			displayList.replay(replayed);
+			assertArrayEquals(pixels(expected), pixels(replayed));
+		});
+	}
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.Edge;
+import ca.mcgill.cs.jetuml.diagram.edges.DependencyEdge;
+import ca.mcgill.cs.jetuml.diagram.nodes.CallNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.ImplicitParameterNode;
+import ca.mcgill.cs.jetuml.diagram.nodes.PackageNode;
+
+public class TestGeometryChange
+{
+	private Diagram aDiagram;
+	private PackageNode aPackage;
+	private ClassNode aA; // In aPackage
+	private ClassNode aB;
+	private ClassNode aC;
+	private ClassNode aD;
+	private Edge aAB;
+	private Edge aBC;
+	private Edge aCD;
+	private final List<GeometryChange> aChanges = new ArrayList<>();
+	
+	@BeforeEach
+	public void setup()
+	{
+		aDiagram = new Diagram(DiagramType.CLASS);
+		aPackage = new PackageNode();
+		aA = new ClassNode();
+		aB = new ClassNode();
+		aC = new ClassNode();
+		aD = new ClassNode();
+		aPackage.addChild(aA);
+		aDiagram.addRootNode(aPackage);
+		aDiagram.addRootNode(aB);
+		aDiagram.addRootNode(aC);
+		aDiagram.addRootNode(aD);
+		aAB = connect(aA, aB);
+		aBC = connect(aB, aC);
+		aCD = connect(aC, aD);
+		aDiagram.addListener(event -> aChanges.add(GeometryChange.of(aDiagram, event)));
+	}
+	
+	private Edge connect(ClassNode pStart, ClassNode pEnd)
+	{
+		Edge edge = new DependencyEdge();
+		edge.connect(pStart, pEnd, aDiagram);
+		aDiagram.addEdge(edge);
+		return edge;
+	}
+	
+	private GeometryChange lastChange()
+	{
+		return aChanges.get(aChanges.size() - 1);
+	}
+	
+	private static void assertElements(Iterable<?> pActual, Object... pExpected)
+	{
+		HashSet<Object> actual = new HashSet<>();
+		pActual.forEach(actual::add);
+		assertEquals(new HashSet<>(Arrays.asList(pExpected)), actual);
+	}
+	
+	@Test
+	public void testNodeMoved()
+	{
+		aA.translate(10, 10);
+		assertFalse(lastChange().affectsAll());
+		assertElements(lastChange().getNodes(), aPackage, aA);
+		assertElements(lastChange().getEdges(), aAB, aBC);
+	}
+	
+	@Test
+	public void testNodeEdited()
+	{
+		aC.setName("C");
+		assertElements(lastChange().getNodes(), aC);
+		assertElements(lastChange().getEdges(), aAB, aBC, aCD);
+	}
+	
+	@Test
+	public void testEdgeEdited()
+	{
+		((DependencyEdge) aCD).setMiddleLabel("uses");
+		assertElements(lastChange().getNodes());
+		assertElements(lastChange().getEdges(), aBC, aCD);
+	}
+	
+	@Test
+	public void testEdgeRemoved()
+	{
+		aDiagram.removeEdge(aCD);
+		assertElements(lastChange().getEdges(), aBC, aCD);
+	}
+	
+	@Test
+	public void testNodeRemoved()
+	{
+		aDiagram.removeEdge(aCD);
+		aDiagram.removeRootNode(aD);
+		assertElements(lastChange().getNodes(), aD);
+		assertElements(lastChange().getEdges());
+	}
+	
+	@Test
+	public void testCopyMoved()
+	{
+		ClassNode copy = (ClassNode) aB.clone();
+		copy.translate(10, 10);
+		assertElements(lastChange().getNodes(), copy);
+		assertElements(lastChange().getEdges());
+	}
+	
+	@Test
+	public void testNodeReordered()
+	{
+		aDiagram.placeOnTop(aB);
+		assertFalse(lastChange().affectsAll());
+		assertElements(lastChange().getNodes());
+		assertElements(lastChange().getEdges());
+	}
+	
+	@Test
+	public void testEdgeReconnected()
+	{
+		aCD.connect(aB, aD, aDiagram);
+		assertTrue(lastChange().affectsAll());
+	}
+	
+	@Test
+	public void testSequenceDiagram()
+	{
+		Diagram diagram = new Diagram(DiagramType.SEQUENCE);
+		ImplicitParameterNode object = new ImplicitParameterNode();
+		object.addChild(new CallNode());
+		diagram.addRootNode(object);
+		diagram.addListener(event -> aChanges.add(GeometryChange.of(diagram, event)));
+		object.translate(10, 0);
+		assertTrue(lastChange().affectsAll());
+	}
+}
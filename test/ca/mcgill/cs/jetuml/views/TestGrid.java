@@ -21,14 +21,56 @@
 package ca.mcgill.cs.jetuml.views;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import ca.mcgill.cs.jetuml.JavaFXLoader;
 import ca.mcgill.cs.jetuml.geom.Dimension;
 import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.testutils.JavaFXThread;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelReader;
+import javafx.scene.paint.Color;
 
 public class TestGrid
 {
+	private static final int WHITE = 0xFFFFFFFF;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	/*
+	 * The grid drawn in a region that is not aligned on the grid must 
+	 * have its lines at multiples of the grid size, and not extend outside
+	 * of the region.
+	 */
+	@Test
+	public void testDraw() throws InterruptedException
+	{
+		JavaFXThread.runAndWait(() -> 
+		{
+			Canvas canvas = new Canvas(50, 50);
+			GraphicsContext graphics = canvas.getGraphicsContext2D();
+			graphics.setFill(Color.WHITE);
+			graphics.fillRect(0, 0, 50, 50);
+			Grid.draw(graphics, new Rectangle(5, 5, 30, 30));
+			PixelReader pixels = canvas.snapshot(null, null).getPixelReader();
+			assertNotEquals(WHITE, pixels.getArgb(10, 17));
+			assertNotEquals(WHITE, pixels.getArgb(23, 30));
+			assertEquals(WHITE, pixels.getArgb(15, 15));
+			assertEquals(WHITE, pixels.getArgb(10, 2));
+			assertEquals(WHITE, pixels.getArgb(40, 40));
+			assertEquals(Color.WHITE, graphics.getFill());
+		});
+	}
+	
 	@Test
 	public void testSnapped_ToTopLeft()
 	{
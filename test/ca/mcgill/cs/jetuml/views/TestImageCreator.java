@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.diagram.Diagram;
+import ca.mcgill.cs.jetuml.diagram.DiagramType;
+import ca.mcgill.cs.jetuml.diagram.nodes.ClassNode;
+import ca.mcgill.cs.jetuml.geom.Point;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.testutils.JavaFXThread;
+import javafx.scene.image.Image;
+
+public class TestImageCreator
+{
+	private static final int PADDING = 4;
+	private static final int WHITE = 0xFFFFFFFF;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	private static Diagram diagramWithNodes(Point pSecondNode)
+	{
+		Diagram diagram = new Diagram(DiagramType.CLASS);
+		diagram.addRootNode(new ClassNode());
+		ClassNode node = new ClassNode();
+		node.moveTo(pSecondNode);
+		diagram.addRootNode(node);
+		return diagram;
+	}
+	
+	private static Image createImage(Diagram pDiagram) throws InterruptedException
+	{
+		return JavaFXThread.callAndWait(() -> ImageCreator.createImage(pDiagram));
+	}
+	
+	@Test
+	public void testCreateImage_FullSize() throws InterruptedException
+	{
+		Diagram diagram = diagramWithNodes(new Point(300, 200));
+		Image image = createImage(diagram);
+		assertFalse(ImageCreator.isScaledDown(diagram));
+		assertEquals(DiagramType.viewerFor(diagram).getBounds(diagram).getWidth() + PADDING * 2, image.getWidth());
+		assertEquals(DiagramType.viewerFor(diagram).getBounds(diagram).getHeight() + PADDING * 2, image.getHeight());
+	}
+	
+	/*
+	 * A node drawn across the boundary between two tiles appears in both.
+	 */
+	@Test
+	public void testCreateImage_Tiles() throws InterruptedException
+	{
+		Diagram diagram = diagramWithNodes(new Point(ImageCreator.TILE_SIZE - 50, 0));
+		Image image = createImage(diagram);
+		assertFalse(ImageCreator.isScaledDown(diagram));
+		Rectangle bounds = ViewerUtilities.getBounds(diagram.rootNodes().get(1));
+		int top = bounds.getY() + PADDING;
+		assertTrue(isDrawn(image, ImageCreator.TILE_SIZE - 10, top));
+		assertTrue(isDrawn(image, ImageCreator.TILE_SIZE + 10, top));
+		assertFalse(isDrawn(image, ImageCreator.TILE_SIZE + 10, top + 10));
+	}
+	
+	/*
+	 * True if a pixel around the row pY in column pX is not white.
+	 */
+	private static boolean isDrawn(Image pImage, int pX, int pY)
+	{
+		for( int y = pY - 1; y <= pY + 1; y++ )
+		{
+			if( pImage.getPixelReader().getArgb(pX, y) != WHITE )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	@Test
+	public void testCreateImage_ScaledDown() throws InterruptedException
+	{
+		Diagram diagram = diagramWithNodes(new Point(19000, 9000));
+		Image image = createImage(diagram);
+		assertTrue(ImageCreator.isScaledDown(diagram));
+		assertEquals(ImageCreator.MAX_IMAGE_SIZE, image.getWidth());
+		assertTrue(image.getHeight() < ImageCreator.MAX_IMAGE_SIZE);
+		assertTrue(image.getHeight() > ImageCreator.MAX_IMAGE_SIZE / 3);
+	}
+}
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.geom.Rectangle;
+import ca.mcgill.cs.jetuml.testutils.JavaFXThread;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelReader;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.LineTo;
+import javafx.scene.shape.MoveTo;
+import javafx.scene.shape.Path;
+
+public class TestShadowSprites
+{
+	private static final int SIZE = 200;
+	private static final int TOLERANCE = 1; // Difference allowed in each color channel
+	private static final int WHITE = 0xFFFFFFFF;
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@AfterEach
+	public void restoreMode()
+	{
+		ShadowSprites.setEnabled(true);
+	}
+	
+	/*
+	 * Draws pShape with shadows drawn with an effect and copied from sprites,
+	 * and checks that both drawings are the same, within rounding errors.
+	 */
+	private static void assertSameShadows(Consumer<DrawingContext> pShape) throws InterruptedException
+	{
+		JavaFXThread.runAndWait(() -> 
+		{
+			ShadowSprites.setEnabled(false);
+			PixelReader expected = draw(pShape);
+			ShadowSprites.setEnabled(true);
+			PixelReader actual = draw(pShape);
+			boolean shadowed = false;
+			for( int x = 0; x < SIZE; x++ )
+			{
+				for( int y = 0; y < SIZE; y++ )
+				{
+					assertTrue(isClose(expected.getArgb(x, y), actual.getArgb(x, y)), "Pixel " + x + "," + y);
+					shadowed = shadowed || expected.getArgb(x, y) != WHITE;
+				}
+			}
+			assertTrue(shadowed);
+		});
+	}
+	
+	private static PixelReader draw(Consumer<DrawingContext> pShape)
+	{
+		Canvas canvas = new Canvas(SIZE, SIZE);
+		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		graphics.setFill(Color.WHITE);
+		graphics.fillRect(0, 0, SIZE, SIZE);
+		pShape.accept(DrawingContext.of(graphics));
+		return canvas.snapshot(null, null).getPixelReader();
+	}
+	
+	private static boolean isClose(int pExpected, int pActual)
+	{
+		for( int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE )
+		{
+			if( Math.abs((pExpected >> shift & 0xFF) - (pActual >> shift & 0xFF)) > TOLERANCE )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	@Test
+	public void testRectangle() throws InterruptedException
+	{
+		assertSameShadows(graphics -> ShadowSprites.fillRectangle(graphics, new Rectangle(17, 23, 131, 97), 0));
+	}
+	
+	@Test
+	public void testRectangle_Small() throws InterruptedException
+	{
+		assertSameShadows(graphics -> ShadowSprites.fillRectangle(graphics, new Rectangle(17, 23, 8, 97), 0));
+	}
+	
+	@Test
+	public void testRoundedRectangle() throws InterruptedException
+	{
+		assertSameShadows(graphics -> ShadowSprites.fillRectangle(graphics, new Rectangle(31, 11, 82, 61), 20));
+	}
+	
+	@Test
+	public void testOval() throws InterruptedException
+	{
+		assertSameShadows(graphics -> ShadowSprites.fillOval(graphics, new Rectangle(40, 50, 110, 40)));
+	}
+	
+	@Test
+	public void testPath() throws InterruptedException
+	{
+		Path path = new Path();
+		path.getElements().addAll(new MoveTo(20, 20), new LineTo(100, 20), new LineTo(108, 28), 
+				new LineTo(108, 70), new LineTo(20, 70), new LineTo(20, 20));
+		assertSameShadows(graphics -> ToolGraphics.strokeAndFillSharpPath(graphics, path, Color.WHITE, true));
+	}
+	
+	@Test
+	public void testEnabled()
+	{
+		assertTrue(ShadowSprites.isEnabled());
+		ShadowSprites.setEnabled(false);
+		assertFalse(ShadowSprites.isEnabled());
+	}
+}
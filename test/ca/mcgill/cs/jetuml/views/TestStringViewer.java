@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * JetUML - A desktop application for fast UML diagramming.
+ *
+ * Copyright (C) 2020 by McGill University.
+ *
+ * See: https://github.com/prmr/JetUML
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see http://www.gnu.org/licenses.
+ *******************************************************************************/
+package ca.mcgill.cs.jetuml.views;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import ca.mcgill.cs.jetuml.JavaFXLoader;
+import ca.mcgill.cs.jetuml.views.StringViewer.Align;
+import javafx.geometry.Bounds;
+
+public class TestStringViewer
+{
+	private final StringViewer aPlain = new StringViewer(Align.LEFT, false, false);
+	private final StringViewer aBold = new StringViewer(Align.LEFT, true, false);
+	
+	@BeforeAll
+	public static void setupClass()
+	{
+		JavaFXLoader.load();
+	}
+	
+	@Test
+	public void testGetLayoutBounds_Hit()
+	{
+		Bounds bounds = aPlain.getLayoutBounds("testGetLayoutBounds_Hit");
+		assertSame(bounds, aPlain.getLayoutBounds("testGetLayoutBounds_Hit"));
+		assertSame(bounds, new StringViewer(Align.LEFT, false, false).getLayoutBounds("testGetLayoutBounds_Hit"));
+		assertEquals(aPlain.measure("testGetLayoutBounds_Hit"), bounds);
+	}
+	
+	/*
+	 * The least recently used measurement is evicted once the cache is full.
+	 */
+	@Test
+	public void testGetLayoutBounds_Eviction()
+	{
+		Bounds first = aPlain.getLayoutBounds("eviction0");
+		Bounds second = aPlain.getLayoutBounds("eviction1");
+		for( int i = 2; i < StringViewer.CACHE_CAPACITY; i++ )
+		{
+			aPlain.getLayoutBounds("eviction" + i);
+		}
+		assertSame(first, aPlain.getLayoutBounds("eviction0"));
+		aPlain.getLayoutBounds("eviction" + StringViewer.CACHE_CAPACITY);
+		assertSame(first, aPlain.getLayoutBounds("eviction0"));
+		assertNotSame(second, aPlain.getLayoutBounds("eviction1"));
+	}
+	
+	@Test
+	public void testGetLayoutBounds_DifferentFonts()
+	{
+		Bounds plain = aPlain.getLayoutBounds("testGetLayoutBounds_DifferentFonts");
+		Bounds bold = aBold.getLayoutBounds("testGetLayoutBounds_DifferentFonts");
+		assertNotEquals(plain.getWidth(), bold.getWidth());
+		assertSame(plain, aPlain.getLayoutBounds("testGetLayoutBounds_DifferentFonts"));
+		assertSame(bold, aBold.getLayoutBounds("testGetLayoutBounds_DifferentFonts"));
+	}
+}